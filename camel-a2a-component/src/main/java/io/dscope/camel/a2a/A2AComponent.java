@@ -1,5 +1,6 @@
 package io.dscope.camel.a2a;
 
+import io.dscope.camel.a2a.service.CachedClock;
 import org.apache.camel.Endpoint;
 import org.apache.camel.spi.annotations.Component;
 import org.apache.camel.support.DefaultComponent;
@@ -12,6 +13,8 @@ import java.util.Map;
 @Component("a2a")
 public class A2AComponent extends DefaultComponent {
 
+    private CachedClock.Lease clock;
+
     /**
      * Creates a new A2A endpoint with the given URI and parameters.
      *
@@ -27,4 +30,19 @@ public class A2AComponent extends DefaultComponent {
         setProperties(cfg, params);
         return new A2AEndpoint(uri, this, cfg, remaining);
     }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+        clock = CachedClock.start();
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (clock != null) {
+            clock.close();
+            clock = null;
+        }
+        super.doStop();
+    }
 }
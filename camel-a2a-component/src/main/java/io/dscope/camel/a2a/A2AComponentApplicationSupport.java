@@ -1,5 +1,6 @@
 package io.dscope.camel.a2a;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.regex.Pattern;
@@ -15,6 +16,7 @@ import io.dscope.camel.a2a.catalog.A2AToolRegistry;
 import io.dscope.camel.a2a.catalog.DefaultAgentCardCatalog;
 import io.dscope.camel.a2a.catalog.NoopAgentCardSigner;
 import io.dscope.camel.a2a.config.A2AProtocolMethods;
+import io.dscope.camel.a2a.id.A2AIdGenerator;
 import io.dscope.camel.a2a.processor.A2AMethodDispatchProcessor;
 import io.dscope.camel.a2a.processor.A2ADiagnosticsProcessor;
 import io.dscope.camel.a2a.processor.A2AErrorProcessor;
@@ -34,18 +36,32 @@ import io.dscope.camel.a2a.processor.ListPushNotificationConfigsProcessor;
 import io.dscope.camel.a2a.processor.SendStreamingMessageProcessor;
 import io.dscope.camel.a2a.processor.SendMessageProcessor;
 import io.dscope.camel.a2a.processor.SubscribeToTaskProcessor;
-import io.dscope.camel.a2a.service.A2APushNotificationConfigService;
+import io.dscope.camel.a2a.persistence.JournalFlowStateStore;
 import io.dscope.camel.a2a.service.A2ATaskService;
+import io.dscope.camel.a2a.service.CachedClock;
+import io.dscope.camel.a2a.service.CodecFlowStateStore;
 import io.dscope.camel.a2a.service.InMemoryA2ATaskService;
 import io.dscope.camel.a2a.service.InMemoryPushNotificationConfigService;
 import io.dscope.camel.a2a.service.InMemoryTaskEventService;
+import io.dscope.camel.a2a.service.JacksonPayloadCodec;
+import io.dscope.camel.a2a.service.LoggingPushNotificationObserver;
 import io.dscope.camel.a2a.service.PersistentA2ATaskEventService;
 import io.dscope.camel.a2a.service.PersistentA2ATaskService;
+import io.dscope.camel.a2a.service.PushDeliveryPipeline;
+import io.dscope.camel.a2a.service.StripedTaskLocks;
+import io.dscope.camel.a2a.service.TaskEventDispatcher;
+import io.dscope.camel.a2a.service.TaskEventStreamRegistry;
+import io.dscope.camel.a2a.service.TaskRetentionPolicy;
+import io.dscope.camel.a2a.service.TaskRetentionSweeper;
+import io.dscope.camel.a2a.service.WarmRestartSnapshot;
 import io.dscope.camel.a2a.service.WebhookPushNotificationNotifier;
+import io.dscope.camel.a2a.service.WriteBehindFlowStateStore;
 import io.dscope.camel.persistence.core.FlowStateStore;
 import io.dscope.camel.persistence.core.FlowStateStoreFactory;
 import io.dscope.camel.persistence.core.PersistenceConfiguration;
+import org.apache.camel.main.BaseMainSupport;
 import org.apache.camel.main.Main;
+import org.apache.camel.main.MainListenerSupport;
 import org.apache.camel.Processor;
 
 /**
@@ -55,6 +71,9 @@ public class A2AComponentApplicationSupport {
 
     private static final Pattern YAML_ROUTE_PATTERN = Pattern.compile(".*\\.(ya?ml)$");
 
+    public static final String ID_GENERATOR_PROPERTY = "a2a.id-generator";
+    public static final String PUSH_MAX_IN_FLIGHT_PER_ENDPOINT_PROPERTY = PushDeliveryPipeline.MAX_IN_FLIGHT_PER_ENDPOINT_PROPERTY;
+
     public static final String BEAN_ENVELOPE_PROCESSOR = "a2aJsonRpcEnvelopeProcessor";
     public static final String BEAN_ERROR_PROCESSOR = "a2aErrorProcessor";
     public static final String BEAN_METHOD_PROCESSOR = "a2aMethodDispatchProcessor";
@@ -62,6 +81,9 @@ public class A2AComponentApplicationSupport {
     public static final String BEAN_OUTGOING_PROCESSOR = "a2aOutgoingMessageProcessor";
     public static final String BEAN_TOOL_REGISTRY = "a2aToolRegistry";
     public static final String BEAN_TASK_SERVICE = "a2aTaskService";
+    public static final String BEAN_TASK_LOCKS = "a2aTaskLocks";
+    public static final String BEAN_ID_GENERATOR = "a2aIdGenerator";
+    public static final String BEAN_TASK_RETENTION_SWEEPER = "a2aTaskRetentionSweeper";
     public static final String BEAN_SEND_MESSAGE_PROCESSOR = "a2aSendMessageProcessor";
     public static final String BEAN_GET_TASK_PROCESSOR = "a2aGetTaskProcessor";
     public static final String BEAN_LIST_TASKS_PROCESSOR = "a2aListTasksProcessor";
@@ -69,7 +91,12 @@ public class A2AComponentApplicationSupport {
     public static final String BEAN_SEND_STREAMING_MESSAGE_PROCESSOR = "a2aSendStreamingMessageProcessor";
     public static final String BEAN_SUBSCRIBE_TO_TASK_PROCESSOR = "a2aSubscribeToTaskProcessor";
     public static final String BEAN_SSE_PROCESSOR = "a2aTaskSseProcessor";
+    public static final String BEAN_TASK_EVENT_STREAM_REGISTRY = "a2aTaskEventStreamRegistry";
     public static final String BEAN_TASK_EVENT_SERVICE = "a2aTaskEventService";
+    public static final String BEAN_TASK_EVENT_DISPATCHER = "a2aTaskEventDispatcher";
+    public static final String BEAN_PERSISTENCE_WRITER = "a2aPersistenceWriter";
+    public static final String BEAN_PERSISTENCE_JOURNAL = "a2aPersistenceJournal";
+    public static final String BEAN_WARM_RESTART_SNAPSHOT = "a2aWarmRestartSnapshot";
     public static final String BEAN_PUSH_CONFIG_SERVICE = "a2aPushConfigService";
     public static final String BEAN_CREATE_PUSH_CONFIG_PROCESSOR = "a2aCreatePushConfigProcessor";
     public static final String BEAN_GET_PUSH_CONFIG_PROCESSOR = "a2aGetPushConfigProcessor";
@@ -96,6 +123,21 @@ public class A2AComponentApplicationSupport {
         validateRouteIncludePattern(routeIncludePattern);
 
         Main main = new Main();
+        main.addMainListener(new MainListenerSupport() {
+            private CachedClock.Lease clock;
+
+            @Override
+            public void beforeStart(BaseMainSupport support) {
+                clock = CachedClock.start();
+            }
+
+            @Override
+            public void afterStop(BaseMainSupport support) {
+                if (clock != null) {
+                    clock.close();
+                }
+            }
+        });
         bindDefaultBeans(main::bind);
         if (customizer != null) {
             customizer.accept(main);
@@ -107,22 +149,65 @@ public class A2AComponentApplicationSupport {
     public void bindDefaultBeans(BeanBinder binder) {
         Objects.requireNonNull(binder, "binder must not be null");
 
-        PersistenceConfiguration persistenceConfig = PersistenceConfiguration.fromProperties(systemProperties());
+        Properties properties = systemProperties();
+        boolean journalBackend = JournalFlowStateStore.isSelected(properties);
+        // The shared configuration does not know the journal backend; it still supplies enablement and rehydration.
+        PersistenceConfiguration persistenceConfig = PersistenceConfiguration.fromProperties(
+            journalBackend ? withoutBackend(properties) : properties);
 
+        StripedTaskLocks taskLocks = new StripedTaskLocks();
+        A2AIdGenerator idGenerator = idGenerator(properties);
+        TaskEventDispatcher eventDispatcher = TaskEventDispatcher.fromProperties(properties);
         InMemoryTaskEventService taskEventService;
         A2ATaskService taskService;
+        TaskRetentionPolicy retentionPolicy = TaskRetentionPolicy.fromProperties(properties);
+        TaskRetentionSweeper retentionSweeper;
+        WriteBehindFlowStateStore persistenceWriter = null;
+        JournalFlowStateStore persistenceJournal = null;
+        InMemoryA2ATaskService inMemoryTaskService = null;
         if (persistenceConfig.enabled()) {
-            FlowStateStore stateStore = FlowStateStoreFactory.create(persistenceConfig);
-            taskEventService = new PersistentA2ATaskEventService(stateStore);
-            taskService = new PersistentA2ATaskService(stateStore, taskEventService, persistenceConfig.rehydrationPolicy());
+            persistenceJournal = journalBackend ? JournalFlowStateStore.fromProperties(properties) : null;
+            FlowStateStore backend = new CodecFlowStateStore(
+                persistenceJournal != null ? persistenceJournal : FlowStateStoreFactory.create(persistenceConfig),
+                JacksonPayloadCodec.fromProperties(properties));
+            persistenceWriter = WriteBehindFlowStateStore.fromProperties(backend, properties);
+            if (persistenceWriter.getDurability() == WriteBehindFlowStateStore.Durability.ASYNC || persistenceJournal != null) {
+                WriteBehindFlowStateStore writer = persistenceWriter;
+                JournalFlowStateStore journal = persistenceJournal;
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    try {
+                        writer.close();
+                    } finally {
+                        if (journal != null) {
+                            journal.close();
+                        }
+                    }
+                }, "a2a-persistence-writer-shutdown"));
+            }
+            FlowStateStore stateStore = persistenceWriter;
+            taskEventService = new PersistentA2ATaskEventService(stateStore, idGenerator, eventDispatcher);
+            taskService = PersistentA2ATaskService.fromProperties(
+                stateStore, taskEventService, persistenceConfig.rehydrationPolicy(), taskLocks, idGenerator, properties);
+            retentionSweeper = new TaskRetentionSweeper(null, taskEventService, retentionPolicy);
         } else {
-            taskEventService = new InMemoryTaskEventService();
-            taskService = new InMemoryA2ATaskService(taskEventService);
+            taskEventService = new InMemoryTaskEventService(256, idGenerator, eventDispatcher);
+            inMemoryTaskService = new InMemoryA2ATaskService(taskEventService, taskLocks, idGenerator);
+            retentionSweeper = new TaskRetentionSweeper(inMemoryTaskService, taskEventService, retentionPolicy);
+            taskService = inMemoryTaskService;
         }
+        retentionSweeper.start();
 
-        A2APushNotificationConfigService pushConfigService =
-            new InMemoryPushNotificationConfigService(new WebhookPushNotificationNotifier());
-        taskEventService.addListener(pushConfigService::onTaskEvent);
+        InMemoryPushNotificationConfigService pushConfigService = new InMemoryPushNotificationConfigService(
+            new WebhookPushNotificationNotifier(), List.of(new LoggingPushNotificationObserver()), 8, 1000L, idGenerator,
+            PushDeliveryPipeline.maxInFlightPerEndpoint(properties), PushDeliveryPipeline.maxQueuedPerEndpoint(properties));
+        // Without a persistence backend the resident state can still be carried across a clean restart.
+        WarmRestartSnapshot warmRestart = inMemoryTaskService == null ? null
+            : WarmRestartSnapshot.fromProperties(properties, inMemoryTaskService, taskEventService, pushConfigService);
+        if (warmRestart != null) {
+            warmRestart.load();
+            Runtime.getRuntime().addShutdownHook(new Thread(warmRestart::dump, "a2a-warm-restart-shutdown"));
+        }
+        taskEventService.addListener(pushConfigService::onTaskEvent, TaskEventDispatcher.Overflow.BLOCK);
         AgentCardSigner cardSigner = new NoopAgentCardSigner();
         AgentCardSignatureVerifier cardVerifier = new AllowAllAgentCardSignatureVerifier();
         AgentCardPolicyChecker cardPolicyChecker = new AllowAllAgentCardPolicyChecker();
@@ -144,7 +229,8 @@ public class A2AComponentApplicationSupport {
             new SendStreamingMessageProcessor(taskService, taskEventService);
         SubscribeToTaskProcessor subscribeToTaskProcessor =
             new SubscribeToTaskProcessor(taskService, taskEventService);
-        A2ATaskSseProcessor taskSseProcessor = new A2ATaskSseProcessor(taskEventService);
+        TaskEventStreamRegistry streamRegistry = TaskEventStreamRegistry.fromProperties(taskEventService, properties);
+        A2ATaskSseProcessor taskSseProcessor = new A2ATaskSseProcessor(taskEventService, streamRegistry);
         CreatePushNotificationConfigProcessor createPushConfigProcessor =
             new CreatePushNotificationConfigProcessor(pushConfigService);
         GetPushNotificationConfigProcessor getPushConfigProcessor =
@@ -158,7 +244,8 @@ public class A2AComponentApplicationSupport {
         AgentCardDiscoveryProcessor agentCardDiscoveryProcessor =
             new AgentCardDiscoveryProcessor(agentCardCatalog);
         A2ADiagnosticsProcessor diagnosticsProcessor =
-            new A2ADiagnosticsProcessor(taskService, taskEventService, pushConfigService);
+            new A2ADiagnosticsProcessor(taskService, taskEventService, pushConfigService, taskLocks, retentionSweeper, streamRegistry,
+                persistenceWriter);
 
         Map<String, Processor> methodMap = Map.ofEntries(
             Map.entry(A2AProtocolMethods.SEND_MESSAGE, sendMessageProcessor),
@@ -175,12 +262,27 @@ public class A2AComponentApplicationSupport {
         );
 
         binder.bind(BEAN_TASK_EVENT_SERVICE, taskEventService);
+        if (eventDispatcher != null) {
+            binder.bind(BEAN_TASK_EVENT_DISPATCHER, eventDispatcher);
+        }
+        if (persistenceWriter != null) {
+            binder.bind(BEAN_PERSISTENCE_WRITER, persistenceWriter);
+        }
+        if (persistenceJournal != null) {
+            binder.bind(BEAN_PERSISTENCE_JOURNAL, persistenceJournal);
+        }
+        if (warmRestart != null) {
+            binder.bind(BEAN_WARM_RESTART_SNAPSHOT, warmRestart);
+        }
         binder.bind(BEAN_PUSH_CONFIG_SERVICE, pushConfigService);
         binder.bind(BEAN_AGENT_CARD_SIGNER, cardSigner);
         binder.bind(BEAN_AGENT_CARD_VERIFIER, cardVerifier);
         binder.bind(BEAN_AGENT_CARD_POLICY_CHECKER, cardPolicyChecker);
         binder.bind(BEAN_AGENT_CARD_CATALOG, agentCardCatalog);
         binder.bind(BEAN_TASK_SERVICE, taskService);
+        binder.bind(BEAN_TASK_LOCKS, taskLocks);
+        binder.bind(BEAN_ID_GENERATOR, idGenerator);
+        binder.bind(BEAN_TASK_RETENTION_SWEEPER, retentionSweeper);
         binder.bind(BEAN_SEND_MESSAGE_PROCESSOR, sendMessageProcessor);
         binder.bind(BEAN_GET_TASK_PROCESSOR, getTaskProcessor);
         binder.bind(BEAN_LIST_TASKS_PROCESSOR, listTasksProcessor);
@@ -188,6 +290,7 @@ public class A2AComponentApplicationSupport {
         binder.bind(BEAN_SEND_STREAMING_MESSAGE_PROCESSOR, sendStreamingMessageProcessor);
         binder.bind(BEAN_SUBSCRIBE_TO_TASK_PROCESSOR, subscribeToTaskProcessor);
         binder.bind(BEAN_SSE_PROCESSOR, taskSseProcessor);
+        binder.bind(BEAN_TASK_EVENT_STREAM_REGISTRY, streamRegistry);
         binder.bind(BEAN_CREATE_PUSH_CONFIG_PROCESSOR, createPushConfigProcessor);
         binder.bind(BEAN_GET_PUSH_CONFIG_PROCESSOR, getPushConfigProcessor);
         binder.bind(BEAN_LIST_PUSH_CONFIGS_PROCESSOR, listPushConfigsProcessor);
@@ -212,6 +315,22 @@ public class A2AComponentApplicationSupport {
         }
     }
 
+    private A2AIdGenerator idGenerator(Properties properties) {
+        String type = properties.getProperty(ID_GENERATOR_PROPERTY, "time-ordered").trim();
+        return switch (type) {
+            case "time-ordered" -> A2AIdGenerator.timeOrdered();
+            case "random-uuid" -> A2AIdGenerator.randomUuid();
+            default -> throw new IllegalArgumentException("Unsupported " + ID_GENERATOR_PROPERTY + ": " + type);
+        };
+    }
+
+    private static Properties withoutBackend(Properties properties) {
+        Properties copy = new Properties();
+        copy.putAll(properties);
+        copy.remove(JournalFlowStateStore.BACKEND_PROPERTY);
+        return copy;
+    }
+
     private Properties systemProperties() {
         Properties properties = new Properties();
         properties.putAll(System.getProperties());
@@ -1,6 +1,6 @@
 package io.dscope.camel.a2a;
 
-import java.util.UUID;
+import io.dscope.camel.a2a.id.A2AIdGenerator;
 
 /**
  * Backward-compatible type alias for the A2A message model.
@@ -19,7 +19,7 @@ public class A2AMessage extends io.dscope.camel.a2a.model.A2AMessage {
         A2AMessage m = new A2AMessage();
         m.setMethod(method);
         m.setParams(params);
-        m.setId(UUID.randomUUID().toString());
+        m.setId(A2AIdGenerator.timeOrdered().nextId());
         return m;
     }
 }
@@ -0,0 +1,28 @@
+package io.dscope.camel.a2a.config;
+
+import java.util.Properties;
+
+/**
+ * Reads the numeric {@code a2a.*} settings shared by the services and stores.
+ */
+public final class A2ASettings {
+
+    private A2ASettings() {
+    }
+
+    /**
+     * @return the trimmed value of {@code key}, or {@code fallback} when it is missing or blank
+     * @throws IllegalArgumentException if the value is not a number
+     */
+    public static long longValue(Properties properties, String key, long fallback) {
+        String value = properties == null ? null : properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return fallback;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid numeric value for " + key + ": " + value, e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package io.dscope.camel.a2a.id;
+
+import java.util.UUID;
+
+/**
+ * Source of identifiers for tasks, subscriptions, push configs, persisted events and JSON-RPC requests.
+ */
+@FunctionalInterface
+public interface A2AIdGenerator {
+
+    String nextId();
+
+    /**
+     * Shared monotonic, time-ordered generator used by default.
+     */
+    static A2AIdGenerator timeOrdered() {
+        return TimeOrderedIdGenerator.SHARED;
+    }
+
+    /**
+     * Random version 4 UUIDs backed by {@link java.security.SecureRandom}.
+     */
+    static A2AIdGenerator randomUuid() {
+        return () -> UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,63 @@
+package io.dscope.camel.a2a.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates version 7 UUIDs: a 48-bit millisecond timestamp, a 12-bit counter that keeps ids strictly
+ * increasing within the same millisecond, and 62 bits of thread-local randomness. Ids sort by creation
+ * time, which keeps ordered indexes and store keys local, and avoid the shared {@code SecureRandom}
+ * behind {@link UUID#randomUUID()}.
+ */
+public class TimeOrderedIdGenerator implements A2AIdGenerator {
+
+    static final TimeOrderedIdGenerator SHARED = new TimeOrderedIdGenerator();
+
+    private static final int COUNTER_BITS = 12;
+
+    private final LongSupplier clock;
+    // Last issued (millis << COUNTER_BITS | counter); a counter overflow borrows the next millisecond.
+    private final AtomicLong lastTimestamp = new AtomicLong();
+
+    public TimeOrderedIdGenerator() {
+        this(System::currentTimeMillis);
+    }
+
+    TimeOrderedIdGenerator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public String nextId() {
+        return nextUuid().toString();
+    }
+
+    public UUID nextUuid() {
+        long timestamp = nextTimestamp();
+        long millis = timestamp >>> COUNTER_BITS;
+        long counter = timestamp & ((1L << COUNTER_BITS) - 1);
+        long mostSigBits = (millis << 16) | (0x7L << 12) | counter;
+        long leastSigBits = (ThreadLocalRandom.current().nextLong() >>> 2) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * Returns the millisecond timestamp embedded in an id produced by this generator.
+     */
+    public static long timestampMillis(String id) {
+        return UUID.fromString(id).getMostSignificantBits() >>> 16;
+    }
+
+    private long nextTimestamp() {
+        long now = (clock.getAsLong() & 0xFFFFFFFFFFFFL) << COUNTER_BITS;
+        while (true) {
+            long last = lastTimestamp.get();
+            long next = Math.max(now, last + 1);
+            if (lastTimestamp.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+}
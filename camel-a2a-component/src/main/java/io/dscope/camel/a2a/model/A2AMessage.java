@@ -1,7 +1,7 @@
 package io.dscope.camel.a2a.model;
 
-import java.util.UUID;
 import io.dscope.camel.a2a.config.A2AProtocolDefaults;
+import io.dscope.camel.a2a.id.A2AIdGenerator;
 
 /**
  * Represents a JSON-RPC 2.0 message.
@@ -17,7 +17,7 @@ public class A2AMessage {
         A2AMessage m = new A2AMessage();
         m.method = method;
         m.params = params;
-        m.id = UUID.randomUUID().toString();
+        m.id = A2AIdGenerator.timeOrdered().nextId();
         return m;
     }
 
@@ -8,6 +8,9 @@ public class PushDeliveryStats {
     private long attempts;
     private long successes;
     private long failures;
+    private long inFlight;
+    private long scheduledRetries;
+    private long rejected;
 
     public long getAttempts() {
         return attempts;
@@ -32,4 +35,28 @@ public class PushDeliveryStats {
     public void setFailures(long failures) {
         this.failures = failures;
     }
+
+    public long getInFlight() {
+        return inFlight;
+    }
+
+    public void setInFlight(long inFlight) {
+        this.inFlight = inFlight;
+    }
+
+    public long getScheduledRetries() {
+        return scheduledRetries;
+    }
+
+    public void setScheduledRetries(long scheduledRetries) {
+        this.scheduledRetries = scheduledRetries;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
 }
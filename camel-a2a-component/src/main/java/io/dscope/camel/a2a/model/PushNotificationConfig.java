@@ -1,5 +1,7 @@
 package io.dscope.camel.a2a.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.Map;
 
 /**
@@ -17,7 +19,9 @@ public class PushNotificationConfig {
     private Map<String, String> headers;
     private Map<String, Object> metadata;
     private String createdAt;
+    private long createdAtMillis;
     private String updatedAt;
+    private long updatedAtMillis;
 
     public String getConfigId() {
         return configId;
@@ -92,18 +96,54 @@ public class PushNotificationConfig {
     }
 
     public String getCreatedAt() {
-        return createdAt;
+        return createdAt != null || createdAtMillis == 0L ? createdAt : Timestamps.format(createdAtMillis);
     }
 
     public void setCreatedAt(String createdAt) {
         this.createdAt = createdAt;
+        this.createdAtMillis = 0L;
+    }
+
+    /**
+     * Epoch millis set through the millis setter, or 0 when {@link #getCreatedAt()} was supplied as ISO text.
+     */
+    @JsonIgnore
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    /**
+     * Sets the timestamp without formatting it; the ISO value is formatted on each read.
+     */
+    @JsonIgnore
+    public void setCreatedAtMillis(long createdAtMillis) {
+        this.createdAtMillis = createdAtMillis;
+        this.createdAt = null;
     }
 
     public String getUpdatedAt() {
-        return updatedAt;
+        return updatedAt != null || updatedAtMillis == 0L ? updatedAt : Timestamps.format(updatedAtMillis);
     }
 
     public void setUpdatedAt(String updatedAt) {
         this.updatedAt = updatedAt;
+        this.updatedAtMillis = 0L;
+    }
+
+    /**
+     * Epoch millis set through the millis setter, or 0 when {@link #getUpdatedAt()} was supplied as ISO text.
+     */
+    @JsonIgnore
+    public long getUpdatedAtMillis() {
+        return updatedAtMillis;
+    }
+
+    /**
+     * Sets the timestamp without formatting it; the ISO value is formatted on each read.
+     */
+    @JsonIgnore
+    public void setUpdatedAtMillis(long updatedAtMillis) {
+        this.updatedAtMillis = updatedAtMillis;
+        this.updatedAt = null;
     }
 }
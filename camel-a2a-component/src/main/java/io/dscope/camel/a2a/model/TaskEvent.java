@@ -1,5 +1,7 @@
 package io.dscope.camel.a2a.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.Map;
 
 /**
@@ -9,12 +11,16 @@ public class TaskEvent {
 
     private long sequence;
     private String taskId;
+    private String conversationId;
     private String eventType;
     private TaskState state;
     private String message;
     private String timestamp;
+    private long timestampMillis;
     private boolean terminal;
     private Map<String, Object> payload;
+    private volatile byte[] encodedJson;
+    private volatile byte[] encodedSseFrame;
 
     public long getSequence() {
         return sequence;
@@ -32,6 +38,14 @@ public class TaskEvent {
         this.taskId = taskId;
     }
 
+    public String getConversationId() {
+        return conversationId;
+    }
+
+    public void setConversationId(String conversationId) {
+        this.conversationId = conversationId;
+    }
+
     public String getEventType() {
         return eventType;
     }
@@ -57,11 +71,29 @@ public class TaskEvent {
     }
 
     public String getTimestamp() {
-        return timestamp;
+        return timestamp != null || timestampMillis == 0L ? timestamp : Timestamps.format(timestampMillis);
     }
 
     public void setTimestamp(String timestamp) {
         this.timestamp = timestamp;
+        this.timestampMillis = 0L;
+    }
+
+    /**
+     * Epoch millis set through the millis setter, or 0 when {@link #getTimestamp()} was supplied as ISO text.
+     */
+    @JsonIgnore
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    /**
+     * Sets the timestamp without formatting it; the ISO value is formatted on each read.
+     */
+    @JsonIgnore
+    public void setTimestampMillis(long timestampMillis) {
+        this.timestampMillis = timestampMillis;
+        this.timestamp = null;
     }
 
     public boolean isTerminal() {
@@ -79,4 +111,32 @@ public class TaskEvent {
     public void setPayload(Map<String, Object> payload) {
         this.payload = payload;
     }
+
+    /**
+     * JSON encoding shared by every reader of this event, or {@code null} when it has not been encoded yet.
+     * The array must not be modified.
+     */
+    @JsonIgnore
+    public byte[] getEncodedJson() {
+        return encodedJson;
+    }
+
+    @JsonIgnore
+    public void setEncodedJson(byte[] encodedJson) {
+        this.encodedJson = encodedJson;
+    }
+
+    /**
+     * SSE frame ({@code id}, {@code event} and {@code data} lines) shared by every stream, or {@code null}
+     * when it has not been encoded yet. The array must not be modified.
+     */
+    @JsonIgnore
+    public byte[] getEncodedSseFrame() {
+        return encodedSseFrame;
+    }
+
+    @JsonIgnore
+    public void setEncodedSseFrame(byte[] encodedSseFrame) {
+        this.encodedSseFrame = encodedSseFrame;
+    }
 }
@@ -1,5 +1,7 @@
 package io.dscope.camel.a2a.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.Map;
 
 /**
@@ -10,6 +12,7 @@ public class TaskStatus {
     private TaskState state;
     private String message;
     private String updatedAt;
+    private long updatedAtMillis;
     private Map<String, Object> details;
 
     public TaskState getState() {
@@ -29,11 +32,29 @@ public class TaskStatus {
     }
 
     public String getUpdatedAt() {
-        return updatedAt;
+        return updatedAt != null || updatedAtMillis == 0L ? updatedAt : Timestamps.format(updatedAtMillis);
     }
 
     public void setUpdatedAt(String updatedAt) {
         this.updatedAt = updatedAt;
+        this.updatedAtMillis = 0L;
+    }
+
+    /**
+     * Epoch millis set through the millis setter, or 0 when {@link #getUpdatedAt()} was supplied as ISO text.
+     */
+    @JsonIgnore
+    public long getUpdatedAtMillis() {
+        return updatedAtMillis;
+    }
+
+    /**
+     * Sets the timestamp without formatting it; the ISO value is formatted on each read.
+     */
+    @JsonIgnore
+    public void setUpdatedAtMillis(long updatedAtMillis) {
+        this.updatedAtMillis = updatedAtMillis;
+        this.updatedAt = null;
     }
 
     public Map<String, Object> getDetails() {
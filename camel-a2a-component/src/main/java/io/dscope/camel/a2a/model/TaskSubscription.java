@@ -1,5 +1,10 @@
 package io.dscope.camel.a2a.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+import java.util.Map;
+
 /**
  * Subscription metadata for task event streams.
  */
@@ -7,11 +12,16 @@ public class TaskSubscription {
 
     private String subscriptionId;
     private String taskId;
+    private List<String> taskIds;
+    private String conversationId;
+    private Map<String, Long> cursors;
     private long afterSequence;
     private long lastDeliveredSequence;
     private boolean terminal;
     private String createdAt;
+    private long createdAtMillis;
     private String updatedAt;
+    private long updatedAtMillis;
 
     public String getSubscriptionId() {
         return subscriptionId;
@@ -29,6 +39,39 @@ public class TaskSubscription {
         this.taskId = taskId;
     }
 
+    /**
+     * Tasks followed by a multi-task subscription, or {@code null} for a single-task or conversation subscription.
+     */
+    public List<String> getTaskIds() {
+        return taskIds;
+    }
+
+    public void setTaskIds(List<String> taskIds) {
+        this.taskIds = taskIds;
+    }
+
+    /**
+     * Conversation followed by a multi-task subscription; tasks joining it later are included.
+     */
+    public String getConversationId() {
+        return conversationId;
+    }
+
+    public void setConversationId(String conversationId) {
+        this.conversationId = conversationId;
+    }
+
+    /**
+     * Last delivered sequence per task of a multi-task subscription.
+     */
+    public Map<String, Long> getCursors() {
+        return cursors;
+    }
+
+    public void setCursors(Map<String, Long> cursors) {
+        this.cursors = cursors;
+    }
+
     public long getAfterSequence() {
         return afterSequence;
     }
@@ -54,18 +97,54 @@ public class TaskSubscription {
     }
 
     public String getCreatedAt() {
-        return createdAt;
+        return createdAt != null || createdAtMillis == 0L ? createdAt : Timestamps.format(createdAtMillis);
     }
 
     public void setCreatedAt(String createdAt) {
         this.createdAt = createdAt;
+        this.createdAtMillis = 0L;
+    }
+
+    /**
+     * Epoch millis set through the millis setter, or 0 when {@link #getCreatedAt()} was supplied as ISO text.
+     */
+    @JsonIgnore
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    /**
+     * Sets the timestamp without formatting it; the ISO value is formatted on each read.
+     */
+    @JsonIgnore
+    public void setCreatedAtMillis(long createdAtMillis) {
+        this.createdAtMillis = createdAtMillis;
+        this.createdAt = null;
     }
 
     public String getUpdatedAt() {
-        return updatedAt;
+        return updatedAt != null || updatedAtMillis == 0L ? updatedAt : Timestamps.format(updatedAtMillis);
     }
 
     public void setUpdatedAt(String updatedAt) {
         this.updatedAt = updatedAt;
+        this.updatedAtMillis = 0L;
+    }
+
+    /**
+     * Epoch millis set through the millis setter, or 0 when {@link #getUpdatedAt()} was supplied as ISO text.
+     */
+    @JsonIgnore
+    public long getUpdatedAtMillis() {
+        return updatedAtMillis;
+    }
+
+    /**
+     * Sets the timestamp without formatting it; the ISO value is formatted on each read.
+     */
+    @JsonIgnore
+    public void setUpdatedAtMillis(long updatedAtMillis) {
+        this.updatedAtMillis = updatedAtMillis;
+        this.updatedAt = null;
     }
 }
@@ -0,0 +1,17 @@
+package io.dscope.camel.a2a.model;
+
+import java.time.Instant;
+
+/**
+ * Formats the epoch-millis timestamps held by model objects into their ISO-8601 wire form. Getters format on
+ * every read instead of caching the text, so a serialized object still holds only its millis.
+ */
+final class Timestamps {
+
+    private Timestamps() {
+    }
+
+    static String format(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).toString();
+    }
+}
@@ -7,6 +7,7 @@ public class ListPushNotificationConfigsRequest {
 
     private String taskId;
     private Integer limit;
+    private String cursor;
 
     public String getTaskId() {
         return taskId;
@@ -23,4 +24,12 @@ public class ListPushNotificationConfigsRequest {
     public void setLimit(Integer limit) {
         this.limit = limit;
     }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
 }
@@ -9,6 +9,7 @@ import io.dscope.camel.a2a.model.PushNotificationConfig;
 public class ListPushNotificationConfigsResponse {
 
     private List<PushNotificationConfig> configs;
+    private String nextCursor;
 
     public List<PushNotificationConfig> getConfigs() {
         return configs;
@@ -17,4 +18,12 @@ public class ListPushNotificationConfigsResponse {
     public void setConfigs(List<PushNotificationConfig> configs) {
         this.configs = configs;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
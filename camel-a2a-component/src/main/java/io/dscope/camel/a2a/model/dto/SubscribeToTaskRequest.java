@@ -1,13 +1,18 @@
 package io.dscope.camel.a2a.model.dto;
 
+import java.util.List;
+
 /**
  * Parameters for SubscribeToTask.
  */
 public class SubscribeToTaskRequest {
 
     private String taskId;
+    private List<String> taskIds;
+    private String conversationId;
     private Long afterSequence;
     private Integer limit;
+    private Long waitMs;
 
     public String getTaskId() {
         return taskId;
@@ -17,6 +22,22 @@ public class SubscribeToTaskRequest {
         this.taskId = taskId;
     }
 
+    public List<String> getTaskIds() {
+        return taskIds;
+    }
+
+    public void setTaskIds(List<String> taskIds) {
+        this.taskIds = taskIds;
+    }
+
+    public String getConversationId() {
+        return conversationId;
+    }
+
+    public void setConversationId(String conversationId) {
+        this.conversationId = conversationId;
+    }
+
     public Long getAfterSequence() {
         return afterSequence;
     }
@@ -32,4 +53,12 @@ public class SubscribeToTaskRequest {
     public void setLimit(Integer limit) {
         this.limit = limit;
     }
+
+    public Long getWaitMs() {
+        return waitMs;
+    }
+
+    public void setWaitMs(Long waitMs) {
+        this.waitMs = waitMs;
+    }
 }
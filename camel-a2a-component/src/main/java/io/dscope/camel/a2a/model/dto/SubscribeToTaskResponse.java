@@ -1,5 +1,7 @@
 package io.dscope.camel.a2a.model.dto;
 
+import java.util.List;
+
 /**
  * Result payload for SubscribeToTask.
  */
@@ -7,6 +9,8 @@ public class SubscribeToTaskResponse {
 
     private String subscriptionId;
     private String taskId;
+    private List<String> taskIds;
+    private String conversationId;
     private long afterSequence;
     private String streamUrl;
     private boolean terminal;
@@ -27,6 +31,22 @@ public class SubscribeToTaskResponse {
         this.taskId = taskId;
     }
 
+    public List<String> getTaskIds() {
+        return taskIds;
+    }
+
+    public void setTaskIds(List<String> taskIds) {
+        this.taskIds = taskIds;
+    }
+
+    public String getConversationId() {
+        return conversationId;
+    }
+
+    public void setConversationId(String conversationId) {
+        this.conversationId = conversationId;
+    }
+
     public long getAfterSequence() {
         return afterSequence;
     }
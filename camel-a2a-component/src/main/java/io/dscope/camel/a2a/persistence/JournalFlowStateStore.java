@@ -0,0 +1,763 @@
+package io.dscope.camel.a2a.persistence;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.dscope.camel.a2a.config.A2ASettings;
+import io.dscope.camel.persistence.core.AppendResult;
+import io.dscope.camel.persistence.core.FlowStateStore;
+import io.dscope.camel.persistence.core.PersistedEvent;
+import io.dscope.camel.persistence.core.RehydratedState;
+import io.dscope.camel.persistence.core.StateEnvelope;
+import io.dscope.camel.persistence.core.exception.OptimisticConflictException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * File-backed {@link FlowStateStore} for deployments without Redis or a database. Events are appended to a
+ * journal of memory-mapped segments rolled at {@code segmentBytes}, snapshots are appended to
+ * {@code snapshots.dat}, and the location of every flow's events and latest snapshot is indexed in memory.
+ * The index is rebuilt by scanning both files on open; a torn record at the end of a file is discarded.
+ *
+ * <p>{@link FsyncPolicy#ALWAYS} forces every write to disk before returning, {@link FsyncPolicy#INTERVAL}
+ * forces outstanding writes every {@code fsyncIntervalMs} from a background thread and
+ * {@link FsyncPolicy#NEVER} leaves it to the operating system until {@link #close()}. The same thread compacts
+ * the store every {@code compactionIntervalMs}. Events covered by their flow's snapshot are dropped, except
+ * the latest event of each flow, which carries its version. Sealed segments that are mostly dropped events
+ * are rewritten or deleted, and {@code snapshots.dat} is rewritten once superseded snapshots outweigh the
+ * live ones. Reads of dropped events skip them.
+ *
+ * <p>Every operation, compaction included, runs under the store's monitor, so writes of different flows are
+ * serialized and wait out a running compaction.
+ */
+public class JournalFlowStateStore implements FlowStateStore, AutoCloseable {
+
+    public static final String BACKEND = "journal";
+    public static final String BACKEND_PROPERTY = "camel.persistence.backend";
+    public static final String DIRECTORY_PROPERTY = "camel.persistence.journal.dir";
+    public static final String SEGMENT_BYTES_PROPERTY = "camel.persistence.journal.segment-bytes";
+    public static final String FSYNC_PROPERTY = "camel.persistence.journal.fsync";
+    public static final String FSYNC_INTERVAL_MS_PROPERTY = "camel.persistence.journal.fsync-interval-ms";
+    public static final String COMPACTION_INTERVAL_MS_PROPERTY = "camel.persistence.journal.compaction-interval-ms";
+
+    public static final String DEFAULT_DIRECTORY = "a2a-journal";
+    public static final int DEFAULT_SEGMENT_BYTES = 64 * 1024 * 1024;
+
+    private static final Logger LOG = Logger.getLogger(JournalFlowStateStore.class.getName());
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Pattern SEGMENT_FILE = Pattern.compile("journal-(\\d{8})\\.seg");
+    private static final String SNAPSHOT_FILE = "snapshots.dat";
+    private static final String COMPACT_SUFFIX = ".compact";
+    private static final int MIN_SEGMENT_BYTES = 4096;
+    private static final long MIN_SNAPSHOT_GARBAGE_BYTES = 64 * 1024;
+    private static final long DROPPED = -1L;
+
+    public enum FsyncPolicy {
+        ALWAYS,
+        INTERVAL,
+        NEVER;
+
+        static FsyncPolicy parse(String value) {
+            String policy = value == null || value.isBlank() ? "interval" : value.trim();
+            return switch (policy) {
+                case "always" -> ALWAYS;
+                case "interval" -> INTERVAL;
+                case "never" -> NEVER;
+                default -> throw new IllegalArgumentException("Unsupported " + FSYNC_PROPERTY + ": " + value);
+            };
+        }
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalMs;
+    private final long compactionIntervalMs;
+    private final Map<String, Flow> flows = new HashMap<>();
+    private final TreeMap<Integer, JournalSegment> segments = new TreeMap<>();
+    private final ScheduledExecutorService maintenance;
+    private final AtomicLong fsyncs = new AtomicLong();
+    private final AtomicLong compactions = new AtomicLong();
+    private final AtomicLong reclaimedBytes = new AtomicLong();
+    private JournalSegment active;
+    private FileChannel snapshots;
+    private long snapshotFileBytes;
+    private long liveSnapshotBytes;
+    private boolean snapshotsDirty;
+    private boolean closed;
+
+    public JournalFlowStateStore(Path directory) {
+        this(directory, DEFAULT_SEGMENT_BYTES, FsyncPolicy.INTERVAL, 1_000L, 60_000L);
+    }
+
+    /**
+     * @param compactionIntervalMs delay between background compactions; {@code 0} disables them
+     */
+    public JournalFlowStateStore(Path directory,
+                                 int segmentBytes,
+                                 FsyncPolicy fsyncPolicy,
+                                 long fsyncIntervalMs,
+                                 long compactionIntervalMs) {
+        this.directory = directory;
+        this.segmentBytes = Math.max(MIN_SEGMENT_BYTES, segmentBytes);
+        this.fsyncPolicy = fsyncPolicy == null ? FsyncPolicy.INTERVAL : fsyncPolicy;
+        this.fsyncIntervalMs = Math.max(1L, fsyncIntervalMs);
+        this.compactionIntervalMs = Math.max(0L, compactionIntervalMs);
+        try {
+            open();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to open journal in " + directory, e);
+        }
+        if (this.fsyncPolicy == FsyncPolicy.INTERVAL || this.compactionIntervalMs > 0) {
+            maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "a2a-journal-maintenance");
+                thread.setDaemon(true);
+                return thread;
+            });
+            if (this.fsyncPolicy == FsyncPolicy.INTERVAL) {
+                maintenance.scheduleWithFixedDelay(this::syncQuietly, this.fsyncIntervalMs, this.fsyncIntervalMs, TimeUnit.MILLISECONDS);
+            }
+            if (this.compactionIntervalMs > 0) {
+                maintenance.scheduleWithFixedDelay(this::compactQuietly, this.compactionIntervalMs, this.compactionIntervalMs, TimeUnit.MILLISECONDS);
+            }
+        } else {
+            maintenance = null;
+        }
+    }
+
+    /**
+     * Returns whether {@code camel.persistence.backend} selects this store.
+     */
+    public static boolean isSelected(Properties properties) {
+        String backend = properties == null ? null : properties.getProperty(BACKEND_PROPERTY);
+        return backend != null && BACKEND.equals(backend.trim());
+    }
+
+    /**
+     * Opens the store described by the {@code camel.persistence.journal.*} properties.
+     */
+    public static JournalFlowStateStore fromProperties(Properties properties) {
+        String directory = properties == null ? null : properties.getProperty(DIRECTORY_PROPERTY);
+        return new JournalFlowStateStore(
+            Path.of(directory == null || directory.isBlank() ? DEFAULT_DIRECTORY : directory.trim()),
+            (int) A2ASettings.longValue(properties, SEGMENT_BYTES_PROPERTY, DEFAULT_SEGMENT_BYTES),
+            FsyncPolicy.parse(properties == null ? null : properties.getProperty(FSYNC_PROPERTY)),
+            A2ASettings.longValue(properties, FSYNC_INTERVAL_MS_PROPERTY, 1_000L),
+            A2ASettings.longValue(properties, COMPACTION_INTERVAL_MS_PROPERTY, 60_000L)
+        );
+    }
+
+    @Override
+    public synchronized RehydratedState rehydrate(String flowType, String flowId) {
+        ensureOpen();
+        Flow flow = flows.get(key(flowType, flowId));
+        if (flow == null) {
+            return new RehydratedState(new StateEnvelope(flowType, flowId, 0L, 0L, null, null, Map.of()), List.of());
+        }
+        JsonNode snapshot = null;
+        Map<String, Object> metadata = Map.of();
+        if (flow.snapshotOffset >= 0) {
+            JsonNode record = readSnapshotRecord(flow);
+            snapshot = payload(record.get("s"));
+            metadata = MAPPER.convertValue(record.path("m"), new TypeReference<Map<String, Object>>() {});
+        }
+        StateEnvelope envelope = new StateEnvelope(flowType, flowId, flow.version, flow.snapshotVersion, snapshot,
+            flow.snapshotUpdatedAt, metadata == null ? Map.of() : metadata);
+        return new RehydratedState(envelope, read(flow, flow.snapshotVersion, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public synchronized AppendResult appendEvents(String flowType, String flowId, long expectedVersion, List<PersistedEvent> events, String idempotencyKey) {
+        ensureOpen();
+        Flow flow = flows.get(key(flowType, flowId));
+        long current = flow == null ? 0L : flow.version;
+        if (idempotencyKey != null && flow != null && flow.idempotencyKeys != null && flow.idempotencyKeys.contains(idempotencyKey)) {
+            return new AppendResult(current, current, true);
+        }
+        if (expectedVersion != current) {
+            throw new OptimisticConflictException("Expected version " + expectedVersion + " of " + flowType + "/" + flowId
+                + " but was " + current);
+        }
+        if (events == null || events.isEmpty()) {
+            return new AppendResult(current, current, false);
+        }
+        if (flow == null) {
+            flow = flow(flowType, flowId);
+        }
+        try {
+            for (int i = 0; i < events.size(); i++) {
+                long sequence = current + i + 1;
+                byte[] body = eventRecord(flowType, flowId, sequence, events.get(i), i == 0 ? idempotencyKey : null);
+                flow.place(sequence, write(body));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to append to journal for " + flowType + "/" + flowId, e);
+        }
+        if (idempotencyKey != null) {
+            flow.idempotencyKeys().add(idempotencyKey);
+        }
+        afterWrite();
+        return new AppendResult(current, flow.version, false);
+    }
+
+    @Override
+    public synchronized void writeSnapshot(String flowType, String flowId, long snapshotVersion, JsonNode snapshot, Map<String, Object> metadata) {
+        ensureOpen();
+        Flow flow = flow(flowType, flowId);
+        if (flow.snapshotOffset >= 0 && snapshotVersion < flow.snapshotVersion) {
+            return;
+        }
+        String updatedAt = Instant.now().toString();
+        ObjectNode record = MAPPER.createObjectNode();
+        record.put("ft", flowType);
+        record.put("fi", flowId);
+        record.put("v", snapshotVersion);
+        record.put("at", updatedAt);
+        record.set("s", snapshot);
+        record.set("m", MAPPER.valueToTree(metadata == null ? Map.of() : metadata));
+        try {
+            byte[] body = MAPPER.writeValueAsBytes(record);
+            ByteBuffer frame = ByteBuffer.allocate(JournalSegment.HEADER_BYTES + body.length);
+            frame.putInt(body.length).putInt(JournalSegment.crc(body)).put(body).flip();
+            long offset = snapshotFileBytes;
+            writeFully(snapshots, frame, offset);
+            snapshotFileBytes += frame.capacity();
+            snapshotsDirty = true;
+            indexSnapshot(flow, snapshotVersion, offset, frame.capacity(), updatedAt);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write snapshot for " + flowType + "/" + flowId, e);
+        }
+        afterWrite();
+    }
+
+    @Override
+    public synchronized List<PersistedEvent> readEvents(String flowType, String flowId, long afterSequence, int limit) {
+        ensureOpen();
+        Flow flow = flows.get(key(flowType, flowId));
+        if (flow == null || limit <= 0) {
+            return List.of();
+        }
+        return read(flow, afterSequence, limit);
+    }
+
+    /**
+     * Forces journal and snapshot writes not yet on disk.
+     */
+    public synchronized void sync() {
+        if (closed) {
+            return;
+        }
+        try {
+            boolean forced = active.force();
+            if (snapshotsDirty) {
+                snapshots.force(false);
+                snapshotsDirty = false;
+                forced = true;
+            }
+            if (forced) {
+                fsyncs.incrementAndGet();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to sync journal in " + directory, e);
+        }
+    }
+
+    /**
+     * Runs one compaction pass immediately.
+     */
+    public synchronized void compact() {
+        ensureOpen();
+        try {
+            for (JournalSegment segment : new ArrayList<>(segments.values())) {
+                if (segment != active) {
+                    compact(segment);
+                }
+            }
+            long garbage = snapshotFileBytes - liveSnapshotBytes;
+            if (garbage > Math.max(liveSnapshotBytes, MIN_SNAPSHOT_GARBAGE_BYTES)) {
+                rewriteSnapshots();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to compact journal in " + directory, e);
+        }
+        compactions.incrementAndGet();
+    }
+
+    @Override
+    public void close() {
+        if (maintenance != null) {
+            maintenance.shutdown();
+            try {
+                maintenance.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                for (JournalSegment segment : segments.values()) {
+                    segment.close();
+                }
+                snapshots.force(true);
+                snapshots.close();
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, "Failed to close journal in " + directory, e);
+            }
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public int getSegmentBytes() {
+        return segmentBytes;
+    }
+
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    public long getFsyncIntervalMs() {
+        return fsyncIntervalMs;
+    }
+
+    public long getCompactionIntervalMs() {
+        return compactionIntervalMs;
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    public synchronized long getJournalBytes() {
+        long bytes = 0L;
+        for (JournalSegment segment : segments.values()) {
+            bytes += segment.writtenBytes();
+        }
+        return bytes;
+    }
+
+    public synchronized long getSnapshotFileBytes() {
+        return snapshotFileBytes;
+    }
+
+    public long getFsyncCount() {
+        return fsyncs.get();
+    }
+
+    public long getCompactionCount() {
+        return compactions.get();
+    }
+
+    public long getReclaimedBytes() {
+        return reclaimedBytes.get();
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+        snapshots = FileChannel.open(directory.resolve(SNAPSHOT_FILE),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        loadSnapshots();
+
+        List<Integer> ids = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                Matcher matcher = SEGMENT_FILE.matcher(name);
+                if (matcher.matches()) {
+                    ids.add(Integer.parseInt(matcher.group(1)));
+                } else if (name.endsWith(COMPACT_SUFFIX)) {
+                    // Left behind by a compaction that did not finish; the original file is still in place.
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        ids.sort(null);
+        for (int id : ids) {
+            JournalSegment segment = JournalSegment.open(JournalSegment.path(directory, id), id);
+            if (segment.scan((offset, body) -> replayEvent(id, offset, body))) {
+                LOG.log(Level.WARNING, "Discarded a torn record at the end of journal segment {0}", segment.path());
+            }
+            segments.put(id, segment);
+        }
+        active = segments.isEmpty() ? newSegment(1, segmentBytes) : segments.lastEntry().getValue();
+    }
+
+    private void loadSnapshots() throws IOException {
+        long size = snapshots.size();
+        long offset = 0L;
+        ByteBuffer header = ByteBuffer.allocate(JournalSegment.HEADER_BYTES);
+        while (offset + JournalSegment.HEADER_BYTES <= size) {
+            header.clear();
+            readFully(snapshots, header, offset);
+            int length = header.getInt(0);
+            if (length <= 0 || length > size - offset - JournalSegment.HEADER_BYTES) {
+                break;
+            }
+            ByteBuffer body = ByteBuffer.allocate(length);
+            readFully(snapshots, body, offset + JournalSegment.HEADER_BYTES);
+            if (JournalSegment.crc(body.array()) != header.getInt(4)) {
+                break;
+            }
+            JsonNode record = MAPPER.readTree(body.array());
+            Flow flow = flow(record.get("ft").asText(), record.get("fi").asText());
+            indexSnapshot(flow, record.get("v").asLong(), offset, JournalSegment.HEADER_BYTES + length, record.path("at").asText(null));
+            offset += JournalSegment.HEADER_BYTES + length;
+        }
+        if (offset < size) {
+            LOG.log(Level.WARNING, "Discarded a torn record at the end of {0}", directory.resolve(SNAPSHOT_FILE));
+            snapshots.truncate(offset);
+        }
+        snapshotFileBytes = offset;
+    }
+
+    private void replayEvent(int segmentId, int offset, byte[] body) throws IOException {
+        JsonNode record = MAPPER.readTree(body);
+        Flow flow = flow(record.get("ft").asText(), record.get("fi").asText());
+        long sequence = record.get("seq").asLong();
+        if (sequence <= flow.version) {
+            return;
+        }
+        flow.place(sequence, position(segmentId, offset));
+        String batchKey = record.path("bk").asText(null);
+        if (batchKey != null) {
+            flow.idempotencyKeys().add(batchKey);
+        }
+    }
+
+    private void indexSnapshot(Flow flow, long version, long offset, int recordBytes, String updatedAt) {
+        if (flow.snapshotOffset >= 0) {
+            if (version < flow.snapshotVersion) {
+                return;
+            }
+            liveSnapshotBytes -= flow.snapshotBytes;
+        }
+        flow.snapshotVersion = version;
+        flow.snapshotOffset = offset;
+        flow.snapshotBytes = recordBytes;
+        flow.snapshotUpdatedAt = updatedAt;
+        liveSnapshotBytes += recordBytes;
+    }
+
+    private List<PersistedEvent> read(Flow flow, long afterSequence, int limit) {
+        List<PersistedEvent> events = new ArrayList<>();
+        for (long sequence = Math.max(afterSequence + 1, flow.firstSequence); sequence <= flow.version && events.size() < limit; sequence++) {
+            long position = flow.positions[(int) (sequence - flow.firstSequence)];
+            if (position == DROPPED) {
+                continue;
+            }
+            JsonNode record;
+            try {
+                record = MAPPER.readTree(segments.get(segmentId(position)).read(offset(position)));
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to read journal record " + sequence + " of " + flow.flowType + "/" + flow.flowId, e);
+            }
+            events.add(new PersistedEvent(record.path("id").asText(null), flow.flowType, flow.flowId, sequence,
+                record.path("type").asText(null), payload(record.get("p")), record.path("at").asText(null),
+                record.path("ik").asText(null)));
+        }
+        return events;
+    }
+
+    private JsonNode readSnapshotRecord(Flow flow) {
+        try {
+            ByteBuffer body = ByteBuffer.allocate(flow.snapshotBytes - JournalSegment.HEADER_BYTES);
+            readFully(snapshots, body, flow.snapshotOffset + JournalSegment.HEADER_BYTES);
+            return MAPPER.readTree(body.array());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read snapshot of " + flow.flowType + "/" + flow.flowId, e);
+        }
+    }
+
+    private long write(byte[] body) throws IOException {
+        int offset = active.append(body);
+        if (offset < 0) {
+            if (fsyncPolicy != FsyncPolicy.NEVER) {
+                active.force();
+            }
+            active = newSegment(active.id() + 1, Math.max(segmentBytes, JournalSegment.HEADER_BYTES + body.length));
+            offset = active.append(body);
+        }
+        return position(active.id(), offset);
+    }
+
+    private JournalSegment newSegment(int id, int capacity) throws IOException {
+        JournalSegment segment = JournalSegment.create(JournalSegment.path(directory, id), id, capacity);
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private void afterWrite() {
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            sync();
+        }
+    }
+
+    private void compact(JournalSegment segment) throws IOException {
+        List<Record> live = new ArrayList<>();
+        List<Record> dropped = new ArrayList<>();
+        int[] liveBytes = {0};
+        segment.forEach((offset, body) -> {
+            JsonNode record = MAPPER.readTree(body);
+            Flow flow = flows.get(key(record.get("ft").asText(), record.get("fi").asText()));
+            long sequence = record.get("seq").asLong();
+            if (flow == null || !flow.holds(sequence, position(segment.id(), offset))) {
+                return;
+            }
+            if (sequence <= flow.snapshotVersion && sequence < flow.version) {
+                dropped.add(new Record(flow, sequence, body));
+            } else {
+                live.add(new Record(flow, sequence, body));
+                liveBytes[0] += JournalSegment.HEADER_BYTES + body.length;
+            }
+        });
+        int writtenBytes = segment.writtenBytes();
+        // Segments that are still mostly live are left for a later pass.
+        if (liveBytes[0] * 2L > writtenBytes) {
+            return;
+        }
+        Path path = segment.path();
+        if (live.isEmpty()) {
+            segment.close();
+            segments.remove(segment.id());
+            JournalSegment.delete(path);
+        } else {
+            Path compacted = path.resolveSibling(path.getFileName() + COMPACT_SUFFIX);
+            JournalSegment copy = JournalSegment.create(compacted, segment.id(), liveBytes[0]);
+            int[] offsets = new int[live.size()];
+            for (int i = 0; i < live.size(); i++) {
+                offsets[i] = copy.append(live.get(i).body);
+            }
+            copy.close();
+            segment.close();
+            Files.move(compacted, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            JournalSegment reopened = JournalSegment.open(path, segment.id());
+            reopened.scan((offset, body) -> { });
+            segments.put(segment.id(), reopened);
+            for (int i = 0; i < live.size(); i++) {
+                Record record = live.get(i);
+                record.flow.relocate(record.sequence, position(segment.id(), offsets[i]));
+            }
+        }
+        Set<Flow> touched = new HashSet<>();
+        for (Record record : dropped) {
+            record.flow.relocate(record.sequence, DROPPED);
+            touched.add(record.flow);
+        }
+        touched.forEach(Flow::trim);
+        reclaimedBytes.addAndGet(writtenBytes - liveBytes[0]);
+    }
+
+    private void rewriteSnapshots() throws IOException {
+        Path path = directory.resolve(SNAPSHOT_FILE);
+        Path compacted = directory.resolve(SNAPSHOT_FILE + COMPACT_SUFFIX);
+        Map<Flow, Long> offsets = new HashMap<>();
+        long offset = 0L;
+        try (FileChannel copy = FileChannel.open(compacted,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (Flow flow : flows.values()) {
+                if (flow.snapshotOffset < 0) {
+                    continue;
+                }
+                ByteBuffer frame = ByteBuffer.allocate(flow.snapshotBytes);
+                readFully(snapshots, frame, flow.snapshotOffset);
+                frame.flip();
+                writeFully(copy, frame, offset);
+                offsets.put(flow, offset);
+                offset += flow.snapshotBytes;
+            }
+            copy.force(true);
+        }
+        snapshots.close();
+        Files.move(compacted, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        snapshots = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        offsets.forEach((flow, snapshotOffset) -> flow.snapshotOffset = snapshotOffset);
+        reclaimedBytes.addAndGet(snapshotFileBytes - offset);
+        snapshotFileBytes = offset;
+        liveSnapshotBytes = offset;
+        snapshotsDirty = false;
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "Journal sync failed", e);
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "Journal compaction failed", e);
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Journal in " + directory + " is closed");
+        }
+    }
+
+    private Flow flow(String flowType, String flowId) {
+        return flows.computeIfAbsent(key(flowType, flowId), ignored -> new Flow(flowType, flowId));
+    }
+
+    private static byte[] eventRecord(String flowType, String flowId, long sequence, PersistedEvent event, String batchKey) throws IOException {
+        ObjectNode record = MAPPER.createObjectNode();
+        record.put("ft", flowType);
+        record.put("fi", flowId);
+        record.put("seq", sequence);
+        record.put("id", event.eventId());
+        record.put("type", event.eventType());
+        record.set("p", event.payload());
+        record.put("at", event.occurredAt());
+        if (event.idempotencyKey() != null) {
+            record.put("ik", event.idempotencyKey());
+        }
+        if (batchKey != null) {
+            record.put("bk", batchKey);
+        }
+        return MAPPER.writeValueAsBytes(record);
+    }
+
+    private static JsonNode payload(JsonNode node) {
+        return node == null || node.isNull() ? null : node;
+    }
+
+    private static String key(String flowType, String flowId) {
+        return flowType + '\u0000' + flowId;
+    }
+
+    private static long position(int segmentId, int offset) {
+        return ((long) segmentId << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    private static int segmentId(long position) {
+        return (int) (position >>> 32);
+    }
+
+    private static int offset(long position) {
+        return (int) position;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file at " + (position + buffer.position()));
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    private record Record(Flow flow, long sequence, byte[] body) {
+    }
+
+    /**
+     * Index of one flow: the journal position of each sequence from {@code firstSequence} to {@code version}
+     * ({@link #DROPPED} once compacted away) and the location of its latest snapshot.
+     */
+    private static final class Flow {
+        private final String flowType;
+        private final String flowId;
+        private long version;
+        private long firstSequence = 1L;
+        private long[] positions = new long[4];
+        private int count;
+        private long snapshotVersion;
+        private long snapshotOffset = -1L;
+        private int snapshotBytes;
+        private String snapshotUpdatedAt;
+        private Set<String> idempotencyKeys;
+
+        private Flow(String flowType, String flowId) {
+            this.flowType = flowType;
+            this.flowId = flowId;
+        }
+
+        private void place(long sequence, long position) {
+            if (count == 0) {
+                firstSequence = sequence;
+            } else {
+                // Sequences dropped by an earlier compaction leave gaps after a restart.
+                while (version + 1 < sequence) {
+                    add(DROPPED);
+                    version++;
+                }
+            }
+            add(position);
+            version = sequence;
+        }
+
+        private boolean holds(long sequence, long position) {
+            return sequence >= firstSequence && sequence <= version && positions[(int) (sequence - firstSequence)] == position;
+        }
+
+        private void relocate(long sequence, long position) {
+            positions[(int) (sequence - firstSequence)] = position;
+        }
+
+        private void trim() {
+            int leading = 0;
+            while (leading < count - 1 && positions[leading] == DROPPED) {
+                leading++;
+            }
+            if (leading > 0) {
+                positions = Arrays.copyOfRange(positions, leading, Math.max(4, count));
+                count -= leading;
+                firstSequence += leading;
+            }
+        }
+
+        private Set<String> idempotencyKeys() {
+            if (idempotencyKeys == null) {
+                idempotencyKeys = new HashSet<>();
+            }
+            return idempotencyKeys;
+        }
+
+        private void add(long position) {
+            if (count == positions.length) {
+                positions = Arrays.copyOf(positions, count * 2);
+            }
+            positions[count++] = position;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package io.dscope.camel.a2a.persistence;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * One memory-mapped file of the event journal. Records are framed as {@code [length][crc32][body]} and
+ * appended until the mapping is full; a zero length marks the end of the written region. Not thread-safe;
+ * {@link JournalFlowStateStore} only touches segments while holding its own monitor.
+ */
+final class JournalSegment {
+
+    static final int HEADER_BYTES = 8;
+
+    private final int id;
+    private final Path path;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int writeOffset;
+    private int syncedOffset;
+
+    private JournalSegment(int id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.id = id;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static JournalSegment create(Path path, int id, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new JournalSegment(id, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+    }
+
+    static JournalSegment open(Path path, int id) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new JournalSegment(id, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+    }
+
+    /**
+     * Visits every intact record from the start of the segment and positions the write offset after the last
+     * one. A torn or corrupt record ends the scan and the rest of the segment is cleared.
+     *
+     * @return {@code true} if a torn or corrupt record was found
+     */
+    boolean scan(RecordVisitor visitor) throws IOException {
+        int offset = 0;
+        boolean torn = false;
+        while (offset + HEADER_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(offset);
+            if (length == 0) {
+                break;
+            }
+            if (length < 0 || length > buffer.capacity() - offset - HEADER_BYTES) {
+                torn = true;
+                break;
+            }
+            byte[] body = new byte[length];
+            buffer.get(offset + HEADER_BYTES, body);
+            if (crc(body) != buffer.getInt(offset + 4)) {
+                torn = true;
+                break;
+            }
+            visitor.visit(offset, body);
+            offset += HEADER_BYTES + length;
+        }
+        writeOffset = offset;
+        syncedOffset = offset;
+        if (torn) {
+            for (int i = offset; i < buffer.capacity(); i++) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+        return torn;
+    }
+
+    /**
+     * Visits the records written so far, which {@link #scan} has already verified.
+     */
+    void forEach(RecordVisitor visitor) throws IOException {
+        int offset = 0;
+        while (offset < writeOffset) {
+            byte[] body = read(offset);
+            visitor.visit(offset, body);
+            offset += HEADER_BYTES + body.length;
+        }
+    }
+
+    /**
+     * @return the offset of the appended record, or {@code -1} if the segment has no room for it
+     */
+    int append(byte[] body) {
+        int recordBytes = HEADER_BYTES + body.length;
+        if (recordBytes > buffer.capacity() - writeOffset) {
+            return -1;
+        }
+        int offset = writeOffset;
+        buffer.put(offset + HEADER_BYTES, body);
+        buffer.putInt(offset + 4, crc(body));
+        // The length goes in last so a record is only visible once its body and checksum are written.
+        buffer.putInt(offset, body.length);
+        writeOffset += recordBytes;
+        return offset;
+    }
+
+    byte[] read(int offset) {
+        byte[] body = new byte[buffer.getInt(offset)];
+        buffer.get(offset + HEADER_BYTES, body);
+        return body;
+    }
+
+    boolean force() {
+        if (syncedOffset == writeOffset) {
+            return false;
+        }
+        buffer.force(syncedOffset, writeOffset - syncedOffset);
+        syncedOffset = writeOffset;
+        return true;
+    }
+
+    void close() throws IOException {
+        force();
+        channel.close();
+        // The mapping itself is released when the buffer is collected.
+        buffer = null;
+        channel = null;
+    }
+
+    int id() {
+        return id;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    int writtenBytes() {
+        return writeOffset;
+    }
+
+    static int crc(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    static Path path(Path directory, int id) {
+        return directory.resolve(String.format("journal-%08d.seg", id));
+    }
+
+    static void delete(Path path) throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @FunctionalInterface
+    interface RecordVisitor {
+        void visit(int offset, byte[] body) throws IOException;
+    }
+}
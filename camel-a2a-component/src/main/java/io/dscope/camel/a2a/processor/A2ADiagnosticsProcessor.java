@@ -10,6 +10,12 @@ import io.dscope.camel.a2a.model.dto.ListTasksRequest;
 import io.dscope.camel.a2a.service.A2APushNotificationConfigService;
 import io.dscope.camel.a2a.service.A2ATaskService;
 import io.dscope.camel.a2a.service.InMemoryTaskEventService;
+import io.dscope.camel.a2a.service.PersistentA2ATaskService;
+import io.dscope.camel.a2a.service.StripedTaskLocks;
+import io.dscope.camel.a2a.service.TaskEventDispatcher;
+import io.dscope.camel.a2a.service.TaskEventStreamRegistry;
+import io.dscope.camel.a2a.service.TaskRetentionSweeper;
+import io.dscope.camel.a2a.service.WriteBehindFlowStateStore;
 
 import java.time.Instant;
 import java.util.LinkedHashMap;
@@ -26,13 +32,48 @@ public class A2ADiagnosticsProcessor implements Processor {
     private final A2ATaskService taskService;
     private final InMemoryTaskEventService taskEventService;
     private final A2APushNotificationConfigService pushConfigService;
+    private final StripedTaskLocks taskLocks;
+    private final TaskRetentionSweeper retentionSweeper;
+    private final TaskEventStreamRegistry streamRegistry;
+    private final WriteBehindFlowStateStore persistenceWriter;
 
     public A2ADiagnosticsProcessor(A2ATaskService taskService,
                                    InMemoryTaskEventService taskEventService,
                                    A2APushNotificationConfigService pushConfigService) {
+        this(taskService, taskEventService, pushConfigService, null, null);
+    }
+
+    public A2ADiagnosticsProcessor(A2ATaskService taskService,
+                                   InMemoryTaskEventService taskEventService,
+                                   A2APushNotificationConfigService pushConfigService,
+                                   StripedTaskLocks taskLocks,
+                                   TaskRetentionSweeper retentionSweeper) {
+        this(taskService, taskEventService, pushConfigService, taskLocks, retentionSweeper, null);
+    }
+
+    public A2ADiagnosticsProcessor(A2ATaskService taskService,
+                                   InMemoryTaskEventService taskEventService,
+                                   A2APushNotificationConfigService pushConfigService,
+                                   StripedTaskLocks taskLocks,
+                                   TaskRetentionSweeper retentionSweeper,
+                                   TaskEventStreamRegistry streamRegistry) {
+        this(taskService, taskEventService, pushConfigService, taskLocks, retentionSweeper, streamRegistry, null);
+    }
+
+    public A2ADiagnosticsProcessor(A2ATaskService taskService,
+                                   InMemoryTaskEventService taskEventService,
+                                   A2APushNotificationConfigService pushConfigService,
+                                   StripedTaskLocks taskLocks,
+                                   TaskRetentionSweeper retentionSweeper,
+                                   TaskEventStreamRegistry streamRegistry,
+                                   WriteBehindFlowStateStore persistenceWriter) {
         this.taskService = taskService;
         this.taskEventService = taskEventService;
         this.pushConfigService = pushConfigService;
+        this.taskLocks = taskLocks;
+        this.retentionSweeper = retentionSweeper;
+        this.streamRegistry = streamRegistry;
+        this.persistenceWriter = persistenceWriter;
     }
 
     @Override
@@ -49,14 +90,76 @@ public class A2ADiagnosticsProcessor implements Processor {
         payload.put("tasks", Map.of("total", taskCount));
         payload.put("streaming", Map.of(
             "activeSubscriptions", subscriptionCount,
-            "bufferedEvents", eventBacklogCount
+            "subscriptions", taskEventService.getSubscriptionCount(),
+            "bufferedEvents", eventBacklogCount,
+            "waitingReaders", taskEventService.getWaitingReaderCount()
         ));
         payload.put("pushNotifications", Map.of(
             "configs", pushConfigCount,
             "attempts", pushStats.getAttempts(),
             "successes", pushStats.getSuccesses(),
-            "failures", pushStats.getFailures()
+            "failures", pushStats.getFailures(),
+            "inFlight", pushStats.getInFlight(),
+            "scheduledRetries", pushStats.getScheduledRetries(),
+            "rejected", pushStats.getRejected()
         ));
+        if (streamRegistry != null) {
+            payload.put("sseStreams", Map.of(
+                "open", streamRegistry.getOpenStreamCount(),
+                "maxOpen", streamRegistry.getMaxOpenStreams(),
+                "rejected", streamRegistry.getRejectedStreamCount(),
+                "overflowed", streamRegistry.getOverflowedStreamCount()
+            ));
+        }
+        TaskEventDispatcher dispatcher = taskEventService.getDispatcher();
+        if (dispatcher != null) {
+            payload.put("eventDispatch", Map.of(
+                "lanes", dispatcher.getLaneCount(),
+                "queueCapacity", dispatcher.getQueueCapacity(),
+                "queueDepth", dispatcher.getQueueDepth(),
+                "blockTimeoutMs", dispatcher.getBlockTimeoutMillis(),
+                "dispatched", dispatcher.getDispatchedCount(),
+                "dropped", dispatcher.getDroppedCount(),
+                "failed", dispatcher.getFailedCount()
+            ));
+        }
+        if (taskLocks != null) {
+            payload.put("taskLocks", Map.of(
+                "stripes", taskLocks.getStripeCount(),
+                "acquisitions", taskLocks.getAcquisitionCount(),
+                "contended", taskLocks.getContendedAcquisitionCount()
+            ));
+        }
+        if (retentionSweeper != null) {
+            payload.put("retention", Map.of(
+                "residentTasks", retentionSweeper.getResidentTaskCount(),
+                "sweeps", retentionSweeper.getSweepCount(),
+                "evictedTasks", retentionSweeper.getEvictedTaskCount(),
+                "expiredIdempotencyKeys", retentionSweeper.getExpiredIdempotencyKeyCount(),
+                "expiredSubscriptions", retentionSweeper.getExpiredSubscriptionCount()
+            ));
+        }
+        if (taskService instanceof PersistentA2ATaskService persistentTaskService) {
+            payload.put("taskCache", Map.of(
+                "cached", persistentTaskService.getCachedTaskCount(),
+                "maxCached", persistentTaskService.getMaxCachedTasks(),
+                "evictions", persistentTaskService.getCacheEvictionCount(),
+                "negativeLookups", persistentTaskService.getNegativeLookupCount(),
+                "collapsedLoads", persistentTaskService.getCollapsedLoadCount()
+            ));
+        }
+        if (persistenceWriter != null) {
+            payload.put("persistenceWrites", Map.of(
+                "durability", persistenceWriter.getDurability().name(),
+                "queueDepth", persistenceWriter.getQueueDepth(),
+                "writes", persistenceWriter.getWriteCount(),
+                "flushes", persistenceWriter.getFlushCount(),
+                "coalesced", persistenceWriter.getCoalescedWriteCount(),
+                "failed", persistenceWriter.getFailedWriteCount(),
+                "avgFlushMicros", persistenceWriter.getAverageFlushMicros(),
+                "maxFlushMicros", persistenceWriter.getMaxFlushMicros()
+            ));
+        }
         payload.put("supportedMethods", List.copyOf(new TreeSet<>(A2AProtocolMethods.CORE_METHODS)));
 
         exchange.getMessage().setHeader(Exchange.CONTENT_TYPE, "application/json");
@@ -1,58 +1,129 @@
 package io.dscope.camel.a2a.processor;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.camel.AsyncCallback;
 import org.apache.camel.Exchange;
 import org.apache.camel.Message;
-import org.apache.camel.Processor;
+import org.apache.camel.support.AsyncProcessorSupport;
+import org.apache.camel.support.SynchronizationAdapter;
 import io.dscope.camel.a2a.model.TaskEvent;
+import io.dscope.camel.a2a.model.TaskSubscription;
 import io.dscope.camel.a2a.service.InMemoryTaskEventService;
+import io.dscope.camel.a2a.service.TaskEventEncoder;
+import io.dscope.camel.a2a.service.TaskEventStream;
+import io.dscope.camel.a2a.service.TaskEventStreamRegistry;
 
+import java.io.ByteArrayOutputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
- * Renders task events as an SSE payload.
+ * Renders task events as an SSE payload from their shared {@link TaskEventEncoder} frames. With a {@link TaskEventStreamRegistry} and {@code stream=true} (or
+ * push mode as the default), the response body is a {@link TaskEventStream} that stays open and receives
+ * events as they are published; the route must enable {@code useStreaming} so the body is written as it is
+ * read. When the open-stream cap is reached the request is answered with the buffered events instead.
+ * <p>
+ * A polling request with {@code waitMs} is a long poll: when nothing is newer than {@code afterSequence}
+ * the exchange is suspended until an event is published or the wait elapses, without holding a thread.
+ * <p>
+ * A request without a task id whose {@code subscriptionId} names a multi-task subscription is served from
+ * that subscription's per-task cursors, with frame ids of the form {@code taskId:sequence}. Long polling
+ * does not apply to multi-task requests.
+ * <p>
+ * A reconnecting client's {@code Last-Event-ID} header resumes after that event, taking precedence over an
+ * older {@code afterSequence}. Events that are no longer buffered are read from the event log when the
+ * service has one; a range that is gone everywhere is announced with a {@code task.gap} event.
  */
-public class A2ATaskSseProcessor implements Processor {
+public class A2ATaskSseProcessor extends AsyncProcessorSupport {
+
+    // Long polls resume on the publishing or timer thread; hand the response off instead of rendering there.
+    private static final Executor LONG_POLL_CONTINUATION = task -> Thread.ofVirtual().name("a2a-long-poll").start(task);
+
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
 
-    private final ObjectMapper mapper = new ObjectMapper();
     private final InMemoryTaskEventService eventService;
+    private final TaskEventStreamRegistry streamRegistry;
 
     public A2ATaskSseProcessor(InMemoryTaskEventService eventService) {
+        this(eventService, null);
+    }
+
+    public A2ATaskSseProcessor(InMemoryTaskEventService eventService, TaskEventStreamRegistry streamRegistry) {
         this.eventService = eventService;
+        this.streamRegistry = streamRegistry;
     }
 
     @Override
-    public void process(Exchange exchange) throws Exception {
-        Message in = exchange.getIn();
-        String taskId = resolveTaskId(in);
-        if (taskId == null || taskId.isBlank()) {
-            throw new A2AInvalidParamsException("SSE requires taskId path parameter");
-        }
+    public boolean process(Exchange exchange, AsyncCallback callback) {
+        try {
+            Message in = exchange.getIn();
+            String subscriptionId = stringValue(in.getHeader("subscriptionId"));
+            int limit = (int) parseLong(in.getHeader("limit"), 100L);
+            boolean stream = streamRegistry != null && parseBoolean(in.getHeader("stream"), streamRegistry.isStreamByDefault());
+
+            TaskSubscription multiTask = in.getHeader("taskId") == null && subscriptionId != null
+                ? eventService.getSubscription(subscriptionId)
+                : null;
+            if (multiTask != null && multiTask.getTaskId() == null) {
+                multiTask = resumeFromLastEventId(multiTask, stringValue(in.getHeader(LAST_EVENT_ID)));
+                if (!stream || !attachStream(exchange, streamRegistry.open(multiTask))) {
+                    renderSubscriptionEvents(exchange, multiTask, limit);
+                }
+                callback.done(true);
+                return true;
+            }
+
+            String taskId = resolveTaskId(in);
+            if (taskId == null || taskId.isBlank()) {
+                throw new A2AInvalidParamsException("SSE requires taskId path parameter");
+            }
+            long afterSequence = Math.max(parseLong(in.getHeader("afterSequence"), 0L), lastEventSequence(in.getHeader(LAST_EVENT_ID)));
+            long waitMillis = parseLong(in.getHeader("waitMs"), 0L);
+
+            if (stream && attachStream(exchange, streamRegistry.open(taskId, subscriptionId, afterSequence))) {
+                callback.done(true);
+                return true;
+            }
 
-        String subscriptionId = stringValue(in.getHeader("subscriptionId"));
-        long afterSequence = parseLong(in.getHeader("afterSequence"), 0L);
-        int limit = (int) parseLong(in.getHeader("limit"), 100L);
+            CompletableFuture<Boolean> ready = waitMillis > 0L
+                ? eventService.awaitTaskEvents(taskId, afterSequence, waitMillis)
+                : CompletableFuture.completedFuture(true);
+            if (!ready.isDone()) {
+                ready.whenCompleteAsync((result, error) -> {
+                    try {
+                        renderEvents(exchange, taskId, subscriptionId, afterSequence, limit);
+                    } catch (Exception e) {
+                        exchange.setException(e);
+                    }
+                    callback.done(false);
+                }, LONG_POLL_CONTINUATION);
+                return false;
+            }
+            renderEvents(exchange, taskId, subscriptionId, afterSequence, limit);
+        } catch (Exception e) {
+            exchange.setException(e);
+        }
+        callback.done(true);
+        return true;
+    }
 
+    private void renderEvents(Exchange exchange, String taskId, String subscriptionId, long afterSequence, int limit) {
         List<TaskEvent> events = eventService.readTaskEvents(taskId, afterSequence, limit);
         long lastSequence = afterSequence;
-        StringBuilder payload = new StringBuilder();
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
         for (TaskEvent event : events) {
-            payload.append("id: ").append(event.getSequence()).append('\n');
-            payload.append("event: ").append(event.getEventType() == null ? "task.status" : event.getEventType()).append('\n');
-            payload.append("data: ").append(mapper.writeValueAsString(event)).append("\n\n");
+            payload.writeBytes(TaskEventEncoder.sseFrame(event));
             lastSequence = event.getSequence();
         }
 
         boolean terminal = events.stream().anyMatch(TaskEvent::isTerminal) || eventService.isTaskTerminal(taskId);
         if (events.isEmpty() && terminal) {
-            payload.append("event: complete\n");
-            payload.append("data: ").append(mapper.writeValueAsString(Map.of("taskId", taskId, "terminal", true))).append("\n\n");
+            payload.writeBytes(TaskEventEncoder.controlFrame("complete", Map.of("taskId", taskId, "terminal", true)));
         }
 
         if (terminal) {
-            payload.append("event: close\n");
-            payload.append("data: ").append(mapper.writeValueAsString(Map.of("taskId", taskId, "reason", "terminal"))).append("\n\n");
+            payload.writeBytes(TaskEventEncoder.controlFrame("close", Map.of("taskId", taskId, "reason", "terminal")));
         }
 
         eventService.acknowledgeSubscription(subscriptionId, lastSequence, terminal);
@@ -61,10 +132,95 @@ public class A2ATaskSseProcessor implements Processor {
         }
 
         Message out = exchange.getMessage();
+        setStreamHeaders(out);
+        out.setBody(payload.toByteArray());
+    }
+
+    private void renderSubscriptionEvents(Exchange exchange, TaskSubscription subscription, int limit) {
+        String subscriptionId = subscription.getSubscriptionId();
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        int remaining = limit <= 0 ? 100 : limit;
+        boolean drained = true;
+        boolean terminal = subscription.getTaskIds() != null;
+        for (String taskId : eventService.resolveTaskIds(subscription)) {
+            terminal &= eventService.isTaskTerminal(taskId);
+            if (remaining <= 0) {
+                drained = false;
+                continue;
+            }
+            int requested = Math.min(remaining, 500);
+            List<TaskEvent> events = eventService.readTaskEvents(
+                taskId, subscription.getCursors().getOrDefault(taskId, subscription.getAfterSequence()), requested);
+            for (TaskEvent event : events) {
+                payload.writeBytes(TaskEventEncoder.multiplexedSseFrame(event));
+            }
+            if (!events.isEmpty()) {
+                eventService.acknowledgeSubscription(subscriptionId, taskId, events.get(events.size() - 1).getSequence());
+            }
+            remaining -= events.size();
+            drained &= events.size() < requested;
+        }
+
+        if (terminal && drained) {
+            payload.writeBytes(TaskEventEncoder.controlFrame("close", Map.of("subscriptionId", subscriptionId, "reason", "terminal")));
+            eventService.acknowledgeSubscription(subscriptionId, 0L, true);
+            eventService.cleanupTerminalSubscriptions();
+        }
+
+        Message out = exchange.getMessage();
+        setStreamHeaders(out);
+        out.setBody(payload.toByteArray());
+    }
+
+    /**
+     * Applies a multiplexed {@code taskId:sequence} event id to the subscription's cursor for that task.
+     */
+    private TaskSubscription resumeFromLastEventId(TaskSubscription subscription, String lastEventId) {
+        int separator = lastEventId == null ? -1 : lastEventId.lastIndexOf(':');
+        if (separator <= 0) {
+            return subscription;
+        }
+        long sequence = parseLong(lastEventId.substring(separator + 1), -1L);
+        if (sequence < 0L) {
+            return subscription;
+        }
+        eventService.acknowledgeSubscription(subscription.getSubscriptionId(), lastEventId.substring(0, separator), sequence);
+        TaskSubscription resumed = eventService.getSubscription(subscription.getSubscriptionId());
+        return resumed == null ? subscription : resumed;
+    }
+
+    private long lastEventSequence(Object lastEventId) {
+        if (lastEventId == null) {
+            return 0L;
+        }
+        String value = lastEventId.toString();
+        return Math.max(parseLong(value.substring(value.lastIndexOf(':') + 1), 0L), 0L);
+    }
+
+    /**
+     * Makes {@code stream} the response body, closed when the exchange completes.
+     *
+     * @return {@code false} when no stream could be opened
+     */
+    private boolean attachStream(Exchange exchange, TaskEventStream stream) {
+        if (stream == null) {
+            return false;
+        }
+        exchange.getExchangeExtension().addOnCompletion(new SynchronizationAdapter() {
+            @Override
+            public void onDone(Exchange completed) {
+                stream.close();
+            }
+        });
+        setStreamHeaders(exchange.getMessage());
+        exchange.getMessage().setBody(stream);
+        return true;
+    }
+
+    private void setStreamHeaders(Message out) {
         out.setHeader(Exchange.CONTENT_TYPE, "text/event-stream");
         out.setHeader("Cache-Control", "no-cache");
         out.setHeader("Connection", "keep-alive");
-        out.setBody(payload.toString());
     }
 
     private String resolveTaskId(Message message) {
@@ -84,6 +240,13 @@ public class A2ATaskSseProcessor implements Processor {
         return value == null ? null : value.toString();
     }
 
+    private boolean parseBoolean(Object value, boolean fallback) {
+        if (value == null || value.toString().isBlank()) {
+            return fallback;
+        }
+        return Boolean.parseBoolean(value.toString().trim());
+    }
+
     private long parseLong(Object value, long fallback) {
         if (value == null) {
             return fallback;
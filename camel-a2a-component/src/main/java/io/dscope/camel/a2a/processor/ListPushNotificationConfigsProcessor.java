@@ -26,8 +26,7 @@ public class ListPushNotificationConfigsProcessor implements Processor {
         ListPushNotificationConfigsRequest request =
             params == null ? new ListPushNotificationConfigsRequest() : mapper.convertValue(params, ListPushNotificationConfigsRequest.class);
 
-        ListPushNotificationConfigsResponse response = new ListPushNotificationConfigsResponse();
-        response.setConfigs(configService.list(request));
+        ListPushNotificationConfigsResponse response = configService.listPage(request);
         exchange.setProperty(A2AExchangeProperties.METHOD_RESULT, response);
     }
 }
@@ -28,9 +28,7 @@ public class ListTasksProcessor implements Processor {
             throw new A2AInvalidParamsException("ListTasks limit must be greater than zero");
         }
 
-        ListTasksResponse response = new ListTasksResponse();
-        response.setTasks(taskService.listTasks(request));
-        response.setNextCursor(null);
+        ListTasksResponse response = taskService.listTasksPage(request);
         exchange.setProperty(A2AExchangeProperties.METHOD_RESULT, response);
     }
 }
@@ -10,11 +10,18 @@ import io.dscope.camel.a2a.model.dto.SubscribeToTaskResponse;
 import io.dscope.camel.a2a.service.A2ATaskService;
 import io.dscope.camel.a2a.service.InMemoryTaskEventService;
 
+import java.util.List;
+
 /**
- * Handles SubscribeToTask method invocation.
+ * Handles SubscribeToTask method invocation. Besides a single {@code taskId}, a subscription can follow a
+ * list of {@code taskIds} or every task of a {@code conversationId}; those are streamed over one connection
+ * from {@code /a2a/sse}.
  */
 public class SubscribeToTaskProcessor implements Processor {
 
+    /** Upper bound for the {@code taskIds} of one subscription. */
+    public static final int MAX_TASK_IDS = 1000;
+
     private final ObjectMapper mapper = new ObjectMapper();
     private final A2ATaskService taskService;
     private final InMemoryTaskEventService eventService;
@@ -32,15 +39,29 @@ public class SubscribeToTaskProcessor implements Processor {
         }
 
         SubscribeToTaskRequest request = mapper.convertValue(params, SubscribeToTaskRequest.class);
-        if (request.getTaskId() == null || request.getTaskId().isBlank()) {
-            throw new A2AInvalidParamsException("SubscribeToTask requires taskId");
+        boolean single = request.getTaskId() != null && !request.getTaskId().isBlank();
+        boolean listed = request.getTaskIds() != null && !request.getTaskIds().isEmpty();
+        boolean conversation = request.getConversationId() != null && !request.getConversationId().isBlank();
+        if (!single && !listed && !conversation) {
+            throw new A2AInvalidParamsException("SubscribeToTask requires taskId, taskIds or conversationId");
+        }
+        if ((single ? 1 : 0) + (listed ? 1 : 0) + (conversation ? 1 : 0) > 1) {
+            throw new A2AInvalidParamsException("SubscribeToTask accepts only one of taskId, taskIds or conversationId");
         }
         if (request.getLimit() != null && request.getLimit() <= 0) {
             throw new A2AInvalidParamsException("SubscribeToTask limit must be greater than zero");
         }
+        if (request.getWaitMs() != null && request.getWaitMs() < 0) {
+            throw new A2AInvalidParamsException("SubscribeToTask waitMs must be >= 0");
+        }
 
-        taskService.getTask(request.getTaskId());
         long afterSequence = request.getAfterSequence() == null ? 0L : Math.max(0L, request.getAfterSequence());
+        if (!single) {
+            exchange.setProperty(A2AExchangeProperties.METHOD_RESULT, subscribeToTasks(request, afterSequence));
+            return;
+        }
+
+        taskService.getTask(request.getTaskId());
         TaskSubscription subscription = eventService.createSubscription(request.getTaskId(), afterSequence);
 
         SubscribeToTaskResponse response = new SubscribeToTaskResponse();
@@ -48,12 +69,39 @@ public class SubscribeToTaskProcessor implements Processor {
         response.setTaskId(request.getTaskId());
         response.setAfterSequence(afterSequence);
         response.setTerminal(eventService.isTaskTerminal(request.getTaskId()));
-        response.setStreamUrl(buildStreamUrl(request.getTaskId(), subscription.getSubscriptionId(), afterSequence, request.getLimit()));
+        response.setStreamUrl(buildStreamUrl(
+            request.getTaskId(), subscription.getSubscriptionId(), afterSequence, request.getLimit(), request.getWaitMs()));
         exchange.setProperty(A2AExchangeProperties.METHOD_RESULT, response);
     }
 
-    private String buildStreamUrl(String taskId, String subscriptionId, long afterSequence, Integer limit) {
-        String suffix = limit == null ? "" : "&limit=" + limit;
+    private SubscribeToTaskResponse subscribeToTasks(SubscribeToTaskRequest request, long afterSequence) {
+        List<String> taskIds = request.getTaskIds();
+        if (taskIds != null) {
+            if (taskIds.size() > MAX_TASK_IDS) {
+                throw new A2AInvalidParamsException("SubscribeToTask accepts at most " + MAX_TASK_IDS + " taskIds");
+            }
+            for (String taskId : taskIds) {
+                if (taskId == null || taskId.isBlank()) {
+                    throw new A2AInvalidParamsException("SubscribeToTask taskIds must not contain blank ids");
+                }
+                taskService.getTask(taskId);
+            }
+        }
+        TaskSubscription subscription = eventService.createSubscription(taskIds, request.getConversationId(), afterSequence);
+
+        SubscribeToTaskResponse response = new SubscribeToTaskResponse();
+        response.setSubscriptionId(subscription.getSubscriptionId());
+        response.setTaskIds(subscription.getTaskIds());
+        response.setConversationId(subscription.getConversationId());
+        response.setAfterSequence(afterSequence);
+        response.setTerminal(subscription.getTaskIds() != null && subscription.getTaskIds().stream().allMatch(eventService::isTaskTerminal));
+        response.setStreamUrl("/a2a/sse?subscriptionId=" + subscription.getSubscriptionId() + "&stream=true"
+            + (request.getLimit() == null ? "" : "&limit=" + request.getLimit()));
+        return response;
+    }
+
+    private String buildStreamUrl(String taskId, String subscriptionId, long afterSequence, Integer limit, Long waitMs) {
+        String suffix = (limit == null ? "" : "&limit=" + limit) + (waitMs == null || waitMs == 0L ? "" : "&waitMs=" + waitMs);
         return "/a2a/sse/" + taskId + "?subscriptionId=" + subscriptionId + "&afterSequence=" + afterSequence + suffix;
     }
 }
@@ -8,6 +8,7 @@ import io.dscope.camel.a2a.model.dto.CreatePushNotificationConfigRequest;
 import io.dscope.camel.a2a.model.dto.DeletePushNotificationConfigRequest;
 import io.dscope.camel.a2a.model.dto.GetPushNotificationConfigRequest;
 import io.dscope.camel.a2a.model.dto.ListPushNotificationConfigsRequest;
+import io.dscope.camel.a2a.model.dto.ListPushNotificationConfigsResponse;
 
 /**
  * CRUD operations for push notification config and event delivery handling.
@@ -20,6 +21,17 @@ public interface A2APushNotificationConfigService {
 
     List<PushNotificationConfig> list(ListPushNotificationConfigsRequest request);
 
+    /**
+     * Lists one page of configs. Implementations that support cursors set {@code nextCursor} when more
+     * configs follow; the default returns {@link #list} as a single page.
+     */
+    default ListPushNotificationConfigsResponse listPage(ListPushNotificationConfigsRequest request) {
+        ListPushNotificationConfigsResponse response = new ListPushNotificationConfigsResponse();
+        response.setConfigs(list(request));
+        response.setNextCursor(null);
+        return response;
+    }
+
     boolean delete(DeletePushNotificationConfigRequest request);
 
     void onTaskEvent(TaskEvent event);
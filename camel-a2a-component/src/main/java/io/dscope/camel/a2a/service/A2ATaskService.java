@@ -5,6 +5,7 @@ import io.dscope.camel.a2a.model.TaskStatus;
 import io.dscope.camel.a2a.model.TaskState;
 import io.dscope.camel.a2a.model.dto.CancelTaskRequest;
 import io.dscope.camel.a2a.model.dto.ListTasksRequest;
+import io.dscope.camel.a2a.model.dto.ListTasksResponse;
 import io.dscope.camel.a2a.model.dto.SendMessageRequest;
 
 import java.util.List;
@@ -20,6 +21,17 @@ public interface A2ATaskService {
 
     List<Task> listTasks(ListTasksRequest request);
 
+    /**
+     * Returns one ListTasks page with the cursor for the next one. Implementations without cursor support
+     * return a single page.
+     */
+    default ListTasksResponse listTasksPage(ListTasksRequest request) {
+        ListTasksResponse response = new ListTasksResponse();
+        response.setTasks(listTasks(request));
+        response.setNextCursor(null);
+        return response;
+    }
+
     Task cancelTask(CancelTaskRequest request);
 
     Task transitionTask(String taskId, TaskState targetState, String reason);
@@ -0,0 +1,93 @@
+package io.dscope.camel.a2a.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Coarse wall clock for task, event, subscription and push config timestamps. While at least one
+ * {@link #start() lease} is open, a daemon thread refreshes the cached value every
+ * {@code a2a.clock.resolution-ms} milliseconds (default 10). Without a lease, or with a resolution of 0,
+ * every call reads the system clock.
+ */
+public final class CachedClock {
+
+    public static final String RESOLUTION_MS_PROPERTY = "a2a.clock.resolution-ms";
+    public static final long DEFAULT_RESOLUTION_MS = 10L;
+
+    private static final long RESOLUTION_MS = Math.max(0L, Long.getLong(RESOLUTION_MS_PROPERTY, DEFAULT_RESOLUTION_MS));
+
+    private static volatile long now;
+    private static volatile boolean ticking;
+    // Guarded by CachedClock.class.
+    private static Thread ticker;
+    private static int leases;
+
+    private CachedClock() {
+    }
+
+    public static long currentTimeMillis() {
+        return ticking ? now : System.currentTimeMillis();
+    }
+
+    public static long resolutionMillis() {
+        return RESOLUTION_MS;
+    }
+
+    public static boolean isTicking() {
+        return ticking;
+    }
+
+    /**
+     * Starts refreshing the cached value, unless it is already refreshed for another lease. The refresh
+     * thread stops once every lease is closed.
+     */
+    public static synchronized Lease start() {
+        leases++;
+        if (ticker == null && RESOLUTION_MS > 0L) {
+            now = System.currentTimeMillis();
+            ticker = new Thread(CachedClock::tick, "a2a-cached-clock");
+            ticker.setDaemon(true);
+            ticker.start();
+            ticking = true;
+        }
+        return new Lease();
+    }
+
+    private static synchronized void release() {
+        if (--leases > 0 || ticker == null) {
+            return;
+        }
+        ticking = false;
+        ticker.interrupt();
+        ticker = null;
+    }
+
+    private static void tick() {
+        long parkNanos = TimeUnit.MILLISECONDS.toNanos(RESOLUTION_MS);
+        while (!Thread.currentThread().isInterrupted()) {
+            now = System.currentTimeMillis();
+            LockSupport.parkNanos(parkNanos);
+        }
+    }
+
+    /**
+     * Keeps the clock refreshed until closed; closing twice has no further effect.
+     */
+    public static final class Lease implements AutoCloseable {
+
+        private boolean closed;
+
+        private Lease() {
+        }
+
+        @Override
+        public void close() {
+            synchronized (CachedClock.class) {
+                if (!closed) {
+                    closed = true;
+                    release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package io.dscope.camel.a2a.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.dscope.camel.persistence.core.AppendResult;
+import io.dscope.camel.persistence.core.FlowStateStore;
+import io.dscope.camel.persistence.core.PersistedEvent;
+import io.dscope.camel.persistence.core.RehydratedState;
+import io.dscope.camel.persistence.core.StateEnvelope;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Passes snapshots and event payloads through a {@link PersistedPayloadCodec} on their way to and from the
+ * wrapped store, so the task and event services keep working with plain JSON trees.
+ */
+public class CodecFlowStateStore implements FlowStateStore {
+
+    private final FlowStateStore delegate;
+    private final PersistedPayloadCodec codec;
+
+    public CodecFlowStateStore(FlowStateStore delegate, PersistedPayloadCodec codec) {
+        this.delegate = delegate;
+        this.codec = codec == null ? PersistedPayloadCodec.json() : codec;
+    }
+
+    @Override
+    public RehydratedState rehydrate(String flowType, String flowId) {
+        RehydratedState state = delegate.rehydrate(flowType, flowId);
+        if (state == null) {
+            return null;
+        }
+        StateEnvelope envelope = state.envelope();
+        if (envelope != null) {
+            JsonNode snapshot = codec.decode(envelope.snapshot());
+            if (snapshot != envelope.snapshot()) {
+                envelope = new StateEnvelope(envelope.flowType(), envelope.flowId(), envelope.version(),
+                    envelope.snapshotVersion(), snapshot, envelope.lastUpdatedAt(), envelope.metadata());
+            }
+        }
+        return new RehydratedState(envelope, decode(state.tailEvents()));
+    }
+
+    @Override
+    public AppendResult appendEvents(String flowType, String flowId, long expectedVersion, List<PersistedEvent> events, String idempotencyKey) {
+        List<PersistedEvent> encoded = events;
+        if (events != null) {
+            encoded = new ArrayList<>(events.size());
+            for (PersistedEvent event : events) {
+                encoded.add(withPayload(event, codec.encode(event.payload())));
+            }
+        }
+        return delegate.appendEvents(flowType, flowId, expectedVersion, encoded, idempotencyKey);
+    }
+
+    @Override
+    public void writeSnapshot(String flowType, String flowId, long snapshotVersion, JsonNode snapshot, Map<String, Object> metadata) {
+        delegate.writeSnapshot(flowType, flowId, snapshotVersion, codec.encode(snapshot), metadata);
+    }
+
+    @Override
+    public List<PersistedEvent> readEvents(String flowType, String flowId, long afterSequence, int limit) {
+        return decode(delegate.readEvents(flowType, flowId, afterSequence, limit));
+    }
+
+    public PersistedPayloadCodec getCodec() {
+        return codec;
+    }
+
+    private List<PersistedEvent> decode(List<PersistedEvent> events) {
+        if (events == null || events.isEmpty()) {
+            return events;
+        }
+        List<PersistedEvent> decoded = new ArrayList<>(events.size());
+        for (PersistedEvent event : events) {
+            decoded.add(withPayload(event, codec.decode(event.payload())));
+        }
+        return decoded;
+    }
+
+    private static PersistedEvent withPayload(PersistedEvent event, JsonNode payload) {
+        if (payload == event.payload()) {
+            return event;
+        }
+        return new PersistedEvent(event.eventId(), event.flowType(), event.flowId(), event.sequence(),
+            event.eventType(), payload, event.occurredAt(), event.idempotencyKey());
+    }
+}
@@ -1,28 +1,35 @@
 package io.dscope.camel.a2a.service;
 
+import io.dscope.camel.a2a.id.A2AIdGenerator;
 import io.dscope.camel.a2a.model.Message;
 import io.dscope.camel.a2a.model.Task;
 import io.dscope.camel.a2a.model.TaskState;
 import io.dscope.camel.a2a.model.TaskStatus;
 import io.dscope.camel.a2a.model.dto.CancelTaskRequest;
 import io.dscope.camel.a2a.model.dto.ListTasksRequest;
+import io.dscope.camel.a2a.model.dto.ListTasksResponse;
 import io.dscope.camel.a2a.model.dto.SendMessageRequest;
 import io.dscope.camel.a2a.processor.A2AIllegalTaskStateException;
 import io.dscope.camel.a2a.processor.A2AInvalidParamsException;
 
-import java.time.Instant;
 import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Set;
-import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
- * Simple in-memory task service for core protocol method execution.
+ * Simple in-memory task service for core protocol method execution. Terminal tasks and idempotency keys are
+ * also kept in time order, so retention sweeps start at the oldest entry and stop at the first one that is
+ * still within its limit instead of scanning every task.
  */
 public class InMemoryA2ATaskService implements A2ATaskService {
 
@@ -30,7 +37,14 @@ public class InMemoryA2ATaskService implements A2ATaskService {
     private final ConcurrentMap<String, Task> tasks = new ConcurrentHashMap<>();
     private final ConcurrentMap<String, List<TaskStatus>> historyByTaskId = new ConcurrentHashMap<>();
     private final ConcurrentMap<String, String> idempotencyToTaskId = new ConcurrentHashMap<>();
-    private final ConcurrentMap<String, Object> taskLocks = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, TaskMeta> metaByTaskId = new ConcurrentHashMap<>();
+    private final NavigableSet<KeysetCursor> terminalByTime = new ConcurrentSkipListSet<>();
+    private final NavigableSet<KeysetCursor> idempotencyKeysByCreation = new ConcurrentSkipListSet<>();
+    private final TaskListIndex listIndex = new TaskListIndex();
+    private final StripedTaskLocks taskLocks;
+    private final A2AIdGenerator idGenerator;
+
+    private static final Set<TaskState> TERMINAL_STATES = EnumSet.of(TaskState.COMPLETED, TaskState.FAILED, TaskState.CANCELED);
 
     private static final Map<TaskState, Set<TaskState>> ALLOWED_TRANSITIONS = Map.of(
         TaskState.CREATED, EnumSet.of(TaskState.QUEUED, TaskState.RUNNING, TaskState.CANCELED, TaskState.FAILED),
@@ -47,7 +61,17 @@ public class InMemoryA2ATaskService implements A2ATaskService {
     }
 
     public InMemoryA2ATaskService(A2ATaskEventPublisher eventPublisher) {
+        this(eventPublisher, new StripedTaskLocks());
+    }
+
+    public InMemoryA2ATaskService(A2ATaskEventPublisher eventPublisher, StripedTaskLocks taskLocks) {
+        this(eventPublisher, taskLocks, A2AIdGenerator.timeOrdered());
+    }
+
+    public InMemoryA2ATaskService(A2ATaskEventPublisher eventPublisher, StripedTaskLocks taskLocks, A2AIdGenerator idGenerator) {
         this.eventPublisher = eventPublisher == null ? new NoopTaskEventPublisher() : eventPublisher;
+        this.taskLocks = taskLocks == null ? new StripedTaskLocks() : taskLocks;
+        this.idGenerator = idGenerator == null ? A2AIdGenerator.timeOrdered() : idGenerator;
     }
 
     @Override
@@ -58,44 +82,64 @@ public class InMemoryA2ATaskService implements A2ATaskService {
         }
 
         String idempotencyKey = normalizeIdempotencyKey(request);
-        synchronized (idempotencyToTaskId) {
-            if (idempotencyKey != null) {
-                String existingTaskId = idempotencyToTaskId.get(idempotencyKey);
-                if (existingTaskId != null) {
-                    return getTask(existingTaskId);
-                }
+        if (idempotencyKey != null) {
+            String existingTaskId = idempotencyToTaskId.get(idempotencyKey);
+            if (existingTaskId != null) {
+                return awaitReservedTask(existingTaskId);
             }
+        }
 
-            String now = Instant.now().toString();
-            String taskId = UUID.randomUUID().toString();
-
-            TaskStatus status = new TaskStatus();
-            status.setState(TaskState.CREATED);
-            status.setMessage("Task created");
-            status.setUpdatedAt(now);
-
-            Task task = new Task();
-            task.setTaskId(taskId);
-            task.setStatus(status);
-            task.setLatestMessage(message);
-            task.setMessages(List.of(message));
-            task.setArtifacts(new ArrayList<>());
-            task.setMetadata(request.getMetadata());
-            task.setCreatedAt(now);
-            task.setUpdatedAt(now);
-
-            Object lock = taskLocks.computeIfAbsent(taskId, ignored -> new Object());
-            synchronized (lock) {
-                tasks.put(taskId, task);
-                historyByTaskId.put(taskId, new ArrayList<>(List.of(copyStatus(status))));
-                eventPublisher.publishTaskUpdate(task);
-                if (idempotencyKey != null) {
-                    idempotencyToTaskId.putIfAbsent(idempotencyKey, taskId);
+        long now = CachedClock.currentTimeMillis();
+        String taskId = idGenerator.nextId();
+
+        TaskStatus status = new TaskStatus();
+        status.setState(TaskState.CREATED);
+        status.setMessage("Task created");
+        status.setUpdatedAtMillis(now);
+
+        Task task = new Task();
+        task.setTaskId(taskId);
+        task.setConversationId(request.getConversationId());
+        task.setStatus(status);
+        task.setLatestMessage(message);
+        task.setMessages(List.of(message));
+        task.setArtifacts(new ArrayList<>());
+        task.setMetadata(request.getMetadata());
+        task.setCreatedAtMillis(now);
+        task.setUpdatedAtMillis(now);
+
+        String existingTaskId = null;
+        ReentrantLock lock = taskLocks.lock(taskId);
+        try {
+            // The key is reserved while holding the new task's lock, so a concurrent sender that loses
+            // the race blocks on that lock until the winning task is fully created.
+            if (idempotencyKey != null) {
+                existingTaskId = idempotencyToTaskId.putIfAbsent(idempotencyKey, taskId);
+            }
+            if (existingTaskId == null) {
+                try {
+                    tasks.put(taskId, task);
+                    historyByTaskId.put(taskId, new ArrayList<>(List.of(copyStatus(status))));
+                    metaByTaskId.put(taskId, new TaskMeta(now, idempotencyKey));
+                    if (idempotencyKey != null) {
+                        idempotencyKeysByCreation.add(new KeysetCursor(now, taskId));
+                    }
+                    listIndex.put(taskId, now, TaskState.CREATED);
+                    eventPublisher.publishTaskUpdate(task);
+                    transitionTask(taskId, TaskState.RUNNING, "Task created from SendMessage");
+                    return tasks.get(taskId);
+                } catch (RuntimeException e) {
+                    if (idempotencyKey != null) {
+                        idempotencyToTaskId.remove(idempotencyKey, taskId);
+                        idempotencyKeysByCreation.remove(new KeysetCursor(now, taskId));
+                    }
+                    throw e;
                 }
-                transitionTask(taskId, TaskState.RUNNING, "Task created from SendMessage");
-                return tasks.get(taskId);
             }
+        } finally {
+            lock.unlock();
         }
+        return awaitReservedTask(existingTaskId);
     }
 
     @Override
@@ -109,18 +153,23 @@ public class InMemoryA2ATaskService implements A2ATaskService {
 
     @Override
     public List<Task> listTasks(ListTasksRequest request) {
-        List<Task> current = new ArrayList<>(tasks.values());
-        if (request != null && request.getState() != null && !request.getState().isBlank()) {
-            String expectedState = request.getState().toUpperCase();
-            current = current.stream()
-                .filter(t -> t.getStatus() != null && t.getStatus().getState() != null)
-                .filter(t -> t.getStatus().getState().name().equals(expectedState))
-                .collect(Collectors.toList());
-        }
-        if (request != null && request.getLimit() != null && request.getLimit() > 0 && current.size() > request.getLimit()) {
-            return current.subList(0, request.getLimit());
+        return listTasksPage(request).getTasks();
+    }
+
+    @Override
+    public ListTasksResponse listTasksPage(ListTasksRequest request) {
+        TaskListIndex.Page page = listIndex.page(request);
+        List<Task> current = new ArrayList<>(page.taskIds().size());
+        for (String taskId : page.taskIds()) {
+            Task task = tasks.get(taskId);
+            if (task != null) {
+                current.add(task);
+            }
         }
-        return current;
+        ListTasksResponse response = new ListTasksResponse();
+        response.setTasks(current);
+        response.setNextCursor(page.nextCursor());
+        return response;
     }
 
     @Override
@@ -142,8 +191,8 @@ public class InMemoryA2ATaskService implements A2ATaskService {
         }
 
         Task task = getTask(taskId);
-        Object lock = taskLocks.computeIfAbsent(taskId, ignored -> new Object());
-        synchronized (lock) {
+        ReentrantLock lock = taskLocks.lock(taskId);
+        try {
             TaskStatus currentStatus = task.getStatus();
             TaskState currentState = currentStatus == null ? null : currentStatus.getState();
             if (currentState == null) {
@@ -160,21 +209,31 @@ public class InMemoryA2ATaskService implements A2ATaskService {
                     "Illegal task transition: " + currentState + " -> " + targetState);
             }
 
-            String now = Instant.now().toString();
+            long now = CachedClock.currentTimeMillis();
             TaskStatus next = new TaskStatus();
             next.setState(targetState);
             next.setMessage(reason == null || reason.isBlank() ? "State changed to " + targetState : reason);
-            next.setUpdatedAt(now);
+            next.setUpdatedAtMillis(now);
             if (currentStatus != null) {
                 next.setDetails(currentStatus.getDetails());
             }
 
             task.setStatus(next);
-            task.setUpdatedAt(now);
+            task.setUpdatedAtMillis(now);
             historyByTaskId.computeIfAbsent(taskId, ignored -> new ArrayList<>()).add(copyStatus(next));
             tasks.put(taskId, task);
+            listIndex.updateState(taskId, targetState);
+            if (TERMINAL_STATES.contains(targetState)) {
+                TaskMeta meta = metaByTaskId.get(taskId);
+                if (meta != null) {
+                    meta.terminalAtMillis = now;
+                    terminalByTime.add(new KeysetCursor(now, taskId));
+                }
+            }
             eventPublisher.publishTaskUpdate(task);
             return task;
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -183,13 +242,152 @@ public class InMemoryA2ATaskService implements A2ATaskService {
         if (taskId == null || taskId.isBlank()) {
             throw new A2AInvalidParamsException("taskId is required");
         }
-        Object lock = taskLocks.computeIfAbsent(taskId, ignored -> new Object());
         List<TaskStatus> history = historyByTaskId.get(taskId);
-        synchronized (lock) {
+        ReentrantLock lock = taskLocks.lock(taskId);
+        try {
             if (history == null) {
                 throw new A2AInvalidParamsException("Task not found: " + taskId);
             }
             return history.stream().map(this::copyStatus).collect(Collectors.toList());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Evicts terminal tasks older than the policy allows, then the oldest remaining terminal tasks while
+     * the resident count exceeds the policy bound. Non-terminal tasks are never evicted.
+     *
+     * @return ids of the evicted tasks
+     */
+    public List<String> evictExpiredTasks(TaskRetentionPolicy policy, long nowMillis) {
+        long expiredBefore = policy.terminalTaskMaxAgeMs() > 0L ? nowMillis - policy.terminalTaskMaxAgeMs() : Long.MIN_VALUE;
+        int overflow = policy.maxResidentTasks() > 0 ? tasks.size() - policy.maxResidentTasks() : 0;
+        List<String> evicted = new ArrayList<>();
+        for (KeysetCursor terminal : terminalByTime) {
+            boolean expired = terminal.createdAtMillis() <= expiredBefore;
+            if (!expired && evicted.size() >= overflow) {
+                break;
+            }
+            if (evictTask(terminal.id())) {
+                evicted.add(terminal.id());
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Releases idempotency keys older than the policy allows; their tasks stay resident.
+     *
+     * @return number of released keys
+     */
+    public int expireIdempotencyKeys(TaskRetentionPolicy policy, long nowMillis) {
+        if (policy.idempotencyKeyMaxAgeMs() <= 0L) {
+            return 0;
+        }
+        long expiredBefore = nowMillis - policy.idempotencyKeyMaxAgeMs();
+        int expired = 0;
+        Iterator<KeysetCursor> oldest = idempotencyKeysByCreation.iterator();
+        while (oldest.hasNext()) {
+            KeysetCursor created = oldest.next();
+            if (created.createdAtMillis() > expiredBefore) {
+                break;
+            }
+            oldest.remove();
+            TaskMeta meta = metaByTaskId.get(created.id());
+            if (meta != null && meta.idempotencyKey != null && idempotencyToTaskId.remove(meta.idempotencyKey, created.id())) {
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    public int getResidentTaskCount() {
+        return tasks.size();
+    }
+
+    public int getIdempotencyKeyCount() {
+        return idempotencyToTaskId.size();
+    }
+
+    private boolean evictTask(String taskId) {
+        ReentrantLock lock = taskLocks.lock(taskId);
+        try {
+            TaskMeta meta = metaByTaskId.get(taskId);
+            if (meta == null || meta.terminalAtMillis <= 0L) {
+                return false;
+            }
+            metaByTaskId.remove(taskId);
+            terminalByTime.remove(new KeysetCursor(meta.terminalAtMillis, taskId));
+            listIndex.remove(taskId);
+            tasks.remove(taskId);
+            historyByTaskId.remove(taskId);
+            if (meta.idempotencyKey != null) {
+                idempotencyToTaskId.remove(meta.idempotencyKey, taskId);
+                idempotencyKeysByCreation.remove(new KeysetCursor(meta.createdAtMillis, taskId));
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hands every resident task to {@code sink} while holding its lock, so a task and its history are
+     * captured together. Used by {@link WarmRestartSnapshot}.
+     */
+    void exportTasks(Consumer<WarmRestartSnapshot.TaskRecord> sink) {
+        for (String taskId : tasks.keySet()) {
+            ReentrantLock lock = taskLocks.lock(taskId);
+            try {
+                Task task = tasks.get(taskId);
+                TaskMeta meta = metaByTaskId.get(taskId);
+                if (task == null || meta == null) {
+                    continue;
+                }
+                String idempotencyKey = meta.idempotencyKey != null && taskId.equals(idempotencyToTaskId.get(meta.idempotencyKey))
+                    ? meta.idempotencyKey
+                    : null;
+                List<TaskStatus> history = historyByTaskId.getOrDefault(taskId, List.of());
+                sink.accept(new WarmRestartSnapshot.TaskRecord(task, history, meta.createdAtMillis, idempotencyKey, meta.terminalAtMillis));
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Makes a task exported by {@link #exportTasks} resident again. Safe to call concurrently for different tasks.
+     */
+    void restoreTask(WarmRestartSnapshot.TaskRecord record) {
+        Task task = record.task();
+        String taskId = task.getTaskId();
+        ReentrantLock lock = taskLocks.lock(taskId);
+        try {
+            TaskMeta meta = new TaskMeta(record.createdAtMillis(), record.idempotencyKey());
+            meta.terminalAtMillis = record.terminalAtMillis();
+            tasks.put(taskId, task);
+            historyByTaskId.put(taskId, new ArrayList<>(record.history()));
+            metaByTaskId.put(taskId, meta);
+            if (meta.terminalAtMillis > 0L) {
+                terminalByTime.add(new KeysetCursor(meta.terminalAtMillis, taskId));
+            }
+            if (record.idempotencyKey() != null) {
+                idempotencyToTaskId.putIfAbsent(record.idempotencyKey(), taskId);
+                idempotencyKeysByCreation.add(new KeysetCursor(record.createdAtMillis(), taskId));
+            }
+            listIndex.put(taskId, record.createdAtMillis(), task.getStatus() == null ? TaskState.CREATED : task.getStatus().getState());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Task awaitReservedTask(String taskId) {
+        ReentrantLock lock = taskLocks.lock(taskId);
+        try {
+            return getTask(taskId);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -208,8 +406,23 @@ public class InMemoryA2ATaskService implements A2ATaskService {
         TaskStatus copy = new TaskStatus();
         copy.setState(status.getState());
         copy.setMessage(status.getMessage());
-        copy.setUpdatedAt(status.getUpdatedAt());
+        if (status.getUpdatedAtMillis() != 0L) {
+            copy.setUpdatedAtMillis(status.getUpdatedAtMillis());
+        } else {
+            copy.setUpdatedAt(status.getUpdatedAt());
+        }
         copy.setDetails(status.getDetails());
         return copy;
     }
+
+    private static final class TaskMeta {
+        private final long createdAtMillis;
+        private final String idempotencyKey;
+        private volatile long terminalAtMillis;
+
+        private TaskMeta(long createdAtMillis, String idempotencyKey) {
+            this.createdAtMillis = createdAtMillis;
+            this.idempotencyKey = idempotencyKey;
+        }
+    }
 }
@@ -1,6 +1,6 @@
 package io.dscope.camel.a2a.service;
 
-import io.dscope.camel.a2a.model.PushDeliveryAttempt;
+import io.dscope.camel.a2a.id.A2AIdGenerator;
 import io.dscope.camel.a2a.model.PushDeliveryStats;
 import io.dscope.camel.a2a.model.PushNotificationConfig;
 import io.dscope.camel.a2a.model.TaskEvent;
@@ -8,31 +8,36 @@ import io.dscope.camel.a2a.model.dto.CreatePushNotificationConfigRequest;
 import io.dscope.camel.a2a.model.dto.DeletePushNotificationConfigRequest;
 import io.dscope.camel.a2a.model.dto.GetPushNotificationConfigRequest;
 import io.dscope.camel.a2a.model.dto.ListPushNotificationConfigsRequest;
+import io.dscope.camel.a2a.model.dto.ListPushNotificationConfigsResponse;
 import io.dscope.camel.a2a.processor.A2AInvalidParamsException;
 
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
 
 /**
- * In-memory push notification config service with retry and observer hooks.
+ * In-memory push notification config service with retry and observer hooks. Configs are indexed by taskId,
+ * with task-independent configs kept apart, so an event only visits the configs that can match it; all
+ * indexes are ordered by creation time so listings page by cursor without sorting.
  */
-public class InMemoryPushNotificationConfigService implements A2APushNotificationConfigService {
+public class InMemoryPushNotificationConfigService implements A2APushNotificationConfigService, AutoCloseable {
 
     private final ConcurrentMap<String, PushNotificationConfig> configsById = new ConcurrentHashMap<>();
-    private final PushNotificationNotifier notifier;
-    private final List<PushNotificationObserver> observers;
-    private final AtomicLong attempts = new AtomicLong();
-    private final AtomicLong successes = new AtomicLong();
-    private final AtomicLong failures = new AtomicLong();
+    private final ConcurrentNavigableMap<KeysetCursor, PushNotificationConfig> configsByCreation = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, ConcurrentNavigableMap<KeysetCursor, PushNotificationConfig>> configsByTaskId = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<KeysetCursor, PushNotificationConfig> globalConfigs = new ConcurrentSkipListMap<>();
+    private final PushDeliveryPipeline deliveryPipeline;
     private final int maxRetryCap;
     private final long maxBackoffMs;
+    private final A2AIdGenerator idGenerator;
 
     public InMemoryPushNotificationConfigService(PushNotificationNotifier notifier) {
         this(notifier, List.of(new LoggingPushNotificationObserver()), 8, 1000L);
@@ -42,10 +47,38 @@ public class InMemoryPushNotificationConfigService implements A2APushNotificatio
                                                  List<PushNotificationObserver> observers,
                                                  int maxRetryCap,
                                                  long maxBackoffMs) {
-        this.notifier = notifier;
-        this.observers = observers == null ? List.of() : List.copyOf(observers);
+        this(notifier, observers, maxRetryCap, maxBackoffMs, A2AIdGenerator.timeOrdered());
+    }
+
+    public InMemoryPushNotificationConfigService(PushNotificationNotifier notifier,
+                                                 List<PushNotificationObserver> observers,
+                                                 int maxRetryCap,
+                                                 long maxBackoffMs,
+                                                 A2AIdGenerator idGenerator) {
+        this(notifier, observers, maxRetryCap, maxBackoffMs, idGenerator, PushDeliveryPipeline.DEFAULT_MAX_IN_FLIGHT_PER_ENDPOINT);
+    }
+
+    public InMemoryPushNotificationConfigService(PushNotificationNotifier notifier,
+                                                 List<PushNotificationObserver> observers,
+                                                 int maxRetryCap,
+                                                 long maxBackoffMs,
+                                                 A2AIdGenerator idGenerator,
+                                                 int maxInFlightPerEndpoint) {
+        this(notifier, observers, maxRetryCap, maxBackoffMs, idGenerator, maxInFlightPerEndpoint,
+            PushDeliveryPipeline.DEFAULT_MAX_QUEUED_PER_ENDPOINT);
+    }
+
+    public InMemoryPushNotificationConfigService(PushNotificationNotifier notifier,
+                                                 List<PushNotificationObserver> observers,
+                                                 int maxRetryCap,
+                                                 long maxBackoffMs,
+                                                 A2AIdGenerator idGenerator,
+                                                 int maxInFlightPerEndpoint,
+                                                 int maxQueuedPerEndpoint) {
+        this.deliveryPipeline = new PushDeliveryPipeline(notifier, observers, maxInFlightPerEndpoint, maxQueuedPerEndpoint);
         this.maxRetryCap = Math.max(0, maxRetryCap);
         this.maxBackoffMs = Math.max(0L, maxBackoffMs);
+        this.idGenerator = idGenerator == null ? A2AIdGenerator.timeOrdered() : idGenerator;
     }
 
     @Override
@@ -57,9 +90,9 @@ public class InMemoryPushNotificationConfigService implements A2APushNotificatio
             throw new A2AInvalidParamsException("CreatePushNotificationConfig requires endpointUrl");
         }
 
-        String now = Instant.now().toString();
+        long now = CachedClock.currentTimeMillis();
         PushNotificationConfig config = new PushNotificationConfig();
-        config.setConfigId(UUID.randomUUID().toString());
+        config.setConfigId(idGenerator.nextId());
         config.setTaskId(normalizeBlank(request.getTaskId()));
         config.setEndpointUrl(request.getEndpointUrl());
         config.setSecret(request.getSecret());
@@ -68,10 +101,11 @@ public class InMemoryPushNotificationConfigService implements A2APushNotificatio
         config.setEnabled(request.getEnabled() == null || request.getEnabled());
         config.setMaxRetries(normalizeRetries(request.getMaxRetries()));
         config.setRetryBackoffMs(normalizeBackoff(request.getRetryBackoffMs()));
-        config.setCreatedAt(now);
-        config.setUpdatedAt(now);
+        config.setCreatedAtMillis(now);
+        config.setUpdatedAtMillis(now);
 
         configsById.put(config.getConfigId(), config);
+        index(config);
         return copyConfig(config);
     }
 
@@ -89,8 +123,14 @@ public class InMemoryPushNotificationConfigService implements A2APushNotificatio
 
     @Override
     public List<PushNotificationConfig> list(ListPushNotificationConfigsRequest request) {
+        return listPage(request).getConfigs();
+    }
+
+    @Override
+    public ListPushNotificationConfigsResponse listPage(ListPushNotificationConfigsRequest request) {
         int limit = 100;
         String taskId = null;
+        String cursor = null;
         if (request != null) {
             if (request.getLimit() != null) {
                 if (request.getLimit() <= 0) {
@@ -99,14 +139,29 @@ public class InMemoryPushNotificationConfigService implements A2APushNotificatio
                 limit = request.getLimit();
             }
             taskId = normalizeBlank(request.getTaskId());
+            cursor = normalizeBlank(request.getCursor());
+        }
+
+        NavigableMap<KeysetCursor, PushNotificationConfig> source = taskId == null
+            ? configsByCreation
+            : configsByTaskId.getOrDefault(taskId, new ConcurrentSkipListMap<>());
+        if (cursor != null) {
+            source = source.tailMap(KeysetCursor.decode(cursor, "ListPushNotificationConfigs"), false);
+        }
+
+        List<PushNotificationConfig> configs = new ArrayList<>(Math.min(limit, 64));
+        KeysetCursor last = null;
+        Iterator<Map.Entry<KeysetCursor, PushNotificationConfig>> iterator = source.entrySet().iterator();
+        while (iterator.hasNext() && configs.size() < limit) {
+            Map.Entry<KeysetCursor, PushNotificationConfig> entry = iterator.next();
+            last = entry.getKey();
+            configs.add(copyConfig(entry.getValue()));
         }
-        String finalTaskId = taskId;
-        return configsById.values().stream()
-            .filter(c -> finalTaskId == null || finalTaskId.equals(c.getTaskId()))
-            .sorted(Comparator.comparing(PushNotificationConfig::getCreatedAt))
-            .limit(limit)
-            .map(this::copyConfig)
-            .collect(Collectors.toList());
+
+        ListPushNotificationConfigsResponse response = new ListPushNotificationConfigsResponse();
+        response.setConfigs(configs);
+        response.setNextCursor(last != null && iterator.hasNext() ? last.encode() : null);
+        return response;
     }
 
     @Override
@@ -114,7 +169,12 @@ public class InMemoryPushNotificationConfigService implements A2APushNotificatio
         if (request == null || request.getConfigId() == null || request.getConfigId().isBlank()) {
             throw new A2AInvalidParamsException("DeletePushNotificationConfig requires configId");
         }
-        return configsById.remove(request.getConfigId()) != null;
+        PushNotificationConfig removed = configsById.remove(request.getConfigId());
+        if (removed == null) {
+            return false;
+        }
+        unindex(removed);
+        return true;
     }
 
     @Override
@@ -123,51 +183,88 @@ public class InMemoryPushNotificationConfigService implements A2APushNotificatio
             return;
         }
 
-        List<PushNotificationConfig> matching = new ArrayList<>();
-        for (PushNotificationConfig config : configsById.values()) {
+        Map<KeysetCursor, PushNotificationConfig> taskConfigs = configsByTaskId.get(event.getTaskId());
+        if (taskConfigs != null) {
+            deliver(taskConfigs.values(), event);
+        }
+        deliver(globalConfigs.values(), event);
+    }
+
+    @Override
+    public PushDeliveryStats getDeliveryStats() {
+        return deliveryPipeline.getStats();
+    }
+
+    @Override
+    public void close() {
+        deliveryPipeline.close();
+    }
+
+    /**
+     * Hands every config to {@code sink}. Used by {@link WarmRestartSnapshot}.
+     */
+    void exportConfigs(Consumer<PushNotificationConfig> sink) {
+        configsById.values().forEach(sink);
+    }
+
+    /**
+     * Registers a config exported by {@link #exportConfigs} under its original id and creation time.
+     */
+    void restoreConfig(PushNotificationConfig config) {
+        if (config.getCreatedAtMillis() == 0L && config.getCreatedAt() != null) {
+            // Only the ISO text survives serialization; the creation index is keyed by millis.
+            config.setCreatedAtMillis(Instant.parse(config.getCreatedAt()).toEpochMilli());
+        }
+        PushNotificationConfig previous = configsById.put(config.getConfigId(), config);
+        if (previous != null) {
+            unindex(previous);
+        }
+        index(config);
+    }
+
+    private void deliver(Iterable<PushNotificationConfig> configs, TaskEvent event) {
+        for (PushNotificationConfig config : configs) {
             if (!config.isEnabled()) {
                 continue;
             }
-            if (config.getTaskId() == null || config.getTaskId().equals(event.getTaskId())) {
-                matching.add(config);
-            }
-        }
-
-        for (PushNotificationConfig config : matching) {
             int maxAttempts = Math.min(config.getMaxRetries(), maxRetryCap) + 1;
             long backoff = Math.min(config.getRetryBackoffMs(), maxBackoffMs);
-            for (int attemptNumber = 1; attemptNumber <= maxAttempts; attemptNumber++) {
-                final int currentAttempt = attemptNumber;
-                observers.forEach(o -> o.onAttempt(config, event, currentAttempt));
-                attempts.incrementAndGet();
-                PushDeliveryAttempt attempt = notifier.notify(config, event, currentAttempt);
-                if (attempt.isSuccess()) {
-                    successes.incrementAndGet();
-                    observers.forEach(o -> o.onSuccess(config, event, attempt));
-                    break;
-                }
-                failures.incrementAndGet();
-                boolean willRetry = attemptNumber < maxAttempts;
-                observers.forEach(o -> o.onFailure(config, event, attempt, willRetry));
-                if (willRetry && backoff > 0L) {
-                    try {
-                        Thread.sleep(backoff);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        return;
-                    }
-                }
-            }
+            deliveryPipeline.deliver(config, event, maxAttempts, backoff, maxBackoffMs);
         }
     }
 
-    @Override
-    public PushDeliveryStats getDeliveryStats() {
-        PushDeliveryStats stats = new PushDeliveryStats();
-        stats.setAttempts(attempts.get());
-        stats.setSuccesses(successes.get());
-        stats.setFailures(failures.get());
-        return stats;
+    private void index(PushNotificationConfig config) {
+        KeysetCursor key = indexKey(config);
+        configsByCreation.put(key, config);
+        if (config.getTaskId() == null) {
+            globalConfigs.put(key, config);
+            return;
+        }
+        configsByTaskId.compute(config.getTaskId(), (taskId, configs) -> {
+            ConcurrentNavigableMap<KeysetCursor, PushNotificationConfig> target =
+                configs == null ? new ConcurrentSkipListMap<>() : configs;
+            target.put(key, config);
+            return target;
+        });
+    }
+
+    // Runs under the map's per-key lock, like index(), so an emptied task map is never dropped while a
+    // concurrent create is adding to it.
+    private void unindex(PushNotificationConfig config) {
+        KeysetCursor key = indexKey(config);
+        configsByCreation.remove(key);
+        if (config.getTaskId() == null) {
+            globalConfigs.remove(key);
+            return;
+        }
+        configsByTaskId.computeIfPresent(config.getTaskId(), (taskId, configs) -> {
+            configs.remove(key);
+            return configs.isEmpty() ? null : configs;
+        });
+    }
+
+    private static KeysetCursor indexKey(PushNotificationConfig config) {
+        return new KeysetCursor(config.getCreatedAtMillis(), config.getConfigId());
     }
 
     private int normalizeRetries(Integer retries) {
@@ -208,8 +305,16 @@ public class InMemoryPushNotificationConfigService implements A2APushNotificatio
         copy.setRetryBackoffMs(source.getRetryBackoffMs());
         copy.setHeaders(source.getHeaders());
         copy.setMetadata(source.getMetadata());
-        copy.setCreatedAt(source.getCreatedAt());
-        copy.setUpdatedAt(source.getUpdatedAt());
+        if (source.getCreatedAtMillis() != 0L) {
+            copy.setCreatedAtMillis(source.getCreatedAtMillis());
+        } else {
+            copy.setCreatedAt(source.getCreatedAt());
+        }
+        if (source.getUpdatedAtMillis() != 0L) {
+            copy.setUpdatedAtMillis(source.getUpdatedAtMillis());
+        } else {
+            copy.setUpdatedAt(source.getUpdatedAt());
+        }
         return copy;
     }
 }
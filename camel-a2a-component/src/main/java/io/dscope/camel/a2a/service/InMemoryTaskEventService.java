@@ -1,5 +1,6 @@
 package io.dscope.camel.a2a.service;
 
+import io.dscope.camel.a2a.id.A2AIdGenerator;
 import io.dscope.camel.a2a.model.Task;
 import io.dscope.camel.a2a.model.TaskEvent;
 import io.dscope.camel.a2a.model.TaskState;
@@ -9,113 +10,239 @@ import io.dscope.camel.a2a.processor.A2AInvalidParamsException;
 
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 /**
- * In-memory task event publisher and subscription registry.
+ * In-memory task event publisher and subscription registry. Each task keeps its most recent
+ * {@code maxEventsPerTask} events in a {@link TaskEventRing}, so publishing never shifts the buffer and
+ * reads seek directly to the requested sequence without locking.
  */
 public class InMemoryTaskEventService implements A2ATaskEventPublisher {
 
+    /** Upper bound for a single long-poll wait. */
+    public static final long MAX_WAIT_MILLIS = 60_000L;
+
     private static final Set<TaskState> TERMINAL_STATES = Set.of(TaskState.COMPLETED, TaskState.CANCELED, TaskState.FAILED);
 
-    private final ConcurrentMap<String, AtomicLong> sequenceByTaskId = new ConcurrentHashMap<>();
-    private final ConcurrentMap<String, List<TaskEvent>> eventsByTaskId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, TaskEventRing> eventsByTaskId = new ConcurrentHashMap<>();
     private final ConcurrentMap<String, TaskSubscription> subscriptionsById = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<String>> subscriptionIdsByTaskId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<String>> taskIdsByConversationId = new ConcurrentHashMap<>();
+    private final Queue<String> terminalSubscriptionIds = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger activeSubscriptions = new AtomicInteger();
+    private final TaskEventWaiters waiters = new TaskEventWaiters();
     private final List<Consumer<TaskEvent>> listeners = new ArrayList<>();
+    private final List<Consumer<TaskEvent>> blockingListeners = new ArrayList<>();
     private final int maxEventsPerTask;
+    private final A2AIdGenerator idGenerator;
+    private final TaskEventDispatcher dispatcher;
 
     public InMemoryTaskEventService() {
         this(256);
     }
 
     public InMemoryTaskEventService(int maxEventsPerTask) {
+        this(maxEventsPerTask, A2AIdGenerator.timeOrdered());
+    }
+
+    public InMemoryTaskEventService(int maxEventsPerTask, A2AIdGenerator idGenerator) {
+        this(maxEventsPerTask, idGenerator, null);
+    }
+
+    /**
+     * @param dispatcher delivers listener callbacks asynchronously; {@code null} runs them on the publishing thread
+     */
+    public InMemoryTaskEventService(int maxEventsPerTask, A2AIdGenerator idGenerator, TaskEventDispatcher dispatcher) {
         this.maxEventsPerTask = Math.max(16, maxEventsPerTask);
+        this.idGenerator = idGenerator == null ? A2AIdGenerator.timeOrdered() : idGenerator;
+        this.dispatcher = dispatcher;
     }
 
     @Override
     public void publishTaskUpdate(Task task) {
-        if (task == null || task.getTaskId() == null || task.getTaskId().isBlank()) {
+        TaskEvent event = createTaskEvent(task);
+        if (event == null) {
             return;
         }
+        long sequence = ring(event).append(event);
+        published(event, sequence);
+        notifyListeners(event);
+    }
+
+    /**
+     * Buffers an event restored from an event log under its logged sequence. Listeners are not notified:
+     * the event was delivered when it was first published.
+     */
+    protected void replayTaskUpdate(Task task, long sequence) {
+        TaskEvent event = createTaskEvent(task);
+        if (event != null && ring(event).appendAt(event, sequence)) {
+            published(event, sequence);
+        }
+    }
+
+    /**
+     * Events of {@code taskId} after {@code afterSequence} that are no longer buffered in memory, oldest
+     * first. The in-memory service keeps no history, so this returns an empty list.
+     */
+    protected List<TaskEvent> readEvictedTaskEvents(String taskId, long afterSequence, int limit) {
+        return List.of();
+    }
+
+    /**
+     * Builds the status event for {@code task}, or returns {@code null} when the task has no state.
+     */
+    protected TaskEvent createTaskEvent(Task task) {
+        if (task == null || task.getTaskId() == null || task.getTaskId().isBlank()) {
+            return null;
+        }
         TaskStatus status = task.getStatus();
         if (status == null || status.getState() == null) {
-            return;
+            return null;
         }
 
         String taskId = task.getTaskId();
-        long sequence = sequenceByTaskId.computeIfAbsent(taskId, ignored -> new AtomicLong()).incrementAndGet();
-
         TaskEvent event = new TaskEvent();
         event.setTaskId(taskId);
-        event.setSequence(sequence);
+        event.setConversationId(task.getConversationId());
         event.setEventType("task.status");
         event.setState(status.getState());
         event.setMessage(status.getMessage());
-        event.setTimestamp(status.getUpdatedAt() != null ? status.getUpdatedAt() : Instant.now().toString());
+        if (status.getUpdatedAtMillis() != 0L) {
+            event.setTimestampMillis(status.getUpdatedAtMillis());
+        } else if (status.getUpdatedAt() != null) {
+            event.setTimestamp(status.getUpdatedAt());
+        } else {
+            event.setTimestampMillis(CachedClock.currentTimeMillis());
+        }
         event.setTerminal(TERMINAL_STATES.contains(status.getState()));
         event.setPayload(Map.of(
             "taskId", taskId,
             "state", status.getState().name(),
             "message", status.getMessage() == null ? "" : status.getMessage()
         ));
+        return event;
+    }
 
-        List<TaskEvent> events = eventsByTaskId.computeIfAbsent(taskId, ignored -> new ArrayList<>());
-        synchronized (events) {
-            events.add(copyEvent(event));
-            if (events.size() > maxEventsPerTask) {
-                events.subList(0, events.size() - maxEventsPerTask).clear();
-            }
+    private TaskEventRing ring(TaskEvent event) {
+        if (event.getConversationId() != null) {
+            taskIdsByConversationId.computeIfAbsent(event.getConversationId(), ignored -> ConcurrentHashMap.newKeySet()).add(event.getTaskId());
         }
+        return eventsByTaskId.computeIfAbsent(event.getTaskId(), ignored -> new TaskEventRing(maxEventsPerTask));
+    }
 
+    private void published(TaskEvent event, long sequence) {
         if (event.isTerminal()) {
-            markSubscriptionsTerminal(taskId);
+            markSubscriptionsTerminal(event.getTaskId());
         }
-        notifyListeners(event);
+        waiters.signal(event.getTaskId(), sequence);
     }
 
     public TaskSubscription createSubscription(String taskId, long afterSequence) {
         if (taskId == null || taskId.isBlank()) {
             throw new A2AInvalidParamsException("SubscribeToTask requires taskId");
         }
-        String now = Instant.now().toString();
+        long now = CachedClock.currentTimeMillis();
         TaskSubscription subscription = new TaskSubscription();
-        subscription.setSubscriptionId(UUID.randomUUID().toString());
+        subscription.setSubscriptionId(idGenerator.nextId());
         subscription.setTaskId(taskId);
         subscription.setAfterSequence(Math.max(afterSequence, 0L));
         subscription.setLastDeliveredSequence(Math.max(afterSequence, 0L));
-        subscription.setTerminal(isTaskTerminal(taskId));
-        subscription.setCreatedAt(now);
-        subscription.setUpdatedAt(now);
+        subscription.setCreatedAtMillis(now);
+        subscription.setUpdatedAtMillis(now);
+        activeSubscriptions.incrementAndGet();
+        subscriptionsById.put(subscription.getSubscriptionId(), subscription);
+        subscriptionIdsByTaskId.compute(taskId, (id, ids) -> {
+            Set<String> target = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+            target.add(subscription.getSubscriptionId());
+            return target;
+        });
+        // Checked after indexing: a terminal event published concurrently either shows up here or finds
+        // the subscription in the index.
+        if (isTaskTerminal(taskId)) {
+            markTerminal(subscription);
+        }
+        return copySubscription(subscription);
+    }
+
+    /**
+     * Creates a subscription that follows several tasks over one stream: the listed {@code taskIds}, or every
+     * task of {@code conversationId}, including tasks created later. Each task keeps its own cursor, starting
+     * at {@code afterSequence}. Multi-task subscriptions are not ended by a task's terminal event; they are
+     * acknowledged as terminal by the stream or expire when idle.
+     */
+    public TaskSubscription createSubscription(List<String> taskIds, String conversationId, long afterSequence) {
+        if ((taskIds == null || taskIds.isEmpty()) == (conversationId == null || conversationId.isBlank())) {
+            throw new A2AInvalidParamsException("SubscribeToTask requires either taskIds or conversationId");
+        }
+        long now = CachedClock.currentTimeMillis();
+        TaskSubscription subscription = new TaskSubscription();
+        subscription.setSubscriptionId(idGenerator.nextId());
+        if (taskIds != null && !taskIds.isEmpty()) {
+            subscription.setTaskIds(List.copyOf(new LinkedHashSet<>(taskIds)));
+        } else {
+            subscription.setConversationId(conversationId);
+        }
+        subscription.setAfterSequence(Math.max(afterSequence, 0L));
+        subscription.setLastDeliveredSequence(Math.max(afterSequence, 0L));
+        subscription.setCursors(new HashMap<>());
+        subscription.setCreatedAtMillis(now);
+        subscription.setUpdatedAtMillis(now);
+        activeSubscriptions.incrementAndGet();
         subscriptionsById.put(subscription.getSubscriptionId(), subscription);
         return copySubscription(subscription);
     }
 
+    /**
+     * Tasks currently followed by a multi-task subscription: its task list, or the tasks of its conversation
+     * that have published events.
+     */
+    public List<String> resolveTaskIds(TaskSubscription subscription) {
+        if (subscription.getTaskIds() != null) {
+            return subscription.getTaskIds();
+        }
+        Set<String> taskIds = subscription.getConversationId() == null ? null : taskIdsByConversationId.get(subscription.getConversationId());
+        return taskIds == null ? List.of() : List.copyOf(taskIds);
+    }
+
     public List<TaskEvent> readTaskEvents(String taskId, long afterSequence, int limit) {
         if (taskId == null || taskId.isBlank()) {
             throw new A2AInvalidParamsException("taskId is required");
         }
         int resolvedLimit = limit <= 0 ? 100 : Math.min(limit, 500);
-        List<TaskEvent> events = eventsByTaskId.get(taskId);
+        TaskEventRing events = eventsByTaskId.get(taskId);
         if (events == null) {
             return List.of();
         }
-        synchronized (events) {
-            return events.stream()
-                .filter(e -> e.getSequence() > afterSequence)
-                .sorted(Comparator.comparingLong(TaskEvent::getSequence))
-                .limit(resolvedLimit)
-                .map(this::copyEvent)
-                .collect(Collectors.toList());
+        long oldest = events.oldestSequence();
+        if (Math.max(afterSequence, 0L) + 1 >= oldest) {
+            return events.read(afterSequence, resolvedLimit, this::copyEvent);
+        }
+        return readWithHistory(taskId, events, Math.max(afterSequence, 0L), oldest, resolvedLimit);
+    }
+
+    /**
+     * Long-poll support: completes with {@code true} as soon as an event after {@code afterSequence} is
+     * buffered or the task is terminal, or with {@code false} once {@code waitMillis} (capped at
+     * {@link #MAX_WAIT_MILLIS}) elapses. No thread is parked while waiting; the future completes on the
+     * publishing or timer thread, so callers should continue asynchronously.
+     */
+    public CompletableFuture<Boolean> awaitTaskEvents(String taskId, long afterSequence, long waitMillis) {
+        if (taskId == null || taskId.isBlank()) {
+            throw new A2AInvalidParamsException("taskId is required");
         }
+        return waiters.await(taskId, afterSequence, Math.min(waitMillis, MAX_WAIT_MILLIS),
+            () -> lastSequence(taskId) > afterSequence || isTaskTerminal(taskId));
     }
 
     public void acknowledgeSubscription(String subscriptionId, long lastDeliveredSequence, boolean terminal) {
@@ -126,10 +253,29 @@ public class InMemoryTaskEventService implements A2ATaskEventPublisher {
         if (subscription == null) {
             return;
         }
-        subscription.setLastDeliveredSequence(Math.max(subscription.getLastDeliveredSequence(), lastDeliveredSequence));
-        subscription.setUpdatedAt(Instant.now().toString());
+        synchronized (subscription) {
+            subscription.setLastDeliveredSequence(Math.max(subscription.getLastDeliveredSequence(), lastDeliveredSequence));
+            subscription.setUpdatedAtMillis(CachedClock.currentTimeMillis());
+        }
         if (terminal) {
-            subscription.setTerminal(true);
+            markTerminal(subscription);
+        }
+    }
+
+    /**
+     * Advances the cursor of one task of a multi-task subscription.
+     */
+    public void acknowledgeSubscription(String subscriptionId, String taskId, long lastDeliveredSequence) {
+        if (subscriptionId == null || taskId == null) {
+            return;
+        }
+        TaskSubscription subscription = subscriptionsById.get(subscriptionId);
+        if (subscription == null || subscription.getCursors() == null) {
+            return;
+        }
+        synchronized (subscription) {
+            subscription.getCursors().merge(taskId, lastDeliveredSequence, Math::max);
+            subscription.setUpdatedAtMillis(CachedClock.currentTimeMillis());
         }
     }
 
@@ -139,77 +285,280 @@ public class InMemoryTaskEventService implements A2ATaskEventPublisher {
     }
 
     public boolean isTaskTerminal(String taskId) {
-        List<TaskEvent> events = eventsByTaskId.get(taskId);
+        TaskEventRing events = eventsByTaskId.get(taskId);
         if (events == null) {
             return false;
         }
-        synchronized (events) {
-            return !events.isEmpty() && events.get(events.size() - 1).isTerminal();
-        }
+        TaskEvent latest = events.latest();
+        return latest != null && latest.isTerminal();
     }
 
     public void cleanupTerminalSubscriptions() {
-        subscriptionsById.values().removeIf(TaskSubscription::isTerminal);
+        String subscriptionId;
+        while ((subscriptionId = terminalSubscriptionIds.poll()) != null) {
+            removeSubscription(subscriptionId);
+        }
     }
 
-    public int getActiveSubscriptionCount() {
-        int count = 0;
-        for (TaskSubscription sub : subscriptionsById.values()) {
-            if (!sub.isTerminal()) {
-                count++;
+    /**
+     * Removes subscriptions, terminal or not, that have not been created or acknowledged for
+     * {@code idleTtlMillis}.
+     *
+     * @return number of subscriptions removed
+     */
+    public int expireIdleSubscriptions(long idleTtlMillis, long nowMillis) {
+        if (idleTtlMillis <= 0L) {
+            return 0;
+        }
+        long cutoff = nowMillis - idleTtlMillis;
+        int expired = 0;
+        for (TaskSubscription subscription : subscriptionsById.values()) {
+            if (lastActivityMillis(subscription) < cutoff && removeSubscription(subscription.getSubscriptionId())) {
+                expired++;
             }
         }
-        return count;
+        return expired;
+    }
+
+    public int getActiveSubscriptionCount() {
+        return activeSubscriptions.get();
+    }
+
+    public int getSubscriptionCount() {
+        return subscriptionsById.size();
     }
 
     public int getBufferedEventCount() {
         int total = 0;
-        for (List<TaskEvent> events : eventsByTaskId.values()) {
-            synchronized (events) {
-                total += events.size();
-            }
+        for (TaskEventRing events : eventsByTaskId.values()) {
+            total += events.size();
         }
         return total;
     }
 
+    /**
+     * Drops buffered events, waiting readers and subscriptions of an evicted task.
+     */
+    public void evictTask(String taskId) {
+        if (taskId == null) {
+            return;
+        }
+        TaskEventRing events = eventsByTaskId.remove(taskId);
+        TaskEvent latest = events == null ? null : events.latest();
+        if (latest != null && latest.getConversationId() != null) {
+            taskIdsByConversationId.computeIfPresent(latest.getConversationId(), (conversationId, taskIds) -> {
+                taskIds.remove(taskId);
+                return taskIds.isEmpty() ? null : taskIds;
+            });
+        }
+        waiters.cancel(taskId);
+        Set<String> subscriptionIds = subscriptionIdsByTaskId.get(taskId);
+        if (subscriptionIds != null) {
+            List.copyOf(subscriptionIds).forEach(this::removeSubscription);
+        }
+    }
+
+    public int getWaitingReaderCount() {
+        return waiters.size();
+    }
+
+    public int getTrackedTaskCount() {
+        return eventsByTaskId.size();
+    }
+
+    /**
+     * Hands the buffered events of each task to {@code sink}, oldest first. Used by {@link WarmRestartSnapshot}.
+     */
+    void exportEvents(Consumer<List<TaskEvent>> sink) {
+        for (TaskEventRing ring : eventsByTaskId.values()) {
+            List<TaskEvent> events = ring.read(0L, ring.capacity(), this::copyEvent);
+            if (!events.isEmpty()) {
+                sink.accept(events);
+            }
+        }
+    }
+
+    /**
+     * Buffers events exported by {@link #exportEvents} under their original sequences. Like
+     * {@link #replayTaskUpdate}, listeners are not notified.
+     */
+    void restoreEvents(List<TaskEvent> events) {
+        for (TaskEvent event : events) {
+            if (event.getTaskId() != null && ring(event).appendAt(event, event.getSequence())) {
+                published(event, event.getSequence());
+            }
+        }
+    }
+
+    public TaskEventDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
     public void addListener(Consumer<TaskEvent> listener) {
+        addListener(listener, TaskEventDispatcher.Overflow.DROP);
+    }
+
+    /**
+     * Registers a listener with the overflow policy its dispatches use when the task's lane is full.
+     * Listeners that must see every event, such as push delivery and streams, register with
+     * {@link TaskEventDispatcher.Overflow#BLOCK}.
+     */
+    public void addListener(Consumer<TaskEvent> listener, TaskEventDispatcher.Overflow overflow) {
         if (listener == null) {
             return;
         }
         synchronized (listeners) {
-            listeners.add(listener);
+            (overflow == TaskEventDispatcher.Overflow.BLOCK ? blockingListeners : listeners).add(listener);
+        }
+    }
+
+    /**
+     * Serves a read that starts before the buffer: older events come from {@link #readEvictedTaskEvents},
+     * and any range neither source has is reported as a {@code task.gap} event.
+     */
+    private List<TaskEvent> readWithHistory(String taskId, TaskEventRing events, long afterSequence, long oldest, int limit) {
+        int requested = (int) Math.min(limit, oldest - 1 - afterSequence);
+        List<TaskEvent> older = readEvictedTaskEvents(taskId, afterSequence, requested);
+        List<TaskEvent> result = new ArrayList<>();
+        long cursor = afterSequence;
+        int delivered = 0;
+        for (TaskEvent event : older) {
+            if (event.getSequence() <= cursor || event.getSequence() >= oldest) {
+                continue;
+            }
+            if (event.getSequence() > cursor + 1) {
+                result.add(gapEvent(taskId, cursor + 1, event.getSequence() - 1));
+            }
+            result.add(event);
+            cursor = event.getSequence();
+            delivered++;
+        }
+        if (delivered >= limit || (older.size() >= requested && cursor + 1 < oldest)) {
+            return result;
         }
+        if (cursor + 1 < oldest) {
+            result.add(gapEvent(taskId, cursor + 1, oldest - 1));
+            cursor = oldest - 1;
+        }
+        result.addAll(events.read(cursor, limit - delivered, this::copyEvent));
+        return result;
+    }
+
+    private TaskEvent gapEvent(String taskId, long fromSequence, long toSequence) {
+        TaskEvent gap = new TaskEvent();
+        gap.setSequence(toSequence);
+        gap.setTaskId(taskId);
+        gap.setEventType("task.gap");
+        gap.setTimestampMillis(CachedClock.currentTimeMillis());
+        gap.setPayload(Map.of("taskId", taskId, "fromSequence", fromSequence, "toSequence", toSequence));
+        return gap;
+    }
+
+    long lastSequence(String taskId) {
+        TaskEventRing events = eventsByTaskId.get(taskId);
+        return events == null ? 0L : events.lastSequence();
     }
 
     private void markSubscriptionsTerminal(String taskId) {
-        subscriptionsById.values().forEach(sub -> {
-            if (taskId.equals(sub.getTaskId())) {
-                sub.setTerminal(true);
-                sub.setUpdatedAt(Instant.now().toString());
+        Set<String> subscriptionIds = subscriptionIdsByTaskId.get(taskId);
+        if (subscriptionIds == null) {
+            return;
+        }
+        for (String subscriptionId : subscriptionIds) {
+            TaskSubscription subscription = subscriptionsById.get(subscriptionId);
+            if (subscription != null) {
+                markTerminal(subscription);
             }
-        });
+        }
+    }
+
+    // The terminal flag only flips once per subscription, under its monitor, which keeps the active count exact.
+    private void markTerminal(TaskSubscription subscription) {
+        synchronized (subscription) {
+            if (subscription.isTerminal()) {
+                return;
+            }
+            subscription.setTerminal(true);
+            subscription.setUpdatedAtMillis(CachedClock.currentTimeMillis());
+        }
+        activeSubscriptions.decrementAndGet();
+        terminalSubscriptionIds.add(subscription.getSubscriptionId());
+    }
+
+    private boolean removeSubscription(String subscriptionId) {
+        TaskSubscription subscription = subscriptionsById.remove(subscriptionId);
+        if (subscription == null) {
+            return false;
+        }
+        if (subscription.getTaskId() != null) {
+            subscriptionIdsByTaskId.computeIfPresent(subscription.getTaskId(), (taskId, ids) -> {
+                ids.remove(subscriptionId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+        synchronized (subscription) {
+            if (!subscription.isTerminal()) {
+                subscription.setTerminal(true);
+                activeSubscriptions.decrementAndGet();
+            }
+        }
+        return true;
+    }
+
+    private static long lastActivityMillis(TaskSubscription subscription) {
+        synchronized (subscription) {
+            if (subscription.getUpdatedAtMillis() != 0L) {
+                return subscription.getUpdatedAtMillis();
+            }
+            return subscription.getUpdatedAt() == null ? 0L : Instant.parse(subscription.getUpdatedAt()).toEpochMilli();
+        }
     }
 
     private void notifyListeners(TaskEvent event) {
-        List<Consumer<TaskEvent>> snapshot;
+        List<Consumer<TaskEvent>> blocking;
+        List<Consumer<TaskEvent>> dropping;
         synchronized (listeners) {
-            snapshot = new ArrayList<>(listeners);
+            blocking = blockingListeners.isEmpty() ? List.of() : new ArrayList<>(blockingListeners);
+            dropping = listeners.isEmpty() ? List.of() : new ArrayList<>(listeners);
+        }
+        notifyListeners(event, blocking, TaskEventDispatcher.Overflow.BLOCK);
+        notifyListeners(event, dropping, TaskEventDispatcher.Overflow.DROP);
+    }
+
+    private void notifyListeners(TaskEvent event, List<Consumer<TaskEvent>> snapshot, TaskEventDispatcher.Overflow overflow) {
+        if (snapshot.isEmpty()) {
+            return;
         }
-        for (Consumer<TaskEvent> listener : snapshot) {
-            listener.accept(copyEvent(event));
+        if (dispatcher == null) {
+            for (Consumer<TaskEvent> listener : snapshot) {
+                listener.accept(copyEvent(event));
+            }
+            return;
         }
+        dispatcher.dispatch(event.getTaskId(), () -> {
+            for (Consumer<TaskEvent> listener : snapshot) {
+                listener.accept(copyEvent(event));
+            }
+        }, overflow);
     }
 
     private TaskEvent copyEvent(TaskEvent source) {
         TaskEvent copy = new TaskEvent();
         copy.setSequence(source.getSequence());
         copy.setTaskId(source.getTaskId());
+        copy.setConversationId(source.getConversationId());
         copy.setEventType(source.getEventType());
         copy.setState(source.getState());
         copy.setMessage(source.getMessage());
-        copy.setTimestamp(source.getTimestamp());
+        if (source.getTimestampMillis() != 0L) {
+            copy.setTimestampMillis(source.getTimestampMillis());
+        } else {
+            copy.setTimestamp(source.getTimestamp());
+        }
         copy.setTerminal(source.isTerminal());
         copy.setPayload(source.getPayload());
+        copy.setEncodedJson(source.getEncodedJson());
+        copy.setEncodedSseFrame(source.getEncodedSseFrame());
         return copy;
     }
 
@@ -217,11 +566,26 @@ public class InMemoryTaskEventService implements A2ATaskEventPublisher {
         TaskSubscription copy = new TaskSubscription();
         copy.setSubscriptionId(source.getSubscriptionId());
         copy.setTaskId(source.getTaskId());
+        copy.setTaskIds(source.getTaskIds());
+        copy.setConversationId(source.getConversationId());
+        if (source.getCursors() != null) {
+            synchronized (source) {
+                copy.setCursors(new HashMap<>(source.getCursors()));
+            }
+        }
         copy.setAfterSequence(source.getAfterSequence());
         copy.setLastDeliveredSequence(source.getLastDeliveredSequence());
         copy.setTerminal(source.isTerminal());
-        copy.setCreatedAt(source.getCreatedAt());
-        copy.setUpdatedAt(source.getUpdatedAt());
+        if (source.getCreatedAtMillis() != 0L) {
+            copy.setCreatedAtMillis(source.getCreatedAtMillis());
+        } else {
+            copy.setCreatedAt(source.getCreatedAt());
+        }
+        if (source.getUpdatedAtMillis() != 0L) {
+            copy.setUpdatedAtMillis(source.getUpdatedAtMillis());
+        } else {
+            copy.setUpdatedAt(source.getUpdatedAt());
+        }
         return copy;
     }
 }
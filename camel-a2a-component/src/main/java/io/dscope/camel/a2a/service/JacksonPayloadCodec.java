@@ -0,0 +1,174 @@
+package io.dscope.camel.a2a.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.dscope.camel.a2a.config.A2ASettings;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Properties;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * {@link PersistedPayloadCodec} writing payloads as JSON or Smile, deflated when the encoded form reaches
+ * {@code compressMinBytes}. A payload that is not plain JSON is stored as a two-field object tagging its
+ * format, for example {@code {"$codec":"smile+deflate","$data":"<base64>"}}, and any tag this class writes
+ * is decoded whatever format is configured. Untagged payloads are returned unchanged, so records written
+ * before a codec was configured stay readable.
+ */
+public final class JacksonPayloadCodec implements PersistedPayloadCodec {
+
+    public static final String FORMAT_PROPERTY = "a2a.persistence.codec";
+    public static final String COMPRESS_MIN_BYTES_PROPERTY = "a2a.persistence.codec.compress-min-bytes";
+    /** Compression is opt-in, so stores keep plain JSON unless configured otherwise. */
+    public static final int DEFAULT_COMPRESS_MIN_BYTES = 0;
+
+    static final String CODEC_FIELD = "$codec";
+    static final String DATA_FIELD = "$data";
+    private static final String DEFLATE_SUFFIX = "+deflate";
+
+    static final JacksonPayloadCodec JSON = new JacksonPayloadCodec(Format.JSON, 0);
+
+    public enum Format {
+        JSON("json", new ObjectMapper()),
+        SMILE("smile", new ObjectMapper(new SmileFactory()));
+
+        private final String tag;
+        private final ObjectMapper mapper;
+
+        Format(String tag, ObjectMapper mapper) {
+            this.tag = tag;
+            this.mapper = mapper;
+        }
+
+        static Format parse(String value) {
+            String format = value == null || value.isBlank() ? "json" : value.trim();
+            for (Format candidate : values()) {
+                if (candidate.tag.equals(format)) {
+                    return candidate;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported " + FORMAT_PROPERTY + ": " + value);
+        }
+    }
+
+    private final Format format;
+    private final int compressMinBytes;
+
+    /**
+     * @param compressMinBytes encoded size from which payloads are deflated; {@code 0} disables compression
+     */
+    public JacksonPayloadCodec(Format format, int compressMinBytes) {
+        this.format = format == null ? Format.JSON : format;
+        this.compressMinBytes = Math.max(0, compressMinBytes);
+    }
+
+    /**
+     * Creates a codec from the {@code a2a.persistence.codec} properties.
+     */
+    public static JacksonPayloadCodec fromProperties(Properties properties) {
+        return new JacksonPayloadCodec(
+            Format.parse(properties == null ? null : properties.getProperty(FORMAT_PROPERTY)),
+            (int) A2ASettings.longValue(properties, COMPRESS_MIN_BYTES_PROPERTY, DEFAULT_COMPRESS_MIN_BYTES)
+        );
+    }
+
+    @Override
+    public JsonNode encode(JsonNode payload) {
+        if (payload == null || (format == Format.JSON && compressMinBytes == 0)) {
+            return payload;
+        }
+        byte[] bytes;
+        try {
+            bytes = format.mapper.writeValueAsBytes(payload);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode persisted payload as " + format.tag, e);
+        }
+        String codec = format.tag;
+        if (compressMinBytes > 0 && bytes.length >= compressMinBytes) {
+            byte[] deflated = deflate(bytes);
+            if (deflated.length < bytes.length) {
+                bytes = deflated;
+                codec += DEFLATE_SUFFIX;
+            }
+        }
+        if (format == Format.JSON && codec.equals(format.tag)) {
+            return payload;
+        }
+        ObjectNode tagged = JsonNodeFactory.instance.objectNode();
+        tagged.put(CODEC_FIELD, codec);
+        tagged.put(DATA_FIELD, bytes);
+        return tagged;
+    }
+
+    @Override
+    public JsonNode decode(JsonNode stored) {
+        if (!isTagged(stored)) {
+            return stored;
+        }
+        String codec = stored.get(CODEC_FIELD).asText();
+        boolean deflated = codec.endsWith(DEFLATE_SUFFIX);
+        Format storedFormat = Format.parse(deflated ? codec.substring(0, codec.length() - DEFLATE_SUFFIX.length()) : codec);
+        try {
+            byte[] bytes = stored.get(DATA_FIELD).binaryValue();
+            return storedFormat.mapper.readTree(deflated ? inflate(bytes) : bytes);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to decode persisted " + codec + " payload", e);
+        }
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public int getCompressMinBytes() {
+        return compressMinBytes;
+    }
+
+    static boolean isTagged(JsonNode stored) {
+        return stored != null && stored.isObject() && stored.size() == 2
+            && stored.path(CODEC_FIELD).isTextual() && stored.has(DATA_FIELD);
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 16);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length * 4);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated deflate payload");
+                }
+                out.write(buffer, 0, inflated);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt deflate payload", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
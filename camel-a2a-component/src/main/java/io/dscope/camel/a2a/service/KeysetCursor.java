@@ -0,0 +1,40 @@
+package io.dscope.camel.a2a.service;
+
+import io.dscope.camel.a2a.processor.A2AInvalidParamsException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a creation-ordered listing, ordered by creation time and then id. Clients receive it as an
+ * opaque base64url token and pass it back to continue after that position.
+ */
+record KeysetCursor(long createdAtMillis, String id) implements Comparable<KeysetCursor> {
+
+    @Override
+    public int compareTo(KeysetCursor other) {
+        int byTime = Long.compare(createdAtMillis, other.createdAtMillis);
+        return byTime != 0 ? byTime : id.compareTo(other.id);
+    }
+
+    String encode() {
+        String raw = createdAtMillis + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param method protocol method named in the error when the token is malformed
+     */
+    static KeysetCursor decode(String cursor, String method) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("missing separator");
+            }
+            return new KeysetCursor(Long.parseLong(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw new A2AInvalidParamsException("Invalid " + method + " cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package io.dscope.camel.a2a.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Converts snapshot and event payloads between the JSON trees the services build and the trees handed to a
+ * {@link io.dscope.camel.persistence.core.FlowStateStore}. Implementations must decode every payload they or
+ * an earlier configuration wrote, including untagged JSON from before a codec was configured.
+ */
+public interface PersistedPayloadCodec {
+
+    JsonNode encode(JsonNode payload);
+
+    JsonNode decode(JsonNode stored);
+
+    /**
+     * Stores payloads as plain JSON trees and decodes tagged payloads written by other configurations.
+     */
+    static PersistedPayloadCodec json() {
+        return JacksonPayloadCodec.JSON;
+    }
+}
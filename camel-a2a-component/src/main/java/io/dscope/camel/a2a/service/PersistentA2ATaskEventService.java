@@ -2,72 +2,126 @@ package io.dscope.camel.a2a.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.dscope.camel.a2a.id.A2AIdGenerator;
 import io.dscope.camel.a2a.model.Task;
 import io.dscope.camel.a2a.model.TaskEvent;
 import io.dscope.camel.a2a.model.TaskState;
 import io.dscope.camel.a2a.model.TaskStatus;
+import io.dscope.camel.persistence.core.AppendResult;
 import io.dscope.camel.persistence.core.FlowStateStore;
 import io.dscope.camel.persistence.core.PersistedEvent;
 import io.dscope.camel.persistence.core.RehydratedState;
+import io.dscope.camel.persistence.core.StateEnvelope;
 import io.dscope.camel.persistence.core.exception.OptimisticConflictException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Persistent task event service built on top of the in-memory behavior.
+ * Persistent task event service built on top of the in-memory behavior. The log version of each task is
+ * cached after rehydration or the first append, so an append costs one store call; the log is only
+ * scanned for the version when a task is first appended to without a hydrated tail, or on a conflict.
  */
 public class PersistentA2ATaskEventService extends InMemoryTaskEventService {
 
-    private static final String FLOW_TYPE = "a2a.task";
+    static final String FLOW_TYPE = "a2a.task";
+    static final String STATUS_EVENT_TYPE = "task.status";
     private static final int VERSION_READ_PAGE_SIZE = 500;
 
     private final FlowStateStore stateStore;
+    private final A2AIdGenerator idGenerator;
     private final ObjectMapper mapper = new ObjectMapper();
     private final Set<String> hydrated = ConcurrentHashMap.newKeySet();
-    private final ThreadLocal<Boolean> replaying = ThreadLocal.withInitial(() -> false);
+    private final ConcurrentMap<String, Long> versionByTaskId = new ConcurrentHashMap<>();
+    private final StripedTaskLocks appendLocks = new StripedTaskLocks();
 
     public PersistentA2ATaskEventService(FlowStateStore stateStore) {
+        this(stateStore, A2AIdGenerator.timeOrdered());
+    }
+
+    public PersistentA2ATaskEventService(FlowStateStore stateStore, A2AIdGenerator idGenerator) {
+        this(stateStore, idGenerator, null);
+    }
+
+    public PersistentA2ATaskEventService(FlowStateStore stateStore, A2AIdGenerator idGenerator, TaskEventDispatcher dispatcher) {
+        super(256, idGenerator, dispatcher);
         this.stateStore = stateStore;
+        this.idGenerator = idGenerator == null ? A2AIdGenerator.timeOrdered() : idGenerator;
+        if (stateStore instanceof WriteBehindFlowStateStore writer) {
+            // A rejected queued append leaves the cached version ahead of the log; the next append re-reads it.
+            writer.addFailureListener((flowType, flowId, error) -> {
+                if (FLOW_TYPE.equals(flowType)) {
+                    versionByTaskId.remove(flowId);
+                }
+            });
+        }
     }
 
     @Override
     public void publishTaskUpdate(Task task) {
-        super.publishTaskUpdate(task);
-        if (Boolean.TRUE.equals(replaying.get()) || task == null || task.getTaskId() == null) {
+        if (task == null || task.getTaskId() == null) {
             return;
         }
-
         TaskStatus status = task.getStatus();
         if (status == null || status.getState() == null) {
             return;
         }
+        // Hydrated first so the new event continues the logged sequence; a created task has no log yet.
+        if (status.getState() == TaskState.CREATED) {
+            hydrated.add(task.getTaskId());
+            versionByTaskId.putIfAbsent(task.getTaskId(), 0L);
+        } else {
+            ensureHydrated(task.getTaskId());
+        }
+        super.publishTaskUpdate(task);
 
         PersistedEvent event = new PersistedEvent(
-            UUID.randomUUID().toString(),
+            idGenerator.nextId(),
             FLOW_TYPE,
             task.getTaskId(),
             0,
-            "task.status",
-            mapper.valueToTree(Map.of(
-                "taskId", task.getTaskId(),
-                "state", status.getState().name(),
-                "message", status.getMessage() == null ? "" : status.getMessage(),
-                "timestamp", status.getUpdatedAt() == null ? Instant.now().toString() : status.getUpdatedAt()
-            )),
+            STATUS_EVENT_TYPE,
+            statusPayload(mapper, task),
             Instant.now().toString(),
             null
         );
 
-        long expectedVersion = resolveCurrentVersion(task.getTaskId());
-        try {
-            stateStore.appendEvents(FLOW_TYPE, task.getTaskId(), expectedVersion, List.of(event), null);
-        } catch (OptimisticConflictException conflict) {
-            long actual = resolveCurrentVersion(task.getTaskId());
-            stateStore.appendEvents(FLOW_TYPE, task.getTaskId(), actual, List.of(event), null);
+        append(task.getTaskId(), event);
+    }
+
+    /**
+     * Logged form of a status change; {@link PersistentA2ATaskService} replays these onto task snapshots.
+     */
+    static ObjectNode statusPayload(ObjectMapper mapper, Task task) {
+        TaskStatus status = task.getStatus();
+        ObjectNode payload = mapper.valueToTree(Map.of(
+            "taskId", task.getTaskId(),
+            "state", status.getState().name(),
+            "message", status.getMessage() == null ? "" : status.getMessage(),
+            "timestamp", status.getUpdatedAt() == null ? Instant.now().toString() : status.getUpdatedAt()
+        ));
+        if (task.getConversationId() != null) {
+            payload.put("conversationId", task.getConversationId());
+        }
+        return payload;
+    }
+
+    /**
+     * Drops the cached version and hydration state along with the buffered events.
+     */
+    @Override
+    public void evictTask(String taskId) {
+        super.evictTask(taskId);
+        if (taskId != null) {
+            hydrated.remove(taskId);
+            versionByTaskId.remove(taskId);
         }
     }
 
@@ -77,12 +131,38 @@ public class PersistentA2ATaskEventService extends InMemoryTaskEventService {
         return super.readTaskEvents(taskId, afterSequence, limit);
     }
 
+    @Override
+    public CompletableFuture<Boolean> awaitTaskEvents(String taskId, long afterSequence, long waitMillis) {
+        ensureHydrated(taskId);
+        return super.awaitTaskEvents(taskId, afterSequence, waitMillis);
+    }
+
     @Override
     public boolean isTaskTerminal(String taskId) {
         ensureHydrated(taskId);
         return super.isTaskTerminal(taskId);
     }
 
+    /**
+     * Pages events that have rolled out of the in-memory buffer from the event log.
+     */
+    @Override
+    protected List<TaskEvent> readEvictedTaskEvents(String taskId, long afterSequence, int limit) {
+        List<PersistedEvent> page = stateStore.readEvents(FLOW_TYPE, taskId, afterSequence, limit);
+        if (page == null || page.isEmpty()) {
+            return List.of();
+        }
+        List<TaskEvent> events = new ArrayList<>(page.size());
+        for (PersistedEvent persisted : page) {
+            TaskEvent event = createTaskEvent(toTask(taskId, persisted));
+            if (event != null) {
+                event.setSequence(persisted.sequence());
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
     private void ensureHydrated(String taskId) {
         if (taskId == null || taskId.isBlank() || !hydrated.add(taskId)) {
             return;
@@ -90,27 +170,84 @@ public class PersistentA2ATaskEventService extends InMemoryTaskEventService {
         RehydratedState rehydrated = stateStore.rehydrate(FLOW_TYPE, taskId);
         List<PersistedEvent> events = rehydrated.tailEvents();
         if (events == null || events.isEmpty()) {
+            seedFromEnvelope(taskId, rehydrated.envelope());
             return;
         }
+        long version = Math.max(events.get(events.size() - 1).sequence(),
+            rehydrated.envelope() == null ? 0L : rehydrated.envelope().version());
+        versionByTaskId.putIfAbsent(taskId, version);
+        // Logged sequences are kept so event ids survive a restart and older ones can be paged from the log.
+        for (PersistedEvent event : events) {
+            Task task = toTask(taskId, event);
+            if (task != null) {
+                replayTaskUpdate(task, event.sequence());
+            }
+        }
+    }
 
-        replaying.set(true);
+    /**
+     * A task snapshotted at its latest event rehydrates without a tail. Its current version still seeds the
+     * append version, and its latest event is buffered under that sequence so terminal checks and the next
+     * sequence survive the restart; older reads page from the log. When the latest event is no longer in the
+     * log, the snapshot's task status stands in for it.
+     */
+    private void seedFromEnvelope(String taskId, StateEnvelope envelope) {
+        long version = envelope == null ? 0L : envelope.version();
+        if (version <= 0L) {
+            return;
+        }
+        versionByTaskId.putIfAbsent(taskId, version);
+        List<PersistedEvent> latest = stateStore.readEvents(FLOW_TYPE, taskId, version - 1, 1);
+        Task task = latest == null || latest.isEmpty() ? snapshotTask(envelope) : toTask(taskId, latest.get(0));
+        if (task != null) {
+            task.setTaskId(taskId);
+            replayTaskUpdate(task, version);
+        }
+    }
+
+    private Task snapshotTask(StateEnvelope envelope) {
+        JsonNode snapshot = envelope.snapshot();
+        if (snapshot == null || !snapshot.hasNonNull("task")) {
+            return null;
+        }
+        return mapper.convertValue(snapshot.get("task"), Task.class);
+    }
+
+    static Task toTask(String taskId, PersistedEvent event) {
+        JsonNode payload = event.payload();
+        if (payload == null || payload.get("state") == null) {
+            return null;
+        }
+        Task task = new Task();
+        task.setTaskId(taskId);
+        task.setConversationId(payload.path("conversationId").asText(null));
+        TaskStatus status = new TaskStatus();
+        status.setState(TaskState.valueOf(payload.get("state").asText()));
+        status.setMessage(payload.path("message").asText(""));
+        status.setUpdatedAt(payload.path("timestamp").asText(Instant.now().toString()));
+        task.setStatus(status);
+        return task;
+    }
+
+    // Appends of one task are serialized so the cached version is only advanced by the append that used it.
+    private void append(String taskId, PersistedEvent event) {
+        ReentrantLock lock = appendLocks.lock(taskId);
         try {
-            for (PersistedEvent event : events) {
-                JsonNode payload = event.payload();
-                if (payload == null || payload.get("state") == null) {
-                    continue;
-                }
-                Task task = new Task();
-                task.setTaskId(taskId);
-                TaskStatus status = new TaskStatus();
-                status.setState(TaskState.valueOf(payload.get("state").asText()));
-                status.setMessage(payload.path("message").asText(""));
-                status.setUpdatedAt(payload.path("timestamp").asText(Instant.now().toString()));
-                task.setStatus(status);
-                super.publishTaskUpdate(task);
+            Long cached = versionByTaskId.get(taskId);
+            long expectedVersion = cached != null ? cached : resolveCurrentVersion(taskId);
+            AppendResult result;
+            try {
+                result = stateStore.appendEvents(FLOW_TYPE, taskId, expectedVersion, List.of(event), null);
+            } catch (OptimisticConflictException conflict) {
+                expectedVersion = resolveCurrentVersion(taskId);
+                result = stateStore.appendEvents(FLOW_TYPE, taskId, expectedVersion, List.of(event), null);
             }
+            versionByTaskId.put(taskId, result == null ? expectedVersion + 1 : result.nextVersion());
+        } catch (RuntimeException e) {
+            versionByTaskId.remove(taskId);
+            throw e;
         } finally {
-            replaying.set(false);
+            lock.unlock();
         }
     }
 
@@ -3,47 +3,88 @@ package io.dscope.camel.a2a.service;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.dscope.camel.a2a.config.A2ASettings;
+import io.dscope.camel.a2a.id.A2AIdGenerator;
 import io.dscope.camel.a2a.model.Message;
 import io.dscope.camel.a2a.model.Task;
 import io.dscope.camel.a2a.model.TaskState;
 import io.dscope.camel.a2a.model.TaskStatus;
 import io.dscope.camel.a2a.model.dto.CancelTaskRequest;
 import io.dscope.camel.a2a.model.dto.ListTasksRequest;
+import io.dscope.camel.a2a.model.dto.ListTasksResponse;
 import io.dscope.camel.a2a.model.dto.SendMessageRequest;
 import io.dscope.camel.a2a.processor.A2AIllegalTaskStateException;
 import io.dscope.camel.a2a.processor.A2AInvalidParamsException;
+import io.dscope.camel.persistence.core.AppendResult;
 import io.dscope.camel.persistence.core.FlowStateStore;
+import io.dscope.camel.persistence.core.PersistedEvent;
+import io.dscope.camel.persistence.core.RehydratedState;
 import io.dscope.camel.persistence.core.RehydrationPolicy;
+import io.dscope.camel.persistence.core.StateEnvelope;
+import io.dscope.camel.persistence.core.exception.OptimisticConflictException;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
-import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 /**
  * Persistent implementation of A2ATaskService. Keeps in-memory cache while backing state with FlowStateStore.
+ * The index of known task ids and idempotency keys is journaled into hash buckets: creating a task appends
+ * one small record to its bucket's event log, and each bucket is compacted into a snapshot every
+ * {@value #META_COMPACT_EVERY} records so startup replays a bounded tail per bucket.
+ *
+ * <p>A task's status changes are logged as {@code task.status} events in the task's flow, by
+ * {@link PersistentA2ATaskEventService} when it is the event publisher and by this service otherwise. The
+ * full task and history are snapshotted on creation, every {@value #SNAPSHOT_EVERY_EVENTS} events and on
+ * reaching a terminal state; loading a task replays the events after its snapshot.
  */
 public class PersistentA2ATaskService implements A2ATaskService {
 
-    private static final String TASK_FLOW = "a2a.task";
+    public static final String CACHE_MAX_TASKS_PROPERTY = "a2a.persistence.cache.max-tasks";
+    public static final int DEFAULT_CACHE_MAX_TASKS = 10_000;
+    public static final String NEGATIVE_LOOKUP_TTL_MS_PROPERTY = "a2a.persistence.negative-lookup-ttl-ms";
+    public static final long DEFAULT_NEGATIVE_LOOKUP_TTL_MS = 1_000L;
+
+    private static final String TASK_FLOW = PersistentA2ATaskEventService.FLOW_TYPE;
+    private static final int SNAPSHOT_EVERY_EVENTS = 25;
+    private static final int TASK_READ_PAGE_SIZE = 500;
     private static final String META_FLOW = "a2a.meta";
+    // Whole-index snapshot written by earlier versions; still read at startup, no longer written.
     private static final String META_ID = "global";
+    private static final String META_BUCKET_PREFIX = "bucket-";
+    private static final String META_EVENT_TYPE = "task.registered";
+    private static final int META_BUCKETS = 64;
+    private static final int META_COMPACT_EVERY = 500;
+    private static final int META_READ_PAGE_SIZE = 500;
 
     private final A2ATaskEventPublisher eventPublisher;
     private final FlowStateStore stateStore;
     private final RehydrationPolicy policy;
     private final ObjectMapper mapper = new ObjectMapper();
-    private final ConcurrentMap<String, Task> tasks = new ConcurrentHashMap<>();
-    private final ConcurrentMap<String, List<TaskStatus>> historyByTaskId = new ConcurrentHashMap<>();
+    private final TaskCache cache;
+    private final boolean publisherLogsTransitions;
+    private final long negativeLookupTtlMs;
+    private final ConcurrentMap<String, CompletableFuture<TaskCache.Entry>> inFlightLoads = new ConcurrentHashMap<>();
+    private final AtomicLong negativeLookups = new AtomicLong();
+    private final AtomicLong collapsedLoads = new AtomicLong();
     private final ConcurrentMap<String, String> idempotencyToTaskId = new ConcurrentHashMap<>();
-    private final ConcurrentMap<String, Object> taskLocks = new ConcurrentHashMap<>();
-    private final Set<String> knownTaskIds = ConcurrentHashMap.newKeySet();
+    private final StripedTaskLocks taskLocks;
+    private final A2AIdGenerator idGenerator;
+    private final TaskListIndex listIndex = new TaskListIndex();
+    private final MetaBucket[] metaBuckets = new MetaBucket[META_BUCKETS];
 
     private static final Map<TaskState, Set<TaskState>> ALLOWED_TRANSITIONS = Map.of(
         TaskState.CREATED, EnumSet.of(TaskState.QUEUED, TaskState.RUNNING, TaskState.CANCELED, TaskState.FAILED),
@@ -56,10 +97,75 @@ public class PersistentA2ATaskService implements A2ATaskService {
     );
 
     public PersistentA2ATaskService(FlowStateStore stateStore, A2ATaskEventPublisher eventPublisher, RehydrationPolicy policy) {
+        this(stateStore, eventPublisher, policy, new StripedTaskLocks());
+    }
+
+    public PersistentA2ATaskService(FlowStateStore stateStore,
+                                    A2ATaskEventPublisher eventPublisher,
+                                    RehydrationPolicy policy,
+                                    StripedTaskLocks taskLocks) {
+        this(stateStore, eventPublisher, policy, taskLocks, A2AIdGenerator.timeOrdered());
+    }
+
+    public PersistentA2ATaskService(FlowStateStore stateStore,
+                                    A2ATaskEventPublisher eventPublisher,
+                                    RehydrationPolicy policy,
+                                    StripedTaskLocks taskLocks,
+                                    A2AIdGenerator idGenerator) {
+        this(stateStore, eventPublisher, policy, taskLocks, idGenerator, DEFAULT_CACHE_MAX_TASKS);
+    }
+
+    /**
+     * @param maxCachedTasks upper bound on tasks kept in memory; others are reloaded from the store on access
+     */
+    public PersistentA2ATaskService(FlowStateStore stateStore,
+                                    A2ATaskEventPublisher eventPublisher,
+                                    RehydrationPolicy policy,
+                                    StripedTaskLocks taskLocks,
+                                    A2AIdGenerator idGenerator,
+                                    int maxCachedTasks) {
+        this(stateStore, eventPublisher, policy, taskLocks, idGenerator, maxCachedTasks, DEFAULT_NEGATIVE_LOOKUP_TTL_MS);
+    }
+
+    /**
+     * Creates the service with the cache size and negative lookup TTL given by {@value #CACHE_MAX_TASKS_PROPERTY}
+     * and {@value #NEGATIVE_LOOKUP_TTL_MS_PROPERTY}.
+     */
+    public static PersistentA2ATaskService fromProperties(FlowStateStore stateStore,
+                                                          A2ATaskEventPublisher eventPublisher,
+                                                          RehydrationPolicy policy,
+                                                          StripedTaskLocks taskLocks,
+                                                          A2AIdGenerator idGenerator,
+                                                          Properties properties) {
+        return new PersistentA2ATaskService(stateStore, eventPublisher, policy, taskLocks, idGenerator,
+            (int) A2ASettings.longValue(properties, CACHE_MAX_TASKS_PROPERTY, DEFAULT_CACHE_MAX_TASKS),
+            A2ASettings.longValue(properties, NEGATIVE_LOOKUP_TTL_MS_PROPERTY, DEFAULT_NEGATIVE_LOOKUP_TTL_MS));
+    }
+
+    /**
+     * @param maxCachedTasks upper bound on tasks kept in memory; others are reloaded from the store on access
+     * @param negativeLookupTtlMs how long a lookup of an unknown task id is answered from the local index
+     *                            before the id's journal bucket is read again for tasks created elsewhere
+     */
+    public PersistentA2ATaskService(FlowStateStore stateStore,
+                                    A2ATaskEventPublisher eventPublisher,
+                                    RehydrationPolicy policy,
+                                    StripedTaskLocks taskLocks,
+                                    A2AIdGenerator idGenerator,
+                                    int maxCachedTasks,
+                                    long negativeLookupTtlMs) {
+        this.cache = new TaskCache(maxCachedTasks);
+        this.negativeLookupTtlMs = Math.max(0L, negativeLookupTtlMs);
         this.stateStore = stateStore;
         this.eventPublisher = eventPublisher == null ? new NoopTaskEventPublisher() : eventPublisher;
+        this.publisherLogsTransitions = eventPublisher instanceof PersistentA2ATaskEventService;
         this.policy = policy == null ? RehydrationPolicy.DEFAULT : policy;
+        this.taskLocks = taskLocks == null ? new StripedTaskLocks() : taskLocks;
+        this.idGenerator = idGenerator == null ? A2AIdGenerator.timeOrdered() : idGenerator;
         loadMeta();
+        if (stateStore instanceof WriteBehindFlowStateStore writer) {
+            writer.addFailureListener(this::metaWriteFailed);
+        }
     }
 
     @Override
@@ -70,77 +176,105 @@ public class PersistentA2ATaskService implements A2ATaskService {
         }
 
         String idempotencyKey = normalizeIdempotencyKey(request);
-        synchronized (idempotencyToTaskId) {
-            if (idempotencyKey != null) {
-                String existingTaskId = idempotencyToTaskId.get(idempotencyKey);
-                if (existingTaskId != null) {
-                    return getTask(existingTaskId);
-                }
+        if (idempotencyKey != null) {
+            String existingTaskId = idempotencyToTaskId.get(idempotencyKey);
+            if (existingTaskId != null) {
+                return awaitReservedTask(existingTaskId);
             }
+        }
 
-            String now = Instant.now().toString();
-            String taskId = UUID.randomUUID().toString();
-
-            TaskStatus status = new TaskStatus();
-            status.setState(TaskState.CREATED);
-            status.setMessage("Task created");
-            status.setUpdatedAt(now);
-
-            Task task = new Task();
-            task.setTaskId(taskId);
-            task.setStatus(status);
-            task.setLatestMessage(message);
-            task.setMessages(List.of(message));
-            task.setArtifacts(new ArrayList<>());
-            task.setMetadata(request.getMetadata());
-            task.setCreatedAt(now);
-            task.setUpdatedAt(now);
-
-            Object lock = taskLocks.computeIfAbsent(taskId, ignored -> new Object());
-            synchronized (lock) {
-                tasks.put(taskId, task);
-                historyByTaskId.put(taskId, new ArrayList<>(List.of(copyStatus(status))));
-                knownTaskIds.add(taskId);
-                eventPublisher.publishTaskUpdate(task);
-                if (idempotencyKey != null) {
-                    idempotencyToTaskId.putIfAbsent(idempotencyKey, taskId);
+        long now = CachedClock.currentTimeMillis();
+        String taskId = idGenerator.nextId();
+
+        TaskStatus status = new TaskStatus();
+        status.setState(TaskState.CREATED);
+        status.setMessage("Task created");
+        status.setUpdatedAtMillis(now);
+
+        Task task = new Task();
+        task.setTaskId(taskId);
+        task.setConversationId(request.getConversationId());
+        task.setStatus(status);
+        task.setLatestMessage(message);
+        task.setMessages(List.of(message));
+        task.setArtifacts(new ArrayList<>());
+        task.setMetadata(request.getMetadata());
+        task.setCreatedAtMillis(now);
+        task.setUpdatedAtMillis(now);
+
+        String existingTaskId = null;
+        ReentrantLock lock = taskLocks.lock(taskId);
+        try {
+            // The key is reserved while holding the new task's lock, so a concurrent sender that loses
+            // the race blocks on that lock until the winning task is fully created.
+            if (idempotencyKey != null) {
+                existingTaskId = idempotencyToTaskId.putIfAbsent(idempotencyKey, taskId);
+            }
+            if (existingTaskId == null) {
+                TaskCache.Entry entry = cache.putPinned(taskId, new TaskCache.Entry(task, new ArrayList<>(List.of(copyStatus(status)))));
+                try {
+                    metaBucket(taskId).taskIds.add(taskId);
+                    listIndex.put(taskId, now, TaskState.CREATED);
+                    eventPublisher.publishTaskUpdate(task);
+                    logTransition(entry);
+                    persistTask(entry);
+                    journalTask(taskId, idempotencyKey, now);
+                    return transitionTask(taskId, TaskState.RUNNING, "Task created from SendMessage");
+                } catch (RuntimeException e) {
+                    if (idempotencyKey != null) {
+                        idempotencyToTaskId.remove(idempotencyKey, taskId);
+                    }
+                    throw e;
+                } finally {
+                    cache.unpin(taskId, entry);
                 }
-                persistTask(taskId);
-                persistMeta();
-                transitionTask(taskId, TaskState.RUNNING, "Task created from SendMessage");
-                return tasks.get(taskId);
             }
+        } finally {
+            lock.unlock();
         }
+        return awaitReservedTask(existingTaskId);
     }
 
     @Override
     public Task getTask(String taskId) {
-        ensureTaskLoaded(taskId);
-        Task task = tasks.get(taskId);
-        if (task == null) {
+        TaskCache.Entry entry = taskId == null || taskId.isBlank() ? null : residentTask(taskId);
+        if (entry == null) {
             throw new A2AInvalidParamsException("Task not found: " + taskId);
         }
-        return task;
+        return entry.task;
     }
 
     @Override
     public List<Task> listTasks(ListTasksRequest request) {
-        for (String taskId : knownTaskIds) {
-            ensureTaskLoaded(taskId);
-        }
+        return listTasksPage(request).getTasks();
+    }
 
-        List<Task> current = new ArrayList<>(tasks.values());
-        if (request != null && request.getState() != null && !request.getState().isBlank()) {
-            String expectedState = request.getState().toUpperCase();
-            current = current.stream()
-                .filter(t -> t.getStatus() != null && t.getStatus().getState() != null)
-                .filter(t -> t.getStatus().getState().name().equals(expectedState))
-                .collect(Collectors.toList());
+    @Override
+    public ListTasksResponse listTasksPage(ListTasksRequest request) {
+        // Tasks journaled with their creation time are indexed at startup and resolved page by page; older
+        // records lack it, so those tasks are indexed from their snapshots up front, without being cached.
+        if (listIndex.size() < knownTaskCount()) {
+            for (MetaBucket bucket : metaBuckets) {
+                for (String taskId : bucket.taskIds) {
+                    if (!listIndex.contains(taskId)) {
+                        loadTask(taskId);
+                    }
+                }
+            }
         }
-        if (request != null && request.getLimit() != null && request.getLimit() > 0 && current.size() > request.getLimit()) {
-            return current.subList(0, request.getLimit());
+
+        TaskListIndex.Page page = listIndex.page(request, this::residentTask);
+        List<Task> current = new ArrayList<>(page.taskIds().size());
+        for (String taskId : page.taskIds()) {
+            TaskCache.Entry entry = residentTask(taskId);
+            if (entry != null) {
+                current.add(entry.task);
+            }
         }
-        return current;
+        ListTasksResponse response = new ListTasksResponse();
+        response.setTasks(current);
+        response.setNextCursor(page.nextCursor());
+        return response;
     }
 
     @Override
@@ -161,9 +295,14 @@ public class PersistentA2ATaskService implements A2ATaskService {
             throw new A2AInvalidParamsException("targetState is required");
         }
 
-        Task task = getTask(taskId);
-        Object lock = taskLocks.computeIfAbsent(taskId, ignored -> new Object());
-        synchronized (lock) {
+        ReentrantLock lock = taskLocks.lock(taskId);
+        TaskCache.Entry entry = null;
+        try {
+            entry = pinTask(taskId);
+            if (entry == null) {
+                throw new A2AInvalidParamsException("Task not found: " + taskId);
+            }
+            Task task = entry.task;
             TaskStatus currentStatus = task.getStatus();
             TaskState currentState = currentStatus == null ? null : currentStatus.getState();
             if (currentState == null) {
@@ -179,60 +318,248 @@ public class PersistentA2ATaskService implements A2ATaskService {
                 throw new A2AIllegalTaskStateException("Illegal task transition: " + currentState + " -> " + targetState);
             }
 
-            String now = Instant.now().toString();
+            long now = CachedClock.currentTimeMillis();
             TaskStatus next = new TaskStatus();
             next.setState(targetState);
             next.setMessage(reason == null || reason.isBlank() ? "State changed to " + targetState : reason);
-            next.setUpdatedAt(now);
+            next.setUpdatedAtMillis(now);
             if (currentStatus != null) {
                 next.setDetails(currentStatus.getDetails());
             }
 
             task.setStatus(next);
-            task.setUpdatedAt(now);
-            historyByTaskId.computeIfAbsent(taskId, ignored -> new ArrayList<>()).add(copyStatus(next));
-            tasks.put(taskId, task);
-            knownTaskIds.add(taskId);
+            task.setUpdatedAtMillis(now);
+            entry.history.add(copyStatus(next));
+            metaBucket(taskId).taskIds.add(taskId);
+            listIndex.updateState(taskId, targetState);
             eventPublisher.publishTaskUpdate(task);
-            persistTask(taskId);
+            if (!logTransition(entry)
+                || ALLOWED_TRANSITIONS.getOrDefault(targetState, Set.of()).isEmpty()
+                || entry.history.size() - entry.snapshotVersion >= SNAPSHOT_EVERY_EVENTS) {
+                persistTask(entry);
+            }
             return task;
+        } finally {
+            if (entry != null) {
+                cache.unpin(taskId, entry);
+            }
+            lock.unlock();
         }
     }
 
     @Override
     public List<TaskStatus> getTaskHistory(String taskId) {
-        ensureTaskLoaded(taskId);
         if (taskId == null || taskId.isBlank()) {
             throw new A2AInvalidParamsException("taskId is required");
         }
-        Object lock = taskLocks.computeIfAbsent(taskId, ignored -> new Object());
-        List<TaskStatus> history = historyByTaskId.get(taskId);
-        synchronized (lock) {
-            if (history == null) {
+        ReentrantLock lock = taskLocks.lock(taskId);
+        try {
+            TaskCache.Entry entry = residentTask(taskId);
+            if (entry == null) {
                 throw new A2AInvalidParamsException("Task not found: " + taskId);
             }
-            return history.stream().map(this::copyStatus).collect(Collectors.toList());
+            return entry.history.stream().map(this::copyStatus).collect(Collectors.toList());
+        } finally {
+            lock.unlock();
         }
     }
 
-    private void ensureTaskLoaded(String taskId) {
-        if (taskId == null || taskId.isBlank() || tasks.containsKey(taskId)) {
-            return;
+    public int getCachedTaskCount() {
+        return cache.size();
+    }
+
+    public int getMaxCachedTasks() {
+        return cache.capacity();
+    }
+
+    public long getCacheEvictionCount() {
+        return cache.evictionCount();
+    }
+
+    /**
+     * Lookups of unknown task ids answered without loading a task.
+     */
+    public long getNegativeLookupCount() {
+        return negativeLookups.get();
+    }
+
+    /**
+     * Cold loads that waited for a load of the same task already in flight instead of reading the store.
+     */
+    public long getCollapsedLoadCount() {
+        return collapsedLoads.get();
+    }
+
+    private TaskCache.Entry residentTask(String taskId) {
+        TaskCache.Entry entry = cache.get(taskId);
+        if (entry != null) {
+            return entry;
+        }
+        TaskCache.Entry loaded = loadColdTask(taskId);
+        return loaded == null ? null : cache.putIfAbsent(taskId, loaded);
+    }
+
+    // Called under the task lock: the pinned entry stays resident until the change is persisted.
+    private TaskCache.Entry pinTask(String taskId) {
+        TaskCache.Entry entry = cache.pin(taskId);
+        if (entry != null) {
+            return entry;
+        }
+        TaskCache.Entry loaded = loadColdTask(taskId);
+        return loaded == null ? null : cache.putPinned(taskId, loaded);
+    }
+
+    // Concurrent misses on one task share a single load; ids absent from the index never reach the store.
+    private TaskCache.Entry loadColdTask(String taskId) {
+        if (!isKnownTask(taskId)) {
+            negativeLookups.incrementAndGet();
+            return null;
         }
-        JsonNode snapshot = stateStore.rehydrate(TASK_FLOW, taskId).envelope().snapshot();
+        CompletableFuture<TaskCache.Entry> load = new CompletableFuture<>();
+        CompletableFuture<TaskCache.Entry> inFlight = inFlightLoads.putIfAbsent(taskId, load);
+        if (inFlight != null) {
+            collapsedLoads.incrementAndGet();
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        try {
+            TaskCache.Entry loaded = loadTask(taskId);
+            load.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(taskId, load);
+        }
+    }
+
+    // The journal bucket of an unknown id is re-read at most once per TTL, so polling for ids that do not
+    // exist costs at most one small read per bucket per TTL whatever the number of distinct ids.
+    private boolean isKnownTask(String taskId) {
+        MetaBucket bucket = metaBucket(taskId);
+        if (bucket.taskIds.contains(taskId)) {
+            return true;
+        }
+        synchronized (bucket) {
+            long now = CachedClock.currentTimeMillis();
+            if (negativeLookupTtlMs == 0L || now - bucket.caughtUpAtMillis >= negativeLookupTtlMs) {
+                catchUp(bucket);
+            }
+        }
+        return bucket.taskIds.contains(taskId);
+    }
+
+    private int knownTaskCount() {
+        int count = 0;
+        for (MetaBucket bucket : metaBuckets) {
+            count += bucket.taskIds.size();
+        }
+        return count;
+    }
+
+    private TaskCache.Entry loadTask(String taskId) {
+        RehydratedState rehydrated = stateStore.rehydrate(TASK_FLOW, taskId);
+        StateEnvelope envelope = rehydrated.envelope();
+        JsonNode snapshot = envelope.snapshot();
         if (snapshot == null || snapshot.isMissingNode() || snapshot.isEmpty()) {
-            return;
+            return null;
         }
         Task task = mapper.convertValue(snapshot.path("task"), Task.class);
         List<TaskStatus> history = mapper.convertValue(snapshot.path("history"), new TypeReference<List<TaskStatus>>() {});
-        if (task != null) {
-            tasks.put(taskId, task);
-            historyByTaskId.put(taskId, history == null ? new ArrayList<>() : new ArrayList<>(history));
-            knownTaskIds.add(taskId);
+        if (task == null) {
+            return null;
+        }
+        TaskCache.Entry entry = new TaskCache.Entry(task, history == null ? new ArrayList<>() : new ArrayList<>(history));
+        entry.snapshotVersion = entry.history.size();
+        replay(entry, rehydrated.tailEvents());
+        // The tail handed back by rehydrate may be capped; page the rest from the log.
+        while (envelope.version() > entry.history.size()) {
+            List<PersistedEvent> page = stateStore.readEvents(TASK_FLOW, taskId, entry.history.size(), TASK_READ_PAGE_SIZE);
+            if (page == null || page.isEmpty() || !replay(entry, page)) {
+                break;
+            }
+        }
+        metaBucket(taskId).taskIds.add(taskId);
+        TaskState state = task.getStatus() == null ? null : task.getStatus().getState();
+        listIndex.put(taskId, createdAtMillis(task), state);
+        return entry;
+    }
+
+    // History position n holds the status logged at sequence n, so events already in the snapshot are skipped.
+    private boolean replay(TaskCache.Entry entry, List<PersistedEvent> events) {
+        boolean applied = false;
+        if (events == null) {
+            return false;
+        }
+        for (PersistedEvent event : events) {
+            if (event.sequence() <= entry.history.size()) {
+                continue;
+            }
+            Task logged = PersistentA2ATaskEventService.toTask(entry.task.getTaskId(), event);
+            if (logged == null) {
+                continue;
+            }
+            TaskStatus status = logged.getStatus();
+            if (entry.task.getStatus() != null) {
+                status.setDetails(entry.task.getStatus().getDetails());
+            }
+            entry.task.setStatus(status);
+            entry.task.setUpdatedAt(status.getUpdatedAt());
+            entry.history.add(copyStatus(status));
+            applied = true;
+        }
+        return applied;
+    }
+
+    private long createdAtMillis(Task task) {
+        try {
+            if (task.getCreatedAtMillis() != 0L) {
+                return task.getCreatedAtMillis();
+            }
+            return task.getCreatedAt() == null ? 0L : Instant.parse(task.getCreatedAt()).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return 0L;
         }
     }
 
     private void loadMeta() {
+        for (int i = 0; i < META_BUCKETS; i++) {
+            metaBuckets[i] = new MetaBucket(META_BUCKET_PREFIX + i);
+        }
+        loadLegacyMeta();
+        for (MetaBucket bucket : metaBuckets) {
+            synchronized (bucket) {
+                StateEnvelope envelope = stateStore.rehydrate(META_FLOW, bucket.flowId).envelope();
+                JsonNode snapshot = envelope.snapshot();
+                if (snapshot != null && !snapshot.isMissingNode() && !snapshot.isEmpty()) {
+                    List<String> taskIds = mapper.convertValue(snapshot.path("taskIds"), new TypeReference<List<String>>() {});
+                    Map<String, String> idempotencyMap =
+                        mapper.convertValue(snapshot.path("idempotencyToTaskId"), new TypeReference<Map<String, String>>() {});
+                    Map<String, Long> createdAt =
+                        mapper.convertValue(snapshot.path("createdAtMillis"), new TypeReference<Map<String, Long>>() {});
+                    if (taskIds != null) {
+                        taskIds.forEach(taskId -> register(bucket, taskId, null,
+                            createdAt == null ? 0L : createdAt.getOrDefault(taskId, 0L)));
+                    }
+                    if (idempotencyMap != null) {
+                        idempotencyMap.forEach((key, taskId) -> register(bucket, taskId, key, 0L));
+                    }
+                    bucket.snapshotVersion = envelope.snapshotVersion();
+                    bucket.version = envelope.snapshotVersion();
+                }
+                catchUp(bucket);
+            }
+        }
+    }
+
+    private void loadLegacyMeta() {
         JsonNode snapshot = stateStore.rehydrate(META_FLOW, META_ID).envelope().snapshot();
         if (snapshot == null || snapshot.isMissingNode() || snapshot.isEmpty()) {
             return;
@@ -240,7 +567,7 @@ public class PersistentA2ATaskService implements A2ATaskService {
 
         List<String> taskIds = mapper.convertValue(snapshot.path("taskIds"), new TypeReference<List<String>>() {});
         if (taskIds != null) {
-            knownTaskIds.addAll(taskIds);
+            taskIds.forEach(taskId -> metaBucket(taskId).taskIds.add(taskId));
         }
 
         Map<String, String> idempotencyMap = mapper.convertValue(snapshot.path("idempotencyToTaskId"), new TypeReference<Map<String, String>>() {});
@@ -249,24 +576,153 @@ public class PersistentA2ATaskService implements A2ATaskService {
         }
     }
 
-    private void persistMeta() {
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("taskIds", new ArrayList<>(knownTaskIds));
-        payload.put("idempotencyToTaskId", new HashMap<>(idempotencyToTaskId));
-        stateStore.writeSnapshot(META_FLOW, META_ID, knownTaskIds.size(), mapper.valueToTree(payload), Map.of("updatedAt", Instant.now().toString()));
+    // Appends one record for the new task; a conflict means another instance wrote the bucket, so its
+    // records are read into the index before retrying.
+    private void journalTask(String taskId, String idempotencyKey, long createdAtMillis) {
+        MetaBucket bucket = metaBucket(taskId);
+        ObjectNode payload = mapper.createObjectNode().put("taskId", taskId).put("createdAtMillis", createdAtMillis);
+        if (idempotencyKey != null) {
+            payload.put("idempotencyKey", idempotencyKey);
+        }
+        PersistedEvent record = new PersistedEvent(
+            idGenerator.nextId(), META_FLOW, bucket.flowId, 0, META_EVENT_TYPE, payload, Instant.now().toString(), null);
+
+        synchronized (bucket) {
+            if (bucket.stale) {
+                resync(bucket);
+            }
+            AppendResult result;
+            try {
+                result = stateStore.appendEvents(META_FLOW, bucket.flowId, bucket.version, List.of(record), null);
+            } catch (OptimisticConflictException conflict) {
+                catchUp(bucket);
+                result = stateStore.appendEvents(META_FLOW, bucket.flowId, bucket.version, List.of(record), null);
+            }
+            bucket.version = result == null ? bucket.version + 1 : result.nextVersion();
+            bucket.taskIds.add(taskId);
+            if (bucket.version - bucket.snapshotVersion >= META_COMPACT_EVERY) {
+                compact(bucket);
+            }
+        }
     }
 
-    private void persistTask(String taskId) {
-        Task task = tasks.get(taskId);
-        List<TaskStatus> history = historyByTaskId.get(taskId);
-        if (task == null || history == null) {
+    private MetaBucket metaBucket(String taskId) {
+        return metaBuckets[Math.floorMod(taskId.hashCode(), META_BUCKETS)];
+    }
+
+    private void catchUp(MetaBucket bucket) {
+        bucket.caughtUpAtMillis = CachedClock.currentTimeMillis();
+        while (true) {
+            List<PersistedEvent> page = stateStore.readEvents(META_FLOW, bucket.flowId, bucket.version, META_READ_PAGE_SIZE);
+            if (page == null || page.isEmpty()) {
+                return;
+            }
+            for (PersistedEvent record : page) {
+                JsonNode payload = record.payload();
+                String taskId = payload == null ? null : payload.path("taskId").asText(null);
+                if (taskId != null) {
+                    register(bucket, taskId, payload.path("idempotencyKey").asText(null), payload.path("createdAtMillis").asLong(0L));
+                }
+                bucket.version = Math.max(bucket.version, record.sequence());
+            }
+            if (page.size() < META_READ_PAGE_SIZE) {
+                return;
+            }
+        }
+    }
+
+    // Called on the write-behind writer thread: only marks the bucket, the next journal append re-reads it.
+    private void metaWriteFailed(String flowType, String flowId, RuntimeException error) {
+        if (!META_FLOW.equals(flowType) || !flowId.startsWith(META_BUCKET_PREFIX)) {
             return;
         }
+        try {
+            metaBuckets[Integer.parseInt(flowId.substring(META_BUCKET_PREFIX.length()))].stale = true;
+        } catch (RuntimeException e) {
+            // Not one of this service's buckets.
+        }
+    }
+
+    // The cached version may be ahead of the log after a rejected queued write, so it is re-read from scratch.
+    private void resync(MetaBucket bucket) {
+        bucket.stale = false;
+        StateEnvelope envelope = stateStore.rehydrate(META_FLOW, bucket.flowId).envelope();
+        bucket.version = envelope.version();
+        bucket.snapshotVersion = envelope.snapshotVersion();
+    }
+
+    // The bucket's idempotency keys are picked out of the shared map rather than kept twice on the heap.
+    private void compact(MetaBucket bucket) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("taskIds", new ArrayList<>(bucket.taskIds));
+        Map<String, String> idempotencyKeys = new HashMap<>();
+        idempotencyToTaskId.forEach((key, taskId) -> {
+            if (metaBucket(taskId) == bucket) {
+                idempotencyKeys.put(key, taskId);
+            }
+        });
+        payload.put("idempotencyToTaskId", idempotencyKeys);
+        Map<String, Long> createdAt = new HashMap<>();
+        for (String taskId : bucket.taskIds) {
+            long createdAtMillis = listIndex.createdAtMillis(taskId);
+            if (createdAtMillis != 0L) {
+                createdAt.put(taskId, createdAtMillis);
+            }
+        }
+        payload.put("createdAtMillis", createdAt);
+        stateStore.writeSnapshot(META_FLOW, bucket.flowId, bucket.version, mapper.valueToTree(payload),
+            Map.of("updatedAt", Instant.now().toString()));
+        bucket.snapshotVersion = bucket.version;
+    }
+
+    // A task journaled with its creation time is listed right away; its state is read when a page needs it.
+    private void register(MetaBucket bucket, String taskId, String idempotencyKey, long createdAtMillis) {
+        bucket.taskIds.add(taskId);
+        if (createdAtMillis != 0L) {
+            listIndex.putUnresolved(taskId, createdAtMillis);
+        }
+        if (idempotencyKey != null) {
+            idempotencyToTaskId.putIfAbsent(idempotencyKey, taskId);
+        }
+    }
+
+    /**
+     * Appends the latest status as a {@code task.status} event unless the event publisher already logged it.
+     *
+     * @return {@code false} if the task's log does not line up with its history, as for tasks stored before
+     *         transitions were logged; such tasks are snapshotted on every change instead
+     */
+    private boolean logTransition(TaskCache.Entry entry) {
+        if (publisherLogsTransitions) {
+            return true;
+        }
+        Task task = entry.task;
+        PersistedEvent event = new PersistedEvent(
+            idGenerator.nextId(), TASK_FLOW, task.getTaskId(), 0, PersistentA2ATaskEventService.STATUS_EVENT_TYPE,
+            PersistentA2ATaskEventService.statusPayload(mapper, task), Instant.now().toString(), null);
+        try {
+            stateStore.appendEvents(TASK_FLOW, task.getTaskId(), entry.history.size() - 1L, List.of(event), null);
+            return true;
+        } catch (OptimisticConflictException e) {
+            return false;
+        }
+    }
 
+    private void persistTask(TaskCache.Entry entry) {
+        entry.snapshotVersion = entry.history.size();
         Map<String, Object> snapshot = new HashMap<>();
-        snapshot.put("task", task);
-        snapshot.put("history", history);
-        stateStore.writeSnapshot(TASK_FLOW, taskId, history.size(), mapper.valueToTree(snapshot), Map.of("updatedAt", Instant.now().toString()));
+        snapshot.put("task", entry.task);
+        snapshot.put("history", entry.history);
+        stateStore.writeSnapshot(TASK_FLOW, entry.task.getTaskId(), entry.history.size(), mapper.valueToTree(snapshot), Map.of("updatedAt", Instant.now().toString()));
+    }
+
+    private Task awaitReservedTask(String taskId) {
+        ReentrantLock lock = taskLocks.lock(taskId);
+        try {
+            return getTask(taskId);
+        } finally {
+            lock.unlock();
+        }
     }
 
     private String normalizeIdempotencyKey(SendMessageRequest request) {
@@ -284,8 +740,29 @@ public class PersistentA2ATaskService implements A2ATaskService {
         TaskStatus copy = new TaskStatus();
         copy.setState(status.getState());
         copy.setMessage(status.getMessage());
-        copy.setUpdatedAt(status.getUpdatedAt());
+        if (status.getUpdatedAtMillis() != 0L) {
+            copy.setUpdatedAtMillis(status.getUpdatedAtMillis());
+        } else {
+            copy.setUpdatedAt(status.getUpdatedAt());
+        }
         copy.setDetails(status.getDetails());
         return copy;
     }
+
+    /**
+     * One shard of the task index journal. Guarded by its own monitor, except for {@code taskIds}: the known
+     * task ids of the shard, read without the monitor and held only here.
+     */
+    private static final class MetaBucket {
+        private final String flowId;
+        private final Set<String> taskIds = ConcurrentHashMap.newKeySet();
+        private long version;
+        private long snapshotVersion;
+        private long caughtUpAtMillis;
+        private volatile boolean stale;
+
+        private MetaBucket(String flowId) {
+            this.flowId = flowId;
+        }
+    }
 }
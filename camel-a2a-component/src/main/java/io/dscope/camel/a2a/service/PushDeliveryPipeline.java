@@ -0,0 +1,282 @@
+package io.dscope.camel.a2a.service;
+
+import io.dscope.camel.a2a.config.A2ASettings;
+import io.dscope.camel.a2a.model.PushDeliveryAttempt;
+import io.dscope.camel.a2a.model.PushDeliveryStats;
+import io.dscope.camel.a2a.model.PushNotificationConfig;
+import io.dscope.camel.a2a.model.TaskEvent;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Delivers push notifications without blocking the caller. Attempts go through
+ * {@link PushNotificationNotifier#notifyAsync}, at most {@code maxInFlightPerEndpoint} per endpoint URL with
+ * the rest queued, and failed attempts are retried from a timer with exponential backoff and jitter instead
+ * of sleeping on a thread. A zero backoff retries as soon as the failed attempt completes. At most
+ * {@code maxQueuedPerEndpoint} attempts wait behind an endpoint; further ones are rejected and reported to the
+ * observers as failed attempts without a retry. An endpoint's lane is dropped once nothing is queued or in
+ * flight for it, so endpoints that stop receiving pushes cost nothing.
+ */
+public class PushDeliveryPipeline implements AutoCloseable {
+
+    public static final String MAX_IN_FLIGHT_PER_ENDPOINT_PROPERTY = "a2a.push.max-in-flight-per-endpoint";
+    public static final int DEFAULT_MAX_IN_FLIGHT_PER_ENDPOINT = 8;
+    public static final String MAX_QUEUED_PER_ENDPOINT_PROPERTY = "a2a.push.max-queued-per-endpoint";
+    public static final int DEFAULT_MAX_QUEUED_PER_ENDPOINT = 1024;
+
+    private static final Logger LOG = Logger.getLogger(PushDeliveryPipeline.class.getName());
+
+    private final PushNotificationNotifier notifier;
+    private final List<PushNotificationObserver> observers;
+    private final int maxInFlightPerEndpoint;
+    private final int maxQueuedPerEndpoint;
+    private final ConcurrentMap<String, EndpointLane> lanes = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor retryTimer;
+    private final AtomicLong attempts = new AtomicLong();
+    private final AtomicLong successes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong inFlight = new AtomicLong();
+    private final AtomicLong scheduledRetries = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public PushDeliveryPipeline(PushNotificationNotifier notifier, List<PushNotificationObserver> observers, int maxInFlightPerEndpoint) {
+        this(notifier, observers, maxInFlightPerEndpoint, DEFAULT_MAX_QUEUED_PER_ENDPOINT);
+    }
+
+    public PushDeliveryPipeline(PushNotificationNotifier notifier,
+                                List<PushNotificationObserver> observers,
+                                int maxInFlightPerEndpoint,
+                                int maxQueuedPerEndpoint) {
+        this.notifier = notifier;
+        this.observers = observers == null ? List.of() : List.copyOf(observers);
+        this.maxInFlightPerEndpoint = Math.max(1, maxInFlightPerEndpoint);
+        this.maxQueuedPerEndpoint = Math.max(1, maxQueuedPerEndpoint);
+        this.retryTimer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "a2a-push-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.retryTimer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * @return the per-endpoint limit given by {@value #MAX_IN_FLIGHT_PER_ENDPOINT_PROPERTY}
+     */
+    public static int maxInFlightPerEndpoint(Properties properties) {
+        return (int) A2ASettings.longValue(properties, MAX_IN_FLIGHT_PER_ENDPOINT_PROPERTY, DEFAULT_MAX_IN_FLIGHT_PER_ENDPOINT);
+    }
+
+    /**
+     * @return the per-endpoint queue bound given by {@value #MAX_QUEUED_PER_ENDPOINT_PROPERTY}
+     */
+    public static int maxQueuedPerEndpoint(Properties properties) {
+        return (int) A2ASettings.longValue(properties, MAX_QUEUED_PER_ENDPOINT_PROPERTY, DEFAULT_MAX_QUEUED_PER_ENDPOINT);
+    }
+
+    /**
+     * Starts delivery of one event to one config.
+     *
+     * @param maxAttempts total attempts including the first
+     * @param baseBackoffMs delay before the first retry; doubles for each further retry
+     * @param maxBackoffMs upper bound for a single retry delay
+     */
+    public void deliver(PushNotificationConfig config, TaskEvent event, int maxAttempts, long baseBackoffMs, long maxBackoffMs) {
+        submit(new Delivery(config, event, Math.max(1, maxAttempts), baseBackoffMs, maxBackoffMs), 1);
+    }
+
+    public PushDeliveryStats getStats() {
+        PushDeliveryStats stats = new PushDeliveryStats();
+        stats.setAttempts(attempts.get());
+        stats.setSuccesses(successes.get());
+        stats.setFailures(failures.get());
+        stats.setInFlight(inFlight.get());
+        stats.setScheduledRetries(scheduledRetries.get());
+        stats.setRejected(rejected.get());
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        retryTimer.shutdownNow();
+    }
+
+    /**
+     * Delay before retry number {@code retryNumber} (1-based): {@code base * 2^(retryNumber - 1)} capped at
+     * {@code maxBackoffMs}, with the upper half randomized.
+     */
+    static long retryDelay(long baseBackoffMs, long maxBackoffMs, int retryNumber) {
+        if (baseBackoffMs <= 0L || maxBackoffMs <= 0L) {
+            return 0L;
+        }
+        int shift = Math.min(Math.max(retryNumber - 1, 0), 30);
+        long exponential = baseBackoffMs > (Long.MAX_VALUE >> shift) ? Long.MAX_VALUE : baseBackoffMs << shift;
+        long capped = Math.min(exponential, maxBackoffMs);
+        long half = capped / 2;
+        return half + ThreadLocalRandom.current().nextLong(capped - half + 1);
+    }
+
+    int getLaneCount() {
+        return lanes.size();
+    }
+
+    private void submit(Delivery delivery, int attemptNumber) {
+        String endpoint = delivery.config.getEndpointUrl() == null ? "" : delivery.config.getEndpointUrl();
+        EndpointLane lane = acquire(endpoint);
+        if (lane.queued.incrementAndGet() > maxQueuedPerEndpoint) {
+            lane.queued.decrementAndGet();
+            release(lane);
+            reject(delivery, attemptNumber);
+            return;
+        }
+        lane.waiting.add(() -> attempt(lane, delivery, attemptNumber));
+        drain(lane);
+    }
+
+    private void reject(Delivery delivery, int attemptNumber) {
+        rejected.incrementAndGet();
+        PushDeliveryAttempt attempt = failedAttempt(delivery, attemptNumber, null);
+        attempt.setErrorMessage("Endpoint queue full (" + maxQueuedPerEndpoint + " waiting)");
+        LOG.log(Level.FINE, "Rejected push for config {0}: endpoint queue is full", delivery.config.getConfigId());
+        notifyObservers(o -> o.onFailure(delivery.config, delivery.event, attempt, false));
+    }
+
+    // A lane whose count reached zero is retired and may no longer take work; the next submit replaces it.
+    private EndpointLane acquire(String endpoint) {
+        while (true) {
+            EndpointLane lane = lanes.computeIfAbsent(endpoint, EndpointLane::new);
+            int pending = lane.pending.get();
+            if (pending < 0) {
+                lanes.remove(endpoint, lane);
+            } else if (lane.pending.compareAndSet(pending, pending + 1)) {
+                return lane;
+            }
+        }
+    }
+
+    private void release(EndpointLane lane) {
+        if (lane.pending.decrementAndGet() == 0 && lane.pending.compareAndSet(0, -1)) {
+            lanes.remove(lane.endpoint, lane);
+        }
+    }
+
+    private void attempt(EndpointLane lane, Delivery delivery, int attemptNumber) {
+        notifyObservers(o -> o.onAttempt(delivery.config, delivery.event, attemptNumber));
+        attempts.incrementAndGet();
+        inFlight.incrementAndGet();
+        CompletableFuture<PushDeliveryAttempt> future;
+        try {
+            future = notifier.notifyAsync(delivery.config, delivery.event, attemptNumber);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((result, error) -> {
+            inFlight.decrementAndGet();
+            lane.inFlight.decrementAndGet();
+            drain(lane);
+            release(lane);
+            onAttemptCompleted(delivery, attemptNumber, result != null ? result : failedAttempt(delivery, attemptNumber, error));
+        });
+    }
+
+    private void onAttemptCompleted(Delivery delivery, int attemptNumber, PushDeliveryAttempt attempt) {
+        if (attempt.isSuccess()) {
+            successes.incrementAndGet();
+            notifyObservers(o -> o.onSuccess(delivery.config, delivery.event, attempt));
+            return;
+        }
+        failures.incrementAndGet();
+        boolean willRetry = attemptNumber < delivery.maxAttempts;
+        notifyObservers(o -> o.onFailure(delivery.config, delivery.event, attempt, willRetry));
+        if (!willRetry) {
+            return;
+        }
+        long delay = retryDelay(delivery.baseBackoffMs, delivery.maxBackoffMs, attemptNumber);
+        if (delay <= 0L) {
+            submit(delivery, attemptNumber + 1);
+            return;
+        }
+        scheduledRetries.incrementAndGet();
+        try {
+            retryTimer.schedule(() -> {
+                scheduledRetries.decrementAndGet();
+                submit(delivery, attemptNumber + 1);
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            scheduledRetries.decrementAndGet();
+            LOG.log(Level.FINE, "Push retry not scheduled for config " + delivery.config.getConfigId(), e);
+        }
+    }
+
+    private void notifyObservers(Consumer<PushNotificationObserver> callback) {
+        for (PushNotificationObserver observer : observers) {
+            try {
+                callback.accept(observer);
+            } catch (RuntimeException e) {
+                LOG.log(Level.WARNING, "Push notification observer failed", e);
+            }
+        }
+    }
+
+    private PushDeliveryAttempt failedAttempt(Delivery delivery, int attemptNumber, Throwable error) {
+        PushDeliveryAttempt attempt = new PushDeliveryAttempt();
+        attempt.setConfigId(delivery.config.getConfigId());
+        attempt.setEndpointUrl(delivery.config.getEndpointUrl());
+        attempt.setAttemptNumber(attemptNumber);
+        attempt.setSuccess(false);
+        attempt.setStatusCode(0);
+        attempt.setErrorMessage(error == null ? "No delivery result" : String.valueOf(error.getMessage()));
+        return attempt;
+    }
+
+    // Only one thread drains a lane at a time (work-in-progress counter), so the in-flight check and
+    // increment cannot race; attempts that complete inline re-enter drain and are picked up by the loop.
+    private void drain(EndpointLane lane) {
+        if (lane.wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            while (lane.inFlight.get() < maxInFlightPerEndpoint) {
+                Runnable next = lane.waiting.poll();
+                if (next == null) {
+                    break;
+                }
+                lane.queued.decrementAndGet();
+                lane.inFlight.incrementAndGet();
+                next.run();
+            }
+            missed = lane.wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private static final class EndpointLane {
+        private final String endpoint;
+        private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger wip = new AtomicInteger();
+        // Attempts queued or in flight; -1 once the lane is retired.
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private EndpointLane(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+
+    private record Delivery(PushNotificationConfig config, TaskEvent event, int maxAttempts, long baseBackoffMs, long maxBackoffMs) {
+    }
+}
@@ -4,10 +4,19 @@ import io.dscope.camel.a2a.model.PushDeliveryAttempt;
 import io.dscope.camel.a2a.model.PushNotificationConfig;
 import io.dscope.camel.a2a.model.TaskEvent;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Sends task events to push notification endpoints.
  */
 public interface PushNotificationNotifier {
 
     PushDeliveryAttempt notify(PushNotificationConfig config, TaskEvent event, int attemptNumber);
+
+    /**
+     * Non-blocking variant used by the delivery pipeline. The default runs {@link #notify} on the calling thread.
+     */
+    default CompletableFuture<PushDeliveryAttempt> notifyAsync(PushNotificationConfig config, TaskEvent event, int attemptNumber) {
+        return CompletableFuture.completedFuture(notify(config, event, attemptNumber));
+    }
 }
@@ -0,0 +1,59 @@
+package io.dscope.camel.a2a.service;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed-size striped lock table shared by task services. Task ids hash onto a power-of-two array of
+ * locks, so lock memory stays constant no matter how many tasks a node has seen.
+ */
+public class StripedTaskLocks {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contendedAcquisitions = new LongAdder();
+
+    public StripedTaskLocks() {
+        this(Math.max(64, Runtime.getRuntime().availableProcessors() * 4));
+    }
+
+    public StripedTaskLocks(int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, Math.min(stripeCount, 1 << 16)) * 2 - 1);
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Acquires the stripe guarding the given task id. Callers must release it with {@code unlock()}.
+     */
+    public ReentrantLock lock(String taskId) {
+        ReentrantLock lock = stripes[stripeIndex(taskId)];
+        acquisitions.increment();
+        if (!lock.tryLock()) {
+            contendedAcquisitions.increment();
+            lock.lock();
+        }
+        return lock;
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    public long getAcquisitionCount() {
+        return acquisitions.sum();
+    }
+
+    public long getContendedAcquisitionCount() {
+        return contendedAcquisitions.sum();
+    }
+
+    int stripeIndex(String taskId) {
+        int hash = taskId == null ? 0 : taskId.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,154 @@
+package io.dscope.camel.a2a.service;
+
+import io.dscope.camel.a2a.model.Task;
+import io.dscope.camel.a2a.model.TaskStatus;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded LRU cache of resident tasks for {@link PersistentA2ATaskService}. Entries are spread over
+ * segments, each an access-ordered map under its own monitor, and a segment holding more than its share of
+ * the capacity evicts its least recently used unpinned entries. An entry is pinned while its task is being
+ * changed under the task lock, so only entries whose state has been handed to the store are evicted.
+ */
+final class TaskCache {
+
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_CAPACITY = 64;
+
+    private final Segment[] segments;
+    private final int capacity;
+    private final AtomicLong evictions = new AtomicLong();
+
+    TaskCache(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.segments = new Segment[Math.max(1, Math.min(MAX_SEGMENTS, this.capacity / MIN_SEGMENT_CAPACITY))];
+        int segmentCapacity = (this.capacity + segments.length - 1) / segments.length;
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    Entry get(String taskId) {
+        Segment segment = segment(taskId);
+        synchronized (segment) {
+            return segment.entries.get(taskId);
+        }
+    }
+
+    /**
+     * Caches {@code entry} unless the task is already resident.
+     *
+     * @return the resident entry
+     */
+    Entry putIfAbsent(String taskId, Entry entry) {
+        Segment segment = segment(taskId);
+        synchronized (segment) {
+            Entry existing = segment.entries.putIfAbsent(taskId, entry);
+            if (existing != null) {
+                return existing;
+            }
+            segment.evictOverflow();
+            return entry;
+        }
+    }
+
+    /**
+     * Pins the resident entry of {@code taskId} so it is not evicted until {@link #unpin}.
+     *
+     * @return the pinned entry, or {@code null} if the task is not resident
+     */
+    Entry pin(String taskId) {
+        Segment segment = segment(taskId);
+        synchronized (segment) {
+            Entry entry = segment.entries.get(taskId);
+            if (entry != null) {
+                entry.pins++;
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * Caches {@code entry} unless the task is already resident, and pins the resident entry.
+     */
+    Entry putPinned(String taskId, Entry entry) {
+        Segment segment = segment(taskId);
+        synchronized (segment) {
+            Entry resident = segment.entries.putIfAbsent(taskId, entry);
+            if (resident == null) {
+                resident = entry;
+            }
+            resident.pins++;
+            segment.evictOverflow();
+            return resident;
+        }
+    }
+
+    void unpin(String taskId, Entry entry) {
+        Segment segment = segment(taskId);
+        synchronized (segment) {
+            entry.pins--;
+            segment.evictOverflow();
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+            }
+        }
+        return size;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    long evictionCount() {
+        return evictions.get();
+    }
+
+    private Segment segment(String taskId) {
+        int hash = taskId.hashCode();
+        return segments[Math.floorMod(hash ^ (hash >>> 16), segments.length)];
+    }
+
+    static final class Entry {
+        final Task task;
+        final List<TaskStatus> history;
+        // History size at the last snapshot; guarded by the task lock.
+        long snapshotVersion;
+        private int pins;
+
+        Entry(Task task, List<TaskStatus> history) {
+            this.task = task;
+            this.history = history;
+        }
+    }
+
+    private final class Segment {
+        private final int capacity;
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        private Segment(int capacity) {
+            this.capacity = capacity;
+        }
+
+        private void evictOverflow() {
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (entries.size() > capacity && eldest.hasNext()) {
+                if (eldest.next().getValue().pins == 0) {
+                    eldest.remove();
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+    }
+}
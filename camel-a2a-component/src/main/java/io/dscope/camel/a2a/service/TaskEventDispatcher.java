@@ -0,0 +1,235 @@
+package io.dscope.camel.a2a.service;
+
+import io.dscope.camel.a2a.config.A2ASettings;
+
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Delivers task event listener callbacks off the publishing thread. Work is hashed by taskId onto a fixed
+ * set of lanes, each a bounded queue drained by one virtual thread, so events of one task reach listeners
+ * in publication order while a slow listener only delays tasks sharing its lane. What happens when a lane is
+ * full depends on the work's {@link Overflow} policy: {@code DROP} work is dropped and counted rather than
+ * blocking the publisher, which may hold a task lock; {@code BLOCK} work makes the publisher wait up to
+ * {@code blockTimeoutMillis} for room and is only dropped after that. Drops are logged at WARNING at most
+ * once every ten seconds.
+ */
+public class TaskEventDispatcher implements AutoCloseable {
+
+    public static final String MODE_PROPERTY = "a2a.events.dispatch.mode";
+    public static final String LANES_PROPERTY = "a2a.events.dispatch.lanes";
+    public static final String QUEUE_CAPACITY_PROPERTY = "a2a.events.dispatch.queue-capacity";
+    public static final String BLOCK_TIMEOUT_MS_PROPERTY = "a2a.events.dispatch.block-timeout-ms";
+    public static final long DEFAULT_BLOCK_TIMEOUT_MS = 5_000L;
+
+    private static final Logger LOG = Logger.getLogger(TaskEventDispatcher.class.getName());
+    private static final long DROP_WARNING_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10L);
+
+    private final Lane[] lanes;
+    private final int queueCapacity;
+    private final long blockTimeoutMillis;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong lastDropWarning = new AtomicLong(System.nanoTime() - DROP_WARNING_INTERVAL_NANOS);
+    private volatile boolean closed;
+
+    public TaskEventDispatcher() {
+        this(Math.max(2, Runtime.getRuntime().availableProcessors()), 1024);
+    }
+
+    public TaskEventDispatcher(int laneCount, int queueCapacity) {
+        this(laneCount, queueCapacity, DEFAULT_BLOCK_TIMEOUT_MS);
+    }
+
+    /**
+     * @param blockTimeoutMillis how long {@link Overflow#BLOCK} work waits for room in a full lane
+     */
+    public TaskEventDispatcher(int laneCount, int queueCapacity, long blockTimeoutMillis) {
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.blockTimeoutMillis = Math.max(0L, blockTimeoutMillis);
+        this.lanes = new Lane[Math.max(1, laneCount)];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane(i);
+        }
+    }
+
+    /**
+     * Creates a dispatcher from {@code a2a.events.dispatch.*} properties, or returns {@code null} when the
+     * mode is {@code sync} and listeners should run on the publishing thread.
+     */
+    public static TaskEventDispatcher fromProperties(Properties properties) {
+        String mode = properties == null ? null : properties.getProperty(MODE_PROPERTY);
+        mode = mode == null || mode.isBlank() ? "async" : mode.trim();
+        if ("sync".equals(mode)) {
+            return null;
+        }
+        if (!"async".equals(mode)) {
+            throw new IllegalArgumentException("Unsupported " + MODE_PROPERTY + ": " + mode);
+        }
+        return new TaskEventDispatcher(
+            (int) A2ASettings.longValue(properties, LANES_PROPERTY, Math.max(2, Runtime.getRuntime().availableProcessors())),
+            (int) A2ASettings.longValue(properties, QUEUE_CAPACITY_PROPERTY, 1024),
+            A2ASettings.longValue(properties, BLOCK_TIMEOUT_MS_PROPERTY, DEFAULT_BLOCK_TIMEOUT_MS)
+        );
+    }
+
+    /**
+     * Queues work for the lane owning {@code taskId}, dropping it if the lane is full.
+     *
+     * @return {@code false} when the lane is full or the dispatcher is closed and the work was dropped
+     */
+    public boolean dispatch(String taskId, Runnable work) {
+        return dispatch(taskId, work, Overflow.DROP);
+    }
+
+    /**
+     * Queues work for the lane owning {@code taskId}, handling a full lane according to {@code overflow}.
+     * Work dispatched from a lane's own thread never waits, since the lane cannot drain while it does.
+     *
+     * @return {@code false} when the work was dropped
+     */
+    public boolean dispatch(String taskId, Runnable work, Overflow overflow) {
+        if (closed) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        Lane lane = lanes[laneIndex(taskId)];
+        pending.incrementAndGet();
+        boolean queued;
+        if (overflow == Overflow.BLOCK && Thread.currentThread() != lane.thread) {
+            try {
+                queued = lane.queue.offer(work, blockTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queued = false;
+            }
+        } else {
+            queued = lane.queue.offer(work);
+        }
+        if (!queued) {
+            pending.decrementAndGet();
+            dropped(taskId, lane);
+        }
+        return queued;
+    }
+
+    /**
+     * Waits until all queued work has run.
+     *
+     * @return {@code true} if the dispatcher became idle within the timeout
+     */
+    public boolean awaitIdle(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (pending.get() > 0L) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1L));
+        }
+        return true;
+    }
+
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getQueueDepth() {
+        int depth = 0;
+        for (Lane lane : lanes) {
+            depth += lane.queue.size();
+        }
+        return depth;
+    }
+
+    public long getDispatchedCount() {
+        return dispatched.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getBlockTimeoutMillis() {
+        return blockTimeoutMillis;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (Lane lane : lanes) {
+            lane.thread.interrupt();
+        }
+    }
+
+    private void dropped(String taskId, Lane lane) {
+        long total = dropped.incrementAndGet();
+        long now = System.nanoTime();
+        long last = lastDropWarning.get();
+        if (now - last >= DROP_WARNING_INTERVAL_NANOS && lastDropWarning.compareAndSet(last, now)) {
+            LOG.log(Level.WARNING, "Dropped task event dispatch for task {0}: lane {1} is full ({2} dropped so far)",
+                new Object[] {taskId, lane.index, total});
+        }
+    }
+
+    int laneIndex(String taskId) {
+        int hash = taskId == null ? 0 : taskId.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), lanes.length);
+    }
+
+    /**
+     * What a dispatch does when its lane is full.
+     */
+    public enum Overflow {
+        /** Drop the work; for listeners that can tolerate missing an event. */
+        DROP,
+        /** Wait up to the block timeout for room; for listeners that must see every event. */
+        BLOCK
+    }
+
+    private final class Lane {
+        private final int index;
+        private final BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final Thread thread;
+
+        private Lane(int index) {
+            this.index = index;
+            this.thread = Thread.ofVirtual().name("a2a-event-dispatch-" + index).start(this::drain);
+        }
+
+        private void drain() {
+            while (!closed) {
+                Runnable work;
+                try {
+                    work = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                try {
+                    work.run();
+                    dispatched.incrementAndGet();
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                    LOG.log(Level.WARNING, "Task event listener failed", e);
+                } finally {
+                    pending.decrementAndGet();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package io.dscope.camel.a2a.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dscope.camel.a2a.model.TaskEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes task events once for all consumers. {@link InMemoryTaskEventService} encodes each event as it is
+ * published and the encodings travel with every copy handed to readers and listeners, so SSE responses,
+ * open streams and webhook deliveries write the same byte arrays instead of serializing per consumer.
+ * Events that were not published through the service are encoded on demand.
+ */
+public final class TaskEventEncoder {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private TaskEventEncoder() {
+    }
+
+    /**
+     * Stores the JSON and SSE encodings on {@code event}; the event must not change afterwards.
+     */
+    static void encode(TaskEvent event) {
+        byte[] json = encodeJson(event);
+        event.setEncodedJson(json);
+        event.setEncodedSseFrame(eventFrame(event, json));
+    }
+
+    /**
+     * JSON body of {@code event}, as sent to push notification endpoints and in SSE {@code data} lines.
+     */
+    public static byte[] json(TaskEvent event) {
+        byte[] json = event.getEncodedJson();
+        return json != null ? json : encodeJson(event);
+    }
+
+    /**
+     * Complete SSE frame of {@code event}, terminated by a blank line.
+     */
+    public static byte[] sseFrame(TaskEvent event) {
+        byte[] frame = event.getEncodedSseFrame();
+        return frame != null ? frame : eventFrame(event, json(event));
+    }
+
+    /**
+     * SSE frame of {@code event} for a stream that follows several tasks: the id is {@code taskId:sequence}.
+     * Only the frame header is built per call; the JSON body is the shared encoding.
+     */
+    public static byte[] multiplexedSseFrame(TaskEvent event) {
+        return frame(event.getTaskId() + ":" + event.getSequence(), eventType(event), json(event));
+    }
+
+    /**
+     * SSE frame without an id, used for {@code complete} and {@code close} notifications.
+     */
+    public static byte[] controlFrame(String eventType, Object data) {
+        return frame(null, eventType, serialize(data, eventType));
+    }
+
+    private static byte[] eventFrame(TaskEvent event, byte[] json) {
+        return frame(Long.toString(event.getSequence()), eventType(event), json);
+    }
+
+    private static String eventType(TaskEvent event) {
+        return event.getEventType() == null ? "task.status" : event.getEventType();
+    }
+
+    private static byte[] frame(String id, String eventType, byte[] data) {
+        ByteArrayOutputStream frame = new ByteArrayOutputStream(data.length + 48);
+        StringBuilder header = new StringBuilder(40);
+        if (id != null) {
+            header.append("id: ").append(id).append('\n');
+        }
+        header.append("event: ").append(eventType).append('\n').append("data: ");
+        frame.writeBytes(header.toString().getBytes(StandardCharsets.UTF_8));
+        frame.writeBytes(data);
+        frame.write('\n');
+        frame.write('\n');
+        return frame.toByteArray();
+    }
+
+    private static byte[] encodeJson(TaskEvent event) {
+        return serialize(event, event.getEventType());
+    }
+
+    private static byte[] serialize(Object data, String eventType) {
+        try {
+            return MAPPER.writeValueAsBytes(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode " + eventType + " event", e);
+        }
+    }
+}
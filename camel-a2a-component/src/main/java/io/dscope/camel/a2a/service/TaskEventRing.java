@@ -0,0 +1,157 @@
+package io.dscope.camel.a2a.service;
+
+import io.dscope.camel.a2a.model.TaskEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded event buffer of one task, addressed by sequence number. Appends assign the next sequence and store
+ * the event in slot {@code (sequence - 1) % slots}, overwriting the oldest once {@code capacity} events are
+ * held. The slot array starts small and doubles up to {@code capacity} as events arrive, so short-lived tasks
+ * do not pay for the full buffer. Appends are serialized; reads take no lock: they read the published last
+ * sequence and seek straight to the slot after {@code afterSequence}, skipping any slot a concurrent append
+ * has already overwritten.
+ */
+final class TaskEventRing {
+
+    static final int INITIAL_SLOTS = 8;
+
+    private final int capacity;
+    // Replaced, never resized in place, before the last sequence that needs the larger array is published.
+    private volatile AtomicReferenceArray<TaskEvent> slots;
+    private volatile long lastSequence;
+    private volatile long firstSequence;
+
+    TaskEventRing(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.slots = new AtomicReferenceArray<>(Math.min(this.capacity, INITIAL_SLOTS));
+    }
+
+    /**
+     * Stamps {@code event} with the next sequence, encodes it and stores it. The stored instance must not be
+     * modified afterwards.
+     *
+     * @return the assigned sequence
+     */
+    synchronized long append(TaskEvent event) {
+        return store(event, lastSequence + 1);
+    }
+
+    /**
+     * Stores {@code event} under a sequence assigned elsewhere, such as an event log being replayed. Earlier
+     * sequences that were never appended read as missing.
+     *
+     * @return {@code false} if {@code sequence} is not after the last one
+     */
+    synchronized boolean appendAt(TaskEvent event, long sequence) {
+        if (sequence <= lastSequence) {
+            return false;
+        }
+        store(event, sequence);
+        return true;
+    }
+
+    // The event is complete, encodings included, before the slot write makes it visible to lock-free readers.
+    private long store(TaskEvent event, long sequence) {
+        event.setSequence(sequence);
+        TaskEventEncoder.encode(event);
+        long first = firstSequence == 0L ? sequence : firstSequence;
+        AtomicReferenceArray<TaskEvent> current = slots;
+        long held = sequence - oldestSequence(sequence, first) + 1;
+        if (held > current.length()) {
+            current = grow(current, held, sequence);
+        }
+        current.set(slotIndex(current, sequence), event);
+        firstSequence = first;
+        lastSequence = sequence;
+        return sequence;
+    }
+
+    /**
+     * Returns up to {@code limit} events with a sequence greater than {@code afterSequence}, in order.
+     */
+    List<TaskEvent> read(long afterSequence, int limit, UnaryOperator<TaskEvent> copier) {
+        long last = lastSequence;
+        long from = Math.max(Math.max(afterSequence, 0L) + 1, oldestSequence(last, firstSequence));
+        if (from > last || limit <= 0) {
+            return List.of();
+        }
+        long to = Math.min(last, from + limit - 1);
+        AtomicReferenceArray<TaskEvent> current = slots;
+        List<TaskEvent> events = new ArrayList<>((int) (to - from + 1));
+        for (long sequence = from; sequence <= to; sequence++) {
+            TaskEvent event = current.get(slotIndex(current, sequence));
+            if (event != null && event.getSequence() == sequence) {
+                events.add(copier.apply(event));
+            }
+        }
+        return events;
+    }
+
+    TaskEvent latest() {
+        long last = lastSequence;
+        if (last == 0L) {
+            return null;
+        }
+        AtomicReferenceArray<TaskEvent> current = slots;
+        TaskEvent event = current.get(slotIndex(current, last));
+        return event != null && event.getSequence() == last ? event : null;
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Number of events held: a ring started at a restored sequence holds fewer than its last sequence.
+     */
+    int size() {
+        long last = lastSequence;
+        return last == 0L ? 0 : (int) (last - oldestSequence(last, firstSequence) + 1);
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    int allocatedSlots() {
+        return slots.length();
+    }
+
+    /**
+     * Lowest sequence still held, or {@code lastSequence() + 1} when empty.
+     */
+    long oldestSequence() {
+        long last = lastSequence;
+        return last == 0L ? 1L : oldestSequence(last, firstSequence);
+    }
+
+    private long oldestSequence(long last, long first) {
+        return Math.max(Math.max(1L, first), last - capacity + 1);
+    }
+
+    /**
+     * Copies the events still held into an array large enough for {@code held} of them and publishes it.
+     * Readers still holding the old array find every event up to the published last sequence there.
+     */
+    private AtomicReferenceArray<TaskEvent> grow(AtomicReferenceArray<TaskEvent> current, long held, long sequence) {
+        int length = (int) Math.min(capacity, Math.max(held, 2L * current.length()));
+        long oldest = sequence - length + 1;
+        AtomicReferenceArray<TaskEvent> next = new AtomicReferenceArray<>(length);
+        for (int i = 0; i < current.length(); i++) {
+            TaskEvent event = current.get(i);
+            if (event != null && event.getSequence() >= oldest) {
+                next.set(slotIndex(next, event.getSequence()), event);
+            }
+        }
+        slots = next;
+        return next;
+    }
+
+    private static int slotIndex(AtomicReferenceArray<TaskEvent> slots, long sequence) {
+        return (int) ((sequence - 1) % slots.length());
+    }
+}
@@ -0,0 +1,246 @@
+package io.dscope.camel.a2a.service;
+
+import io.dscope.camel.a2a.model.TaskEvent;
+
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Response body of one open SSE connection. Frames are queued by {@link TaskEventStreamRegistry} as events
+ * are published and handed to the HTTP layer through blocking reads, so the reading thread sleeps between
+ * events instead of polling. The queue is bounded in bytes; a reader that falls that far behind gets a
+ * close frame and must reconnect from its last sequence.
+ * <p>
+ * A multiplexed stream follows several tasks, the listed ones or those of a conversation, and keeps a
+ * cursor per task.
+ */
+public final class TaskEventStream extends InputStream {
+
+    private final String taskId;
+    private final String subscriptionId;
+    private final Set<String> taskIds;
+    private final String conversationId;
+    private final int bufferCapacityBytes;
+    private final Consumer<TaskEventStream> onClose;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition readable = lock.newCondition();
+    private final ArrayDeque<byte[]> frames = new ArrayDeque<>();
+    private byte[] current;
+    private int currentOffset;
+    private int bufferedBytes;
+    private boolean finished;
+    private boolean closed;
+
+    // Replay state, guarded by synchronizing on the stream; see TaskEventStreamRegistry#open.
+    long lastSequence;
+    boolean live;
+    final List<TaskEvent> pendingEvents = new ArrayList<>();
+    private final Map<String, Long> cursors;
+
+    TaskEventStream(String taskId, String subscriptionId, long afterSequence, int bufferCapacityBytes, Consumer<TaskEventStream> onClose) {
+        this(taskId, null, null, subscriptionId, afterSequence, null, bufferCapacityBytes, onClose);
+    }
+
+    /**
+     * Multiplexed stream over {@code taskIds}, or over the tasks of {@code conversationId} when the list is
+     * {@code null}.
+     */
+    TaskEventStream(List<String> taskIds,
+                    String conversationId,
+                    String subscriptionId,
+                    long afterSequence,
+                    Map<String, Long> cursors,
+                    int bufferCapacityBytes,
+                    Consumer<TaskEventStream> onClose) {
+        this(null, taskIds == null ? null : Set.copyOf(taskIds), conversationId, subscriptionId, afterSequence,
+            cursors == null ? new HashMap<>() : new HashMap<>(cursors), bufferCapacityBytes, onClose);
+    }
+
+    private TaskEventStream(String taskId,
+                            Set<String> taskIds,
+                            String conversationId,
+                            String subscriptionId,
+                            long afterSequence,
+                            Map<String, Long> cursors,
+                            int bufferCapacityBytes,
+                            Consumer<TaskEventStream> onClose) {
+        this.taskId = taskId;
+        this.taskIds = taskIds;
+        this.conversationId = conversationId;
+        this.subscriptionId = subscriptionId;
+        this.lastSequence = afterSequence;
+        this.cursors = cursors;
+        this.bufferCapacityBytes = Math.max(1, bufferCapacityBytes);
+        this.onClose = onClose;
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public String getSubscriptionId() {
+        return subscriptionId;
+    }
+
+    /**
+     * Listed tasks of a multiplexed stream, or {@code null}.
+     */
+    public Set<String> getTaskIds() {
+        return taskIds;
+    }
+
+    /**
+     * Conversation of a multiplexed stream, or {@code null}.
+     */
+    public String getConversationId() {
+        return conversationId;
+    }
+
+    public boolean isMultiplexed() {
+        return cursors != null;
+    }
+
+    // Called while synchronized on the stream.
+    long cursor(String eventTaskId) {
+        return cursors == null ? lastSequence : cursors.getOrDefault(eventTaskId, lastSequence);
+    }
+
+    // Called while synchronized on the stream.
+    void advance(String eventTaskId, long sequence) {
+        if (cursors == null) {
+            lastSequence = sequence;
+        } else {
+            cursors.put(eventTaskId, sequence);
+        }
+    }
+
+    public boolean isFinished() {
+        lock.lock();
+        try {
+            return finished || closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues a frame for the reader.
+     *
+     * @return {@code false} if the stream is finished or the frame does not fit the buffer
+     */
+    boolean offer(byte[] frame) {
+        lock.lock();
+        try {
+            if (finished || closed || bufferedBytes + frame.length > bufferCapacityBytes) {
+                return false;
+            }
+            enqueue(frame);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues the final frames regardless of the buffer bound and ends the stream once they are read.
+     */
+    void finish(byte[]... lastFrames) {
+        lock.lock();
+        try {
+            if (finished || closed) {
+                return;
+            }
+            for (byte[] frame : lastFrames) {
+                enqueue(frame);
+            }
+            finished = true;
+            readable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int read() {
+        byte[] single = new byte[1];
+        int read = read(single, 0, 1);
+        return read < 0 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] target, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        lock.lock();
+        try {
+            while (current == null) {
+                current = frames.poll();
+                currentOffset = 0;
+                if (current != null) {
+                    break;
+                }
+                if (finished || closed) {
+                    return -1;
+                }
+                readable.awaitUninterruptibly();
+            }
+            int count = Math.min(length, current.length - currentOffset);
+            System.arraycopy(current, currentOffset, target, offset, count);
+            currentOffset += count;
+            bufferedBytes -= count;
+            if (currentOffset == current.length) {
+                current = null;
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int available() {
+        lock.lock();
+        try {
+            return bufferedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases the connection slot. Called by the HTTP layer when the exchange completes, including when the
+     * client disconnects mid-stream.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            frames.clear();
+            current = null;
+            bufferedBytes = 0;
+            readable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        onClose.accept(this);
+    }
+
+    private void enqueue(byte[] frame) {
+        frames.add(frame);
+        bufferedBytes += frame.length;
+        readable.signalAll();
+    }
+}
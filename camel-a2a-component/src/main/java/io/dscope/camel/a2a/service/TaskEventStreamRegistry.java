@@ -0,0 +1,369 @@
+package io.dscope.camel.a2a.service;
+
+import io.dscope.camel.a2a.config.A2ASettings;
+import io.dscope.camel.a2a.model.TaskEvent;
+import io.dscope.camel.a2a.model.TaskSubscription;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps SSE connections open and writes task events to them as they are published. Each stream first
+ * replays the buffered events after the client's sequence, then receives live events from a task event
+ * listener, a heartbeat comment every {@code heartbeatMillis}, and a close frame once the task reaches a
+ * terminal state. At most {@code maxOpenStreams} streams are open at once; each holds an HTTP worker while
+ * it is open, so the cap should stay below the server's worker pool size.
+ * <p>
+ * The listener registers with {@link TaskEventDispatcher.Overflow#BLOCK}. If a dispatch is still dropped
+ * after the block timeout, the next live event that skips past the stream's cursor first refills the
+ * missing sequences from the buffer (or a {@code task.gap} frame), and each heartbeat catches task streams
+ * up to the buffer, so a dropped terminal event still closes the stream.
+ * <p>
+ * A multi-task subscription is served by one multiplexed stream. Its frames carry {@code id: taskId:sequence}
+ * and it stays open across task completions until every listed task is terminal; a conversation stream
+ * stays open until the client disconnects.
+ */
+public class TaskEventStreamRegistry implements AutoCloseable {
+
+    public static final String MODE_PROPERTY = "a2a.sse.mode";
+    public static final String MAX_OPEN_STREAMS_PROPERTY = "a2a.sse.max-open-streams";
+    public static final String HEARTBEAT_MS_PROPERTY = "a2a.sse.heartbeat-ms";
+    public static final String STREAM_BUFFER_BYTES_PROPERTY = "a2a.sse.stream-buffer-bytes";
+
+    private static final Logger LOG = Logger.getLogger(TaskEventStreamRegistry.class.getName());
+    private static final byte[] HEARTBEAT_FRAME = ": heartbeat\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final InMemoryTaskEventService eventService;
+    private final int maxOpenStreams;
+    private final int streamBufferBytes;
+    private final boolean streamByDefault;
+    private final Set<TaskEventStream> streams = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<String, Set<TaskEventStream>> streamsByTaskId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<TaskEventStream>> streamsByConversationId = new ConcurrentHashMap<>();
+    private final AtomicInteger openStreams = new AtomicInteger();
+    private final AtomicLong rejectedStreams = new AtomicLong();
+    private final AtomicLong overflowedStreams = new AtomicLong();
+    private final ScheduledThreadPoolExecutor heartbeatTimer;
+
+    public TaskEventStreamRegistry(InMemoryTaskEventService eventService) {
+        this(eventService, 256, 15_000L, 64 * 1024, false);
+    }
+
+    /**
+     * @param streamByDefault whether SSE requests without a {@code stream} parameter are served as open
+     *                        streams rather than a single buffered response
+     */
+    public TaskEventStreamRegistry(InMemoryTaskEventService eventService,
+                                   int maxOpenStreams,
+                                   long heartbeatMillis,
+                                   int streamBufferBytes,
+                                   boolean streamByDefault) {
+        this.eventService = eventService;
+        this.maxOpenStreams = Math.max(1, maxOpenStreams);
+        this.streamBufferBytes = Math.max(1024, streamBufferBytes);
+        this.streamByDefault = streamByDefault;
+        this.heartbeatTimer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "a2a-sse-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (heartbeatMillis > 0L) {
+            heartbeatTimer.scheduleWithFixedDelay(this::sendHeartbeats, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        }
+        eventService.addListener(this::onTaskEvent, TaskEventDispatcher.Overflow.BLOCK);
+    }
+
+    /**
+     * Creates a registry from {@code a2a.sse.*} properties. {@code a2a.sse.mode} is {@code poll} (default) or
+     * {@code push} and selects how requests without a {@code stream} parameter are served.
+     */
+    public static TaskEventStreamRegistry fromProperties(InMemoryTaskEventService eventService, Properties properties) {
+        String mode = properties == null ? null : properties.getProperty(MODE_PROPERTY);
+        mode = mode == null || mode.isBlank() ? "poll" : mode.trim();
+        if (!"poll".equals(mode) && !"push".equals(mode)) {
+            throw new IllegalArgumentException("Unsupported " + MODE_PROPERTY + ": " + mode);
+        }
+        return new TaskEventStreamRegistry(
+            eventService,
+            (int) A2ASettings.longValue(properties, MAX_OPEN_STREAMS_PROPERTY, 256),
+            A2ASettings.longValue(properties, HEARTBEAT_MS_PROPERTY, 15_000L),
+            (int) A2ASettings.longValue(properties, STREAM_BUFFER_BYTES_PROPERTY, 64 * 1024),
+            "push".equals(mode)
+        );
+    }
+
+    /**
+     * Opens a stream that replays buffered events after {@code afterSequence} and then follows the task.
+     *
+     * @return the stream, or {@code null} when {@code maxOpenStreams} streams are already open
+     */
+    public TaskEventStream open(String taskId, String subscriptionId, long afterSequence) {
+        if (!reserveSlot()) {
+            return null;
+        }
+        TaskEventStream stream = new TaskEventStream(
+            taskId, subscriptionId, Math.max(afterSequence, 0L), streamBufferBytes, this::release);
+        streams.add(stream);
+        register(streamsByTaskId, taskId, stream);
+
+        // Registered before reading the backlog so no event falls between the two; events that arrive
+        // meanwhile are parked and written after the backlog, skipping any the backlog already covered.
+        synchronized (stream) {
+            boolean replayed = replay(stream, taskId);
+            stream.live = true;
+            for (TaskEvent event : stream.pendingEvents) {
+                write(stream, event);
+            }
+            stream.pendingEvents.clear();
+            if (!stream.isFinished() && eventService.isTaskTerminal(taskId)) {
+                finishTerminal(stream, !replayed);
+            }
+        }
+        return stream;
+    }
+
+    /**
+     * Opens a multiplexed stream for a multi-task subscription, resuming each task from the subscription's
+     * cursor.
+     *
+     * @return the stream, or {@code null} when {@code maxOpenStreams} streams are already open
+     */
+    public TaskEventStream open(TaskSubscription subscription) {
+        if (!reserveSlot()) {
+            return null;
+        }
+        TaskEventStream stream = new TaskEventStream(subscription.getTaskIds(), subscription.getConversationId(),
+            subscription.getSubscriptionId(), subscription.getAfterSequence(), subscription.getCursors(), streamBufferBytes, this::release);
+        streams.add(stream);
+        if (stream.getTaskIds() != null) {
+            stream.getTaskIds().forEach(taskId -> register(streamsByTaskId, taskId, stream));
+        } else {
+            register(streamsByConversationId, stream.getConversationId(), stream);
+        }
+
+        synchronized (stream) {
+            for (String taskId : eventService.resolveTaskIds(subscription)) {
+                replay(stream, taskId);
+            }
+            stream.live = true;
+            for (TaskEvent event : stream.pendingEvents) {
+                write(stream, event);
+            }
+            stream.pendingEvents.clear();
+            if (!stream.isFinished() && allTasksTerminal(stream)) {
+                finishTerminal(stream, false);
+            }
+        }
+        return stream;
+    }
+
+    public boolean isStreamByDefault() {
+        return streamByDefault;
+    }
+
+    public int getOpenStreamCount() {
+        return openStreams.get();
+    }
+
+    public int getMaxOpenStreams() {
+        return maxOpenStreams;
+    }
+
+    public long getRejectedStreamCount() {
+        return rejectedStreams.get();
+    }
+
+    public long getOverflowedStreamCount() {
+        return overflowedStreams.get();
+    }
+
+    @Override
+    public void close() {
+        heartbeatTimer.shutdownNow();
+        streams.forEach(stream -> stream.finish(closeFrame(stream, "shutdown")));
+    }
+
+    /**
+     * Writes the events of {@code taskId} after the stream's cursor, page by page, so a resume from an old
+     * sequence also covers events read back from the event log.
+     *
+     * @return whether any event was written
+     */
+    private boolean replay(TaskEventStream stream, String taskId) {
+        boolean replayed = false;
+        while (!stream.isFinished()) {
+            List<TaskEvent> page = eventService.readTaskEvents(taskId, stream.cursor(taskId), 500);
+            if (page.isEmpty()) {
+                break;
+            }
+            for (TaskEvent event : page) {
+                write(stream, event, false);
+            }
+            replayed = true;
+        }
+        return replayed;
+    }
+
+    private boolean reserveSlot() {
+        if (openStreams.incrementAndGet() > maxOpenStreams) {
+            openStreams.decrementAndGet();
+            rejectedStreams.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private void onTaskEvent(TaskEvent event) {
+        deliver(streamsByTaskId.get(event.getTaskId()), event);
+        if (event.getConversationId() != null) {
+            deliver(streamsByConversationId.get(event.getConversationId()), event);
+        }
+    }
+
+    private void deliver(Set<TaskEventStream> targets, TaskEvent event) {
+        if (targets == null) {
+            return;
+        }
+        for (TaskEventStream stream : targets) {
+            synchronized (stream) {
+                if (stream.live) {
+                    write(stream, event);
+                } else {
+                    stream.pendingEvents.add(event);
+                }
+            }
+        }
+    }
+
+    private void write(TaskEventStream stream, TaskEvent event) {
+        write(stream, event, true);
+    }
+
+    /**
+     * @param refill whether a live event past {@code cursor + 1} first replays the sequences in between
+     */
+    private void write(TaskEventStream stream, TaskEvent event, boolean refill) {
+        String taskId = event.getTaskId();
+        if (refill && stream.live && event.getSequence() > stream.cursor(taskId) + 1) {
+            replay(stream, taskId);
+        }
+        if (event.getSequence() <= stream.cursor(taskId) || stream.isFinished()) {
+            return;
+        }
+        byte[] frame = stream.isMultiplexed() ? TaskEventEncoder.multiplexedSseFrame(event) : TaskEventEncoder.sseFrame(event);
+        if (!stream.offer(frame)) {
+            overflowedStreams.incrementAndGet();
+            stream.finish(closeFrame(stream, "overflow"));
+            LOG.log(Level.FINE, "Closed SSE stream {0}: client is not keeping up", streamName(stream));
+            return;
+        }
+        stream.advance(taskId, event.getSequence());
+        if (!stream.isMultiplexed()) {
+            eventService.acknowledgeSubscription(stream.getSubscriptionId(), event.getSequence(), event.isTerminal());
+            if (event.isTerminal()) {
+                finishTerminal(stream, false);
+            }
+            return;
+        }
+        eventService.acknowledgeSubscription(stream.getSubscriptionId(), taskId, event.getSequence());
+        if (event.isTerminal() && stream.live && allTasksTerminal(stream)) {
+            finishTerminal(stream, false);
+        }
+    }
+
+    private boolean allTasksTerminal(TaskEventStream stream) {
+        if (stream.getTaskIds() == null) {
+            return false;
+        }
+        for (String taskId : stream.getTaskIds()) {
+            if (!eventService.isTaskTerminal(taskId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void finishTerminal(TaskEventStream stream, boolean announceCompletion) {
+        if (announceCompletion) {
+            String taskId = stream.getTaskId();
+            stream.finish(TaskEventEncoder.controlFrame("complete", Map.of("taskId", taskId, "terminal", true)), closeFrame(stream, "terminal"));
+        } else {
+            stream.finish(closeFrame(stream, "terminal"));
+        }
+        eventService.acknowledgeSubscription(stream.getSubscriptionId(), stream.lastSequence, true);
+        eventService.cleanupTerminalSubscriptions();
+    }
+
+    private void sendHeartbeats() {
+        for (TaskEventStream stream : streams) {
+            catchUp(stream);
+            if (!stream.isFinished() && !stream.offer(HEARTBEAT_FRAME)) {
+                overflowedStreams.incrementAndGet();
+                stream.finish(closeFrame(stream, "overflow"));
+            }
+        }
+    }
+
+    /**
+     * Writes buffered events the listener has not delivered, which only happens when a dispatch was dropped.
+     * Conversation streams are refilled by their next live event instead.
+     */
+    private void catchUp(TaskEventStream stream) {
+        synchronized (stream) {
+            if (!stream.live || stream.isFinished()) {
+                return;
+            }
+            List<String> taskIds = stream.getTaskId() != null ? List.of(stream.getTaskId())
+                : stream.getTaskIds() != null ? List.copyOf(stream.getTaskIds()) : List.of();
+            for (String taskId : taskIds) {
+                if (eventService.lastSequence(taskId) > stream.cursor(taskId)) {
+                    replay(stream, taskId);
+                }
+            }
+        }
+    }
+
+    private void release(TaskEventStream stream) {
+        streams.remove(stream);
+        if (stream.getTaskId() != null) {
+            unregister(streamsByTaskId, stream.getTaskId(), stream);
+        } else if (stream.getTaskIds() != null) {
+            stream.getTaskIds().forEach(taskId -> unregister(streamsByTaskId, taskId, stream));
+        } else {
+            unregister(streamsByConversationId, stream.getConversationId(), stream);
+        }
+        openStreams.decrementAndGet();
+    }
+
+    private static void register(ConcurrentMap<String, Set<TaskEventStream>> index, String key, TaskEventStream stream) {
+        index.computeIfAbsent(key, ignored -> ConcurrentHashMap.newKeySet()).add(stream);
+    }
+
+    private static void unregister(ConcurrentMap<String, Set<TaskEventStream>> index, String key, TaskEventStream stream) {
+        index.computeIfPresent(key, (ignored, registered) -> {
+            registered.remove(stream);
+            return registered.isEmpty() ? null : registered;
+        });
+    }
+
+    private static String streamName(TaskEventStream stream) {
+        return stream.isMultiplexed() ? "subscription " + stream.getSubscriptionId() : "task " + stream.getTaskId();
+    }
+
+    private byte[] closeFrame(TaskEventStream stream, String reason) {
+        return TaskEventEncoder.controlFrame("close", stream.isMultiplexed()
+            ? Map.of("subscriptionId", stream.getSubscriptionId(), "reason", reason)
+            : Map.of("taskId", stream.getTaskId(), "reason", reason));
+    }
+}
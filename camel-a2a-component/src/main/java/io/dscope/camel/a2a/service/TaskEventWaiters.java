@@ -0,0 +1,97 @@
+package io.dscope.camel.a2a.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Long-poll waiters per task. A waiter is a future completed with {@code true} by the next publication
+ * past its sequence or with {@code false} when its timeout elapses; timeouts share the JDK's delay
+ * scheduler, so no thread is held while waiting. Futures complete on the publishing or timer thread.
+ */
+final class TaskEventWaiters {
+
+    private final ConcurrentMap<String, Queue<Waiter>> waitersByTaskId = new ConcurrentHashMap<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    /**
+     * @param ready checked before and after registration so a publication racing the registration is not
+     *              missed
+     */
+    CompletableFuture<Boolean> await(String taskId, long afterSequence, long waitMillis, BooleanSupplier ready) {
+        if (ready.getAsBoolean()) {
+            return CompletableFuture.completedFuture(true);
+        }
+        if (waitMillis <= 0L) {
+            return CompletableFuture.completedFuture(false);
+        }
+
+        Waiter waiter = new Waiter(afterSequence, new CompletableFuture<>());
+        // Queues are only mutated inside compute so an emptied queue is never dropped while a waiter is
+        // being added to it.
+        waitersByTaskId.compute(taskId, (id, queue) -> {
+            Queue<Waiter> target = queue == null ? new ConcurrentLinkedQueue<>() : queue;
+            target.add(waiter);
+            return target;
+        });
+        waiting.incrementAndGet();
+        waiter.future.whenComplete((result, error) -> {
+            waiting.decrementAndGet();
+            remove(taskId, waiter);
+        });
+
+        if (ready.getAsBoolean()) {
+            waiter.future.complete(true);
+        } else {
+            waiter.future.completeOnTimeout(false, waitMillis, TimeUnit.MILLISECONDS);
+        }
+        return waiter.future;
+    }
+
+    /**
+     * Wakes the waiters of {@code taskId} that are behind {@code sequence}.
+     */
+    void signal(String taskId, long sequence) {
+        if (!waitersByTaskId.containsKey(taskId)) {
+            return;
+        }
+        List<Waiter> ready = new ArrayList<>();
+        waitersByTaskId.computeIfPresent(taskId, (id, queue) -> {
+            queue.removeIf(waiter -> waiter.afterSequence < sequence && ready.add(waiter));
+            return queue.isEmpty() ? null : queue;
+        });
+        // Completed outside compute: completion runs dependents, which remove themselves from the map.
+        ready.forEach(waiter -> waiter.future.complete(true));
+    }
+
+    /**
+     * Releases every waiter of {@code taskId} as timed out.
+     */
+    void cancel(String taskId) {
+        Queue<Waiter> queue = waitersByTaskId.remove(taskId);
+        if (queue != null) {
+            queue.forEach(waiter -> waiter.future.complete(false));
+        }
+    }
+
+    int size() {
+        return waiting.get();
+    }
+
+    private void remove(String taskId, Waiter waiter) {
+        waitersByTaskId.computeIfPresent(taskId, (id, queue) -> {
+            queue.remove(waiter);
+            return queue.isEmpty() ? null : queue;
+        });
+    }
+
+    private record Waiter(long afterSequence, CompletableFuture<Boolean> future) {
+    }
+}
@@ -0,0 +1,206 @@
+package io.dscope.camel.a2a.service;
+
+import io.dscope.camel.a2a.model.TaskState;
+import io.dscope.camel.a2a.model.dto.ListTasksRequest;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+
+/**
+ * Creation-ordered secondary indexes used by ListTasks, one over all tasks and one per {@link TaskState}.
+ * Pages are keyset scans starting after an opaque cursor, so a page costs O(page size) and stays stable
+ * while other tasks are created or change state.
+ *
+ * <p>A task can be added before its state is known, such as one read from a persistent task journal that
+ * records only the creation time. It is listed in unfiltered pages right away; a state-filtered page resolves
+ * the unresolved tasks it passes over, so each task is loaded once, when a page first reaches it.
+ */
+final class TaskListIndex {
+
+    private final NavigableSet<KeysetCursor> all = new ConcurrentSkipListSet<>();
+    private final Map<TaskState, NavigableSet<KeysetCursor>> byState = new EnumMap<>(TaskState.class);
+    private final NavigableSet<KeysetCursor> unresolved = new ConcurrentSkipListSet<>();
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    TaskListIndex() {
+        for (TaskState state : TaskState.values()) {
+            byState.put(state, new ConcurrentSkipListSet<>());
+        }
+    }
+
+    /**
+     * Adds a task or moves it to a new state index. Callers hold the task's lock.
+     */
+    void put(String taskId, long createdAtMillis, TaskState state) {
+        Entry previous = entries.get(taskId);
+        KeysetCursor key = previous == null ? new KeysetCursor(createdAtMillis, taskId) : previous.key();
+        if (previous != null) {
+            unresolved.remove(key);
+        }
+        if (previous != null && previous.state() == state) {
+            return;
+        }
+        entries.put(taskId, new Entry(key, state));
+        all.add(key);
+        if (state != null) {
+            byState.get(state).add(key);
+        }
+        if (previous != null && previous.state() != null) {
+            byState.get(previous.state()).remove(key);
+        }
+    }
+
+    /**
+     * Adds a task whose state is not known yet, unless it is already indexed. The next {@link #put} of the
+     * task resolves it.
+     */
+    void putUnresolved(String taskId, long createdAtMillis) {
+        KeysetCursor key = new KeysetCursor(createdAtMillis, taskId);
+        if (entries.putIfAbsent(taskId, new Entry(key, null)) == null) {
+            unresolved.add(key);
+            all.add(key);
+        }
+    }
+
+    void updateState(String taskId, TaskState state) {
+        Entry previous = entries.get(taskId);
+        if (previous != null) {
+            put(taskId, previous.key().createdAtMillis(), state);
+        }
+    }
+
+    void remove(String taskId) {
+        Entry previous = entries.remove(taskId);
+        if (previous == null) {
+            return;
+        }
+        all.remove(previous.key());
+        unresolved.remove(previous.key());
+        if (previous.state() != null) {
+            byState.get(previous.state()).remove(previous.key());
+        }
+    }
+
+    boolean contains(String taskId) {
+        return entries.containsKey(taskId);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the creation time the task is ordered by, or {@code 0} if it is not indexed
+     */
+    long createdAtMillis(String taskId) {
+        Entry entry = entries.get(taskId);
+        return entry == null ? 0L : entry.key().createdAtMillis();
+    }
+
+    /**
+     * Resolves a ListTasks request to a page. An unknown state name matches no tasks.
+     */
+    Page page(ListTasksRequest request) {
+        return page(request, null);
+    }
+
+    /**
+     * Resolves a ListTasks request to a page, handing unresolved tasks a state-filtered page passes over to
+     * {@code resolver}, which is expected to {@link #put} them.
+     */
+    Page page(ListTasksRequest request, Consumer<String> resolver) {
+        if (request == null) {
+            return page(null, null, 0);
+        }
+        TaskState state = null;
+        if (request.getState() != null && !request.getState().isBlank()) {
+            try {
+                state = TaskState.valueOf(request.getState().trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return new Page(List.of(), null);
+            }
+        }
+        int limit = request.getLimit() == null ? 0 : request.getLimit();
+        if (state != null && resolver != null && !unresolved.isEmpty()) {
+            return resolvingPage(state, request.getCursor(), limit, resolver);
+        }
+        return page(state, request.getCursor(), limit);
+    }
+
+    /**
+     * Returns up to {@code limit} task ids after {@code cursor}, oldest first.
+     *
+     * @param state state filter, or {@code null} for all tasks
+     * @param cursor cursor returned by a previous page, or {@code null} to start from the beginning
+     * @param limit page size; zero or negative means unbounded
+     */
+    Page page(TaskState state, String cursor, int limit) {
+        NavigableSet<KeysetCursor> source = state == null ? all : byState.get(state);
+        NavigableSet<KeysetCursor> view = after(source, cursor);
+        int max = limit > 0 ? limit : Integer.MAX_VALUE;
+
+        List<String> taskIds = new ArrayList<>(Math.min(max, 64));
+        KeysetCursor last = null;
+        Iterator<KeysetCursor> iterator = view.iterator();
+        while (iterator.hasNext() && taskIds.size() < max) {
+            last = iterator.next();
+            taskIds.add(last.id());
+        }
+        String nextCursor = last != null && iterator.hasNext() ? last.encode() : null;
+        return new Page(taskIds, nextCursor);
+    }
+
+    // Walks the state index and the unresolved tasks together in key order. The next key of the state index is
+    // read before a task is resolved, so a task resolved into that state is not listed a second time.
+    private Page resolvingPage(TaskState state, String cursor, int limit, Consumer<String> resolver) {
+        Iterator<KeysetCursor> matching = after(byState.get(state), cursor).iterator();
+        Iterator<KeysetCursor> pending = after(unresolved, cursor).iterator();
+        int max = limit > 0 ? limit : Integer.MAX_VALUE;
+
+        List<String> taskIds = new ArrayList<>(Math.min(max, 64));
+        KeysetCursor last = null;
+        KeysetCursor match = matching.hasNext() ? matching.next() : null;
+        KeysetCursor next = pending.hasNext() ? pending.next() : null;
+        while ((match != null || next != null) && taskIds.size() < max) {
+            if (next != null && (match == null || next.compareTo(match) < 0)) {
+                if (unresolved.contains(next)) {
+                    resolver.accept(next.id());
+                    unresolved.remove(next);
+                }
+                Entry entry = entries.get(next.id());
+                if (entry != null && entry.state() == state) {
+                    taskIds.add(next.id());
+                }
+                last = next;
+                next = pending.hasNext() ? pending.next() : null;
+            } else {
+                if (match.equals(next)) {
+                    next = pending.hasNext() ? pending.next() : null;
+                }
+                taskIds.add(match.id());
+                last = match;
+                match = matching.hasNext() ? matching.next() : null;
+            }
+        }
+        String nextCursor = last != null && (match != null || next != null) ? last.encode() : null;
+        return new Page(taskIds, nextCursor);
+    }
+
+    private static NavigableSet<KeysetCursor> after(NavigableSet<KeysetCursor> source, String cursor) {
+        return cursor == null || cursor.isBlank() ? source : source.tailSet(KeysetCursor.decode(cursor, "ListTasks"), false);
+    }
+
+    record Page(List<String> taskIds, String nextCursor) {
+    }
+
+    private record Entry(KeysetCursor key, TaskState state) {
+    }
+}
@@ -0,0 +1,53 @@
+package io.dscope.camel.a2a.service;
+
+import io.dscope.camel.a2a.config.A2ASettings;
+
+import java.util.Properties;
+
+/**
+ * Limits applied by {@link TaskRetentionSweeper} to in-memory task state. A value of zero disables the
+ * corresponding limit. By default only {@code maxResidentTasks} and the subscription idle TTL apply: terminal
+ * tasks and idempotency keys do not expire by age unless a max age is configured.
+ *
+ * @param terminalTaskMaxAgeMs how long a COMPLETED/FAILED/CANCELED task stays resident after reaching that state
+ * @param maxResidentTasks upper bound on resident tasks; oldest terminal tasks are evicted first
+ * @param idempotencyKeyMaxAgeMs how long a SendMessage idempotency key keeps resolving to its task
+ * @param sweepIntervalMs delay between background sweeps
+ * @param subscriptionIdleTtlMs how long a subscription survives without being created or acknowledged
+ */
+public record TaskRetentionPolicy(long terminalTaskMaxAgeMs,
+                                  int maxResidentTasks,
+                                  long idempotencyKeyMaxAgeMs,
+                                  long sweepIntervalMs,
+                                  long subscriptionIdleTtlMs) {
+
+    public static final String TERMINAL_TASK_MAX_AGE_MS = "a2a.retention.terminal-task-max-age-ms";
+    public static final String MAX_RESIDENT_TASKS = "a2a.retention.max-resident-tasks";
+    public static final String IDEMPOTENCY_KEY_MAX_AGE_MS = "a2a.retention.idempotency-key-max-age-ms";
+    public static final String SWEEP_INTERVAL_MS = "a2a.retention.sweep-interval-ms";
+    public static final String SUBSCRIPTION_IDLE_TTL_MS = "a2a.retention.subscription-idle-ttl-ms";
+
+    public static final TaskRetentionPolicy DEFAULT = new TaskRetentionPolicy(0L, 100_000, 0L, 30_000L, 600_000L);
+
+    public TaskRetentionPolicy {
+        terminalTaskMaxAgeMs = Math.max(0L, terminalTaskMaxAgeMs);
+        maxResidentTasks = Math.max(0, maxResidentTasks);
+        idempotencyKeyMaxAgeMs = Math.max(0L, idempotencyKeyMaxAgeMs);
+        sweepIntervalMs = Math.max(100L, sweepIntervalMs);
+        subscriptionIdleTtlMs = Math.max(0L, subscriptionIdleTtlMs);
+    }
+
+    public TaskRetentionPolicy(long terminalTaskMaxAgeMs, int maxResidentTasks, long idempotencyKeyMaxAgeMs, long sweepIntervalMs) {
+        this(terminalTaskMaxAgeMs, maxResidentTasks, idempotencyKeyMaxAgeMs, sweepIntervalMs, 600_000L);
+    }
+
+    public static TaskRetentionPolicy fromProperties(Properties properties) {
+        return new TaskRetentionPolicy(
+            A2ASettings.longValue(properties, TERMINAL_TASK_MAX_AGE_MS, DEFAULT.terminalTaskMaxAgeMs()),
+            (int) A2ASettings.longValue(properties, MAX_RESIDENT_TASKS, DEFAULT.maxResidentTasks()),
+            A2ASettings.longValue(properties, IDEMPOTENCY_KEY_MAX_AGE_MS, DEFAULT.idempotencyKeyMaxAgeMs()),
+            A2ASettings.longValue(properties, SWEEP_INTERVAL_MS, DEFAULT.sweepIntervalMs()),
+            A2ASettings.longValue(properties, SUBSCRIPTION_IDLE_TTL_MS, DEFAULT.subscriptionIdleTtlMs())
+        );
+    }
+}
@@ -0,0 +1,111 @@
+package io.dscope.camel.a2a.service;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Background sweeper that applies a {@link TaskRetentionPolicy} to the in-memory task and event services,
+ * evicting a task from both so their maps stay consistent, and expiring idle or terminal subscriptions.
+ * Without a task service (persistent mode) only subscriptions are swept.
+ */
+public class TaskRetentionSweeper implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(TaskRetentionSweeper.class.getName());
+
+    private final InMemoryA2ATaskService taskService;
+    private final InMemoryTaskEventService eventService;
+    private final TaskRetentionPolicy policy;
+    private final AtomicLong sweeps = new AtomicLong();
+    private final AtomicLong evictedTasks = new AtomicLong();
+    private final AtomicLong expiredIdempotencyKeys = new AtomicLong();
+    private final AtomicLong expiredSubscriptions = new AtomicLong();
+    private ScheduledExecutorService scheduler;
+
+    public TaskRetentionSweeper(InMemoryA2ATaskService taskService,
+                                InMemoryTaskEventService eventService,
+                                TaskRetentionPolicy policy) {
+        this.taskService = taskService;
+        this.eventService = eventService;
+        this.policy = policy == null ? TaskRetentionPolicy.DEFAULT : policy;
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "a2a-retention-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::sweepQuietly, policy.sweepIntervalMs(), policy.sweepIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs one retention pass immediately.
+     */
+    public void sweep() {
+        sweep(CachedClock.currentTimeMillis());
+    }
+
+    void sweep(long nowMillis) {
+        if (taskService != null) {
+            List<String> evicted = taskService.evictExpiredTasks(policy, nowMillis);
+            if (eventService != null) {
+                evicted.forEach(eventService::evictTask);
+            }
+            evictedTasks.addAndGet(evicted.size());
+            expiredIdempotencyKeys.addAndGet(taskService.expireIdempotencyKeys(policy, nowMillis));
+        }
+        if (eventService != null) {
+            eventService.cleanupTerminalSubscriptions();
+            expiredSubscriptions.addAndGet(eventService.expireIdleSubscriptions(policy.subscriptionIdleTtlMs(), nowMillis));
+        }
+        sweeps.incrementAndGet();
+    }
+
+    public TaskRetentionPolicy getPolicy() {
+        return policy;
+    }
+
+    public long getSweepCount() {
+        return sweeps.get();
+    }
+
+    public long getEvictedTaskCount() {
+        return evictedTasks.get();
+    }
+
+    public long getExpiredIdempotencyKeyCount() {
+        return expiredIdempotencyKeys.get();
+    }
+
+    public long getExpiredSubscriptionCount() {
+        return expiredSubscriptions.get();
+    }
+
+    public int getResidentTaskCount() {
+        return taskService == null ? 0 : taskService.getResidentTaskCount();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void sweepQuietly() {
+        try {
+            sweep();
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "Task retention sweep failed", e);
+        }
+    }
+}
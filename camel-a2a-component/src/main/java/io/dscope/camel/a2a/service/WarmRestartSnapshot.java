@@ -0,0 +1,254 @@
+package io.dscope.camel.a2a.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.dscope.camel.a2a.model.PushNotificationConfig;
+import io.dscope.camel.a2a.model.Task;
+import io.dscope.camel.a2a.model.TaskEvent;
+import io.dscope.camel.a2a.model.TaskStatus;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Carries the in-memory task, event and push config state across a restart when persistence is disabled.
+ * {@link #dump()} streams every resident task with its history, the buffered events of each task and every
+ * push config to a local file as length-prefixed Smile frames; {@link #load()} reads the frames back and
+ * decodes and restores them in parallel. Subscriptions and in-flight push deliveries are not carried over.
+ */
+public class WarmRestartSnapshot {
+
+    public static final String FILE_PROPERTY = "a2a.warm-restart.file";
+
+    static final int MAGIC = 0x41325752;
+    static final int FORMAT_VERSION = 1;
+
+    private static final Logger LOG = Logger.getLogger(WarmRestartSnapshot.class.getName());
+    private static final byte END = 0;
+    private static final byte TASK = 1;
+    private static final byte EVENTS = 2;
+    private static final byte PUSH_CONFIG = 3;
+    private static final int FRAME_HEADER_BYTES = 1 + Integer.BYTES;
+    private static final int RESTORE_BATCH_FRAMES = 4_096;
+    private static final ObjectMapper SMILE = new ObjectMapper(new SmileFactory())
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final JavaType EVENT_LIST = SMILE.getTypeFactory().constructCollectionType(List.class, TaskEvent.class);
+
+    private final Path file;
+    private final InMemoryA2ATaskService taskService;
+    private final InMemoryTaskEventService eventService;
+    private final InMemoryPushNotificationConfigService pushConfigService;
+
+    /**
+     * Any of the services may be {@code null}, in which case its state is neither dumped nor restored.
+     */
+    public WarmRestartSnapshot(Path file,
+                               InMemoryA2ATaskService taskService,
+                               InMemoryTaskEventService eventService,
+                               InMemoryPushNotificationConfigService pushConfigService) {
+        this.file = file;
+        this.taskService = taskService;
+        this.eventService = eventService;
+        this.pushConfigService = pushConfigService;
+    }
+
+    /**
+     * @return the snapshot configured by {@value #FILE_PROPERTY}, or {@code null} when the property is not set
+     */
+    public static WarmRestartSnapshot fromProperties(Properties properties,
+                                                     InMemoryA2ATaskService taskService,
+                                                     InMemoryTaskEventService eventService,
+                                                     InMemoryPushNotificationConfigService pushConfigService) {
+        String file = properties == null ? null : properties.getProperty(FILE_PROPERTY);
+        if (file == null || file.isBlank()) {
+            return null;
+        }
+        return new WarmRestartSnapshot(Path.of(file.trim()), taskService, eventService, pushConfigService);
+    }
+
+    /**
+     * Writes the current state to a temporary file and moves it over {@link #getFile()}, so a dump cut short
+     * never replaces the previous one. Each task is captured under its lock; tasks changing while the dump
+     * runs are captured either before or after the change.
+     */
+    public synchronized Contents dump() {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        AtomicInteger tasks = new AtomicInteger();
+        AtomicInteger events = new AtomicInteger();
+        AtomicInteger pushConfigs = new AtomicInteger();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                if (taskService != null) {
+                    taskService.exportTasks(record -> {
+                        writeFrame(out, TASK, record);
+                        tasks.incrementAndGet();
+                    });
+                }
+                if (eventService != null) {
+                    eventService.exportEvents(taskEvents -> {
+                        writeFrame(out, EVENTS, taskEvents);
+                        events.addAndGet(taskEvents.size());
+                    });
+                }
+                if (pushConfigService != null) {
+                    pushConfigService.exportConfigs(config -> {
+                        writeFrame(out, PUSH_CONFIG, config);
+                        pushConfigs.incrementAndGet();
+                    });
+                }
+                out.writeByte(END);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | UncheckedIOException e) {
+            throw new IllegalStateException("Failed to write warm restart snapshot " + file, e);
+        }
+        return new Contents(tasks.get(), events.get(), pushConfigs.get());
+    }
+
+    /**
+     * Restores the state written by the last {@link #dump()} and deletes the file, so a crash before the next
+     * clean shutdown cannot bring back state that has since moved on. A missing file restores nothing; an
+     * unreadable or truncated one restores the frames that could be read.
+     */
+    public Contents load() {
+        if (!Files.isRegularFile(file)) {
+            return new Contents(0, 0, 0);
+        }
+        Counters counters = new Counters();
+        List<Frame> batch = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            long remaining = Files.size(file) - 2L * Integer.BYTES;
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                LOG.warning("Ignoring warm restart snapshot " + file + " with an unrecognized format");
+            } else {
+                byte kind;
+                while ((kind = in.readByte()) != END) {
+                    int length = in.readInt();
+                    remaining -= FRAME_HEADER_BYTES;
+                    // A corrupt length is treated like a cut: nothing after it can be framed reliably.
+                    if (length < 0 || length > remaining) {
+                        throw new EOFException("Frame length " + length + " exceeds the " + remaining + " bytes left");
+                    }
+                    remaining -= length;
+                    byte[] body = new byte[length];
+                    in.readFully(body);
+                    batch.add(new Frame(kind, body));
+                    if (batch.size() == RESTORE_BATCH_FRAMES) {
+                        restore(batch, counters);
+                        batch.clear();
+                    }
+                }
+            }
+        } catch (EOFException e) {
+            LOG.warning("Warm restart snapshot " + file + " is truncated; restoring the frames written before the cut");
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Failed to read warm restart snapshot " + file, e);
+        }
+        restore(batch, counters);
+        if (counters.skipped.get() > 0) {
+            LOG.warning("Skipped " + counters.skipped.get() + " undecodable frames of warm restart snapshot " + file);
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Failed to delete warm restart snapshot " + file, e);
+        }
+        return new Contents(counters.tasks.get(), counters.events.get(), counters.pushConfigs.get());
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    private void restore(List<Frame> frames, Counters counters) {
+        // Frames are independent of each other, so decoding, the dominant cost, runs across the common pool.
+        frames.parallelStream().forEach(frame -> {
+            try {
+                restore(frame, counters);
+            } catch (IOException | RuntimeException e) {
+                counters.skipped.incrementAndGet();
+            }
+        });
+    }
+
+    private void restore(Frame frame, Counters counters) throws IOException {
+        switch (frame.kind()) {
+            case TASK -> {
+                if (taskService != null) {
+                    taskService.restoreTask(SMILE.readValue(frame.body(), TaskRecord.class));
+                    counters.tasks.incrementAndGet();
+                }
+            }
+            case EVENTS -> {
+                if (eventService != null) {
+                    List<TaskEvent> events = SMILE.readValue(frame.body(), EVENT_LIST);
+                    eventService.restoreEvents(events);
+                    counters.events.addAndGet(events.size());
+                }
+            }
+            case PUSH_CONFIG -> {
+                if (pushConfigService != null) {
+                    pushConfigService.restoreConfig(SMILE.readValue(frame.body(), PushNotificationConfig.class));
+                    counters.pushConfigs.incrementAndGet();
+                }
+            }
+            default -> {
+                // Written by a newer version; nothing here knows how to restore it.
+            }
+        }
+    }
+
+    private static void writeFrame(DataOutputStream out, byte kind, Object value) {
+        try {
+            byte[] body = SMILE.writeValueAsBytes(value);
+            out.writeByte(kind);
+            out.writeInt(body.length);
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Number of tasks, buffered events and push configs written by {@link #dump()} or restored by {@link #load()}.
+     */
+    public record Contents(int tasks, int events, int pushConfigs) {
+    }
+
+    /**
+     * A resident task as exported by {@link InMemoryA2ATaskService}, with the bookkeeping retention relies on.
+     */
+    record TaskRecord(Task task, List<TaskStatus> history, long createdAtMillis, String idempotencyKey, long terminalAtMillis) {
+    }
+
+    private record Frame(byte kind, byte[] body) {
+    }
+
+    private static final class Counters {
+        private final AtomicInteger tasks = new AtomicInteger();
+        private final AtomicInteger events = new AtomicInteger();
+        private final AtomicInteger pushConfigs = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+    }
+}
@@ -10,71 +10,87 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
- * Sample webhook notifier implementation using Java HttpClient.
+ * Sample webhook notifier implementation using Java HttpClient. The request body is the event's shared
+ * {@link TaskEventEncoder#json JSON encoding}, so retries and additional endpoints do not re-serialize it.
  */
 public class WebhookPushNotificationNotifier implements PushNotificationNotifier {
 
     private final HttpClient client;
-    private final ObjectMapper mapper;
     private final Duration requestTimeout;
 
     public WebhookPushNotificationNotifier() {
-        this(HttpClient.newHttpClient(), new ObjectMapper(), Duration.ofSeconds(3));
+        this(HttpClient.newHttpClient(), Duration.ofSeconds(3));
     }
 
+    /**
+     * @deprecated events are encoded once by {@link TaskEventEncoder}; the mapper is ignored
+     */
+    @Deprecated
     public WebhookPushNotificationNotifier(HttpClient client, ObjectMapper mapper, Duration requestTimeout) {
+        this(client, requestTimeout);
+    }
+
+    public WebhookPushNotificationNotifier(HttpClient client, Duration requestTimeout) {
         this.client = client;
-        this.mapper = mapper;
         this.requestTimeout = requestTimeout == null ? Duration.ofSeconds(3) : requestTimeout;
     }
 
     @Override
     public PushDeliveryAttempt notify(PushNotificationConfig config, TaskEvent event, int attemptNumber) {
+        return notifyAsync(config, event, attemptNumber).join();
+    }
+
+    @Override
+    public CompletableFuture<PushDeliveryAttempt> notifyAsync(PushNotificationConfig config, TaskEvent event, int attemptNumber) {
         PushDeliveryAttempt attempt = new PushDeliveryAttempt();
         attempt.setConfigId(config.getConfigId());
         attempt.setEndpointUrl(config.getEndpointUrl());
         attempt.setAttemptNumber(attemptNumber);
 
+        HttpRequest request;
         try {
-            HttpRequest.Builder builder = HttpRequest.newBuilder()
-                .uri(URI.create(config.getEndpointUrl()))
-                .timeout(requestTimeout)
-                .header("Content-Type", "application/json");
-
-            if (config.getSecret() != null && !config.getSecret().isBlank()) {
-                builder.header("X-A2A-Webhook-Secret", config.getSecret());
-            }
-            if (config.getHeaders() != null) {
-                config.getHeaders().forEach(builder::header);
-            }
+            request = buildRequest(config, event);
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(failed(attempt, e));
+        }
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+            .handle((response, error) -> {
+                if (error != null) {
+                    return failed(attempt, error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                }
+                attempt.setStatusCode(response.statusCode());
+                attempt.setSuccess(response.statusCode() >= 200 && response.statusCode() < 300);
+                if (!attempt.isSuccess()) {
+                    attempt.setErrorMessage("HTTP " + response.statusCode());
+                }
+                return attempt;
+            });
+    }
 
-            String payload = mapper.writeValueAsString(Map.of(
-                "taskId", event.getTaskId(),
-                "sequence", event.getSequence(),
-                "eventType", event.getEventType(),
-                "state", event.getState() == null ? null : event.getState().name(),
-                "message", event.getMessage(),
-                "timestamp", event.getTimestamp(),
-                "terminal", event.isTerminal(),
-                "payload", event.getPayload()
-            ));
+    private HttpRequest buildRequest(PushNotificationConfig config, TaskEvent event) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+            .uri(URI.create(config.getEndpointUrl()))
+            .timeout(requestTimeout)
+            .header("Content-Type", "application/json");
 
-            HttpRequest request = builder.POST(HttpRequest.BodyPublishers.ofString(payload)).build();
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            attempt.setStatusCode(response.statusCode());
-            attempt.setSuccess(response.statusCode() >= 200 && response.statusCode() < 300);
-            if (!attempt.isSuccess()) {
-                attempt.setErrorMessage("HTTP " + response.statusCode());
-            }
-            return attempt;
-        } catch (Exception e) {
-            attempt.setSuccess(false);
-            attempt.setStatusCode(0);
-            attempt.setErrorMessage(e.getMessage());
-            return attempt;
+        if (config.getSecret() != null && !config.getSecret().isBlank()) {
+            builder.header("X-A2A-Webhook-Secret", config.getSecret());
+        }
+        if (config.getHeaders() != null) {
+            config.getHeaders().forEach(builder::header);
         }
+
+        return builder.POST(HttpRequest.BodyPublishers.ofByteArray(TaskEventEncoder.json(event))).build();
+    }
+
+    private PushDeliveryAttempt failed(PushDeliveryAttempt attempt, Throwable error) {
+        attempt.setSuccess(false);
+        attempt.setStatusCode(0);
+        attempt.setErrorMessage(error.getMessage());
+        return attempt;
     }
 }
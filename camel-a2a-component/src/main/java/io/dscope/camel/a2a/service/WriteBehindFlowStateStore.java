@@ -0,0 +1,561 @@
+package io.dscope.camel.a2a.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.dscope.camel.a2a.config.A2ASettings;
+import io.dscope.camel.persistence.core.AppendResult;
+import io.dscope.camel.persistence.core.FlowStateStore;
+import io.dscope.camel.persistence.core.PersistedEvent;
+import io.dscope.camel.persistence.core.RehydratedState;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Moves {@link FlowStateStore} writes off the request thread. Appends and snapshots from all tasks are
+ * queued and flushed by one writer thread in group commits of up to {@code batchSize} writes, at the latest
+ * {@code flushIntervalMs} after the first write of a batch. Within a commit the appends of one flow are sent
+ * as a single {@code appendEvents} call and only the last snapshot of each flow is written.
+ *
+ * <p>In {@link Durability#SYNC} mode every write goes straight to the store on the caller's thread. In
+ * {@link Durability#GROUP_COMMIT} mode the caller waits until the commit holding its write is stored, so
+ * store errors still reach it. In {@link Durability#ASYNC} mode the caller returns once the write is queued
+ * with the result the write would have if it succeeds; failures are logged, counted and passed to every
+ * {@link FailureListener}, so callers that cache flow versions can drop them. Reads of a flow with queued
+ * writes wait for those writes first.
+ */
+public class WriteBehindFlowStateStore implements FlowStateStore, AutoCloseable {
+
+    public static final String DURABILITY_PROPERTY = "a2a.persistence.write.durability";
+    public static final String BATCH_SIZE_PROPERTY = "a2a.persistence.write.batch-size";
+    public static final String FLUSH_INTERVAL_MS_PROPERTY = "a2a.persistence.write.flush-interval-ms";
+    public static final String QUEUE_CAPACITY_PROPERTY = "a2a.persistence.write.queue-capacity";
+
+    private static final Logger LOG = Logger.getLogger(WriteBehindFlowStateStore.class.getName());
+
+    public enum Durability {
+        SYNC,
+        GROUP_COMMIT,
+        ASYNC;
+
+        static Durability parse(String value) {
+            String mode = value == null || value.isBlank() ? "sync" : value.trim();
+            return switch (mode) {
+                case "sync" -> SYNC;
+                case "group-commit" -> GROUP_COMMIT;
+                case "async" -> ASYNC;
+                default -> throw new IllegalArgumentException("Unsupported " + DURABILITY_PROPERTY + ": " + value);
+            };
+        }
+    }
+
+    private final FlowStateStore delegate;
+    private final Durability durability;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final int queueCapacity;
+    private final BlockingQueue<PendingWrite> queue;
+    private final ConcurrentMap<String, Integer> pendingByFlow = new ConcurrentHashMap<>();
+    private final List<FailureListener> failureListeners = new CopyOnWriteArrayList<>();
+    // Held shared while queueing and exclusively while closing, so no write is queued after the writer stops.
+    private final ReadWriteLock admission = new ReentrantReadWriteLock();
+    private final Thread writer;
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong coalescedWrites = new AtomicLong();
+    private final AtomicLong failedWrites = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+    private volatile boolean closed;
+
+    public WriteBehindFlowStateStore(FlowStateStore delegate, Durability durability) {
+        this(delegate, durability, 256, 5L, 10_000);
+    }
+
+    public WriteBehindFlowStateStore(FlowStateStore delegate,
+                                     Durability durability,
+                                     int batchSize,
+                                     long flushIntervalMs,
+                                     int queueCapacity) {
+        this.delegate = delegate;
+        this.durability = durability == null ? Durability.SYNC : durability;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMs = Math.max(0L, flushIntervalMs);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.queue = new LinkedBlockingQueue<>(this.queueCapacity);
+        if (this.durability == Durability.SYNC) {
+            this.writer = null;
+        } else {
+            this.writer = new Thread(this::drain, "a2a-persistence-writer");
+            this.writer.setDaemon(true);
+            this.writer.start();
+        }
+    }
+
+    /**
+     * Wraps {@code delegate} according to the {@code a2a.persistence.write.*} properties.
+     */
+    public static WriteBehindFlowStateStore fromProperties(FlowStateStore delegate, Properties properties) {
+        return new WriteBehindFlowStateStore(
+            delegate,
+            Durability.parse(properties == null ? null : properties.getProperty(DURABILITY_PROPERTY)),
+            (int) A2ASettings.longValue(properties, BATCH_SIZE_PROPERTY, 256),
+            A2ASettings.longValue(properties, FLUSH_INTERVAL_MS_PROPERTY, 5L),
+            (int) A2ASettings.longValue(properties, QUEUE_CAPACITY_PROPERTY, 10_000)
+        );
+    }
+
+    @Override
+    public RehydratedState rehydrate(String flowType, String flowId) {
+        awaitPendingWrites(flowType, flowId);
+        return delegate.rehydrate(flowType, flowId);
+    }
+
+    @Override
+    public AppendResult appendEvents(String flowType, String flowId, long expectedVersion, List<PersistedEvent> events, String idempotencyKey) {
+        List<PersistedEvent> batch = events == null ? List.of() : List.copyOf(events);
+        PendingWrite write = PendingWrite.append(flowType, flowId, expectedVersion, batch, idempotencyKey);
+        AppendResult result = submit(write);
+        return result != null ? result : new AppendResult(expectedVersion, expectedVersion + batch.size(), false);
+    }
+
+    @Override
+    public void writeSnapshot(String flowType, String flowId, long snapshotVersion, JsonNode snapshot, Map<String, Object> metadata) {
+        submit(PendingWrite.snapshot(flowType, flowId, snapshotVersion, snapshot, metadata));
+    }
+
+    @Override
+    public List<PersistedEvent> readEvents(String flowType, String flowId, long afterSequence, int limit) {
+        awaitPendingWrites(flowType, flowId);
+        return delegate.readEvents(flowType, flowId, afterSequence, limit);
+    }
+
+    /**
+     * Waits until every write queued before this call has been stored.
+     */
+    public void flush() {
+        if (writer == null) {
+            return;
+        }
+        PendingWrite barrier = PendingWrite.barrier();
+        if (queue(barrier)) {
+            join(barrier.future);
+        } else {
+            awaitWriterStopped();
+        }
+    }
+
+    /**
+     * Registers a listener told about every queued write the store rejected.
+     */
+    public void addFailureListener(FailureListener listener) {
+        if (listener != null) {
+            failureListeners.add(listener);
+        }
+    }
+
+    /**
+     * Stops accepting queued writes and waits up to 10s for the writer thread to store the queued ones. Later
+     * writes go to the store directly, but only once the queue is stored, so they never overtake a queued
+     * write of the same flow.
+     *
+     * @throws IllegalStateException if queued writes could not be stored in time; those writes are failed
+     *         and reported to the {@link FailureListener}s
+     */
+    @Override
+    public void close() {
+        close(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    void close(long timeoutMillis) {
+        if (writer == null) {
+            return;
+        }
+        admission.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            admission.writeLock().unlock();
+        }
+        try {
+            writer.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!writer.isAlive()) {
+            return;
+        }
+        // The writer is stuck in a store call; what it has not taken yet is failed rather than silently dropped.
+        List<PendingWrite> unstored = new ArrayList<>();
+        queue.drainTo(unstored);
+        unstored.removeIf(write -> write.key == null);
+        if (unstored.isEmpty()) {
+            return;
+        }
+        IllegalStateException error = new IllegalStateException("Persistence writer closed before the write was stored");
+        Set<String> flows = new LinkedHashSet<>();
+        for (PendingWrite write : unstored) {
+            flows.add(write.key);
+            failed(write.flowType, write.flowId, error);
+            complete(write, null, error);
+        }
+        failedWrites.addAndGet(unstored.size());
+        throw new IllegalStateException("Persistence writer did not finish within " + timeoutMillis + "ms; " + unstored.size()
+            + " queued writes were not stored for flows " + flows);
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public long getFlushIntervalMs() {
+        return flushIntervalMs;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getWriteCount() {
+        return writes.get();
+    }
+
+    public long getFlushCount() {
+        return flushes.get();
+    }
+
+    /**
+     * Writes that did not need their own store call: merged appends and superseded snapshots.
+     */
+    public long getCoalescedWriteCount() {
+        return coalescedWrites.get();
+    }
+
+    public long getFailedWriteCount() {
+        return failedWrites.get();
+    }
+
+    public long getAverageFlushMicros() {
+        long count = flushes.get();
+        return count == 0L ? 0L : TimeUnit.NANOSECONDS.toMicros(totalFlushNanos.get() / count);
+    }
+
+    public long getMaxFlushMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(maxFlushNanos.get());
+    }
+
+    private AppendResult submit(PendingWrite write) {
+        writes.incrementAndGet();
+        if (writer != null) {
+            if (queue(write)) {
+                return durability == Durability.GROUP_COMMIT ? join(write.future) : null;
+            }
+            awaitWriterStopped();
+        }
+        long began = System.nanoTime();
+        try {
+            return store(write);
+        } catch (RuntimeException e) {
+            failedWrites.incrementAndGet();
+            throw e;
+        } finally {
+            recordFlush(System.nanoTime() - began);
+        }
+    }
+
+    /**
+     * @return {@code false} if the store is closed and the write was not queued
+     */
+    private boolean queue(PendingWrite write) {
+        admission.readLock().lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            if (write.key != null) {
+                pendingByFlow.merge(write.key, 1, Integer::sum);
+            }
+            enqueue(write);
+            return true;
+        } finally {
+            admission.readLock().unlock();
+        }
+    }
+
+    private void awaitWriterStopped() {
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for queued persistence writes", e);
+        }
+    }
+
+    private void enqueue(PendingWrite write) {
+        try {
+            // Blocks when the queue is full so a slow store pushes back on writers instead of losing state.
+            queue.put(write);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (write.key != null) {
+                pendingByFlow.computeIfPresent(write.key, (key, count) -> count == 1 ? null : count - 1);
+            }
+            throw new IllegalStateException("Interrupted while queueing persistence write", e);
+        }
+    }
+
+    private void awaitPendingWrites(String flowType, String flowId) {
+        if (writer != null && pendingByFlow.containsKey(key(flowType, flowId))) {
+            flush();
+        }
+    }
+
+    private void drain() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(100L, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingWrite next = remaining > 0L ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                if (batch.isEmpty()) {
+                    continue;
+                }
+            }
+            commit(batch);
+            batch.clear();
+        }
+    }
+
+    private void commit(List<PendingWrite> batch) {
+        long began = System.nanoTime();
+        Map<String, List<PendingWrite>> byFlow = new LinkedHashMap<>();
+        List<PendingWrite> barriers = new ArrayList<>();
+        for (PendingWrite write : batch) {
+            if (write.key == null) {
+                barriers.add(write);
+            } else {
+                byFlow.computeIfAbsent(write.key, ignored -> new ArrayList<>()).add(write);
+            }
+        }
+        for (List<PendingWrite> flowWrites : byFlow.values()) {
+            commitFlow(flowWrites);
+        }
+        recordFlush(System.nanoTime() - began);
+        for (PendingWrite barrier : barriers) {
+            barrier.future.complete(null);
+        }
+    }
+
+    // Keeps the order of one flow's writes; appends merge while their versions are contiguous.
+    private void commitFlow(List<PendingWrite> flowWrites) {
+        int lastSnapshot = -1;
+        for (int i = 0; i < flowWrites.size(); i++) {
+            if (flowWrites.get(i).events == null) {
+                lastSnapshot = i;
+            }
+        }
+        int i = 0;
+        while (i < flowWrites.size()) {
+            PendingWrite write = flowWrites.get(i);
+            if (write.events == null) {
+                if (i == lastSnapshot) {
+                    storeAll(List.of(write));
+                } else {
+                    coalescedWrites.incrementAndGet();
+                    complete(write, null, null);
+                }
+                i++;
+                continue;
+            }
+            List<PendingWrite> merged = new ArrayList<>();
+            merged.add(write);
+            long nextVersion = write.expectedVersion + write.events.size();
+            int j = i + 1;
+            while (j < flowWrites.size()) {
+                PendingWrite next = flowWrites.get(j);
+                if (next.events == null || next.expectedVersion != nextVersion
+                    || write.idempotencyKey != null || next.idempotencyKey != null) {
+                    break;
+                }
+                merged.add(next);
+                nextVersion += next.events.size();
+                j++;
+            }
+            storeAll(merged);
+            i = j;
+        }
+    }
+
+    private void storeAll(List<PendingWrite> merged) {
+        PendingWrite first = merged.get(0);
+        try {
+            if (merged.size() == 1) {
+                complete(first, store(first), null);
+                return;
+            }
+            List<PersistedEvent> events = new ArrayList<>();
+            for (PendingWrite write : merged) {
+                events.addAll(write.events);
+            }
+            AppendResult result = delegate.appendEvents(first.flowType, first.flowId, first.expectedVersion, events, null);
+            coalescedWrites.addAndGet(merged.size() - 1L);
+            for (PendingWrite write : merged) {
+                long previous = write.expectedVersion;
+                boolean duplicate = result != null && result.duplicate();
+                complete(write, new AppendResult(previous, previous + write.events.size(), duplicate), null);
+            }
+        } catch (RuntimeException e) {
+            failedWrites.addAndGet(merged.size());
+            if (durability == Durability.ASYNC) {
+                LOG.log(Level.WARNING, "Failed to persist " + merged.size() + " queued writes for "
+                    + first.flowType + "/" + first.flowId, e);
+            }
+            // Listeners run before the writes complete, so a reader waiting on this flow sees their effect.
+            failed(first.flowType, first.flowId, e);
+            for (PendingWrite write : merged) {
+                complete(write, null, e);
+            }
+        }
+    }
+
+    private AppendResult store(PendingWrite write) {
+        if (write.events != null) {
+            return delegate.appendEvents(write.flowType, write.flowId, write.expectedVersion, write.events, write.idempotencyKey);
+        }
+        delegate.writeSnapshot(write.flowType, write.flowId, write.snapshotVersion, write.snapshot, write.metadata);
+        return null;
+    }
+
+    private void complete(PendingWrite write, AppendResult result, RuntimeException error) {
+        pendingByFlow.computeIfPresent(write.key, (key, count) -> count == 1 ? null : count - 1);
+        if (error != null) {
+            write.future.completeExceptionally(error);
+        } else {
+            write.future.complete(result);
+        }
+    }
+
+    private void failed(String flowType, String flowId, RuntimeException error) {
+        for (FailureListener listener : failureListeners) {
+            try {
+                listener.writeFailed(flowType, flowId, error);
+            } catch (RuntimeException e) {
+                LOG.log(Level.WARNING, "Persistence failure listener failed for " + flowType + "/" + flowId, e);
+            }
+        }
+    }
+
+    private void recordFlush(long nanos) {
+        flushes.incrementAndGet();
+        totalFlushNanos.addAndGet(nanos);
+        maxFlushNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static String key(String flowType, String flowId) {
+        return flowType + '/' + flowId;
+    }
+
+    /**
+     * Told about a queued write the store rejected. Called on the writer thread, so it must not read from or
+     * flush this store.
+     */
+    @FunctionalInterface
+    public interface FailureListener {
+        void writeFailed(String flowType, String flowId, RuntimeException error);
+    }
+
+    private static final class PendingWrite {
+        private final String key;
+        private final String flowType;
+        private final String flowId;
+        private final long expectedVersion;
+        private final List<PersistedEvent> events;
+        private final String idempotencyKey;
+        private final long snapshotVersion;
+        private final JsonNode snapshot;
+        private final Map<String, Object> metadata;
+        private final CompletableFuture<AppendResult> future = new CompletableFuture<>();
+
+        private PendingWrite(String flowType,
+                             String flowId,
+                             long expectedVersion,
+                             List<PersistedEvent> events,
+                             String idempotencyKey,
+                             long snapshotVersion,
+                             JsonNode snapshot,
+                             Map<String, Object> metadata) {
+            this.key = flowType == null ? null : key(flowType, flowId);
+            this.flowType = flowType;
+            this.flowId = flowId;
+            this.expectedVersion = expectedVersion;
+            this.events = events;
+            this.idempotencyKey = idempotencyKey;
+            this.snapshotVersion = snapshotVersion;
+            this.snapshot = snapshot;
+            this.metadata = metadata;
+        }
+
+        static PendingWrite append(String flowType, String flowId, long expectedVersion, List<PersistedEvent> events, String idempotencyKey) {
+            return new PendingWrite(flowType, flowId, expectedVersion, events, idempotencyKey, 0L, null, null);
+        }
+
+        static PendingWrite snapshot(String flowType, String flowId, long snapshotVersion, JsonNode snapshot, Map<String, Object> metadata) {
+            return new PendingWrite(flowType, flowId, 0L, null, null, snapshotVersion, snapshot, metadata);
+        }
+
+        static PendingWrite barrier() {
+            return new PendingWrite(null, null, 0L, null, null, 0L, null, null);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package io.dscope.camel.a2a.model;
 
+import java.lang.reflect.Field;
 import java.util.List;
 import java.util.Map;
 import io.dscope.camel.a2a.model.dto.CancelTaskRequest;
@@ -47,6 +48,37 @@ class A2ADomainModelSerializationTest {
         assertEquals("high", restored.getMetadata().get("priority"));
     }
 
+    @Test
+    void epochMillisTimestampsSerializeAsIsoStrings() throws Exception {
+        TaskEvent event = new TaskEvent();
+        event.setTaskId("task-1");
+        event.setTimestampMillis(1_770_508_800_123L);
+
+        String json = codec.serialize(event);
+        TaskEvent restored = codec.deserialize(json, TaskEvent.class);
+
+        assertTrue(json.contains("\"timestamp\":\"2026-02-08T00:00:00.123Z\""));
+        assertFalse(json.contains("timestampMillis"));
+        assertEquals("2026-02-08T00:00:00.123Z", restored.getTimestamp());
+        assertEquals(0L, restored.getTimestampMillis());
+
+        // Serializing formats the text without keeping it next to the millis.
+        Field text = TaskEvent.class.getDeclaredField("timestamp");
+        text.setAccessible(true);
+        assertNull(text.get(event));
+        assertEquals(1_770_508_800_123L, event.getTimestampMillis());
+    }
+
+    @Test
+    void textTimestampsArePreservedVerbatim() {
+        TaskStatus status = new TaskStatus();
+        status.setUpdatedAtMillis(1_770_508_800_000L);
+        status.setUpdatedAt("2026-02-08T00:10:00.123456Z");
+
+        assertEquals("2026-02-08T00:10:00.123456Z", status.getUpdatedAt());
+        assertEquals(0L, status.getUpdatedAtMillis());
+    }
+
     @Test
     void roundTripAgentCardWithCapabilitiesAndSecurity() throws Exception {
         AgentCapabilities capabilities = new AgentCapabilities();
@@ -0,0 +1,234 @@
+package io.dscope.camel.a2a.persistence;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import io.dscope.camel.a2a.model.Message;
+import io.dscope.camel.a2a.model.Part;
+import io.dscope.camel.a2a.model.Task;
+import io.dscope.camel.a2a.model.TaskState;
+import io.dscope.camel.a2a.model.dto.SendMessageRequest;
+import io.dscope.camel.a2a.service.PersistentA2ATaskEventService;
+import io.dscope.camel.a2a.service.PersistentA2ATaskService;
+import io.dscope.camel.persistence.core.AppendResult;
+import io.dscope.camel.persistence.core.PersistedEvent;
+import io.dscope.camel.persistence.core.RehydratedState;
+import io.dscope.camel.persistence.core.exception.OptimisticConflictException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalFlowStateStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void eventsAndSnapshotsSurviveAReopen() {
+        try (JournalFlowStateStore store = open(64 * 1024)) {
+            store.appendEvents("a2a.task", "t1", 0L, List.of(event(1), event(2)), null);
+            store.writeSnapshot("a2a.task", "t1", 2L, snapshot(2), Map.of("updatedAt", "now"));
+            store.appendEvents("a2a.task", "t1", 2L, List.of(event(3)), "batch-3");
+
+            assertThrows(OptimisticConflictException.class,
+                () -> store.appendEvents("a2a.task", "t1", 1L, List.of(event(4)), null));
+        }
+
+        try (JournalFlowStateStore store = open(64 * 1024)) {
+            RehydratedState state = store.rehydrate("a2a.task", "t1");
+            assertEquals(3L, state.envelope().version());
+            assertEquals(2L, state.envelope().snapshotVersion());
+            assertEquals(2, state.envelope().snapshot().get("value").asInt());
+            assertEquals("now", state.envelope().metadata().get("updatedAt"));
+            assertEquals(List.of(3L), state.tailEvents().stream().map(PersistedEvent::sequence).toList());
+            assertEquals(3, state.tailEvents().get(0).payload().get("n").asInt());
+
+            assertEquals(List.of(2L, 3L), store.readEvents("a2a.task", "t1", 1L, 10).stream().map(PersistedEvent::sequence).toList());
+            AppendResult duplicate = store.appendEvents("a2a.task", "t1", 3L, List.of(event(3)), "batch-3");
+            assertTrue(duplicate.duplicate());
+            assertEquals(3L, duplicate.nextVersion());
+
+            RehydratedState missing = store.rehydrate("a2a.task", "missing");
+            assertEquals(0L, missing.envelope().version());
+            assertNull(missing.envelope().snapshot());
+            assertEquals(List.of(), missing.tailEvents());
+        }
+    }
+
+    @Test
+    void segmentsRollAndATornTailIsDiscarded() throws IOException {
+        try (JournalFlowStateStore store = open(4096)) {
+            for (int i = 0; i < 200; i++) {
+                store.appendEvents("a2a.task", "t1", i, List.of(event(i + 1)), null);
+            }
+            assertTrue(store.getSegmentCount() > 1);
+        }
+        Path last;
+        try (Stream<Path> files = Files.list(directory)) {
+            last = files.filter(file -> file.getFileName().toString().endsWith(".seg")).sorted().reduce((a, b) -> b).orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer torn = ByteBuffer.allocate(12).putInt(40).putInt(12345).putInt(7);
+            torn.flip();
+            channel.write(torn, endOfRecords(channel));
+        }
+
+        try (JournalFlowStateStore store = open(4096)) {
+            assertEquals(200L, store.rehydrate("a2a.task", "t1").envelope().version());
+            store.appendEvents("a2a.task", "t1", 200L, List.of(event(201)), null);
+            assertEquals(201, store.readEvents("a2a.task", "t1", 200L, 10).get(0).payload().get("n").asInt());
+        }
+        try (JournalFlowStateStore store = open(4096)) {
+            assertEquals(201, store.readEvents("a2a.task", "t1", 0L, 1_000).size());
+        }
+    }
+
+    @Test
+    void compactionDropsEventsCoveredBySnapshotsAndKeepsEachFlowsLatestEvent() {
+        try (JournalFlowStateStore store = open(4096)) {
+            for (int i = 0; i < 100; i++) {
+                store.appendEvents("a2a.task", "t1", i, List.of(event(i + 1)), null);
+                store.appendEvents("a2a.task", "t2", i, List.of(event(i + 1)), null);
+            }
+            store.writeSnapshot("a2a.task", "t1", 60L, snapshot(60), Map.of());
+            store.writeSnapshot("a2a.task", "t2", 100L, snapshot(100), Map.of());
+            for (int i = 0; i < 100; i++) {
+                store.appendEvents("a2a.task", "filler", i, List.of(event(i + 1)), null);
+            }
+            long before = store.getJournalBytes();
+
+            store.compact();
+
+            assertTrue(store.getJournalBytes() < before);
+            assertTrue(store.getReclaimedBytes() > 0L);
+            assertEquals(61L, store.readEvents("a2a.task", "t1", 0L, 1_000).get(0).sequence());
+            assertEquals(40, store.rehydrate("a2a.task", "t1").tailEvents().size());
+            // Covered events sharing a mostly live segment with the filler are kept until a later pass.
+            List<PersistedEvent> t2 = store.readEvents("a2a.task", "t2", 0L, 1_000);
+            assertTrue(t2.size() < 10);
+            assertEquals(100L, t2.get(t2.size() - 1).sequence());
+            assertEquals(100, store.readEvents("a2a.task", "filler", 0L, 1_000).size());
+        }
+
+        try (JournalFlowStateStore store = open(4096)) {
+            assertEquals(100L, store.rehydrate("a2a.task", "t1").envelope().version());
+            assertEquals(61L, store.readEvents("a2a.task", "t1", 0L, 1_000).get(0).sequence());
+            assertEquals(100L, store.rehydrate("a2a.task", "t2").envelope().version());
+            assertEquals(101L, store.appendEvents("a2a.task", "t2", 100L, List.of(event(101)), null).nextVersion());
+        }
+    }
+
+    @Test
+    void supersededSnapshotsAreRewrittenAway() {
+        try (JournalFlowStateStore store = open(64 * 1024)) {
+            for (int version = 1; version <= 300; version++) {
+                store.writeSnapshot("a2a.task", "t1", version, snapshot(version), Map.of());
+            }
+            long before = store.getSnapshotFileBytes();
+
+            store.compact();
+
+            assertTrue(store.getSnapshotFileBytes() < before / 100);
+            assertEquals(300, store.rehydrate("a2a.task", "t1").envelope().snapshot().get("value").asInt());
+            store.writeSnapshot("a2a.task", "t1", 301L, snapshot(301), Map.of());
+        }
+        try (JournalFlowStateStore store = open(64 * 1024)) {
+            assertEquals(301L, store.rehydrate("a2a.task", "t1").envelope().snapshotVersion());
+        }
+    }
+
+    @Test
+    void tasksSurviveARestartOfTheTaskServices() {
+        String taskId;
+        try (JournalFlowStateStore store = open(64 * 1024)) {
+            PersistentA2ATaskService service = new PersistentA2ATaskService(store, new PersistentA2ATaskEventService(store), null);
+            Task created = service.sendMessage(sendMessageRequest());
+            taskId = created.getTaskId();
+            service.transitionTask(taskId, TaskState.RUNNING, "running");
+            service.transitionTask(taskId, TaskState.COMPLETED, "done");
+            assertTrue(store.getFsyncCount() > 0L);
+        }
+
+        try (JournalFlowStateStore store = open(64 * 1024)) {
+            PersistentA2ATaskService service = new PersistentA2ATaskService(store, new PersistentA2ATaskEventService(store), null);
+            assertEquals(TaskState.COMPLETED, service.getTask(taskId).getStatus().getState());
+            assertEquals(3, service.getTaskHistory(taskId).size());
+            assertEquals(1, service.listTasks(null).size());
+        }
+    }
+
+    @Test
+    void propertiesSelectTheBackendAndItsOptions() {
+        Properties properties = new Properties();
+        assertFalse(JournalFlowStateStore.isSelected(properties));
+        properties.setProperty(JournalFlowStateStore.BACKEND_PROPERTY, "journal");
+        properties.setProperty(JournalFlowStateStore.DIRECTORY_PROPERTY, directory.resolve("props").toString());
+        properties.setProperty(JournalFlowStateStore.SEGMENT_BYTES_PROPERTY, "8192");
+        properties.setProperty(JournalFlowStateStore.FSYNC_PROPERTY, "never");
+        properties.setProperty(JournalFlowStateStore.COMPACTION_INTERVAL_MS_PROPERTY, "0");
+        assertTrue(JournalFlowStateStore.isSelected(properties));
+
+        try (JournalFlowStateStore store = JournalFlowStateStore.fromProperties(properties)) {
+            assertEquals(directory.resolve("props"), store.getDirectory());
+            assertEquals(8192, store.getSegmentBytes());
+            assertEquals(JournalFlowStateStore.FsyncPolicy.NEVER, store.getFsyncPolicy());
+            assertEquals(0L, store.getCompactionIntervalMs());
+        }
+
+        properties.setProperty(JournalFlowStateStore.FSYNC_PROPERTY, "sometimes");
+        assertThrows(IllegalArgumentException.class, () -> JournalFlowStateStore.fromProperties(properties));
+    }
+
+    private JournalFlowStateStore open(int segmentBytes) {
+        return new JournalFlowStateStore(directory, segmentBytes, JournalFlowStateStore.FsyncPolicy.ALWAYS, 1_000L, 0L);
+    }
+
+    private static long endOfRecords(FileChannel channel) throws IOException {
+        ByteBuffer length = ByteBuffer.allocate(4);
+        long offset = 0L;
+        while (true) {
+            length.clear();
+            channel.read(length, offset);
+            int bodyBytes = length.getInt(0);
+            if (bodyBytes == 0) {
+                return offset;
+            }
+            offset += 8 + bodyBytes;
+        }
+    }
+
+    private static PersistedEvent event(int n) {
+        return new PersistedEvent("e" + n, "a2a.task", null, 0L, "task.status",
+            JsonNodeFactory.instance.objectNode().put("n", n), Instant.now().toString(), null);
+    }
+
+    private static JsonNode snapshot(int value) {
+        return JsonNodeFactory.instance.objectNode().put("value", value).put("padding", "x".repeat(200));
+    }
+
+    private static SendMessageRequest sendMessageRequest() {
+        Part part = new Part();
+        part.setPartId("p-journal");
+        part.setType("text");
+        part.setText("hello");
+        Message message = new Message();
+        message.setMessageId("journal-msg");
+        message.setRole("user");
+        message.setParts(List.of(part));
+        SendMessageRequest request = new SendMessageRequest();
+        request.setMessage(message);
+        return request;
+    }
+}
@@ -16,6 +16,7 @@ import io.dscope.camel.a2a.model.dto.SendMessageRequest;
 import io.dscope.camel.a2a.service.InMemoryA2ATaskService;
 import io.dscope.camel.a2a.service.InMemoryPushNotificationConfigService;
 import io.dscope.camel.a2a.service.InMemoryTaskEventService;
+import io.dscope.camel.a2a.service.StripedTaskLocks;
 
 import java.util.List;
 
@@ -38,7 +39,8 @@ class A2ADiagnosticsProcessorTest {
             return out;
         });
         eventService.addListener(pushService::onTaskEvent);
-        InMemoryA2ATaskService taskService = new InMemoryA2ATaskService(eventService);
+        StripedTaskLocks taskLocks = new StripedTaskLocks(32);
+        InMemoryA2ATaskService taskService = new InMemoryA2ATaskService(eventService, taskLocks);
 
         CreatePushNotificationConfigRequest create = new CreatePushNotificationConfigRequest();
         create.setTaskId("task-diagnostics");
@@ -59,7 +61,7 @@ class A2ADiagnosticsProcessorTest {
         Task task = taskService.sendMessage(send);
         taskService.transitionTask(task.getTaskId(), TaskState.WAITING, "wait");
 
-        A2ADiagnosticsProcessor processor = new A2ADiagnosticsProcessor(taskService, eventService, pushService);
+        A2ADiagnosticsProcessor processor = new A2ADiagnosticsProcessor(taskService, eventService, pushService, taskLocks, null);
         Exchange exchange = new DefaultExchange(new DefaultCamelContext());
         processor.process(exchange);
 
@@ -67,6 +69,8 @@ class A2ADiagnosticsProcessorTest {
         assertEquals("UP", json.get("status").asText());
         assertTrue(json.get("tasks").get("total").asInt() >= 1);
         assertEquals(1, json.get("pushNotifications").get("configs").asInt());
+        assertEquals(32, json.get("taskLocks").get("stripes").asInt());
+        assertTrue(json.get("taskLocks").get("acquisitions").asLong() > 0);
         assertTrue(json.get("supportedMethods").isArray());
         assertEquals("application/json", exchange.getMessage().getHeader(Exchange.CONTENT_TYPE));
     }
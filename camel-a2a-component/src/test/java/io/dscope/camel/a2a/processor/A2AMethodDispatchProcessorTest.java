@@ -139,6 +139,33 @@ class A2AMethodDispatchProcessorTest {
             """.formatted(taskId));
         assertTrue(subscribeResponse.get("result").get("terminal").asBoolean());
         assertTrue(subscribeResponse.get("result").get("streamUrl").asText().contains("/a2a/sse/" + taskId));
+
+        JsonNode longPollResponse = execute("""
+            {"jsonrpc":"2.0","method":"SubscribeToTask","params":{"taskId":"%s","afterSequence":3,"waitMs":15000},"id":"23"}
+            """.formatted(taskId));
+        assertTrue(longPollResponse.get("result").get("streamUrl").asText().endsWith("&afterSequence=3&waitMs=15000"));
+    }
+
+    @Test
+    void subscribeToSeveralTasksReturnsOneMultiplexedStreamUrl() throws Exception {
+        String first = execute("""
+            {"jsonrpc":"2.0","method":"SendMessage","params":{"message":{"messageId":"multi-m1","role":"user","parts":[{"partId":"p1","type":"text","text":"one"}]}},"id":"24"}
+            """).get("result").get("task").get("taskId").asText();
+        String second = execute("""
+            {"jsonrpc":"2.0","method":"SendMessage","params":{"message":{"messageId":"multi-m2","role":"user","parts":[{"partId":"p1","type":"text","text":"two"}]}},"id":"25"}
+            """).get("result").get("task").get("taskId").asText();
+
+        JsonNode subscribeResponse = execute("""
+            {"jsonrpc":"2.0","method":"SubscribeToTask","params":{"taskIds":["%s","%s"]},"id":"26"}
+            """.formatted(first, second));
+        JsonNode result = subscribeResponse.get("result");
+        assertEquals(2, result.get("taskIds").size());
+        assertTrue(result.get("streamUrl").asText().startsWith("/a2a/sse?subscriptionId=" + result.get("subscriptionId").asText()));
+
+        JsonNode ambiguous = execute("""
+            {"jsonrpc":"2.0","method":"SubscribeToTask","params":{"taskId":"%s","conversationId":"c-1"},"id":"27"}
+            """.formatted(first));
+        assertEquals(-32602, ambiguous.get("error").get("code").asInt());
     }
 
     @Test
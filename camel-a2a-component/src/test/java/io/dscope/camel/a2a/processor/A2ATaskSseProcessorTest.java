@@ -8,12 +8,18 @@ import io.dscope.camel.a2a.config.A2AExchangeProperties;
 import io.dscope.camel.a2a.model.Task;
 import io.dscope.camel.a2a.model.TaskState;
 import io.dscope.camel.a2a.model.TaskStatus;
+import io.dscope.camel.a2a.model.TaskSubscription;
 import io.dscope.camel.a2a.model.dto.SendStreamingMessageResponse;
 import io.dscope.camel.a2a.service.InMemoryA2ATaskService;
 import io.dscope.camel.a2a.service.InMemoryTaskEventService;
+import io.dscope.camel.a2a.service.TaskEventStreamRegistry;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -78,6 +84,122 @@ class A2ATaskSseProcessorTest {
         assertNull(eventService.getSubscription(response.getSubscriptionId()));
     }
 
+    @Test
+    void streamRequestKeepsResponseOpenUntilTerminalEvent() throws Exception {
+        InMemoryTaskEventService eventService = new InMemoryTaskEventService();
+        eventService.publishTaskUpdate(task("task-push", TaskState.RUNNING, "running"));
+        try (TaskEventStreamRegistry registry = new TaskEventStreamRegistry(eventService, 4, 0L, 64 * 1024, false)) {
+            A2ATaskSseProcessor processor = new A2ATaskSseProcessor(eventService, registry);
+            Exchange exchange = new DefaultExchange(new DefaultCamelContext());
+            exchange.getIn().setHeader("taskId", "task-push");
+            exchange.getIn().setHeader("stream", "true");
+
+            processor.process(exchange);
+
+            InputStream body = exchange.getMessage().getBody(InputStream.class);
+            assertNotNull(body);
+            assertEquals("text/event-stream", exchange.getMessage().getHeader(Exchange.CONTENT_TYPE));
+            eventService.publishTaskUpdate(task("task-push", TaskState.COMPLETED, "done"));
+
+            String payload = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(payload.contains("id: 1"));
+            assertTrue(payload.contains("id: 2"));
+            assertTrue(payload.contains("event: close"));
+            body.close();
+            assertEquals(0, registry.getOpenStreamCount());
+        }
+    }
+
+    @Test
+    void streamRequestFallsBackToBufferedPayloadWhenStreamsAreExhausted() throws Exception {
+        InMemoryTaskEventService eventService = new InMemoryTaskEventService();
+        eventService.publishTaskUpdate(task("task-full", TaskState.RUNNING, "running"));
+        try (TaskEventStreamRegistry registry = new TaskEventStreamRegistry(eventService, 1, 0L, 64 * 1024, true)) {
+            assertNotNull(registry.open("task-other", null, 0L));
+            A2ATaskSseProcessor processor = new A2ATaskSseProcessor(eventService, registry);
+            Exchange exchange = new DefaultExchange(new DefaultCamelContext());
+            exchange.getIn().setHeader("taskId", "task-full");
+
+            processor.process(exchange);
+
+            assertTrue(exchange.getMessage().getBody() instanceof byte[]);
+            assertTrue(exchange.getMessage().getBody(String.class).contains("id: 1"));
+            assertEquals(1, registry.getRejectedStreamCount());
+        }
+    }
+
+    @Test
+    void longPollWaitsForNextEventWithoutBlockingCaller() throws Exception {
+        InMemoryTaskEventService eventService = new InMemoryTaskEventService();
+        eventService.publishTaskUpdate(task("task-wait", TaskState.RUNNING, "running"));
+        A2ATaskSseProcessor processor = new A2ATaskSseProcessor(eventService);
+        Exchange exchange = new DefaultExchange(new DefaultCamelContext());
+        exchange.getIn().setHeader("taskId", "task-wait");
+        exchange.getIn().setHeader("afterSequence", "1");
+        exchange.getIn().setHeader("waitMs", "5000");
+        CountDownLatch done = new CountDownLatch(1);
+
+        assertFalse(processor.process(exchange, doneSync -> done.countDown()));
+        assertEquals(1, done.getCount());
+
+        eventService.publishTaskUpdate(task("task-wait", TaskState.COMPLETED, "done"));
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        String payload = exchange.getMessage().getBody(String.class);
+        assertFalse(payload.contains("id: 1\n"));
+        assertTrue(payload.contains("id: 2"));
+        assertTrue(payload.contains("event: close"));
+    }
+
+    @Test
+    void lastEventIdResumesAfterTheLastReceivedEvent() throws Exception {
+        InMemoryTaskEventService eventService = new InMemoryTaskEventService();
+        eventService.publishTaskUpdate(task("task-resume", TaskState.RUNNING, "one"));
+        eventService.publishTaskUpdate(task("task-resume", TaskState.WAITING, "two"));
+        eventService.publishTaskUpdate(task("task-resume", TaskState.RUNNING, "three"));
+        A2ATaskSseProcessor processor = new A2ATaskSseProcessor(eventService);
+        Exchange exchange = new DefaultExchange(new DefaultCamelContext());
+        exchange.getIn().setHeader("taskId", "task-resume");
+        exchange.getIn().setHeader("afterSequence", "0");
+        exchange.getIn().setHeader("Last-Event-ID", "2");
+
+        processor.process(exchange);
+
+        String payload = exchange.getMessage().getBody(String.class);
+        assertFalse(payload.contains("id: 1\n"));
+        assertFalse(payload.contains("id: 2\n"));
+        assertTrue(payload.contains("id: 3\n"));
+    }
+
+    @Test
+    void multiTaskSubscriptionIsPolledFromPerTaskCursors() throws Exception {
+        InMemoryTaskEventService eventService = new InMemoryTaskEventService();
+        eventService.publishTaskUpdate(task("task-m1", TaskState.RUNNING, "running"));
+        eventService.publishTaskUpdate(task("task-m2", TaskState.RUNNING, "running"));
+        TaskSubscription subscription = eventService.createSubscription(List.of("task-m1", "task-m2"), null, 0L);
+        A2ATaskSseProcessor processor = new A2ATaskSseProcessor(eventService);
+
+        String first = poll(processor, subscription.getSubscriptionId());
+        assertTrue(first.contains("id: task-m1:1\n"));
+        assertTrue(first.contains("id: task-m2:1\n"));
+        assertFalse(first.contains("event: close"));
+
+        eventService.publishTaskUpdate(task("task-m1", TaskState.COMPLETED, "done"));
+        eventService.publishTaskUpdate(task("task-m2", TaskState.COMPLETED, "done"));
+        String second = poll(processor, subscription.getSubscriptionId());
+        assertFalse(second.contains(":1\n"));
+        assertTrue(second.contains("id: task-m1:2\n"));
+        assertTrue(second.contains("id: task-m2:2\n"));
+        assertTrue(second.contains("event: close"));
+        assertNull(eventService.getSubscription(subscription.getSubscriptionId()));
+    }
+
+    private String poll(A2ATaskSseProcessor processor, String subscriptionId) throws Exception {
+        Exchange exchange = new DefaultExchange(new DefaultCamelContext());
+        exchange.getIn().setHeader("subscriptionId", subscriptionId);
+        processor.process(exchange);
+        return exchange.getMessage().getBody(String.class);
+    }
+
     private Task task(String taskId, TaskState state, String message) {
         Task task = new Task();
         task.setTaskId(taskId);
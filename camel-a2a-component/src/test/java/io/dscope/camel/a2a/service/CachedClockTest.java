@@ -0,0 +1,24 @@
+package io.dscope.camel.a2a.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachedClockTest {
+
+    @Test
+    void refreshesOnlyWhileALeaseIsOpen() throws Exception {
+        boolean tickingBefore = CachedClock.isTicking();
+        CachedClock.Lease outer = CachedClock.start();
+        CachedClock.Lease inner = CachedClock.start();
+        assertEquals(CachedClock.resolutionMillis() > 0L, CachedClock.isTicking());
+        Thread.sleep(3 * Math.max(1L, CachedClock.resolutionMillis()));
+        assertTrue(Math.abs(System.currentTimeMillis() - CachedClock.currentTimeMillis()) <= CachedClock.resolutionMillis() + 50L);
+
+        inner.close();
+        inner.close();
+        assertEquals(CachedClock.resolutionMillis() > 0L, CachedClock.isTicking());
+        outer.close();
+        assertEquals(tickingBefore, CachedClock.isTicking());
+    }
+}
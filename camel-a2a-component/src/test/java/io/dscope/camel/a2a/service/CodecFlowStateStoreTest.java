@@ -0,0 +1,79 @@
+package io.dscope.camel.a2a.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.dscope.camel.a2a.model.Message;
+import io.dscope.camel.a2a.model.Part;
+import io.dscope.camel.a2a.model.Task;
+import io.dscope.camel.a2a.model.TaskState;
+import io.dscope.camel.a2a.model.dto.SendMessageRequest;
+import io.dscope.camel.persistence.core.FlowStateStore;
+import io.dscope.camel.persistence.core.PersistedEvent;
+import io.dscope.camel.persistence.jdbc.JdbcFlowStateStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CodecFlowStateStoreTest {
+
+    @Test
+    void tasksAndEventsRoundTripThroughATaggedBinaryCodec() {
+        JdbcFlowStateStore backend = newJdbcStore();
+        FlowStateStore store = new CodecFlowStateStore(backend, new JacksonPayloadCodec(JacksonPayloadCodec.Format.SMILE, 256));
+        PersistentA2ATaskService service = new PersistentA2ATaskService(store, new PersistentA2ATaskEventService(store), null);
+        Task created = service.sendMessage(newSendMessageRequest("codec-msg"));
+        service.transitionTask(created.getTaskId(), TaskState.RUNNING, "running");
+        service.transitionTask(created.getTaskId(), TaskState.COMPLETED, "done");
+
+        JsonNode rawSnapshot = backend.rehydrate("a2a.task", created.getTaskId()).envelope().snapshot();
+        assertTrue(JacksonPayloadCodec.isTagged(rawSnapshot));
+        List<PersistedEvent> rawEvents = backend.readEvents("a2a.task", created.getTaskId(), 0L, 10);
+        assertTrue(rawEvents.stream().allMatch(event -> JacksonPayloadCodec.isTagged(event.payload())));
+
+        PersistentA2ATaskService reloaded = new PersistentA2ATaskService(store, new PersistentA2ATaskEventService(store), null);
+        assertEquals(TaskState.COMPLETED, reloaded.getTask(created.getTaskId()).getStatus().getState());
+        assertEquals(3, reloaded.getTaskHistory(created.getTaskId()).size());
+        List<PersistedEvent> events = store.readEvents("a2a.task", created.getTaskId(), 0L, 10);
+        assertEquals(List.of("CREATED", "RUNNING", "COMPLETED"),
+            events.stream().map(event -> event.payload().get("state").asText()).toList());
+    }
+
+    @Test
+    void recordsWrittenWithoutACodecStayReadable() {
+        JdbcFlowStateStore backend = newJdbcStore();
+        PersistentA2ATaskService legacy = new PersistentA2ATaskService(backend, new PersistentA2ATaskEventService(backend), null);
+        Task created = legacy.sendMessage(newSendMessageRequest("plain-msg"));
+        legacy.transitionTask(created.getTaskId(), TaskState.RUNNING, "running");
+
+        FlowStateStore store = new CodecFlowStateStore(backend, new JacksonPayloadCodec(JacksonPayloadCodec.Format.SMILE, 0));
+        PersistentA2ATaskService service = new PersistentA2ATaskService(store, new PersistentA2ATaskEventService(store), null);
+        assertEquals(TaskState.RUNNING, service.getTask(created.getTaskId()).getStatus().getState());
+        service.transitionTask(created.getTaskId(), TaskState.COMPLETED, "done");
+
+        PersistentA2ATaskService reloaded = new PersistentA2ATaskService(store, new PersistentA2ATaskEventService(store), null);
+        assertEquals(TaskState.COMPLETED, reloaded.getTask(created.getTaskId()).getStatus().getState());
+        assertEquals(3, reloaded.getTaskHistory(created.getTaskId()).size());
+    }
+
+    private static JdbcFlowStateStore newJdbcStore() {
+        String dbName = "a2aCodec" + UUID.randomUUID().toString().replace("-", "");
+        return new JdbcFlowStateStore("jdbc:derby:memory:" + dbName + ";create=true", "", "");
+    }
+
+    private static SendMessageRequest newSendMessageRequest(String messageId) {
+        Part part = new Part();
+        part.setPartId("p-" + messageId);
+        part.setType("text");
+        part.setText("hello " + messageId);
+        Message message = new Message();
+        message.setMessageId(messageId);
+        message.setRole("user");
+        message.setParts(List.of(part));
+        SendMessageRequest request = new SendMessageRequest();
+        request.setMessage(message);
+        request.setIdempotencyKey("idem-" + messageId);
+        return request;
+    }
+}
@@ -0,0 +1,91 @@
+package io.dscope.camel.a2a.service;
+
+import io.dscope.camel.a2a.model.Message;
+import io.dscope.camel.a2a.model.Part;
+import io.dscope.camel.a2a.model.dto.SendMessageRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SendMessage throughput with distinct idempotency keys across thread counts.
+ * Run with {@code mvn -pl camel-a2a-component -Dtest=InMemoryA2ATaskServiceContentionBenchmark test}.
+ */
+class InMemoryA2ATaskServiceContentionBenchmark {
+
+    private static final Logger LOG = Logger.getLogger(InMemoryA2ATaskServiceContentionBenchmark.class.getName());
+    private static final long MEASURE_MILLIS = Long.getLong("a2a.benchmark.measureMillis", 500L);
+
+    @Test
+    void sendMessageThroughputScalesWithThreads() throws Exception {
+        int maxThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        StringBuilder table = new StringBuilder("threads  sends/sec");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            table.append(String.format("%n%7d  %,.0f", threads, measure(threads)));
+        }
+        LOG.info(table::toString);
+    }
+
+    private double measure(int threads) throws Exception {
+        InMemoryA2ATaskService service = new InMemoryA2ATaskService();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Long>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int worker = t;
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    long sends = 0;
+                    while (running.get()) {
+                        service.sendMessage(sendMessageRequest("bench-" + worker + "-" + sends));
+                        sends++;
+                    }
+                    return sends;
+                }));
+            }
+
+            long began = System.nanoTime();
+            start.countDown();
+            Thread.sleep(MEASURE_MILLIS);
+            running.set(false);
+            long total = 0;
+            for (Future<Long> worker : workers) {
+                total += worker.get();
+            }
+            // Every send carried its own key, so contention must never fold two of them into one task.
+            assertEquals(total, service.getIdempotencyKeyCount());
+            double seconds = (System.nanoTime() - began) / 1_000_000_000.0;
+            return total / seconds;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private SendMessageRequest sendMessageRequest(String messageId) {
+        Part part = new Part();
+        part.setPartId("p-" + messageId);
+        part.setType("text");
+        part.setText("hello");
+
+        Message message = new Message();
+        message.setMessageId(messageId);
+        message.setRole("user");
+        message.setParts(List.of(part));
+
+        SendMessageRequest request = new SendMessageRequest();
+        request.setMessage(message);
+        request.setIdempotencyKey(messageId);
+        return request;
+    }
+}
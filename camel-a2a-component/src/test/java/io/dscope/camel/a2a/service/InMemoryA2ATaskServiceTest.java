@@ -7,6 +7,7 @@ import io.dscope.camel.a2a.model.TaskState;
 import io.dscope.camel.a2a.model.TaskStatus;
 import io.dscope.camel.a2a.model.dto.CancelTaskRequest;
 import io.dscope.camel.a2a.model.dto.ListTasksRequest;
+import io.dscope.camel.a2a.model.dto.ListTasksResponse;
 import io.dscope.camel.a2a.model.dto.SendMessageRequest;
 import io.dscope.camel.a2a.processor.A2AIllegalTaskStateException;
 import io.dscope.camel.a2a.processor.A2AInvalidParamsException;
@@ -103,6 +104,73 @@ class InMemoryA2ATaskServiceTest {
         assertTrue(runningTasks.stream().noneMatch(t -> t.getTaskId().equals(completed.getTaskId())));
     }
 
+    @Test
+    void listTasksPagesInCreationOrderWithCursor() {
+        InMemoryA2ATaskService service = new InMemoryA2ATaskService();
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(service.sendMessage(sendMessageRequest("page-" + i, null)).getTaskId());
+        }
+
+        List<String> seen = new ArrayList<>();
+        ListTasksRequest request = new ListTasksRequest();
+        request.setLimit(2);
+        int pages = 0;
+        do {
+            ListTasksResponse page = service.listTasksPage(request);
+            page.getTasks().forEach(t -> seen.add(t.getTaskId()));
+            request.setCursor(page.getNextCursor());
+            pages++;
+        } while (request.getCursor() != null);
+
+        assertEquals(3, pages);
+        assertEquals(Set.copyOf(created), Set.copyOf(seen));
+        assertEquals(created.size(), seen.size());
+    }
+
+    @Test
+    void listTasksStateCursorSkipsTasksThatLeftTheState() {
+        InMemoryA2ATaskService service = new InMemoryA2ATaskService();
+        Task first = service.sendMessage(sendMessageRequest("state-1", null));
+        Task second = service.sendMessage(sendMessageRequest("state-2", null));
+        Task third = service.sendMessage(sendMessageRequest("state-3", null));
+
+        ListTasksRequest request = new ListTasksRequest();
+        request.setState("running");
+        request.setLimit(1);
+        ListTasksResponse firstPage = service.listTasksPage(request);
+        assertEquals(1, firstPage.getTasks().size());
+        assertNotNull(firstPage.getNextCursor());
+
+        for (Task task : List.of(first, second, third)) {
+            if (!task.getTaskId().equals(firstPage.getTasks().get(0).getTaskId())) {
+                service.transitionTask(task.getTaskId(), TaskState.COMPLETED, "done");
+                break;
+            }
+        }
+        request.setCursor(firstPage.getNextCursor());
+        request.setLimit(10);
+        ListTasksResponse rest = service.listTasksPage(request);
+
+        assertEquals(1, rest.getTasks().size());
+        assertNull(rest.getNextCursor());
+        assertEquals(TaskState.RUNNING, rest.getTasks().get(0).getStatus().getState());
+    }
+
+    @Test
+    void listTasksRejectsMalformedCursorAndMatchesNothingForUnknownState() {
+        InMemoryA2ATaskService service = new InMemoryA2ATaskService();
+        service.sendMessage(sendMessageRequest("cursor-1", null));
+
+        ListTasksRequest badCursor = new ListTasksRequest();
+        badCursor.setCursor("not a cursor");
+        assertThrows(A2AInvalidParamsException.class, () -> service.listTasksPage(badCursor));
+
+        ListTasksRequest unknownState = new ListTasksRequest();
+        unknownState.setState("SLEEPING");
+        assertTrue(service.listTasks(unknownState).isEmpty());
+    }
+
     @Test
     void concurrentIdempotentSendMessageReturnsSingleTaskId() throws Exception {
         InMemoryA2ATaskService service = new InMemoryA2ATaskService();
@@ -129,6 +197,29 @@ class InMemoryA2ATaskServiceTest {
         }
     }
 
+    @Test
+    void concurrentSendMessageWithDistinctKeysCreatesDistinctRunningTasks() throws Exception {
+        InMemoryA2ATaskService service = new InMemoryA2ATaskService();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Task>> calls = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                String key = "idem-" + i;
+                calls.add(() -> service.sendMessage(sendMessageRequest("msg-" + key, key)));
+            }
+
+            List<Task> created = new ArrayList<>();
+            for (var future : pool.invokeAll(calls)) {
+                created.add(future.get());
+            }
+
+            assertEquals(64, created.stream().map(Task::getTaskId).distinct().count());
+            assertTrue(created.stream().allMatch(t -> t.getStatus().getState() == TaskState.RUNNING));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
     @Test
     void getTaskHistoryForUnknownTaskThrows() {
         InMemoryA2ATaskService service = new InMemoryA2ATaskService();
@@ -8,10 +8,13 @@ import io.dscope.camel.a2a.model.dto.CreatePushNotificationConfigRequest;
 import io.dscope.camel.a2a.model.dto.DeletePushNotificationConfigRequest;
 import io.dscope.camel.a2a.model.dto.GetPushNotificationConfigRequest;
 import io.dscope.camel.a2a.model.dto.ListPushNotificationConfigsRequest;
+import io.dscope.camel.a2a.model.dto.ListPushNotificationConfigsResponse;
 import io.dscope.camel.a2a.processor.A2AInvalidParamsException;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -90,6 +93,61 @@ class InMemoryPushNotificationConfigServiceTest {
         assertEquals(2, service.getDeliveryStats().getFailures());
     }
 
+    @Test
+    void taskEventReachesOnlyMatchingAndGlobalConfigs() {
+        List<String> notified = new CopyOnWriteArrayList<>();
+        PushNotificationNotifier notifier = (config, event, attemptNumber) -> {
+            notified.add(config.getEndpointUrl());
+            return successNotifier().notify(config, event, attemptNumber);
+        };
+        InMemoryPushNotificationConfigService service = new InMemoryPushNotificationConfigService(notifier, List.of(), 0, 0L);
+
+        service.create(createRequest("task-a", "https://hooks.example/a"));
+        service.create(createRequest("task-b", "https://hooks.example/b"));
+        service.create(createRequest(null, "https://hooks.example/all"));
+        PushNotificationConfig removed = service.create(createRequest("task-a", "https://hooks.example/a-removed"));
+        DeletePushNotificationConfigRequest delete = new DeletePushNotificationConfigRequest();
+        delete.setConfigId(removed.getConfigId());
+        assertTrue(service.delete(delete));
+
+        service.onTaskEvent(event("task-a"));
+
+        assertEquals(List.of("https://hooks.example/a", "https://hooks.example/all"), notified);
+    }
+
+    @Test
+    void listPagesInCreationOrderWithCursor() {
+        InMemoryPushNotificationConfigService service = new InMemoryPushNotificationConfigService(successNotifier());
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(service.create(createRequest("task-page", "https://hooks.example/" + i)).getConfigId());
+        }
+        service.create(createRequest("task-other", "https://hooks.example/other"));
+        service.create(createRequest(null, "https://hooks.example/all"));
+
+        ListPushNotificationConfigsRequest request = new ListPushNotificationConfigsRequest();
+        request.setTaskId("task-page");
+        request.setLimit(2);
+        List<String> seen = new ArrayList<>();
+        ListPushNotificationConfigsResponse page;
+        do {
+            page = service.listPage(request);
+            page.getConfigs().forEach(config -> seen.add(config.getConfigId()));
+            request.setCursor(page.getNextCursor());
+        } while (page.getNextCursor() != null);
+
+        assertEquals(created, seen);
+
+        ListPushNotificationConfigsRequest all = new ListPushNotificationConfigsRequest();
+        assertEquals(7, service.listPage(all).getConfigs().size());
+        assertNull(service.listPage(all).getNextCursor());
+
+        ListPushNotificationConfigsRequest badCursor = new ListPushNotificationConfigsRequest();
+        badCursor.setCursor("not-a-cursor");
+        A2AInvalidParamsException error = assertThrows(A2AInvalidParamsException.class, () -> service.listPage(badCursor));
+        assertEquals("Invalid ListPushNotificationConfigs cursor: not-a-cursor", error.getMessage());
+    }
+
     @Test
     void invalidInputsAreRejected() {
         InMemoryPushNotificationConfigService service = new InMemoryPushNotificationConfigService(successNotifier());
@@ -114,6 +172,15 @@ class InMemoryPushNotificationConfigServiceTest {
         assertEquals("DeletePushNotificationConfig requires configId", deleteError.getMessage());
     }
 
+    private CreatePushNotificationConfigRequest createRequest(String taskId, String endpointUrl) {
+        CreatePushNotificationConfigRequest create = new CreatePushNotificationConfigRequest();
+        create.setTaskId(taskId);
+        create.setEndpointUrl(endpointUrl);
+        create.setMaxRetries(0);
+        create.setRetryBackoffMs(0L);
+        return create;
+    }
+
     private PushNotificationNotifier successNotifier() {
         return (config, event, attemptNumber) -> {
             PushDeliveryAttempt out = new PushDeliveryAttempt();
@@ -1,5 +1,6 @@
 package io.dscope.camel.a2a.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.dscope.camel.a2a.model.Task;
 import io.dscope.camel.a2a.model.TaskEvent;
 import io.dscope.camel.a2a.model.TaskState;
@@ -7,7 +8,14 @@ import io.dscope.camel.a2a.model.TaskStatus;
 import io.dscope.camel.a2a.model.TaskSubscription;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -45,6 +53,166 @@ class InMemoryTaskEventServiceTest {
         assertNull(service.getSubscription(sub.getSubscriptionId()));
     }
 
+    @Test
+    void bufferKeepsLatestEventsAndSeeksBySequence() {
+        InMemoryTaskEventService service = new InMemoryTaskEventService(16);
+        for (int i = 0; i < 40; i++) {
+            service.publishTaskUpdate(task("task-3", TaskState.RUNNING, "step-" + i));
+        }
+
+        List<TaskEvent> all = service.readTaskEvents("task-3", 0, 100);
+        assertEquals(17, all.size());
+        assertEquals("task.gap", all.get(0).getEventType());
+        assertEquals(1L, ((Number) all.get(0).getPayload().get("fromSequence")).longValue());
+        assertEquals(24, all.get(0).getSequence());
+        assertEquals(25, all.get(1).getSequence());
+        assertEquals(40, all.get(16).getSequence());
+        assertEquals(16, service.getBufferedEventCount());
+
+        List<TaskEvent> page = service.readTaskEvents("task-3", 30, 5);
+        assertEquals(List.of(31L, 32L, 33L, 34L, 35L), page.stream().map(TaskEvent::getSequence).toList());
+        assertEquals("step-30", page.get(0).getMessage());
+        assertTrue(service.readTaskEvents("task-3", 40, 10).isEmpty());
+        assertFalse(service.isTaskTerminal("task-3"));
+    }
+
+    @Test
+    void bufferGrowsToItsCapacityOnlyAsEventsArrive() {
+        TaskEventRing ring = new TaskEventRing(256);
+        assertEquals(TaskEventRing.INITIAL_SLOTS, ring.allocatedSlots());
+        for (int i = 1; i <= 20; i++) {
+            TaskEvent event = new TaskEvent();
+            event.setTaskId("task-grow");
+            event.setMessage("step-" + i);
+            ring.append(event);
+        }
+        assertEquals(32, ring.allocatedSlots());
+        List<TaskEvent> events = ring.read(0L, 100, event -> event);
+        assertEquals(20, events.size());
+        assertEquals("step-1", events.get(0).getMessage());
+        assertEquals("step-20", events.get(19).getMessage());
+
+        TaskEvent replayed = new TaskEvent();
+        replayed.setTaskId("task-grow");
+        assertTrue(ring.appendAt(replayed, 300L));
+        assertEquals(256, ring.allocatedSlots());
+        assertEquals(List.of(300L), ring.read(299L, 100, event -> event).stream().map(TaskEvent::getSequence).toList());
+    }
+
+    @Test
+    void sizeCountsOnlyTheSequencesHeld() {
+        TaskEventRing ring = new TaskEventRing(16);
+        assertEquals(0, ring.size());
+        for (long sequence = 300L; sequence <= 302L; sequence++) {
+            TaskEvent event = new TaskEvent();
+            event.setTaskId("task-restored");
+            assertTrue(ring.appendAt(event, sequence));
+        }
+        assertEquals(3, ring.size());
+        for (int i = 0; i < 20; i++) {
+            TaskEvent event = new TaskEvent();
+            event.setTaskId("task-restored");
+            ring.append(event);
+        }
+        assertEquals(16, ring.size());
+    }
+
+    @Test
+    void concurrentPublishersGetContiguousSequences() throws Exception {
+        InMemoryTaskEventService service = new InMemoryTaskEventService(512);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> publishers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                publishers.add(pool.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        service.publishTaskUpdate(task("task-4", TaskState.RUNNING, "running"));
+                    }
+                }));
+            }
+            for (Future<?> publisher : publishers) {
+                publisher.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<TaskEvent> events = service.readTaskEvents("task-4", 0, 500);
+        assertEquals(400, events.size());
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(i + 1L, events.get(i).getSequence());
+        }
+    }
+
+    @Test
+    void longPollCompletesOnPublishOrTimeout() throws Exception {
+        InMemoryTaskEventService service = new InMemoryTaskEventService();
+        service.publishTaskUpdate(task("task-5", TaskState.RUNNING, "running"));
+
+        assertTrue(service.awaitTaskEvents("task-5", 0L, 1_000L).getNow(false));
+
+        CompletableFuture<Boolean> parked = service.awaitTaskEvents("task-5", 1L, 5_000L);
+        assertFalse(parked.isDone());
+        assertEquals(1, service.getWaitingReaderCount());
+        service.publishTaskUpdate(task("task-5", TaskState.WAITING, "waiting"));
+        assertTrue(parked.get(1, TimeUnit.SECONDS));
+        assertEquals(0, service.getWaitingReaderCount());
+
+        CompletableFuture<Boolean> timedOut = service.awaitTaskEvents("task-5", 2L, 30L);
+        assertFalse(timedOut.get(1, TimeUnit.SECONDS));
+        assertEquals(0, service.getWaitingReaderCount());
+
+        CompletableFuture<Boolean> evicted = service.awaitTaskEvents("task-5", 2L, 5_000L);
+        service.evictTask("task-5");
+        assertFalse(evicted.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void subscriptionCountsFollowTaskLifecycleAndIdleExpiry() {
+        InMemoryTaskEventService service = new InMemoryTaskEventService();
+        service.publishTaskUpdate(task("task-6", TaskState.RUNNING, "running"));
+        service.publishTaskUpdate(task("task-7", TaskState.RUNNING, "running"));
+        service.createSubscription("task-6", 0);
+        service.createSubscription("task-6", 0);
+        TaskSubscription idle = service.createSubscription("task-7", 0);
+        assertEquals(3, service.getActiveSubscriptionCount());
+
+        service.publishTaskUpdate(task("task-6", TaskState.COMPLETED, "done"));
+        assertEquals(1, service.getActiveSubscriptionCount());
+        assertEquals(3, service.getSubscriptionCount());
+        service.cleanupTerminalSubscriptions();
+        assertEquals(1, service.getSubscriptionCount());
+
+        long now = System.currentTimeMillis();
+        assertEquals(0, service.expireIdleSubscriptions(60_000L, now));
+        assertEquals(1, service.expireIdleSubscriptions(1_000L, now + 60_000L));
+        assertNull(service.getSubscription(idle.getSubscriptionId()));
+        assertEquals(0, service.getActiveSubscriptionCount());
+        assertEquals(0, service.getSubscriptionCount());
+    }
+
+    @Test
+    void publishedEventIsEncodedOnceForAllReaders() throws Exception {
+        InMemoryTaskEventService service = new InMemoryTaskEventService();
+        List<TaskEvent> delivered = new ArrayList<>();
+        service.addListener(delivered::add);
+        service.publishTaskUpdate(task("task-8", TaskState.RUNNING, "running"));
+
+        TaskEvent first = service.readTaskEvents("task-8", 0L, 10).get(0);
+        TaskEvent second = service.readTaskEvents("task-8", 0L, 10).get(0);
+        assertNotSame(first, second);
+        assertSame(TaskEventEncoder.sseFrame(first), TaskEventEncoder.sseFrame(second));
+        assertSame(TaskEventEncoder.json(first), TaskEventEncoder.json(delivered.get(0)));
+
+        String frame = new String(TaskEventEncoder.sseFrame(first), StandardCharsets.UTF_8);
+        assertTrue(frame.startsWith("id: 1\nevent: task.status\ndata: {"));
+        assertTrue(frame.endsWith("}\n\n"));
+        TaskEvent decoded = new ObjectMapper().readValue(TaskEventEncoder.json(first), TaskEvent.class);
+        assertEquals("task-8", decoded.getTaskId());
+        assertEquals(TaskState.RUNNING, decoded.getState());
+        assertNull(decoded.getEncodedJson());
+    }
+
     private Task task(String taskId, TaskState state, String message) {
         Task task = new Task();
         task.setTaskId(taskId);
@@ -0,0 +1,100 @@
+package io.dscope.camel.a2a.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JacksonPayloadCodecTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void plainJsonCodecStoresTreesUnchanged() {
+        JsonNode payload = payload(3);
+
+        assertSame(payload, PersistedPayloadCodec.json().encode(payload));
+        assertSame(payload, new JacksonPayloadCodec(JacksonPayloadCodec.Format.JSON, 1 << 20).encode(payload));
+        assertNull(PersistedPayloadCodec.json().encode(null));
+    }
+
+    @Test
+    void payloadsRoundTripThroughEveryFormatAndAStringifiedStore() throws Exception {
+        JsonNode payload = payload(200);
+        for (JacksonPayloadCodec.Format format : JacksonPayloadCodec.Format.values()) {
+            for (int compressMinBytes : new int[] {0, 64}) {
+                JacksonPayloadCodec codec = new JacksonPayloadCodec(format, compressMinBytes);
+                JsonNode stored = codec.encode(payload);
+
+                assertEquals(payload, codec.decode(stored));
+                // Redis and JDBC keep payloads as JSON text, which turns the binary field into base64.
+                JsonNode reparsed = MAPPER.readTree(MAPPER.writeValueAsString(stored));
+                assertEquals(payload, codec.decode(reparsed));
+                assertEquals(payload, PersistedPayloadCodec.json().decode(reparsed));
+            }
+        }
+    }
+
+    @Test
+    void onlyPayloadsReachingTheThresholdAreDeflated() {
+        JacksonPayloadCodec codec = new JacksonPayloadCodec(JacksonPayloadCodec.Format.SMILE, 512);
+
+        JsonNode small = codec.encode(payload(1));
+        JsonNode large = codec.encode(payload(200));
+
+        assertEquals("smile", small.get(JacksonPayloadCodec.CODEC_FIELD).asText());
+        assertEquals("smile+deflate", large.get(JacksonPayloadCodec.CODEC_FIELD).asText());
+        assertTrue(large.toString().length() < payload(200).toString().length());
+
+        JsonNode deflatedJson = new JacksonPayloadCodec(JacksonPayloadCodec.Format.JSON, 512).encode(payload(200));
+        assertEquals("json+deflate", deflatedJson.get(JacksonPayloadCodec.CODEC_FIELD).asText());
+    }
+
+    @Test
+    void untaggedRecordsDecodeAsThemselvesAndUnknownTagsFail() {
+        JacksonPayloadCodec codec = new JacksonPayloadCodec(JacksonPayloadCodec.Format.SMILE, 0);
+        ObjectNode legacy = MAPPER.createObjectNode().put("taskId", "t1").put("$codec", "not-a-tag");
+
+        assertSame(legacy, codec.decode(legacy));
+        assertNull(codec.decode(null));
+
+        ObjectNode unknown = MAPPER.createObjectNode().put(JacksonPayloadCodec.CODEC_FIELD, "cbor").put(JacksonPayloadCodec.DATA_FIELD, "AA==");
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(unknown));
+    }
+
+    @Test
+    void propertiesSelectFormatAndThreshold() {
+        Properties properties = new Properties();
+        properties.setProperty(JacksonPayloadCodec.FORMAT_PROPERTY, "smile");
+        properties.setProperty(JacksonPayloadCodec.COMPRESS_MIN_BYTES_PROPERTY, "0");
+
+        JacksonPayloadCodec codec = JacksonPayloadCodec.fromProperties(properties);
+        assertEquals(JacksonPayloadCodec.Format.SMILE, codec.getFormat());
+        assertEquals(0, codec.getCompressMinBytes());
+
+        JacksonPayloadCodec defaults = JacksonPayloadCodec.fromProperties(new Properties());
+        assertEquals(JacksonPayloadCodec.Format.JSON, defaults.getFormat());
+        assertEquals(0, defaults.getCompressMinBytes());
+        JsonNode large = payload(200);
+        assertSame(large, defaults.encode(large));
+
+        properties.setProperty(JacksonPayloadCodec.FORMAT_PROPERTY, "xml");
+        assertThrows(IllegalArgumentException.class, () -> JacksonPayloadCodec.fromProperties(properties));
+    }
+
+    private static JsonNode payload(int historySize) {
+        ObjectNode snapshot = MAPPER.createObjectNode();
+        snapshot.putObject("task").put("taskId", "task-1").put("state", "RUNNING");
+        ArrayNode history = snapshot.putArray("history");
+        for (int i = 0; i < historySize; i++) {
+            history.addObject().put("state", i % 2 == 0 ? "RUNNING" : "WAITING").put("message", "step " + i)
+                .put("timestamp", "2026-01-01T00:00:" + (i % 60) + "Z");
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,79 @@
+package io.dscope.camel.a2a.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stored size and encode/decode cost of a task snapshot for each codec configuration, measured as the JSON
+ * text a Redis or JDBC backend keeps.
+ * Run with {@code mvn -pl camel-a2a-component -Dtest=PersistedPayloadCodecBenchmark test}.
+ */
+class PersistedPayloadCodecBenchmark {
+
+    private static final Logger LOG = Logger.getLogger(PersistedPayloadCodecBenchmark.class.getName());
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int ITERATIONS = Integer.getInteger("a2a.benchmark.iterations", 2_000);
+
+    @Test
+    void storedBytesPerSnapshot() throws Exception {
+        StringBuilder table = new StringBuilder("history  codec           stored bytes  encode ns  decode ns");
+        for (int history : new int[] {10, 100, 1_000}) {
+            JsonNode snapshot = snapshot(history);
+            long plain = 0;
+            long smallest = Long.MAX_VALUE;
+            for (JacksonPayloadCodec.Format format : JacksonPayloadCodec.Format.values()) {
+                for (int compressMinBytes : new int[] {0, 1_024}) {
+                    JacksonPayloadCodec codec = new JacksonPayloadCodec(format, compressMinBytes);
+                    int iterations = Math.max(10, ITERATIONS / history);
+                    JsonNode stored = null;
+                    long began = System.nanoTime();
+                    for (int i = 0; i < iterations; i++) {
+                        stored = codec.encode(snapshot);
+                    }
+                    double encodeNanos = (double) (System.nanoTime() - began) / iterations;
+                    String text = MAPPER.writeValueAsString(stored);
+                    JsonNode reparsed = MAPPER.readTree(text);
+                    began = System.nanoTime();
+                    for (int i = 0; i < iterations; i++) {
+                        codec.decode(reparsed);
+                    }
+                    double decodeNanos = (double) (System.nanoTime() - began) / iterations;
+                    assertEquals(snapshot, codec.decode(reparsed));
+
+                    long bytes = text.getBytes(StandardCharsets.UTF_8).length;
+                    String name = format.name().toLowerCase() + (compressMinBytes > 0 ? "+deflate" : "");
+                    table.append(String.format("%n%7d  %-14s  %12d  %9.0f  %9.0f", history, name, bytes, encodeNanos, decodeNanos));
+                    if (format == JacksonPayloadCodec.Format.JSON && compressMinBytes == 0) {
+                        plain = bytes;
+                    }
+                    smallest = Math.min(smallest, bytes);
+                }
+            }
+            if (history >= 100) {
+                assertTrue(smallest < plain);
+            }
+        }
+        LOG.info(table::toString);
+    }
+
+    private static JsonNode snapshot(int historySize) {
+        ObjectNode snapshot = MAPPER.createObjectNode();
+        snapshot.putObject("task").put("taskId", "0192f0c4-7d4e-7a3b-9c1d-2e5f6a7b8c9d").put("conversationId", "conv-1");
+        ArrayNode history = snapshot.putArray("history");
+        for (int i = 0; i < historySize; i++) {
+            history.addObject()
+                .put("state", i % 2 == 0 ? "RUNNING" : "WAITING")
+                .put("message", "step " + i)
+                .put("updatedAt", "2026-01-01T00:" + String.format("%02d:%02d", (i / 60) % 60, i % 60) + ".000Z");
+        }
+        return snapshot;
+    }
+}
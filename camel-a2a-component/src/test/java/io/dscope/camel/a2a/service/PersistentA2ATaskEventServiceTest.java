@@ -3,6 +3,7 @@ package io.dscope.camel.a2a.service;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.dscope.camel.a2a.model.Task;
+import io.dscope.camel.a2a.model.TaskEvent;
 import io.dscope.camel.a2a.model.TaskState;
 import io.dscope.camel.a2a.model.TaskStatus;
 import io.dscope.camel.persistence.core.AppendResult;
@@ -17,6 +18,7 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -83,6 +85,72 @@ class PersistentA2ATaskEventServiceTest {
         assertEquals(0, store.appendAttempts);
     }
 
+    @Test
+    void readTaskEventsPagesEventsOlderThanTheHydratedTailFromTheLog() {
+        FakeFlowStateStore store = new FakeFlowStateStore();
+        for (long sequence = 1; sequence <= 300; sequence++) {
+            store.persistedEvents.add(persistedEvent(sequence, "task-4", TaskState.RUNNING, "step-" + sequence));
+        }
+        store.rehydrateTailEvents = store.persistedEvents.subList(280, 300);
+
+        PersistentA2ATaskEventService service = new PersistentA2ATaskEventService(store);
+
+        List<TaskEvent> head = service.readTaskEvents("task-4", 0, 50);
+        assertEquals(50, head.size());
+        assertEquals(1L, head.get(0).getSequence());
+        assertEquals("step-50", head.get(49).getMessage());
+
+        List<TaskEvent> boundary = service.readTaskEvents("task-4", 270, 20);
+        assertEquals(LongStream.rangeClosed(271, 290).boxed().toList(), boundary.stream().map(TaskEvent::getSequence).toList());
+
+        service.publishTaskUpdate(task("task-4", TaskState.COMPLETED, "done"));
+        assertEquals(301L, service.readTaskEvents("task-4", 300, 10).get(0).getSequence());
+        assertEquals(301L, store.persistedEvents.get(300).sequence());
+    }
+
+    @Test
+    void aSnapshottedTaskWithoutATailRestartsAtItsLoggedVersion() {
+        FakeFlowStateStore terminalStore = new FakeFlowStateStore();
+        terminalStore.persistedEvents.add(persistedEvent(1, "task-6", TaskState.RUNNING, "running"));
+        terminalStore.persistedEvents.add(persistedEvent(2, "task-6", TaskState.COMPLETED, "done"));
+        PersistentA2ATaskEventService terminal = new PersistentA2ATaskEventService(terminalStore);
+
+        assertTrue(terminal.isTaskTerminal("task-6"));
+        assertEquals(List.of(1L, 2L), terminal.readTaskEvents("task-6", 0, 20).stream().map(TaskEvent::getSequence).toList());
+        assertTrue(terminal.readTaskEvents("task-6", 2, 20).isEmpty());
+
+        FakeFlowStateStore runningStore = new FakeFlowStateStore();
+        runningStore.persistedEvents.add(persistedEvent(1, "task-7", TaskState.CREATED, "created"));
+        runningStore.persistedEvents.add(persistedEvent(2, "task-7", TaskState.RUNNING, "running"));
+        PersistentA2ATaskEventService running = new PersistentA2ATaskEventService(runningStore);
+
+        running.publishTaskUpdate(task("task-7", TaskState.COMPLETED, "done"));
+        assertEquals(List.of(2L), runningStore.expectedVersions);
+        assertEquals(3L, running.readTaskEvents("task-7", 2, 10).get(0).getSequence());
+        assertTrue(running.isTaskTerminal("task-7"));
+    }
+
+    @Test
+    void appendsAdvanceCachedVersionWithoutScanningTheLog() {
+        FakeFlowStateStore store = new FakeFlowStateStore();
+        PersistentA2ATaskEventService service = new PersistentA2ATaskEventService(store);
+
+        service.publishTaskUpdate(task("task-5", TaskState.CREATED, "created"));
+        service.publishTaskUpdate(task("task-5", TaskState.RUNNING, "running"));
+        service.publishTaskUpdate(task("task-5", TaskState.COMPLETED, "done"));
+
+        assertEquals(List.of(0L, 1L, 2L), store.expectedVersions);
+        assertEquals(0, store.readEventsCalls);
+
+        store.forceConflictOnFirstAppend = true;
+        store.appendAttempts = 0;
+        store.persistedEvents.add(persistedEvent(4, "task-5", TaskState.RUNNING, "written elsewhere"));
+        service.publishTaskUpdate(task("task-5", TaskState.RUNNING, "again"));
+
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L), store.expectedVersions);
+        assertEquals(1, store.readEventsCalls);
+    }
+
     private static Task task(String taskId, TaskState state, String message) {
         Task task = new Task();
         task.setTaskId(taskId);
@@ -121,6 +189,7 @@ class PersistentA2ATaskEventServiceTest {
         private List<PersistedEvent> rehydrateTailEvents = List.of();
         private boolean forceConflictOnFirstAppend;
         private int appendAttempts;
+        private int readEventsCalls;
         private final List<Long> expectedVersions = new ArrayList<>();
 
         @Override
@@ -163,6 +232,7 @@ class PersistentA2ATaskEventServiceTest {
 
         @Override
         public List<PersistedEvent> readEvents(String flowType, String flowId, long afterSequence, int limit) {
+            readEventsCalls++;
             return persistedEvents.stream()
                 .filter(event -> event.sequence() > afterSequence)
                 .sorted((left, right) -> Long.compare(left.sequence(), right.sequence()))
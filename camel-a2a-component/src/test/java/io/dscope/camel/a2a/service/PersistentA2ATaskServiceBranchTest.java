@@ -1,5 +1,6 @@
 package io.dscope.camel.a2a.service;
 
+import io.dscope.camel.a2a.id.A2AIdGenerator;
 import io.dscope.camel.a2a.model.Message;
 import io.dscope.camel.a2a.model.Part;
 import io.dscope.camel.a2a.model.Task;
@@ -7,17 +8,33 @@ import io.dscope.camel.a2a.model.TaskState;
 import io.dscope.camel.a2a.model.TaskStatus;
 import io.dscope.camel.a2a.model.dto.CancelTaskRequest;
 import io.dscope.camel.a2a.model.dto.ListTasksRequest;
+import io.dscope.camel.a2a.model.dto.ListTasksResponse;
 import io.dscope.camel.a2a.model.dto.SendMessageRequest;
 import io.dscope.camel.a2a.processor.A2AIllegalTaskStateException;
 import io.dscope.camel.a2a.processor.A2AInvalidParamsException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dscope.camel.persistence.core.AppendResult;
+import io.dscope.camel.persistence.core.FlowStateStore;
+import io.dscope.camel.persistence.core.PersistedEvent;
+import io.dscope.camel.persistence.core.RehydratedState;
 import io.dscope.camel.persistence.jdbc.JdbcFlowStateStore;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -139,6 +156,214 @@ class PersistentA2ATaskServiceBranchTest {
         assertEquals(first.getTaskId(), second.getTaskId());
     }
 
+    @Test
+    void taskIndexIsJournaledOneRecordPerTaskAndReloadedByNewInstances() {
+        MetaRecordingStore store = new MetaRecordingStore(newJdbcStore());
+        PersistentA2ATaskService first = new PersistentA2ATaskService(store, new PersistentA2ATaskEventService(store), null);
+        List<String> taskIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            taskIds.add(first.sendMessage(newSendMessageRequest("journal-" + i)).getTaskId());
+        }
+
+        assertEquals(List.of(), store.metaSnapshots);
+        assertEquals(20, store.metaAppendSizes.size());
+        assertTrue(store.metaAppendSizes.stream().allMatch(size -> size == 1));
+
+        PersistentA2ATaskService second = new PersistentA2ATaskService(store, new PersistentA2ATaskEventService(store), null);
+        assertEquals(20, second.listTasks(new ListTasksRequest()).size());
+        Task reused = second.sendMessage(newSendMessageRequest("journal-again", "idem-journal-7"));
+        assertEquals(taskIds.get(7), reused.getTaskId());
+    }
+
+    @Test
+    void cachedTasksAreBoundedAndEvictedTasksReloadFromTheStore() {
+        JdbcFlowStateStore store = newJdbcStore();
+        PersistentA2ATaskService service = new PersistentA2ATaskService(
+            store, new PersistentA2ATaskEventService(store), null, new StripedTaskLocks(), A2AIdGenerator.timeOrdered(), 4);
+        List<String> taskIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            taskIds.add(service.sendMessage(newSendMessageRequest("cache-" + i)).getTaskId());
+        }
+
+        assertEquals(4, service.getCachedTaskCount());
+        assertEquals(6L, service.getCacheEvictionCount());
+
+        String evicted = taskIds.get(0);
+        assertEquals(TaskState.RUNNING, service.getTask(evicted).getStatus().getState());
+        service.transitionTask(evicted, TaskState.COMPLETED, "done");
+        assertEquals(3, service.getTaskHistory(evicted).size());
+        assertEquals(10, service.listTasks(new ListTasksRequest()).size());
+        assertTrue(service.getCachedTaskCount() <= 4);
+
+        PersistentA2ATaskService restarted = new PersistentA2ATaskService(
+            store, new PersistentA2ATaskEventService(store), null, new StripedTaskLocks(), A2AIdGenerator.timeOrdered(), 4);
+        assertEquals(10, restarted.listTasks(new ListTasksRequest()).size());
+        assertEquals(TaskState.COMPLETED, restarted.getTask(evicted).getStatus().getState());
+        assertTrue(restarted.getCachedTaskCount() <= 4);
+    }
+
+    @Test
+    void listingAfterARestartOnlyLoadsTheTasksItsPagesReach() {
+        MetaRecordingStore store = new MetaRecordingStore(newJdbcStore());
+        PersistentA2ATaskService service = new PersistentA2ATaskService(store, new PersistentA2ATaskEventService(store), null);
+        List<String> taskIds = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            taskIds.add(service.sendMessage(newSendMessageRequest("list-restart-" + i)).getTaskId());
+        }
+        for (int i : new int[] {1, 2, 20}) {
+            service.transitionTask(taskIds.get(i), TaskState.COMPLETED, "done");
+        }
+
+        PersistentA2ATaskService restarted = new PersistentA2ATaskService(store, new PersistentA2ATaskEventService(store), null);
+        store.taskRehydrates = 0;
+        ListTasksRequest firstPage = new ListTasksRequest();
+        firstPage.setLimit(5);
+        assertEquals(taskIds.subList(0, 5), restarted.listTasksPage(firstPage).getTasks().stream().map(Task::getTaskId).toList());
+        assertEquals(5, store.taskRehydrates);
+
+        ListTasksRequest completed = new ListTasksRequest();
+        completed.setState("COMPLETED");
+        completed.setLimit(2);
+        ListTasksResponse page = restarted.listTasksPage(completed);
+        assertEquals(List.of(taskIds.get(1), taskIds.get(2)), page.getTasks().stream().map(Task::getTaskId).toList());
+        assertEquals(5, store.taskRehydrates);
+
+        completed.setCursor(page.getNextCursor());
+        page = restarted.listTasksPage(completed);
+        assertEquals(List.of(taskIds.get(20)), page.getTasks().stream().map(Task::getTaskId).toList());
+        assertNull(page.getNextCursor());
+        assertEquals(30, store.taskRehydrates);
+    }
+
+    @Test
+    void propertiesSizeTheCacheAndRejectInvalidValues() {
+        JdbcFlowStateStore store = newJdbcStore();
+        Properties properties = new Properties();
+        properties.setProperty(PersistentA2ATaskService.CACHE_MAX_TASKS_PROPERTY, " 3 ");
+        assertEquals(3, PersistentA2ATaskService.fromProperties(store, null, null, null, null, properties).getMaxCachedTasks());
+        assertEquals(PersistentA2ATaskService.DEFAULT_CACHE_MAX_TASKS,
+            PersistentA2ATaskService.fromProperties(store, null, null, null, null, new Properties()).getMaxCachedTasks());
+
+        properties.setProperty(PersistentA2ATaskService.NEGATIVE_LOOKUP_TTL_MS_PROPERTY, "soon");
+        assertThrows(IllegalArgumentException.class,
+            () -> PersistentA2ATaskService.fromProperties(store, null, null, null, null, properties));
+    }
+
+    @Test
+    void unknownTaskIdsAreRejectedWithoutRehydratingTasks() {
+        MetaRecordingStore store = new MetaRecordingStore(newJdbcStore());
+        PersistentA2ATaskService service = new PersistentA2ATaskService(
+            store, new PersistentA2ATaskEventService(store), null, new StripedTaskLocks(), A2AIdGenerator.timeOrdered(), 16, 60_000L);
+        int metaReads = store.metaReads;
+
+        for (int i = 0; i < 200; i++) {
+            String garbage = "missing-" + i;
+            assertThrows(A2AInvalidParamsException.class, () -> service.getTask(garbage));
+        }
+
+        assertEquals(0, store.taskRehydrates);
+        assertEquals(metaReads, store.metaReads);
+        assertEquals(200L, service.getNegativeLookupCount());
+    }
+
+    @Test
+    void tasksCreatedByAnotherInstanceAreFoundOnceTheNegativeTtlLapses() {
+        JdbcFlowStateStore store = newJdbcStore();
+        PersistentA2ATaskService reader = new PersistentA2ATaskService(
+            store, new PersistentA2ATaskEventService(store), null, new StripedTaskLocks(), A2AIdGenerator.timeOrdered(), 16, 0L);
+        PersistentA2ATaskService writer = new PersistentA2ATaskService(store, new PersistentA2ATaskEventService(store), null);
+
+        Task created = writer.sendMessage(newSendMessageRequest("elsewhere"));
+
+        assertEquals(TaskState.RUNNING, reader.getTask(created.getTaskId()).getStatus().getState());
+    }
+
+    @Test
+    void concurrentColdLoadsOfOneTaskShareASingleRehydrate() throws Exception {
+        MetaRecordingStore store = new MetaRecordingStore(newJdbcStore());
+        Task created = new PersistentA2ATaskService(store, new PersistentA2ATaskEventService(store), null)
+            .sendMessage(newSendMessageRequest("cold-load"));
+        PersistentA2ATaskService restarted = new PersistentA2ATaskService(store, new PersistentA2ATaskEventService(store), null);
+        store.taskRehydrates = 0;
+        store.taskRehydrateGate = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Task>> reads = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                reads.add(pool.submit(() -> restarted.getTask(created.getTaskId())));
+            }
+            Thread.sleep(200L);
+            store.taskRehydrateGate.countDown();
+            for (Future<Task> read : reads) {
+                assertEquals(created.getTaskId(), read.get(5, TimeUnit.SECONDS).getTaskId());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, store.taskRehydrates);
+        assertEquals(7L, restarted.getCollapsedLoadCount());
+    }
+
+    @Test
+    void transitionsAreLoggedAsEventsAndSnapshottedPeriodically() {
+        MetaRecordingStore store = new MetaRecordingStore(newJdbcStore());
+        PersistentA2ATaskService service = new PersistentA2ATaskService(store, null, null);
+        String taskId = service.sendMessage(newSendMessageRequest("delta-log")).getTaskId();
+        for (int i = 0; i < 30; i++) {
+            service.transitionTask(taskId, i % 2 == 0 ? TaskState.WAITING : TaskState.RUNNING, "step " + i);
+        }
+
+        assertEquals(List.of(1L, 26L), store.taskSnapshotVersions);
+        PersistentA2ATaskService restarted = new PersistentA2ATaskService(store, null, null);
+        List<TaskStatus> history = restarted.getTaskHistory(taskId);
+        assertEquals(32, history.size());
+        assertEquals("step 29", history.get(31).getMessage());
+        assertEquals(TaskState.RUNNING, restarted.getTask(taskId).getStatus().getState());
+
+        service.transitionTask(taskId, TaskState.COMPLETED, "done");
+        assertEquals(List.of(1L, 26L, 33L), store.taskSnapshotVersions);
+        assertEquals(TaskState.COMPLETED,
+            new PersistentA2ATaskService(store, null, null).getTask(taskId).getStatus().getState());
+    }
+
+    @Test
+    void transitionsLoggedByTheEventServiceAreReplayedOnLoad() {
+        MetaRecordingStore store = new MetaRecordingStore(newJdbcStore());
+        PersistentA2ATaskService service = new PersistentA2ATaskService(store, new PersistentA2ATaskEventService(store), null);
+        String taskId = service.sendMessage(newSendMessageRequest("delta-events")).getTaskId();
+        service.transitionTask(taskId, TaskState.WAITING, "needs input");
+        service.transitionTask(taskId, TaskState.RUNNING, "resumed");
+
+        assertEquals(List.of(1L), store.taskSnapshotVersions);
+        PersistentA2ATaskService restarted = new PersistentA2ATaskService(store, new PersistentA2ATaskEventService(store), null);
+        List<TaskStatus> history = restarted.getTaskHistory(taskId);
+        assertEquals(List.of(TaskState.CREATED, TaskState.RUNNING, TaskState.WAITING, TaskState.RUNNING),
+            history.stream().map(TaskStatus::getState).toList());
+        assertEquals("resumed", restarted.getTask(taskId).getStatus().getMessage());
+
+        restarted.transitionTask(taskId, TaskState.CANCELED, "stop");
+        assertEquals(List.of(1L, 5L), store.taskSnapshotVersions);
+    }
+
+    @Test
+    void legacyGlobalIndexSnapshotIsStillLoaded() {
+        JdbcFlowStateStore store = newJdbcStore();
+        PersistentA2ATaskService first = new PersistentA2ATaskService(store, new PersistentA2ATaskEventService(store), null);
+        Task created = first.sendMessage(newSendMessageRequest("legacy-msg"));
+        JsonNode legacy = new ObjectMapper().valueToTree(Map.of(
+            "taskIds", List.of(created.getTaskId()),
+            "idempotencyToTaskId", Map.of("request:legacy-key", created.getTaskId())
+        ));
+        store.writeSnapshot("a2a.meta", "global", 1L, legacy, Map.of());
+
+        PersistentA2ATaskService second = new PersistentA2ATaskService(store, new PersistentA2ATaskEventService(store), null);
+        Task reused = second.sendMessage(newSendMessageRequest("legacy-other", "legacy-key"));
+
+        assertEquals(created.getTaskId(), reused.getTaskId());
+    }
+
     @Test
     void cancelTaskBlankReasonUsesDefaultMessage() {
         JdbcFlowStateStore store = newJdbcStore();
@@ -204,4 +429,64 @@ class PersistentA2ATaskServiceBranchTest {
         request.setIdempotencyKey(idempotencyKey);
         return request;
     }
+
+    private static final class MetaRecordingStore implements FlowStateStore {
+        private final FlowStateStore delegate;
+        private final List<Integer> metaAppendSizes = new ArrayList<>();
+        private final List<String> metaSnapshots = new ArrayList<>();
+        private final List<Long> taskSnapshotVersions = new ArrayList<>();
+        private volatile int taskRehydrates;
+        private volatile int metaReads;
+        private volatile CountDownLatch taskRehydrateGate;
+
+        private MetaRecordingStore(FlowStateStore delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public RehydratedState rehydrate(String flowType, String flowId) {
+            if ("a2a.task".equals(flowType)) {
+                synchronized (this) {
+                    taskRehydrates++;
+                }
+                CountDownLatch gate = taskRehydrateGate;
+                if (gate != null) {
+                    try {
+                        gate.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+            return delegate.rehydrate(flowType, flowId);
+        }
+
+        @Override
+        public AppendResult appendEvents(String flowType, String flowId, long expectedVersion, List<PersistedEvent> events, String idempotencyKey) {
+            if ("a2a.meta".equals(flowType)) {
+                metaAppendSizes.add(events.size());
+            }
+            return delegate.appendEvents(flowType, flowId, expectedVersion, events, idempotencyKey);
+        }
+
+        @Override
+        public void writeSnapshot(String flowType, String flowId, long snapshotVersion, JsonNode snapshot, Map<String, Object> metadata) {
+            if ("a2a.meta".equals(flowType)) {
+                metaSnapshots.add(flowId);
+            } else {
+                taskSnapshotVersions.add(snapshotVersion);
+            }
+            delegate.writeSnapshot(flowType, flowId, snapshotVersion, snapshot, metadata);
+        }
+
+        @Override
+        public List<PersistedEvent> readEvents(String flowType, String flowId, long afterSequence, int limit) {
+            if ("a2a.meta".equals(flowType)) {
+                synchronized (this) {
+                    metaReads++;
+                }
+            }
+            return delegate.readEvents(flowType, flowId, afterSequence, limit);
+        }
+    }
 }
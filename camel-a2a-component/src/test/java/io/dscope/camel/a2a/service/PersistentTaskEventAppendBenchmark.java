@@ -0,0 +1,128 @@
+package io.dscope.camel.a2a.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.dscope.camel.a2a.model.Task;
+import io.dscope.camel.a2a.model.TaskState;
+import io.dscope.camel.a2a.model.TaskStatus;
+import io.dscope.camel.persistence.core.AppendResult;
+import io.dscope.camel.persistence.core.FlowStateStore;
+import io.dscope.camel.persistence.core.PersistedEvent;
+import io.dscope.camel.persistence.core.RehydratedState;
+import io.dscope.camel.persistence.core.StateEnvelope;
+import io.dscope.camel.persistence.core.exception.OptimisticConflictException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Event append latency as a task's log grows, using the cached version against the previous approach of
+ * reading the whole log to find the current version before every append.
+ * Run with {@code mvn -pl camel-a2a-component -Dtest=PersistentTaskEventAppendBenchmark test}.
+ */
+class PersistentTaskEventAppendBenchmark {
+
+    private static final Logger LOG = Logger.getLogger(PersistentTaskEventAppendBenchmark.class.getName());
+    private static final int APPENDS = Integer.getInteger("a2a.benchmark.appends", 500);
+    private static final int SCAN_APPENDS = 20;
+    private static final int PAGE_SIZE = 500;
+
+    @Test
+    void appendLatencyStaysFlatAsHistoryGrows() {
+        StringBuilder table = new StringBuilder("history  cached ns/append  scan ns/append  log reads");
+        for (int history : new int[] {1_000, 10_000, 100_000}) {
+            LogStore store = new LogStore();
+            PersistentA2ATaskEventService service = new PersistentA2ATaskEventService(store);
+            service.publishTaskUpdate(task(TaskState.CREATED));
+            for (int i = 0; i < history; i++) {
+                service.publishTaskUpdate(task(TaskState.RUNNING));
+            }
+
+            long began = System.nanoTime();
+            for (int i = 0; i < APPENDS; i++) {
+                service.publishTaskUpdate(task(TaskState.RUNNING));
+            }
+            double cached = (double) (System.nanoTime() - began) / APPENDS;
+            int reads = store.readEventsCalls;
+
+            began = System.nanoTime();
+            for (int i = 0; i < SCAN_APPENDS; i++) {
+                store.appendEvents("a2a-task", "bench-task", scanVersion(store), List.of(event()), null);
+            }
+            double scan = (double) (System.nanoTime() - began) / SCAN_APPENDS;
+
+            table.append(String.format("%n%7d  %16.0f  %14.0f  %9d", history, cached, scan, reads));
+            assertEquals(0, reads);
+        }
+        LOG.info(table::toString);
+    }
+
+    private static long scanVersion(LogStore store) {
+        long version = 0L;
+        while (true) {
+            List<PersistedEvent> page = store.readEvents("a2a-task", "bench-task", version, PAGE_SIZE);
+            if (page.isEmpty()) {
+                return version;
+            }
+            version = page.get(page.size() - 1).sequence();
+        }
+    }
+
+    private static Task task(TaskState state) {
+        TaskStatus status = new TaskStatus();
+        status.setState(state);
+        status.setMessage(state.name());
+        Task task = new Task();
+        task.setTaskId("bench-task");
+        task.setStatus(status);
+        return task;
+    }
+
+    private static PersistedEvent event() {
+        return new PersistedEvent("e", "a2a-task", "bench-task", 0L, "task.status", null, Instant.now().toString(), null);
+    }
+
+    /**
+     * Append-only log that checks the expected version like a real store and scans for reads.
+     */
+    private static final class LogStore implements FlowStateStore {
+        private final List<PersistedEvent> events = new ArrayList<>();
+        private int readEventsCalls;
+
+        @Override
+        public RehydratedState rehydrate(String flowType, String flowId) {
+            StateEnvelope envelope = new StateEnvelope(flowType, flowId, 0, 0, null, Instant.now().toString(), Map.of());
+            return new RehydratedState(envelope, List.of());
+        }
+
+        @Override
+        public AppendResult appendEvents(String flowType, String flowId, long expectedVersion, List<PersistedEvent> batch, String idempotencyKey) {
+            if (expectedVersion != events.size()) {
+                throw new OptimisticConflictException("expected " + expectedVersion + " but was " + events.size());
+            }
+            for (PersistedEvent event : batch) {
+                events.add(new PersistedEvent(event.eventId(), flowType, flowId, events.size() + 1L,
+                    event.eventType(), event.payload(), event.occurredAt(), event.idempotencyKey()));
+            }
+            return new AppendResult(expectedVersion, events.size(), false);
+        }
+
+        @Override
+        public void writeSnapshot(String flowType, String flowId, long snapshotVersion, JsonNode snapshot, Map<String, Object> metadata) {
+        }
+
+        @Override
+        public List<PersistedEvent> readEvents(String flowType, String flowId, long afterSequence, int limit) {
+            readEventsCalls++;
+            return events.stream()
+                .filter(event -> event.sequence() > afterSequence)
+                .limit(limit)
+                .toList();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package io.dscope.camel.a2a.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dscope.camel.a2a.model.Message;
+import io.dscope.camel.a2a.model.Part;
+import io.dscope.camel.a2a.model.TaskState;
+import io.dscope.camel.a2a.model.dto.SendMessageRequest;
+import io.dscope.camel.persistence.core.AppendResult;
+import io.dscope.camel.persistence.core.FlowStateStore;
+import io.dscope.camel.persistence.core.PersistedEvent;
+import io.dscope.camel.persistence.core.RehydratedState;
+import io.dscope.camel.persistence.jdbc.JdbcFlowStateStore;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bytes handed to the store per task transition as history grows, against the previous scheme that wrote the
+ * full task and history as a snapshot on every transition in addition to the status event.
+ * Run with {@code mvn -pl camel-a2a-component -Dtest=PersistentTaskTransitionBytesBenchmark test}.
+ */
+class PersistentTaskTransitionBytesBenchmark {
+
+    private static final Logger LOG = Logger.getLogger(PersistentTaskTransitionBytesBenchmark.class.getName());
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int WINDOW = 100;
+
+    @Test
+    void bytesPerTransitionStayFlatAsHistoryGrows() {
+        ByteCountingStore store = new ByteCountingStore(new JdbcFlowStateStore(
+            "jdbc:derby:memory:a2aBytes" + UUID.randomUUID().toString().replace("-", "") + ";create=true", "", ""));
+        PersistentA2ATaskService service = new PersistentA2ATaskService(store, new PersistentA2ATaskEventService(store), null);
+        String taskId = service.sendMessage(sendMessageRequest()).getTaskId();
+
+        StringBuilder table = new StringBuilder("history  before bytes/transition  after bytes/transition");
+        int transitions = 0;
+        double before = 0;
+        double after = 0;
+        for (int history : new int[] {10, 100, 1_000}) {
+            while (service.getTaskHistory(taskId).size() < history) {
+                service.transitionTask(taskId, transitions++ % 2 == 0 ? TaskState.WAITING : TaskState.RUNNING, "step");
+            }
+            long eventBytes = store.eventBytes;
+            long snapshotBytes = store.snapshotBytes;
+            long fullSnapshotBytes = 0;
+            for (int i = 0; i < WINDOW; i++) {
+                service.transitionTask(taskId, transitions++ % 2 == 0 ? TaskState.WAITING : TaskState.RUNNING, "step");
+                fullSnapshotBytes += fullSnapshotBytes(service, taskId);
+            }
+            long windowEventBytes = store.eventBytes - eventBytes;
+            before = (double) (windowEventBytes + fullSnapshotBytes) / WINDOW;
+            after = (double) (windowEventBytes + store.snapshotBytes - snapshotBytes) / WINDOW;
+            table.append(String.format("%n%7d  %23.0f  %22.0f", history, before, after));
+        }
+        LOG.info(table::toString);
+        assertTrue(after < before);
+    }
+
+    private static long fullSnapshotBytes(PersistentA2ATaskService service, String taskId) {
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put("task", service.getTask(taskId));
+        snapshot.put("history", service.getTaskHistory(taskId));
+        return MAPPER.valueToTree(snapshot).toString().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static SendMessageRequest sendMessageRequest() {
+        Part part = new Part();
+        part.setPartId("p-bytes");
+        part.setType("text");
+        part.setText("hello");
+        Message message = new Message();
+        message.setMessageId("bytes-" + UUID.randomUUID());
+        message.setRole("user");
+        message.setParts(List.of(part));
+        SendMessageRequest request = new SendMessageRequest();
+        request.setMessage(message);
+        return request;
+    }
+
+    private static final class ByteCountingStore implements FlowStateStore {
+        private final FlowStateStore delegate;
+        private long eventBytes;
+        private long snapshotBytes;
+
+        private ByteCountingStore(FlowStateStore delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public RehydratedState rehydrate(String flowType, String flowId) {
+            return delegate.rehydrate(flowType, flowId);
+        }
+
+        @Override
+        public AppendResult appendEvents(String flowType, String flowId, long expectedVersion, List<PersistedEvent> events, String idempotencyKey) {
+            if ("a2a.task".equals(flowType)) {
+                for (PersistedEvent event : events) {
+                    eventBytes += bytes(event.payload());
+                }
+            }
+            return delegate.appendEvents(flowType, flowId, expectedVersion, events, idempotencyKey);
+        }
+
+        @Override
+        public void writeSnapshot(String flowType, String flowId, long snapshotVersion, JsonNode snapshot, Map<String, Object> metadata) {
+            if ("a2a.task".equals(flowType)) {
+                snapshotBytes += bytes(snapshot);
+            }
+            delegate.writeSnapshot(flowType, flowId, snapshotVersion, snapshot, metadata);
+        }
+
+        @Override
+        public List<PersistedEvent> readEvents(String flowType, String flowId, long afterSequence, int limit) {
+            return delegate.readEvents(flowType, flowId, afterSequence, limit);
+        }
+
+        private static long bytes(JsonNode node) {
+            return node == null ? 0L : node.toString().getBytes(StandardCharsets.UTF_8).length;
+        }
+    }
+}
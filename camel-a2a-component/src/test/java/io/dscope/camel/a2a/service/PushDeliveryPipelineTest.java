@@ -0,0 +1,185 @@
+package io.dscope.camel.a2a.service;
+
+import io.dscope.camel.a2a.model.PushDeliveryAttempt;
+import io.dscope.camel.a2a.model.PushNotificationConfig;
+import io.dscope.camel.a2a.model.TaskEvent;
+import io.dscope.camel.a2a.model.TaskState;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PushDeliveryPipelineTest {
+
+    @Test
+    void retryDelayGrowsExponentiallyWithJitterUpToCap() {
+        for (int i = 0; i < 100; i++) {
+            long first = PushDeliveryPipeline.retryDelay(100L, 1_000L, 1);
+            long second = PushDeliveryPipeline.retryDelay(100L, 1_000L, 2);
+            long capped = PushDeliveryPipeline.retryDelay(100L, 1_000L, 10);
+            assertTrue(first >= 50L && first <= 100L, "first retry " + first);
+            assertTrue(second >= 100L && second <= 200L, "second retry " + second);
+            assertTrue(capped >= 500L && capped <= 1_000L, "capped retry " + capped);
+        }
+        assertEquals(0L, PushDeliveryPipeline.retryDelay(0L, 1_000L, 3));
+    }
+
+    @Test
+    void failedAttemptIsRetriedFromTimerWithoutBlockingCaller() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        PushNotificationNotifier notifier = (config, event, attemptNumber) ->
+            attempt(config, attemptNumber, calls.incrementAndGet() > 1);
+
+        try (PushDeliveryPipeline pipeline = new PushDeliveryPipeline(notifier, List.of(), 4)) {
+            pipeline.deliver(config("cfg-1", "https://hooks.example/a"), event(), 3, 200L, 1_000L);
+
+            assertEquals(1, calls.get());
+            assertEquals(1, pipeline.getStats().getScheduledRetries());
+            long deadline = System.currentTimeMillis() + 5_000L;
+            while (pipeline.getStats().getSuccesses() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10L);
+            }
+
+            assertEquals(2, pipeline.getStats().getAttempts());
+            assertEquals(1, pipeline.getStats().getSuccesses());
+            assertEquals(1, pipeline.getStats().getFailures());
+            assertEquals(0, pipeline.getStats().getScheduledRetries());
+        }
+    }
+
+    @Test
+    void perEndpointLimitIsReadFromProperties() {
+        Properties properties = new Properties();
+        assertEquals(PushDeliveryPipeline.DEFAULT_MAX_IN_FLIGHT_PER_ENDPOINT, PushDeliveryPipeline.maxInFlightPerEndpoint(properties));
+        properties.setProperty(PushDeliveryPipeline.MAX_IN_FLIGHT_PER_ENDPOINT_PROPERTY, "2");
+        assertEquals(2, PushDeliveryPipeline.maxInFlightPerEndpoint(properties));
+        properties.setProperty(PushDeliveryPipeline.MAX_IN_FLIGHT_PER_ENDPOINT_PROPERTY, "many");
+        assertThrows(IllegalArgumentException.class, () -> PushDeliveryPipeline.maxInFlightPerEndpoint(properties));
+        assertEquals(PushDeliveryPipeline.DEFAULT_MAX_QUEUED_PER_ENDPOINT, PushDeliveryPipeline.maxQueuedPerEndpoint(properties));
+        properties.setProperty(PushDeliveryPipeline.MAX_QUEUED_PER_ENDPOINT_PROPERTY, "16");
+        assertEquals(16, PushDeliveryPipeline.maxQueuedPerEndpoint(properties));
+    }
+
+    @Test
+    void inFlightAttemptsAreBoundedPerEndpoint() {
+        List<CompletableFuture<PushDeliveryAttempt>> pending = new CopyOnWriteArrayList<>();
+        List<String> started = new CopyOnWriteArrayList<>();
+        PushNotificationNotifier notifier = new PushNotificationNotifier() {
+            @Override
+            public PushDeliveryAttempt notify(PushNotificationConfig config, TaskEvent event, int attemptNumber) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CompletableFuture<PushDeliveryAttempt> notifyAsync(PushNotificationConfig config, TaskEvent event, int attemptNumber) {
+                CompletableFuture<PushDeliveryAttempt> future = new CompletableFuture<>();
+                started.add(config.getEndpointUrl());
+                pending.add(future);
+                return future;
+            }
+        };
+
+        try (PushDeliveryPipeline pipeline = new PushDeliveryPipeline(notifier, List.of(), 2)) {
+            for (int i = 0; i < 5; i++) {
+                pipeline.deliver(config("slow-" + i, "https://hooks.example/slow"), event(), 1, 0L, 0L);
+            }
+            pipeline.deliver(config("other", "https://hooks.example/other"), event(), 1, 0L, 0L);
+
+            assertEquals(3, started.size());
+            assertEquals(1, started.stream().filter("https://hooks.example/other"::equals).count());
+            assertEquals(3, pipeline.getStats().getInFlight());
+
+            PushNotificationConfig done = config("slow-0", "https://hooks.example/slow");
+            pending.get(0).complete(attempt(done, 1, true));
+
+            assertEquals(4, started.size());
+            assertEquals(1, pipeline.getStats().getSuccesses());
+            assertEquals(2, pipeline.getLaneCount());
+
+            for (int i = 0; i < pending.size(); i++) {
+                pending.get(i).complete(attempt(done, 1, true));
+            }
+            assertEquals(6, pipeline.getStats().getSuccesses());
+            assertEquals(0, pipeline.getLaneCount());
+
+            pipeline.deliver(config("slow-again", "https://hooks.example/slow"), event(), 1, 0L, 0L);
+            assertEquals(7, started.size());
+            assertEquals(1, pipeline.getLaneCount());
+        }
+    }
+
+    @Test
+    void attemptsBeyondTheEndpointQueueAreRejectedAsFailures() {
+        List<CompletableFuture<PushDeliveryAttempt>> pending = new CopyOnWriteArrayList<>();
+        List<PushDeliveryAttempt> failed = new CopyOnWriteArrayList<>();
+        PushNotificationNotifier notifier = new PushNotificationNotifier() {
+            @Override
+            public PushDeliveryAttempt notify(PushNotificationConfig config, TaskEvent event, int attemptNumber) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CompletableFuture<PushDeliveryAttempt> notifyAsync(PushNotificationConfig config, TaskEvent event, int attemptNumber) {
+                CompletableFuture<PushDeliveryAttempt> future = new CompletableFuture<>();
+                pending.add(future);
+                return future;
+            }
+        };
+        PushNotificationObserver observer = new PushNotificationObserver() {
+            @Override
+            public void onFailure(PushNotificationConfig config, TaskEvent event, PushDeliveryAttempt attempt, boolean willRetry) {
+                assertFalse(willRetry);
+                failed.add(attempt);
+            }
+        };
+
+        try (PushDeliveryPipeline pipeline = new PushDeliveryPipeline(notifier, List.of(observer), 1, 2)) {
+            for (int i = 0; i < 5; i++) {
+                pipeline.deliver(config("queued-" + i, "https://hooks.example/queued"), event(), 3, 0L, 0L);
+            }
+
+            assertEquals(1, pending.size());
+            assertEquals(2, pipeline.getStats().getRejected());
+            assertEquals(List.of("queued-3", "queued-4"), failed.stream().map(PushDeliveryAttempt::getConfigId).toList());
+            assertFalse(failed.get(0).isSuccess());
+
+            for (int i = 0; i < 3; i++) {
+                pending.get(i).complete(attempt(config("queued-" + i, "https://hooks.example/queued"), 1, true));
+            }
+            assertEquals(3, pipeline.getStats().getSuccesses());
+            assertEquals(0, pipeline.getLaneCount());
+        }
+    }
+
+    private static PushDeliveryAttempt attempt(PushNotificationConfig config, int attemptNumber, boolean success) {
+        PushDeliveryAttempt attempt = new PushDeliveryAttempt();
+        attempt.setConfigId(config.getConfigId());
+        attempt.setEndpointUrl(config.getEndpointUrl());
+        attempt.setAttemptNumber(attemptNumber);
+        attempt.setSuccess(success);
+        attempt.setStatusCode(success ? 200 : 503);
+        return attempt;
+    }
+
+    private static PushNotificationConfig config(String configId, String endpointUrl) {
+        PushNotificationConfig config = new PushNotificationConfig();
+        config.setConfigId(configId);
+        config.setEndpointUrl(endpointUrl);
+        config.setEnabled(true);
+        return config;
+    }
+
+    private static TaskEvent event() {
+        TaskEvent event = new TaskEvent();
+        event.setTaskId("task-p");
+        event.setEventType("task.status");
+        event.setSequence(1L);
+        event.setState(TaskState.RUNNING);
+        return event;
+    }
+}
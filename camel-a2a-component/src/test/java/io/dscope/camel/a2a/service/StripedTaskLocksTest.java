@@ -0,0 +1,64 @@
+package io.dscope.camel.a2a.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedTaskLocksTest {
+
+    @Test
+    void stripeCountIsRoundedUpToPowerOfTwo() {
+        assertEquals(1, new StripedTaskLocks(1).getStripeCount());
+        assertEquals(64, new StripedTaskLocks(64).getStripeCount());
+        assertEquals(128, new StripedTaskLocks(65).getStripeCount());
+    }
+
+    @Test
+    void lockTableStaysFixedRegardlessOfTaskVolume() {
+        StripedTaskLocks locks = new StripedTaskLocks(16);
+        for (int i = 0; i < 10_000; i++) {
+            ReentrantLock lock = locks.lock("task-" + i);
+            lock.unlock();
+        }
+
+        assertEquals(16, locks.getStripeCount());
+        assertEquals(10_000, locks.getAcquisitionCount());
+        assertEquals(0, locks.getContendedAcquisitionCount());
+    }
+
+    @Test
+    void sameTaskIdAlwaysMapsToSameReentrantStripe() {
+        StripedTaskLocks locks = new StripedTaskLocks(8);
+        ReentrantLock outer = locks.lock("task-1");
+        ReentrantLock inner = locks.lock("task-1");
+
+        assertSame(outer, inner);
+        assertEquals(2, outer.getHoldCount());
+        inner.unlock();
+        outer.unlock();
+    }
+
+    @Test
+    void blockedAcquisitionIsCountedAsContended() throws Exception {
+        StripedTaskLocks locks = new StripedTaskLocks(1);
+        ReentrantLock held = locks.lock("task-a");
+        CountDownLatch acquired = new CountDownLatch(1);
+
+        Thread waiter = new Thread(() -> {
+            locks.lock("task-b").unlock();
+            acquired.countDown();
+        });
+        waiter.start();
+        while (!held.hasQueuedThreads()) {
+            Thread.onSpinWait();
+        }
+        held.unlock();
+        acquired.await();
+        waiter.join();
+
+        assertEquals(1, locks.getContendedAcquisitionCount());
+    }
+}
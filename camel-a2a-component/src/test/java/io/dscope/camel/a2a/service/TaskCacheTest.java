@@ -0,0 +1,65 @@
+package io.dscope.camel.a2a.service;
+
+import io.dscope.camel.a2a.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskCacheTest {
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedBeyondCapacity() {
+        TaskCache cache = new TaskCache(2);
+        cache.putIfAbsent("t1", entry("t1"));
+        cache.putIfAbsent("t2", entry("t2"));
+        assertNotNull(cache.get("t1"));
+
+        cache.putIfAbsent("t3", entry("t3"));
+
+        assertNotNull(cache.get("t1"));
+        assertNull(cache.get("t2"));
+        assertNotNull(cache.get("t3"));
+        assertEquals(2, cache.size());
+        assertEquals(1L, cache.evictionCount());
+    }
+
+    @Test
+    void pinnedEntriesStayResidentUntilUnpinned() {
+        TaskCache cache = new TaskCache(1);
+        TaskCache.Entry pinned = cache.putPinned("t1", entry("t1"));
+        cache.putIfAbsent("t2", entry("t2"));
+
+        assertSame(pinned, cache.get("t1"));
+        assertNull(cache.get("t2"));
+
+        TaskCache.Entry again = cache.pin("t1");
+        assertSame(pinned, again);
+        cache.putIfAbsent("t3", entry("t3"));
+        cache.unpin("t1", again);
+        assertEquals(1, cache.size());
+        cache.unpin("t1", pinned);
+
+        cache.putIfAbsent("t4", entry("t4"));
+        assertNull(cache.get("t1"));
+        assertNotNull(cache.get("t4"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void putIfAbsentKeepsTheResidentEntry() {
+        TaskCache cache = new TaskCache(8);
+        TaskCache.Entry first = cache.putIfAbsent("t1", entry("t1"));
+
+        assertSame(first, cache.putIfAbsent("t1", entry("t1")));
+        assertSame(first, cache.putPinned("t1", entry("t1")));
+        assertNull(cache.pin("missing"));
+    }
+
+    private static TaskCache.Entry entry(String taskId) {
+        Task task = new Task();
+        task.setTaskId(taskId);
+        return new TaskCache.Entry(task, new ArrayList<>());
+    }
+}
@@ -0,0 +1,129 @@
+package io.dscope.camel.a2a.service;
+
+import io.dscope.camel.a2a.model.TaskEvent;
+import io.dscope.camel.a2a.model.TaskState;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Publish and tail-read cost of the per-task ring buffer against the previous synchronized list that was
+ * trimmed with {@code subList().clear()} and filtered and sorted on every read.
+ * Run with {@code mvn -pl camel-a2a-component -Dtest=TaskEventBufferBenchmark test}.
+ */
+class TaskEventBufferBenchmark {
+
+    private static final Logger LOG = Logger.getLogger(TaskEventBufferBenchmark.class.getName());
+    private static final int CAPACITY = 256;
+    private static final int OPERATIONS = Integer.getInteger("a2a.benchmark.operations", 200_000);
+
+    @Test
+    void ringBufferPublishAndReadAgainstList() {
+        TaskEventRing ring = new TaskEventRing(CAPACITY);
+        ListBuffer list = new ListBuffer();
+
+        // warm up both paths before measuring
+        measurePublish(ring, list, OPERATIONS / 4);
+        measureRead(ring, list, OPERATIONS / 4);
+
+        double[] publish = measurePublish(ring, list, OPERATIONS);
+        double[] read = measureRead(ring, list, OPERATIONS);
+        StringBuilder table = new StringBuilder("operation  ring ns/op  list ns/op");
+        table.append(String.format("%npublish    %9.1f  %10.1f", publish[0], publish[1]));
+        table.append(String.format("%ntail read  %9.1f  %10.1f", read[0], read[1]));
+        LOG.info(table::toString);
+        assertEquals(CAPACITY, ring.size());
+        assertEquals(ring.lastSequence() - CAPACITY + 1, ring.oldestSequence());
+    }
+
+    private double[] measurePublish(TaskEventRing ring, ListBuffer list, int operations) {
+        long began = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            ring.append(event(0L));
+        }
+        long ringNanos = System.nanoTime() - began;
+
+        began = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            list.publish(event(i + 1L));
+        }
+        long listNanos = System.nanoTime() - began;
+        return new double[] {(double) ringNanos / operations, (double) listNanos / operations};
+    }
+
+    // Simulates an SSE client polling for the last few events, the common case for a live stream.
+    private double[] measureRead(TaskEventRing ring, ListBuffer list, int operations) {
+        long ringLast = ring.lastSequence();
+        long listLast = list.last();
+        long sink = 0;
+
+        long began = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            sink += ring.read(ringLast - 4, 100, ListBuffer::copy).size();
+        }
+        long ringNanos = System.nanoTime() - began;
+
+        began = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            sink += list.read(listLast - 4, 100).size();
+        }
+        long listNanos = System.nanoTime() - began;
+        assertEquals(operations * 8L, sink);
+        return new double[] {(double) ringNanos / operations, (double) listNanos / operations};
+    }
+
+    private static TaskEvent event(long sequence) {
+        TaskEvent event = new TaskEvent();
+        event.setTaskId("bench-task");
+        event.setSequence(sequence);
+        event.setEventType("task.status");
+        event.setState(TaskState.RUNNING);
+        event.setMessage("running");
+        return event;
+    }
+
+    /**
+     * The buffer structure used before the ring, copying events on publish and read as the service did.
+     */
+    private static final class ListBuffer {
+        private final List<TaskEvent> events = new ArrayList<>();
+
+        void publish(TaskEvent event) {
+            synchronized (events) {
+                events.add(copy(event));
+                if (events.size() > CAPACITY) {
+                    events.subList(0, events.size() - CAPACITY).clear();
+                }
+            }
+        }
+
+        List<TaskEvent> read(long afterSequence, int limit) {
+            synchronized (events) {
+                return events.stream()
+                    .filter(e -> e.getSequence() > afterSequence)
+                    .sorted(Comparator.comparingLong(TaskEvent::getSequence))
+                    .limit(limit)
+                    .map(ListBuffer::copy)
+                    .collect(Collectors.toList());
+            }
+        }
+
+        long last() {
+            synchronized (events) {
+                return events.get(events.size() - 1).getSequence();
+            }
+        }
+
+        static TaskEvent copy(TaskEvent source) {
+            TaskEvent copy = event(source.getSequence());
+            copy.setTimestampMillis(source.getTimestampMillis());
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package io.dscope.camel.a2a.service;
+
+import io.dscope.camel.a2a.model.Task;
+import io.dscope.camel.a2a.model.TaskState;
+import io.dscope.camel.a2a.model.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskEventDispatcherTest {
+
+    @Test
+    void listenersRunOffThePublisherThreadInPerTaskOrder() {
+        try (TaskEventDispatcher dispatcher = new TaskEventDispatcher(4, 1024)) {
+            InMemoryTaskEventService service = new InMemoryTaskEventService(256, null, dispatcher);
+            Map<String, List<Long>> sequencesByTask = new ConcurrentHashMap<>();
+            Thread publisher = Thread.currentThread();
+            List<Thread> listenerThreads = new ArrayList<>();
+            service.addListener(event -> {
+                synchronized (listenerThreads) {
+                    listenerThreads.add(Thread.currentThread());
+                }
+                sequencesByTask.computeIfAbsent(event.getTaskId(), ignored -> new ArrayList<>()).add(event.getSequence());
+            });
+
+            for (int round = 0; round < 10; round++) {
+                for (int t = 0; t < 20; t++) {
+                    service.publishTaskUpdate(task("task-" + t, TaskState.RUNNING));
+                }
+            }
+
+            assertTrue(dispatcher.awaitIdle(5_000L));
+            assertEquals(20, sequencesByTask.size());
+            sequencesByTask.values().forEach(sequences -> {
+                assertEquals(10, sequences.size());
+                for (int i = 0; i < sequences.size(); i++) {
+                    assertEquals(i + 1L, sequences.get(i));
+                }
+            });
+            assertTrue(listenerThreads.stream().noneMatch(thread -> thread == publisher));
+            assertEquals(200, dispatcher.getDispatchedCount());
+            assertEquals(0, dispatcher.getDroppedCount());
+        }
+    }
+
+    @Test
+    void slowListenerDoesNotBlockPublisher() throws Exception {
+        try (TaskEventDispatcher dispatcher = new TaskEventDispatcher(1, 16)) {
+            InMemoryTaskEventService service = new InMemoryTaskEventService(256, null, dispatcher);
+            CountDownLatch release = new CountDownLatch(1);
+            service.addListener(event -> awaitQuietly(release));
+
+            long started = System.nanoTime();
+            for (int i = 0; i < 5; i++) {
+                service.publishTaskUpdate(task("task-slow", TaskState.RUNNING));
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+            assertTrue(elapsedMillis < 1_000L, "publish must not wait for the listener");
+            assertEquals(5, service.readTaskEvents("task-slow", 0L, 10).size());
+            release.countDown();
+            assertTrue(dispatcher.awaitIdle(5_000L));
+            assertEquals(5, dispatcher.getDispatchedCount());
+        }
+    }
+
+    @Test
+    void fullLaneDropsWorkAndCountsIt() throws Exception {
+        try (TaskEventDispatcher dispatcher = new TaskEventDispatcher(1, 1)) {
+            CountDownLatch entered = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+
+            assertTrue(dispatcher.dispatch("task-a", () -> {
+                entered.countDown();
+                awaitQuietly(release);
+            }));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            assertTrue(dispatcher.dispatch("task-a", () -> { }));
+            assertFalse(dispatcher.dispatch("task-a", () -> { }));
+
+            assertEquals(1, dispatcher.getQueueDepth());
+            assertEquals(1, dispatcher.getDroppedCount());
+            release.countDown();
+            assertTrue(dispatcher.awaitIdle(5_000L));
+            assertEquals(2, dispatcher.getDispatchedCount());
+        }
+    }
+
+    @Test
+    void blockingListenersWaitForRoomWhileDroppingOnesDoNot() throws Exception {
+        try (TaskEventDispatcher dispatcher = new TaskEventDispatcher(1, 1, 5_000L)) {
+            InMemoryTaskEventService service = new InMemoryTaskEventService(256, null, dispatcher);
+            CountDownLatch entered = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            List<Long> blocking = new ArrayList<>();
+            List<Long> dropping = new ArrayList<>();
+            service.addListener(event -> {
+                if (event.getSequence() == 1L) {
+                    entered.countDown();
+                    awaitQuietly(release);
+                }
+                synchronized (blocking) {
+                    blocking.add(event.getSequence());
+                }
+            }, TaskEventDispatcher.Overflow.BLOCK);
+            service.addListener(event -> {
+                synchronized (dropping) {
+                    dropping.add(event.getSequence());
+                }
+            });
+
+            Thread publisher = Thread.ofVirtual().start(() -> {
+                for (int i = 0; i < 6; i++) {
+                    service.publishTaskUpdate(task("task-b", TaskState.RUNNING));
+                }
+            });
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100L);
+            release.countDown();
+            publisher.join(5_000L);
+
+            assertTrue(dispatcher.awaitIdle(5_000L));
+            assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), blocking);
+            assertTrue(dropping.size() < 6);
+            assertEquals(6 - dropping.size(), dispatcher.getDroppedCount());
+        }
+    }
+
+    @Test
+    void blockedWorkIsDroppedAfterTheTimeout() throws Exception {
+        try (TaskEventDispatcher dispatcher = new TaskEventDispatcher(1, 1, 50L)) {
+            CountDownLatch entered = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            dispatcher.dispatch("task-t", () -> {
+                entered.countDown();
+                awaitQuietly(release);
+            });
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            assertTrue(dispatcher.dispatch("task-t", () -> { }, TaskEventDispatcher.Overflow.BLOCK));
+
+            long started = System.nanoTime();
+            assertFalse(dispatcher.dispatch("task-t", () -> { }, TaskEventDispatcher.Overflow.BLOCK));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) >= 40L);
+            assertEquals(1, dispatcher.getDroppedCount());
+            release.countDown();
+            assertTrue(dispatcher.awaitIdle(5_000L));
+        }
+    }
+
+    @Test
+    void propertiesSelectTheModeAndSizeTheLanes() {
+        Properties properties = new Properties();
+        properties.setProperty(TaskEventDispatcher.LANES_PROPERTY, " 3 ");
+        properties.setProperty(TaskEventDispatcher.QUEUE_CAPACITY_PROPERTY, "");
+        try (TaskEventDispatcher dispatcher = TaskEventDispatcher.fromProperties(properties)) {
+            assertEquals(3, dispatcher.getLaneCount());
+            assertEquals(1024, dispatcher.getQueueCapacity());
+            assertEquals(TaskEventDispatcher.DEFAULT_BLOCK_TIMEOUT_MS, dispatcher.getBlockTimeoutMillis());
+        }
+
+        properties.setProperty(TaskEventDispatcher.QUEUE_CAPACITY_PROPERTY, "lots");
+        assertThrows(IllegalArgumentException.class, () -> TaskEventDispatcher.fromProperties(properties));
+        properties.setProperty(TaskEventDispatcher.MODE_PROPERTY, "sync");
+        assertNull(TaskEventDispatcher.fromProperties(properties));
+    }
+
+    @Test
+    void listenerFailureIsCountedAndLaneKeepsRunning() {
+        try (TaskEventDispatcher dispatcher = new TaskEventDispatcher(1, 16)) {
+            dispatcher.dispatch("task-f", () -> {
+                throw new IllegalStateException("boom");
+            });
+            dispatcher.dispatch("task-f", () -> { });
+
+            assertTrue(dispatcher.awaitIdle(5_000L));
+            assertEquals(1, dispatcher.getFailedCount());
+            assertEquals(1, dispatcher.getDispatchedCount());
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Task task(String taskId, TaskState state) {
+        TaskStatus status = new TaskStatus();
+        status.setState(state);
+        status.setMessage(state.name());
+        Task task = new Task();
+        task.setTaskId(taskId);
+        task.setStatus(status);
+        return task;
+    }
+}
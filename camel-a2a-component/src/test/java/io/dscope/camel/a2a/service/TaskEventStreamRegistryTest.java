@@ -0,0 +1,194 @@
+package io.dscope.camel.a2a.service;
+
+import io.dscope.camel.a2a.model.Task;
+import io.dscope.camel.a2a.model.TaskState;
+import io.dscope.camel.a2a.model.TaskStatus;
+import io.dscope.camel.a2a.model.TaskSubscription;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskEventStreamRegistryTest {
+
+    @Test
+    void streamReplaysBacklogFollowsLiveEventsAndClosesOnTerminal() throws Exception {
+        InMemoryTaskEventService eventService = new InMemoryTaskEventService();
+        try (TaskEventStreamRegistry registry = new TaskEventStreamRegistry(eventService, 4, 0L, 64 * 1024, true)) {
+            eventService.publishTaskUpdate(task("task-live", TaskState.CREATED));
+            eventService.publishTaskUpdate(task("task-live", TaskState.RUNNING));
+
+            TaskEventStream stream = registry.open("task-live", null, 1L);
+            assertEquals(1, registry.getOpenStreamCount());
+            eventService.publishTaskUpdate(task("task-live", TaskState.COMPLETED));
+
+            String payload = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+            assertFalse(payload.contains("id: 1\n"));
+            assertTrue(payload.indexOf("id: 2\n") < payload.indexOf("id: 3\n"));
+            assertTrue(payload.indexOf("id: 3\n") < payload.indexOf("event: close\n"));
+            assertTrue(payload.contains("\"reason\":\"terminal\""));
+
+            stream.close();
+            assertEquals(0, registry.getOpenStreamCount());
+        }
+    }
+
+    @Test
+    void openStreamsAreCappedAndHeartbeatsAreSent() {
+        InMemoryTaskEventService eventService = new InMemoryTaskEventService();
+        try (TaskEventStreamRegistry registry = new TaskEventStreamRegistry(eventService, 1, 20L, 64 * 1024, true)) {
+            TaskEventStream stream = registry.open("task-idle", null, 0L);
+            assertNotNull(stream);
+            assertNull(registry.open("task-idle", null, 0L));
+            assertEquals(1, registry.getRejectedStreamCount());
+
+            byte[] heartbeat = new byte[": heartbeat\n\n".length()];
+            int read = 0;
+            while (read < heartbeat.length) {
+                read += stream.read(heartbeat, read, heartbeat.length - read);
+            }
+            assertEquals(": heartbeat\n\n", new String(heartbeat, StandardCharsets.UTF_8));
+
+            stream.close();
+            assertNotNull(registry.open("task-idle", null, 0L));
+        }
+    }
+
+    @Test
+    void streamSeesEverySequenceAndTheCloseFrameWhenItsLaneIsFull() throws Exception {
+        try (TaskEventDispatcher dispatcher = new TaskEventDispatcher(1, 1, 1L)) {
+            InMemoryTaskEventService eventService = new InMemoryTaskEventService(256, null, dispatcher);
+            try (TaskEventStreamRegistry registry = new TaskEventStreamRegistry(eventService, 4, 20L, 64 * 1024, true)) {
+                TaskEventStream stream = registry.open("task-full", null, 0L);
+                CountDownLatch entered = new CountDownLatch(1);
+                CountDownLatch release = new CountDownLatch(1);
+                dispatcher.dispatch("task-full", () -> {
+                    entered.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+                for (int i = 0; i < 20; i++) {
+                    eventService.publishTaskUpdate(task("task-full", TaskState.RUNNING));
+                }
+                eventService.publishTaskUpdate(task("task-full", TaskState.COMPLETED));
+                assertTrue(dispatcher.getDroppedCount() > 0);
+                release.countDown();
+
+                String payload = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+                int previous = -1;
+                for (int sequence = 1; sequence <= 21; sequence++) {
+                    int index = payload.indexOf("id: " + sequence + "\n");
+                    assertTrue(index > previous, "sequence " + sequence);
+                    previous = index;
+                }
+                assertTrue(payload.indexOf("event: close\n") > previous);
+            }
+        }
+    }
+
+    @Test
+    void propertiesAreParsedLikeTheOtherSettings() {
+        InMemoryTaskEventService eventService = new InMemoryTaskEventService();
+        Properties properties = new Properties();
+        properties.setProperty(TaskEventStreamRegistry.MAX_OPEN_STREAMS_PROPERTY, " 3 ");
+        properties.setProperty(TaskEventStreamRegistry.STREAM_BUFFER_BYTES_PROPERTY, "");
+        try (TaskEventStreamRegistry registry = TaskEventStreamRegistry.fromProperties(eventService, properties)) {
+            assertEquals(3, registry.getMaxOpenStreams());
+            assertFalse(registry.isStreamByDefault());
+        }
+
+        properties.setProperty(TaskEventStreamRegistry.HEARTBEAT_MS_PROPERTY, "often");
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> TaskEventStreamRegistry.fromProperties(eventService, properties));
+        assertTrue(error.getMessage().contains(TaskEventStreamRegistry.HEARTBEAT_MS_PROPERTY));
+    }
+
+    @Test
+    void slowReaderIsClosedWhenItsBufferFills() throws Exception {
+        InMemoryTaskEventService eventService = new InMemoryTaskEventService();
+        try (TaskEventStreamRegistry registry = new TaskEventStreamRegistry(eventService, 4, 0L, 1024, true)) {
+            TaskEventStream stream = registry.open("task-busy", null, 0L);
+            for (int i = 0; i < 50; i++) {
+                eventService.publishTaskUpdate(task("task-busy", TaskState.RUNNING));
+            }
+
+            assertTrue(stream.isFinished());
+            assertEquals(1, registry.getOverflowedStreamCount());
+            String payload = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(payload.contains("\"reason\":\"overflow\""));
+            assertFalse(payload.contains("id: 50\n"));
+        }
+    }
+
+    @Test
+    void multiplexedStreamFollowsListedTasksUntilAllAreTerminal() throws Exception {
+        InMemoryTaskEventService eventService = new InMemoryTaskEventService();
+        try (TaskEventStreamRegistry registry = new TaskEventStreamRegistry(eventService, 4, 0L, 64 * 1024, true)) {
+            eventService.publishTaskUpdate(task("task-a", TaskState.RUNNING));
+            eventService.publishTaskUpdate(task("task-b", TaskState.RUNNING));
+            TaskSubscription subscription = eventService.createSubscription(List.of("task-a", "task-b"), null, 0L);
+
+            TaskEventStream stream = registry.open(subscription);
+            eventService.publishTaskUpdate(task("task-a", TaskState.COMPLETED));
+            assertFalse(stream.isFinished());
+            eventService.publishTaskUpdate(task("task-b", TaskState.FAILED));
+
+            String payload = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(payload.indexOf("id: task-a:1\n") < payload.indexOf("id: task-a:2\n"));
+            assertTrue(payload.indexOf("id: task-b:1\n") < payload.indexOf("id: task-b:2\n"));
+            assertTrue(payload.indexOf("id: task-b:2\n") < payload.indexOf("event: close\n"));
+            assertNull(eventService.getSubscription(subscription.getSubscriptionId()));
+            stream.close();
+            assertEquals(0, registry.getOpenStreamCount());
+        }
+    }
+
+    @Test
+    void conversationStreamPicksUpTasksCreatedLater() throws Exception {
+        InMemoryTaskEventService eventService = new InMemoryTaskEventService();
+        try (TaskEventStreamRegistry registry = new TaskEventStreamRegistry(eventService, 4, 0L, 64 * 1024, true)) {
+            eventService.publishTaskUpdate(task("task-c1", "conv-1", TaskState.RUNNING));
+            eventService.publishTaskUpdate(task("task-other", "conv-2", TaskState.RUNNING));
+            TaskSubscription subscription = eventService.createSubscription(null, "conv-1", 0L);
+
+            TaskEventStream stream = registry.open(subscription);
+            eventService.publishTaskUpdate(task("task-c2", "conv-1", TaskState.RUNNING));
+            eventService.publishTaskUpdate(task("task-c1", "conv-1", TaskState.COMPLETED));
+            eventService.publishTaskUpdate(task("task-other", "conv-2", TaskState.COMPLETED));
+            assertFalse(stream.isFinished());
+            registry.close();
+
+            String payload = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(payload.contains("id: task-c1:1\n"));
+            assertTrue(payload.contains("id: task-c2:1\n"));
+            assertTrue(payload.contains("id: task-c1:2\n"));
+            assertFalse(payload.contains("task-other"));
+            assertEquals(1L, eventService.getSubscription(subscription.getSubscriptionId()).getCursors().get("task-c2"));
+        }
+    }
+
+    private static Task task(String taskId, TaskState state) {
+        return task(taskId, null, state);
+    }
+
+    private static Task task(String taskId, String conversationId, TaskState state) {
+        TaskStatus status = new TaskStatus();
+        status.setState(state);
+        status.setMessage(state.name());
+        Task task = new Task();
+        task.setTaskId(taskId);
+        task.setConversationId(conversationId);
+        task.setStatus(status);
+        return task;
+    }
+}
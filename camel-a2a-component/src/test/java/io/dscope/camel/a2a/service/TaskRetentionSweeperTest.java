@@ -0,0 +1,172 @@
+package io.dscope.camel.a2a.service;
+
+import io.dscope.camel.a2a.model.Message;
+import io.dscope.camel.a2a.model.Part;
+import io.dscope.camel.a2a.model.Task;
+import io.dscope.camel.a2a.model.TaskState;
+import io.dscope.camel.a2a.model.TaskSubscription;
+import io.dscope.camel.a2a.model.dto.SendMessageRequest;
+import io.dscope.camel.a2a.processor.A2AInvalidParamsException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskRetentionSweeperTest {
+
+    @Test
+    void sweepEvictsExpiredTerminalTasksFromTaskAndEventServices() {
+        InMemoryTaskEventService events = new InMemoryTaskEventService();
+        InMemoryA2ATaskService tasks = new InMemoryA2ATaskService(events);
+        TaskRetentionSweeper sweeper = new TaskRetentionSweeper(tasks, events, new TaskRetentionPolicy(1_000L, 0, 0L, 1_000L));
+
+        Task done = tasks.sendMessage(sendMessageRequest("m-done", "k-done"));
+        Task running = tasks.sendMessage(sendMessageRequest("m-running", "k-running"));
+        tasks.transitionTask(done.getTaskId(), TaskState.COMPLETED, "done");
+
+        sweeper.sweep(System.currentTimeMillis() + 60_000L);
+
+        assertThrows(A2AInvalidParamsException.class, () -> tasks.getTask(done.getTaskId()));
+        assertThrows(A2AInvalidParamsException.class, () -> tasks.getTaskHistory(done.getTaskId()));
+        assertTrue(events.readTaskEvents(done.getTaskId(), 0L, 10).isEmpty());
+        assertEquals(TaskState.RUNNING, tasks.getTask(running.getTaskId()).getStatus().getState());
+        assertEquals(1, sweeper.getEvictedTaskCount());
+        assertEquals(1, sweeper.getResidentTaskCount());
+        assertEquals(1, events.getTrackedTaskCount());
+
+        Task recreated = tasks.sendMessage(sendMessageRequest("m-done", "k-done"));
+        assertNotEquals(done.getTaskId(), recreated.getTaskId());
+    }
+
+    @Test
+    void sweepKeepsRecentTerminalTasksWithinAgeLimit() {
+        InMemoryA2ATaskService tasks = new InMemoryA2ATaskService();
+        TaskRetentionSweeper sweeper = new TaskRetentionSweeper(tasks, null, new TaskRetentionPolicy(60_000L, 0, 0L, 1_000L));
+
+        Task done = tasks.sendMessage(sendMessageRequest("m-recent", null));
+        tasks.transitionTask(done.getTaskId(), TaskState.FAILED, "failed");
+
+        sweeper.sweep();
+
+        assertEquals(TaskState.FAILED, tasks.getTask(done.getTaskId()).getStatus().getState());
+        assertEquals(0, sweeper.getEvictedTaskCount());
+        assertEquals(1, sweeper.getSweepCount());
+    }
+
+    @Test
+    void sweepEvictsOldestTerminalTasksBeyondResidentBound() throws Exception {
+        InMemoryA2ATaskService tasks = new InMemoryA2ATaskService();
+        TaskRetentionSweeper sweeper = new TaskRetentionSweeper(tasks, null, new TaskRetentionPolicy(0L, 2, 0L, 1_000L));
+
+        Task oldest = tasks.sendMessage(sendMessageRequest("m-1", null));
+        tasks.transitionTask(oldest.getTaskId(), TaskState.COMPLETED, "done");
+        Thread.sleep(5L);
+        Task newer = tasks.sendMessage(sendMessageRequest("m-2", null));
+        tasks.transitionTask(newer.getTaskId(), TaskState.CANCELED, "canceled");
+        Task live = tasks.sendMessage(sendMessageRequest("m-3", null));
+
+        sweeper.sweep();
+
+        assertEquals(2, tasks.getResidentTaskCount());
+        assertThrows(A2AInvalidParamsException.class, () -> tasks.getTask(oldest.getTaskId()));
+        assertNotNull(tasks.getTask(newer.getTaskId()));
+        assertNotNull(tasks.getTask(live.getTaskId()));
+    }
+
+    @Test
+    void sweepReleasesOldIdempotencyKeysButKeepsTasks() {
+        InMemoryA2ATaskService tasks = new InMemoryA2ATaskService();
+        TaskRetentionSweeper sweeper = new TaskRetentionSweeper(tasks, null, new TaskRetentionPolicy(0L, 0, 1_000L, 1_000L));
+
+        Task first = tasks.sendMessage(sendMessageRequest("m-key", "shared-key"));
+        sweeper.sweep(System.currentTimeMillis() + 60_000L);
+
+        assertEquals(1, sweeper.getExpiredIdempotencyKeyCount());
+        assertEquals(0, tasks.getIdempotencyKeyCount());
+        assertNotNull(tasks.getTask(first.getTaskId()));
+        Task second = tasks.sendMessage(sendMessageRequest("m-key-2", "shared-key"));
+        assertNotEquals(first.getTaskId(), second.getTaskId());
+    }
+
+    @Test
+    void defaultPolicyExpiresNothingByAge() {
+        InMemoryA2ATaskService tasks = new InMemoryA2ATaskService();
+        TaskRetentionSweeper sweeper = new TaskRetentionSweeper(tasks, null, TaskRetentionPolicy.DEFAULT);
+
+        Task done = tasks.sendMessage(sendMessageRequest("m-default", "k-default"));
+        tasks.transitionTask(done.getTaskId(), TaskState.COMPLETED, "done");
+        sweeper.sweep(System.currentTimeMillis() + 30L * 86_400_000L);
+
+        assertEquals(TaskState.COMPLETED, tasks.getTask(done.getTaskId()).getStatus().getState());
+        assertEquals(1, tasks.getIdempotencyKeyCount());
+        assertEquals(0, sweeper.getEvictedTaskCount());
+    }
+
+    @Test
+    void sweepStopsAtTheFirstTaskAndKeyWithinTheirLimits() throws Exception {
+        InMemoryA2ATaskService tasks = new InMemoryA2ATaskService();
+        Task older = tasks.sendMessage(sendMessageRequest("m-older", "k-older"));
+        tasks.transitionTask(older.getTaskId(), TaskState.COMPLETED, "done");
+        Thread.sleep(20L);
+        long cut = System.currentTimeMillis();
+        Thread.sleep(20L);
+        Task newer = tasks.sendMessage(sendMessageRequest("m-newer", "k-newer"));
+        tasks.transitionTask(newer.getTaskId(), TaskState.COMPLETED, "done");
+
+        TaskRetentionPolicy policy = new TaskRetentionPolicy(1_000L, 0, 1_000L, 1_000L);
+        assertEquals(1, tasks.expireIdempotencyKeys(policy, cut + 1_000L));
+        assertEquals(List.of(older.getTaskId()), tasks.evictExpiredTasks(policy, cut + 1_000L));
+        assertEquals(newer.getTaskId(), tasks.sendMessage(sendMessageRequest("m-again", "k-newer")).getTaskId());
+    }
+
+    @Test
+    void policyReadsOverridesFromProperties() {
+        Properties properties = new Properties();
+        properties.setProperty(TaskRetentionPolicy.TERMINAL_TASK_MAX_AGE_MS, "5000");
+        properties.setProperty(TaskRetentionPolicy.MAX_RESIDENT_TASKS, "10");
+
+        TaskRetentionPolicy policy = TaskRetentionPolicy.fromProperties(properties);
+
+        assertEquals(5_000L, policy.terminalTaskMaxAgeMs());
+        assertEquals(10, policy.maxResidentTasks());
+        assertEquals(0L, policy.idempotencyKeyMaxAgeMs());
+        assertEquals(TaskRetentionPolicy.DEFAULT.sweepIntervalMs(), policy.sweepIntervalMs());
+        assertEquals(TaskRetentionPolicy.DEFAULT.subscriptionIdleTtlMs(), policy.subscriptionIdleTtlMs());
+    }
+
+    @Test
+    void sweepExpiresIdleSubscriptionsWithoutTaskService() {
+        InMemoryTaskEventService events = new InMemoryTaskEventService();
+        TaskRetentionSweeper sweeper = new TaskRetentionSweeper(null, events, new TaskRetentionPolicy(0L, 0, 0L, 1_000L, 1_000L));
+        Task task = new Task();
+        task.setTaskId("task-idle");
+        events.publishTaskUpdate(task);
+        TaskSubscription subscription = events.createSubscription("task-idle", 0L);
+
+        sweeper.sweep(System.currentTimeMillis() + 60_000L);
+
+        assertNull(events.getSubscription(subscription.getSubscriptionId()));
+        assertEquals(1, sweeper.getExpiredSubscriptionCount());
+        assertEquals(0, sweeper.getResidentTaskCount());
+        assertEquals(0, events.getActiveSubscriptionCount());
+    }
+
+    private SendMessageRequest sendMessageRequest(String messageId, String idempotencyKey) {
+        Part part = new Part();
+        part.setPartId("p-" + messageId);
+        part.setType("text");
+        part.setText("hello");
+
+        Message message = new Message();
+        message.setMessageId(messageId);
+        message.setRole("user");
+        message.setParts(List.of(part));
+
+        SendMessageRequest request = new SendMessageRequest();
+        request.setMessage(message);
+        request.setIdempotencyKey(idempotencyKey);
+        return request;
+    }
+}
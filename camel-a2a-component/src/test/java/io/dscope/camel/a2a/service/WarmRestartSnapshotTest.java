@@ -0,0 +1,152 @@
+package io.dscope.camel.a2a.service;
+
+import io.dscope.camel.a2a.model.Message;
+import io.dscope.camel.a2a.model.Part;
+import io.dscope.camel.a2a.model.PushDeliveryAttempt;
+import io.dscope.camel.a2a.model.PushNotificationConfig;
+import io.dscope.camel.a2a.model.Task;
+import io.dscope.camel.a2a.model.TaskEvent;
+import io.dscope.camel.a2a.model.TaskState;
+import io.dscope.camel.a2a.model.dto.CreatePushNotificationConfigRequest;
+import io.dscope.camel.a2a.model.dto.GetPushNotificationConfigRequest;
+import io.dscope.camel.a2a.model.dto.ListPushNotificationConfigsRequest;
+import io.dscope.camel.a2a.model.dto.SendMessageRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WarmRestartSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void tasksEventsAndPushConfigsSurviveADumpAndLoad() throws Exception {
+        Path file = directory.resolve("state/warm-restart.bin");
+        Services before = new Services();
+        Task running = before.tasks.sendMessage(sendMessageRequest("warm-1"));
+        Task completed = before.tasks.sendMessage(sendMessageRequest("warm-2"));
+        before.tasks.transitionTask(completed.getTaskId(), TaskState.COMPLETED, "done");
+        PushNotificationConfig config = before.pushConfigs.create(pushConfigRequest(running.getTaskId()));
+
+        WarmRestartSnapshot.Contents dumped = before.snapshot(file).dump();
+        assertEquals(new WarmRestartSnapshot.Contents(2, 5, 1), dumped);
+        assertTrue(Files.exists(file));
+
+        Services after = new Services();
+        assertEquals(dumped, after.snapshot(file).load());
+        assertFalse(Files.exists(file));
+
+        assertEquals(TaskState.RUNNING, after.tasks.getTask(running.getTaskId()).getStatus().getState());
+        assertEquals(TaskState.COMPLETED, after.tasks.getTask(completed.getTaskId()).getStatus().getState());
+        assertEquals(3, after.tasks.getTaskHistory(completed.getTaskId()).size());
+        assertEquals(2, after.tasks.listTasks(null).size());
+        assertEquals(2, after.tasks.getIdempotencyKeyCount());
+        assertEquals(running.getTaskId(), after.tasks.sendMessage(sendMessageRequest("warm-1")).getTaskId());
+
+        List<TaskEvent> events = after.events.readTaskEvents(completed.getTaskId(), 0L, 10);
+        assertEquals(List.of(1L, 2L, 3L), events.stream().map(TaskEvent::getSequence).toList());
+        assertTrue(events.get(2).isTerminal());
+        after.tasks.transitionTask(running.getTaskId(), TaskState.COMPLETED, "done after restart");
+        assertEquals(3L, after.events.readTaskEvents(running.getTaskId(), 0L, 10).get(2).getSequence());
+
+        GetPushNotificationConfigRequest get = new GetPushNotificationConfigRequest();
+        get.setConfigId(config.getConfigId());
+        PushNotificationConfig restored = after.pushConfigs.get(get);
+        assertEquals(config.getEndpointUrl(), restored.getEndpointUrl());
+        assertEquals(config.getCreatedAt(), restored.getCreatedAt());
+        ListPushNotificationConfigsRequest list = new ListPushNotificationConfigsRequest();
+        list.setTaskId(running.getTaskId());
+        assertEquals(1, after.pushConfigs.list(list).size());
+    }
+
+    @Test
+    void aMissingFileRestoresNothingAndATruncatedOneRestoresWhatWasWritten() throws Exception {
+        Path file = directory.resolve("warm-restart.bin");
+        assertEquals(new WarmRestartSnapshot.Contents(0, 0, 0), new Services().snapshot(file).load());
+
+        Services before = new Services();
+        for (int i = 0; i < 20; i++) {
+            before.tasks.sendMessage(sendMessageRequest("truncated-" + i));
+        }
+        before.snapshot(file).dump();
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, java.util.Arrays.copyOf(bytes, bytes.length / 3));
+
+        Services after = new Services();
+        WarmRestartSnapshot.Contents loaded = after.snapshot(file).load();
+        assertTrue(loaded.tasks() > 0 && loaded.tasks() < 20);
+        assertEquals(loaded.tasks(), after.tasks.listTasks(null).size());
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void anImplausibleFrameLengthIsTreatedAsTheCut() throws Exception {
+        for (int corruptLength : new int[] {-1, Integer.MAX_VALUE}) {
+            Path file = directory.resolve("corrupt-" + corruptLength + ".bin");
+            Services before = new Services();
+            for (int i = 0; i < 3; i++) {
+                before.tasks.sendMessage(sendMessageRequest("corrupt-" + i));
+            }
+            before.snapshot(file).dump();
+            java.nio.ByteBuffer bytes = java.nio.ByteBuffer.wrap(Files.readAllBytes(file));
+            int secondFrame = 2 * Integer.BYTES + 1 + Integer.BYTES + bytes.getInt(2 * Integer.BYTES + 1);
+            bytes.putInt(secondFrame + 1, corruptLength);
+            Files.write(file, bytes.array());
+
+            Services after = new Services();
+            assertEquals(new WarmRestartSnapshot.Contents(1, 0, 0), after.snapshot(file).load());
+            assertEquals(1, after.tasks.listTasks(null).size());
+            assertFalse(Files.exists(file));
+        }
+    }
+
+    @Test
+    void propertiesEnableTheSnapshot() {
+        Properties properties = new Properties();
+        assertNull(WarmRestartSnapshot.fromProperties(properties, null, null, null));
+        properties.setProperty(WarmRestartSnapshot.FILE_PROPERTY, directory.resolve("a2a.bin").toString());
+        assertEquals(directory.resolve("a2a.bin"), WarmRestartSnapshot.fromProperties(properties, null, null, null).getFile());
+    }
+
+    private static final class Services {
+        private final InMemoryTaskEventService events = new InMemoryTaskEventService();
+        private final InMemoryA2ATaskService tasks = new InMemoryA2ATaskService(events);
+        private final InMemoryPushNotificationConfigService pushConfigs = new InMemoryPushNotificationConfigService((config, event, attemptNumber) -> {
+            PushDeliveryAttempt attempt = new PushDeliveryAttempt();
+            attempt.setSuccess(true);
+            return attempt;
+        });
+
+        private WarmRestartSnapshot snapshot(Path file) {
+            return new WarmRestartSnapshot(file, tasks, events, pushConfigs);
+        }
+    }
+
+    private static CreatePushNotificationConfigRequest pushConfigRequest(String taskId) {
+        CreatePushNotificationConfigRequest request = new CreatePushNotificationConfigRequest();
+        request.setTaskId(taskId);
+        request.setEndpointUrl("https://hooks.example/warm");
+        return request;
+    }
+
+    private static SendMessageRequest sendMessageRequest(String messageId) {
+        Part part = new Part();
+        part.setPartId("p-" + messageId);
+        part.setType("text");
+        part.setText("hello " + messageId);
+        Message message = new Message();
+        message.setMessageId(messageId);
+        message.setRole("user");
+        message.setParts(List.of(part));
+        SendMessageRequest request = new SendMessageRequest();
+        request.setMessage(message);
+        return request;
+    }
+}
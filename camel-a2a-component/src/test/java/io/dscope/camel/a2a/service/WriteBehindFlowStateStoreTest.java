@@ -0,0 +1,348 @@
+package io.dscope.camel.a2a.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import io.dscope.camel.a2a.model.Message;
+import io.dscope.camel.a2a.model.Part;
+import io.dscope.camel.a2a.model.TaskState;
+import io.dscope.camel.a2a.model.dto.SendMessageRequest;
+import io.dscope.camel.persistence.core.AppendResult;
+import io.dscope.camel.persistence.core.FlowStateStore;
+import io.dscope.camel.persistence.core.PersistedEvent;
+import io.dscope.camel.persistence.core.RehydratedState;
+import io.dscope.camel.persistence.core.StateEnvelope;
+import io.dscope.camel.persistence.core.exception.OptimisticConflictException;
+import io.dscope.camel.persistence.jdbc.JdbcFlowStateStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBehindFlowStateStoreTest {
+
+    @Test
+    void syncModeWritesThroughOnTheCallerThread() {
+        RecordingStore store = new RecordingStore();
+        WriteBehindFlowStateStore writer = new WriteBehindFlowStateStore(store, WriteBehindFlowStateStore.Durability.SYNC);
+
+        AppendResult result = writer.appendEvents("a2a.task", "t1", 0L, List.of(event("t1")), null);
+        writer.writeSnapshot("a2a.task", "t1", 1L, snapshot(1), Map.of());
+
+        assertEquals(1L, result.nextVersion());
+        assertEquals(List.of("append t1@0x1", "snapshot t1 v1"), store.calls);
+        assertEquals(2L, writer.getWriteCount());
+        assertEquals(2L, writer.getFlushCount());
+    }
+
+    @Test
+    void groupCommitMergesAppendsAndKeepsOnlyTheLastSnapshotPerFlow() throws Exception {
+        RecordingStore store = new RecordingStore();
+        store.block = new CountDownLatch(1);
+        WriteBehindFlowStateStore writer = new WriteBehindFlowStateStore(
+            store, WriteBehindFlowStateStore.Durability.GROUP_COMMIT, 64, 50L, 100);
+        try {
+            // The first write occupies the writer so the following ones queue up into one commit.
+            CompletableFuture<Void> first = CompletableFuture.runAsync(() -> writer.writeSnapshot("a2a.meta", "global", 1L, snapshot(1), Map.of()));
+            assertTrue(store.entered.await(5, TimeUnit.SECONDS));
+
+            List<CompletableFuture<AppendResult>> appends = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                long expected = i;
+                appends.add(CompletableFuture.supplyAsync(() -> writer.appendEvents("a2a.task", "t1", expected, List.of(event("t1")), null)));
+                awaitQueueDepth(writer, i + 1);
+            }
+            CompletableFuture<Void> snapshotA = CompletableFuture.runAsync(() -> writer.writeSnapshot("a2a.meta", "global", 2L, snapshot(2), Map.of()));
+            awaitQueueDepth(writer, 4);
+            CompletableFuture<Void> snapshotB = CompletableFuture.runAsync(() -> writer.writeSnapshot("a2a.meta", "global", 3L, snapshot(3), Map.of()));
+            awaitQueueDepth(writer, 5);
+            assertFalse(appends.get(0).isDone());
+
+            store.block.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            snapshotA.get(5, TimeUnit.SECONDS);
+            snapshotB.get(5, TimeUnit.SECONDS);
+            for (int i = 0; i < 3; i++) {
+                AppendResult result = appends.get(i).get(5, TimeUnit.SECONDS);
+                assertEquals(i, result.previousVersion());
+                assertEquals(i + 1L, result.nextVersion());
+            }
+
+            assertEquals(List.of("snapshot global v1", "append t1@0x3", "snapshot global v3"), store.calls);
+            assertEquals(3L, writer.getCoalescedWriteCount());
+            assertEquals(6L, writer.getWriteCount());
+            assertEquals(0L, writer.getFailedWriteCount());
+            writer.flush();
+            assertTrue(writer.getFlushCount() >= 2L);
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    void groupCommitSurfacesStoreErrorsToTheWriter() {
+        RecordingStore store = new RecordingStore();
+        store.conflict = true;
+        WriteBehindFlowStateStore writer = new WriteBehindFlowStateStore(store, WriteBehindFlowStateStore.Durability.GROUP_COMMIT);
+        try {
+            assertThrows(OptimisticConflictException.class,
+                () -> writer.appendEvents("a2a.task", "t1", 0L, List.of(event("t1")), null));
+            assertEquals(1L, writer.getFailedWriteCount());
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    void asyncModeReturnsBeforeTheStoreAndReadsSeeQueuedWrites() throws Exception {
+        RecordingStore store = new RecordingStore();
+        store.block = new CountDownLatch(1);
+        WriteBehindFlowStateStore writer = new WriteBehindFlowStateStore(store, WriteBehindFlowStateStore.Durability.ASYNC);
+        try {
+            AppendResult result = writer.appendEvents("a2a.task", "t1", 0L, List.of(event("t1"), event("t1")), null);
+            assertEquals(2L, result.nextVersion());
+            assertTrue(store.entered.await(5, TimeUnit.SECONDS));
+
+            CompletableFuture<List<PersistedEvent>> read = CompletableFuture.supplyAsync(() -> writer.readEvents("a2a.task", "t1", 0L, 10));
+            Thread.sleep(50L);
+            assertFalse(read.isDone());
+
+            store.block.countDown();
+            assertEquals(2, read.get(5, TimeUnit.SECONDS).size());
+            assertEquals(List.of(), writer.readEvents("a2a.task", "other", 0L, 10));
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    void closeStoresQueuedWrites() {
+        RecordingStore store = new RecordingStore();
+        WriteBehindFlowStateStore writer = new WriteBehindFlowStateStore(
+            store, WriteBehindFlowStateStore.Durability.ASYNC, 16, 1_000L, 100);
+        writer.writeSnapshot("a2a.task", "t1", 1L, snapshot(1), Map.of());
+        writer.close();
+
+        assertEquals(List.of("snapshot t1 v1"), store.calls);
+        assertEquals(0, writer.getQueueDepth());
+    }
+
+    @Test
+    void writesAfterCloseWaitForTheQueuedWritesOfTheirFlow() throws Exception {
+        RecordingStore store = new RecordingStore();
+        store.block = new CountDownLatch(1);
+        WriteBehindFlowStateStore writer = new WriteBehindFlowStateStore(
+            store, WriteBehindFlowStateStore.Durability.ASYNC, 1, 0L, 100);
+        writer.writeSnapshot("a2a.task", "t1", 1L, snapshot(1), Map.of());
+        assertTrue(store.entered.await(5, TimeUnit.SECONDS));
+        writer.writeSnapshot("a2a.task", "t1", 2L, snapshot(2), Map.of());
+
+        CompletableFuture<Void> closing = CompletableFuture.runAsync(writer::close);
+        Thread.sleep(50L);
+        CompletableFuture<Void> direct = CompletableFuture.runAsync(() -> writer.writeSnapshot("a2a.task", "t1", 3L, snapshot(3), Map.of()));
+        Thread.sleep(50L);
+        assertFalse(direct.isDone());
+
+        store.block.countDown();
+        closing.get(5, TimeUnit.SECONDS);
+        direct.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("snapshot t1 v1", "snapshot t1 v2", "snapshot t1 v3"), store.calls);
+    }
+
+    @Test
+    void closeReportsQueuedWritesTheWriterCouldNotStore() throws Exception {
+        RecordingStore store = new RecordingStore();
+        store.block = new CountDownLatch(1);
+        WriteBehindFlowStateStore writer = new WriteBehindFlowStateStore(
+            store, WriteBehindFlowStateStore.Durability.ASYNC, 1, 0L, 100);
+        List<String> failed = Collections.synchronizedList(new ArrayList<>());
+        writer.addFailureListener((flowType, flowId, error) -> failed.add(flowId));
+        writer.writeSnapshot("a2a.task", "t1", 1L, snapshot(1), Map.of());
+        assertTrue(store.entered.await(5, TimeUnit.SECONDS));
+        writer.writeSnapshot("a2a.task", "t2", 1L, snapshot(1), Map.of());
+        writer.appendEvents("a2a.task", "t3", 0L, List.of(event("t3")), null);
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> writer.close(50L));
+        assertTrue(error.getMessage().contains("a2a.task/t2"));
+        assertTrue(error.getMessage().contains("a2a.task/t3"));
+        assertEquals(List.of("t2", "t3"), failed);
+        assertEquals(2L, writer.getFailedWriteCount());
+
+        store.block.countDown();
+        writer.flush();
+        assertEquals(List.of("snapshot t1 v1"), store.calls);
+    }
+
+    @Test
+    void asyncFailuresDropTheCachedVersionSoLaterAppendsRecover() {
+        FailingStore store = new FailingStore(newJdbcStore());
+        WriteBehindFlowStateStore writer = new WriteBehindFlowStateStore(store, WriteBehindFlowStateStore.Durability.ASYNC);
+        try {
+            PersistentA2ATaskEventService events = new PersistentA2ATaskEventService(writer);
+            PersistentA2ATaskService service = new PersistentA2ATaskService(writer, events, null);
+            String taskId = service.sendMessage(sendMessageRequest()).getTaskId();
+
+            writer.flush();
+            store.failNextAppend = true;
+            service.transitionTask(taskId, TaskState.WAITING, "lost");
+            writer.flush();
+            assertTrue(writer.getFailedWriteCount() > 0L);
+
+            service.transitionTask(taskId, TaskState.RUNNING, "resumed");
+            service.transitionTask(taskId, TaskState.COMPLETED, "done");
+            List<PersistedEvent> logged = writer.readEvents("a2a.task", taskId, 0L, 10);
+            assertEquals(List.of("CREATED", "RUNNING", "RUNNING", "COMPLETED"),
+                logged.stream().map(event -> event.payload().get("state").asText()).toList());
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    void propertiesSelectDurabilityAndBatching() {
+        Properties properties = new Properties();
+        properties.setProperty(WriteBehindFlowStateStore.DURABILITY_PROPERTY, "group-commit");
+        properties.setProperty(WriteBehindFlowStateStore.BATCH_SIZE_PROPERTY, "32");
+        properties.setProperty(WriteBehindFlowStateStore.FLUSH_INTERVAL_MS_PROPERTY, "2");
+        properties.setProperty(WriteBehindFlowStateStore.QUEUE_CAPACITY_PROPERTY, "500");
+
+        WriteBehindFlowStateStore writer = WriteBehindFlowStateStore.fromProperties(new RecordingStore(), properties);
+        try {
+            assertEquals(WriteBehindFlowStateStore.Durability.GROUP_COMMIT, writer.getDurability());
+            assertEquals(32, writer.getBatchSize());
+            assertEquals(2L, writer.getFlushIntervalMs());
+            assertEquals(500, writer.getQueueCapacity());
+        } finally {
+            writer.close();
+        }
+
+        assertEquals(WriteBehindFlowStateStore.Durability.SYNC,
+            WriteBehindFlowStateStore.fromProperties(new RecordingStore(), new Properties()).getDurability());
+        properties.setProperty(WriteBehindFlowStateStore.DURABILITY_PROPERTY, "eventually");
+        assertThrows(IllegalArgumentException.class, () -> WriteBehindFlowStateStore.fromProperties(new RecordingStore(), properties));
+    }
+
+    private static void awaitQueueDepth(WriteBehindFlowStateStore writer, int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (writer.getQueueDepth() < depth && System.nanoTime() < deadline) {
+            Thread.sleep(1L);
+        }
+        assertEquals(depth, writer.getQueueDepth());
+    }
+
+    private static JdbcFlowStateStore newJdbcStore() {
+        String dbName = "a2aWriteBehind" + UUID.randomUUID().toString().replace("-", "");
+        return new JdbcFlowStateStore("jdbc:derby:memory:" + dbName + ";create=true", "", "");
+    }
+
+    private static SendMessageRequest sendMessageRequest() {
+        Part part = new Part();
+        part.setPartId("p-write-behind");
+        part.setType("text");
+        part.setText("hello");
+        Message message = new Message();
+        message.setMessageId("write-behind-msg");
+        message.setRole("user");
+        message.setParts(List.of(part));
+        SendMessageRequest request = new SendMessageRequest();
+        request.setMessage(message);
+        return request;
+    }
+
+    private static PersistedEvent event(String flowId) {
+        return new PersistedEvent("e", "a2a.task", flowId, 0L, "task.status", null, Instant.now().toString(), null);
+    }
+
+    private static JsonNode snapshot(int value) {
+        return JsonNodeFactory.instance.objectNode().put("value", value);
+    }
+
+    private static final class FailingStore implements FlowStateStore {
+        private final FlowStateStore delegate;
+        private volatile boolean failNextAppend;
+
+        private FailingStore(FlowStateStore delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public RehydratedState rehydrate(String flowType, String flowId) {
+            return delegate.rehydrate(flowType, flowId);
+        }
+
+        @Override
+        public AppendResult appendEvents(String flowType, String flowId, long expectedVersion, List<PersistedEvent> batch, String idempotencyKey) {
+            if (failNextAppend && "a2a.task".equals(flowType)) {
+                failNextAppend = false;
+                throw new IllegalStateException("store unavailable");
+            }
+            return delegate.appendEvents(flowType, flowId, expectedVersion, batch, idempotencyKey);
+        }
+
+        @Override
+        public void writeSnapshot(String flowType, String flowId, long snapshotVersion, JsonNode snapshot, Map<String, Object> metadata) {
+            delegate.writeSnapshot(flowType, flowId, snapshotVersion, snapshot, metadata);
+        }
+
+        @Override
+        public List<PersistedEvent> readEvents(String flowType, String flowId, long afterSequence, int limit) {
+            return delegate.readEvents(flowType, flowId, afterSequence, limit);
+        }
+    }
+
+    private static final class RecordingStore implements FlowStateStore {
+        private final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        private final List<PersistedEvent> events = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private volatile CountDownLatch block;
+        private volatile boolean conflict;
+
+        @Override
+        public RehydratedState rehydrate(String flowType, String flowId) {
+            return new RehydratedState(new StateEnvelope(flowType, flowId, 0, 0, null, Instant.now().toString(), Map.of()), List.of());
+        }
+
+        @Override
+        public AppendResult appendEvents(String flowType, String flowId, long expectedVersion, List<PersistedEvent> batch, String idempotencyKey) {
+            awaitUnblocked();
+            if (conflict) {
+                throw new OptimisticConflictException("conflict");
+            }
+            calls.add("append " + flowId + "@" + expectedVersion + "x" + batch.size());
+            events.addAll(batch);
+            return new AppendResult(expectedVersion, expectedVersion + batch.size(), false);
+        }
+
+        @Override
+        public void writeSnapshot(String flowType, String flowId, long snapshotVersion, JsonNode snapshot, Map<String, Object> metadata) {
+            awaitUnblocked();
+            calls.add("snapshot " + flowId + " v" + snapshotVersion);
+        }
+
+        @Override
+        public List<PersistedEvent> readEvents(String flowType, String flowId, long afterSequence, int limit) {
+            return events.stream().filter(event -> event.flowId().equals(flowId)).limit(limit).toList();
+        }
+
+        private void awaitUnblocked() {
+            entered.countDown();
+            CountDownLatch latch = block;
+            if (latch != null) {
+                try {
+                    latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}